@@ -0,0 +1,70 @@
+package com.xm.crypto_recommendation.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Separate connection pools for read queries and for ingestion.
+ *
+ * <p>
+ * Enabled with {@code datasource.routing.enabled=true}, which replaces the
+ * single {@code spring.datasource} pool. Two Hikari pools are configured
+ * under {@code datasource.write} and {@code datasource.read} (any Hikari
+ * property, e.g. {@code jdbc-url}, {@code maximum-pool-size}); the read pool
+ * may point at the primary database or at a replica.
+ * </p>
+ *
+ * <p>
+ * Every transaction declared {@code readOnly}, i.e. all
+ * {@code CryptoPriceService} queries, takes its connection from the read
+ * pool; everything else, i.e. ingestion and schema management, from the write
+ * pool. Connections are fetched lazily on the first statement, once the
+ * transaction's read-only flag is known, so a bulk load holding all write
+ * connections never delays API requests. Both pools report the
+ * {@code hikaricp.connections.*} metrics tagged with their pool name.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("datasource.write")
+    public HikariDataSource writeDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.read")
+    public HikariDataSource readDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("writeDataSource") DataSource writeDataSource,
+            @Qualifier("readDataSource") DataSource readDataSource
+    ) {
+        return routingDataSource(writeDataSource, readDataSource);
+    }
+
+    /**
+     * Returns a data source handing out connections of the read data source
+     * within read-only transactions and of the write data source otherwise.
+     */
+    static DataSource routingDataSource(DataSource writeDataSource, DataSource readDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(writeDataSource);
+        routing.setReadOnlyDataSource(readDataSource);
+        return routing;
+    }
+}
@@ -0,0 +1,24 @@
+package com.xm.crypto_recommendation.config;
+
+import com.xm.crypto_recommendation.controller.VaryAcceptInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC customizations.
+ *
+ * <p>
+ * Registers the {@link VaryAcceptInterceptor}, so that every endpoint
+ * negotiating between JSON and CBOR declares that its response depends on
+ * the {@code Accept} header.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new VaryAcceptInterceptor());
+    }
+}
@@ -1,40 +1,119 @@
 package com.xm.crypto_recommendation.controller;
 
-import com.xm.crypto_recommendation.domain.dto.CryptoNormalizedRange;
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
 import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.CryptoStatsBatchItem;
+import com.xm.crypto_recommendation.domain.dto.CryptoStatsBatchRequest;
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+import com.xm.crypto_recommendation.domain.dto.DailyLeaderboard;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.dto.RollingNormalizedRangePoint;
+import com.xm.crypto_recommendation.domain.time.DayBoundaries;
 import com.xm.crypto_recommendation.exception.ApiError;
-import com.xm.crypto_recommendation.service.CryptoPriceService;
+import com.xm.crypto_recommendation.registry.DataVersion;
+import com.xm.crypto_recommendation.registry.DataVersionTracker;
+import com.xm.crypto_recommendation.service.CoalescingCryptoPriceService;
+import com.xm.crypto_recommendation.shard.MergedRanking;
+import com.xm.crypto_recommendation.shard.ShardCoordinator;
+import com.xm.crypto_recommendation.stream.StatsBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-
 /**
  * REST controller exposing endpoints for querying cryptocurrency statistics
  * and investment-related recommendations based on historical price data.
+ *
+ * <p>
+ * Responses only change when new prices are ingested. Every endpoint
+ * therefore carries a strong {@code ETag} and a {@code Last-Modified} header
+ * derived from the {@link DataVersionTracker}, and conditional requests
+ * ({@code If-None-Match}) are answered with 304 before the service is called.
+ * </p>
+ *
+ * <p>
+ * JSON is the default representation. Clients sending
+ * {@code Accept: application/cbor} receive the same documents encoded as CBOR,
+ * with identical field names and prices as exact decimals.
+ * </p>
+ *
+ * <p>
+ * Dates denote calendar days of the {@code zone} parameter (default UTC),
+ * e.g. {@code zone=Asia/Singapore} for exchange-local days.
+ * </p>
  */
 @RestController
 @RequestMapping("/api/cryptos")
 @Tag(name = "Crypto Recommendations", description = "Endpoints for crypto statistics and recommendations")
 public class CryptoController {
 
-    private final CryptoPriceService cryptoPriceService;
+    private static final String CBOR_REPRESENTATION = "cbor";
+
+    static final String UNAVAILABLE_SHARDS_HEADER = "X-Unavailable-Shards";
+
+    private static final String METRIC_DESCRIPTION = "Comma-separated metrics, the first one being the ranking key: "
+            + "normalized-range, volatility, total-return, max-drawdown, sharpe-ratio";
+
+    private static final String ZONE_DESCRIPTION = "Time zone whose calendar days the dates denote (e.g. UTC, Asia/Singapore, +08:00)";
+
+    private final CoalescingCryptoPriceService cryptoPriceService;
+    private final DataVersionTracker dataVersionTracker;
+    private final StatsBroadcaster statsBroadcaster;
+    private final ShardCoordinator shardCoordinator;
+    private final ContentNegotiationManager contentNegotiationManager;
 
     @Autowired
-    public CryptoController(CryptoPriceService cryptoPriceService) {
+    public CryptoController(
+            CoalescingCryptoPriceService cryptoPriceService, DataVersionTracker dataVersionTracker,
+            StatsBroadcaster statsBroadcaster, ShardCoordinator shardCoordinator,
+            ObjectProvider<ContentNegotiationManager> contentNegotiationManager
+    ) {
+        // Absent without a web server, e.g. on nodes only answering shard requests.
+        this(cryptoPriceService, dataVersionTracker, statsBroadcaster, shardCoordinator,
+                contentNegotiationManager.getIfAvailable(ContentNegotiationManager::new));
+    }
+
+    CryptoController(
+            CoalescingCryptoPriceService cryptoPriceService, DataVersionTracker dataVersionTracker,
+            StatsBroadcaster statsBroadcaster, ShardCoordinator shardCoordinator,
+            ContentNegotiationManager contentNegotiationManager
+    ) {
         this.cryptoPriceService = cryptoPriceService;
+        this.dataVersionTracker = dataVersionTracker;
+        this.statsBroadcaster = statsBroadcaster;
+        this.shardCoordinator = shardCoordinator;
+        this.contentNegotiationManager = contentNegotiationManager;
     }
 
     /**
@@ -55,6 +134,7 @@ public class CryptoController {
             description = "Returns oldest, newest, minimum and maximum prices for a given crypto symbol"
     )
     @ApiResponse(responseCode = "200", description = "Statistics successfully calculated")
+    @ApiResponse(responseCode = "304", description = "Data unchanged since the version identified by If-None-Match")
     @ApiResponse(
             responseCode = "404",
             description = "Unsupported crypto or no data available",
@@ -65,75 +145,452 @@ public class CryptoController {
             description = "Invalid date range supplied",
             content = @Content(schema = @Schema(implementation = ApiError.class))
     )
-    @GetMapping("/{symbol}/stats")
+    @GetMapping(value = "/{symbol}/stats", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public CryptoStats getCryptoStats(
             @Parameter(description = "Cryptocurrency symbol (e.g. BTC)", example = "BTC")
             @PathVariable String symbol,
             @Parameter(description = "Start date (YYYY-MM-DD)", example = "2022-01-01")
             @RequestParam(required = false) LocalDate from,
             @Parameter(description = "End date (YYYY-MM-DD)", example = "2022-01-31")
-            @RequestParam(required = false) LocalDate to) {
-        return cryptoPriceService.getCryptoStats(symbol, from, to);
+            @RequestParam(required = false) LocalDate to,
+            @Parameter(description = ZONE_DESCRIPTION, example = "Asia/Singapore")
+            @RequestParam(defaultValue = "UTC") String zone,
+            NativeWebRequest webRequest) {
+        ZoneId zoneId = DayBoundaries.parseZone(zone);
+        DataVersion version = dataVersionTracker.symbolVersion(symbol).orElse(null);
+        if (version != null && isNotModified(webRequest, version)) {
+            return null;
+        }
+        return cryptoPriceService.getCryptoStats(symbol, from, to, zoneId, version);
+    }
+
+    /**
+     * Returns the mean, variance and time-weighted average price of a given cryptocurrency.
+     *
+     * <p>
+     * The time range can be optionally restricted using {@code from} and {@code to} dates.
+     * If omitted, the full available time range for the given crypto is used.
+     * Each summary is computed in O(log n) from cumulative sums, however long the range.
+     * </p>
+     *
+     * @param symbol cryptocurrency symbol (e.g. BTC, ETH)
+     * @param from   optional start date (inclusive)
+     * @param to     optional end date (inclusive)
+     * @return price summary of the range
+     */
+    @Operation(
+            summary = "Get crypto price summary",
+            description = "Returns count, mean, variance, standard deviation and time-weighted average price for a given crypto symbol"
+    )
+    @ApiResponse(responseCode = "200", description = "Summary successfully calculated")
+    @ApiResponse(responseCode = "304", description = "Data unchanged since the version identified by If-None-Match")
+    @ApiResponse(
+            responseCode = "404",
+            description = "Unsupported crypto or no data available",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid date range supplied",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+    )
+    @GetMapping(value = "/{symbol}/summary", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CryptoSummary getCryptoSummary(
+            @Parameter(description = "Cryptocurrency symbol (e.g. BTC)", example = "BTC")
+            @PathVariable String symbol,
+            @Parameter(description = "Start date (YYYY-MM-DD)", example = "2022-01-01")
+            @RequestParam(required = false) LocalDate from,
+            @Parameter(description = "End date (YYYY-MM-DD)", example = "2022-01-31")
+            @RequestParam(required = false) LocalDate to,
+            @Parameter(description = ZONE_DESCRIPTION, example = "Asia/Singapore")
+            @RequestParam(defaultValue = "UTC") String zone,
+            NativeWebRequest webRequest) {
+        ZoneId zoneId = DayBoundaries.parseZone(zone);
+        DataVersion version = dataVersionTracker.symbolVersion(symbol).orElse(null);
+        if (version != null && isNotModified(webRequest, version)) {
+            return null;
+        }
+        return cryptoPriceService.getCryptoSummary(symbol, from, to, zoneId, version);
+    }
+
+    /**
+     * Streams the all-time price statistics of a given cryptocurrency as
+     * Server-Sent Events.
+     *
+     * <p>
+     * The current statistics are sent on connect, then again whenever
+     * ingestion changes the minimum, maximum or newest price, so clients no
+     * longer need to poll {@code /{symbol}/stats}. A client falling behind
+     * skips intermediate updates but always receives the latest one.
+     * </p>
+     *
+     * @param symbol cryptocurrency symbol (e.g. BTC, ETH)
+     * @return event stream of {@code stats} events holding {@link CryptoStats}
+     */
+    @Operation(
+            summary = "Stream crypto price statistics",
+            description = "Pushes oldest, newest, minimum and maximum prices of a crypto whenever new prices change them"
+    )
+    @ApiResponse(responseCode = "200", description = "Stream of stats events")
+    @ApiResponse(
+            responseCode = "404",
+            description = "Unsupported crypto",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+    )
+    @GetMapping(value = "/{symbol}/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCryptoStats(
+            @Parameter(description = "Cryptocurrency symbol (e.g. BTC)", example = "BTC")
+            @PathVariable String symbol) {
+        return statsBroadcaster.stream(symbol);
+    }
+
+    /**
+     * Returns the normalized price range of a cryptocurrency over sliding windows.
+     *
+     * <p>
+     * {@code window} and {@code step} accept simple durations such as {@code 7d}
+     * or {@code 12h}, as well as ISO-8601 durations such as {@code P7D}.
+     * The time range can be optionally restricted using {@code from} and
+     * {@code to} dates. If omitted, the full available time range is used.
+     * </p>
+     *
+     * @param symbol cryptocurrency symbol (e.g. BTC, ETH)
+     * @param window length of each window
+     * @param step   distance between consecutive windows
+     * @param from   optional start date (inclusive)
+     * @param to     optional end date (inclusive)
+     * @return normalized range per window, in chronological order
+     */
+    @Operation(
+            summary = "Get rolling normalized range of a crypto",
+            description = "Returns the normalized price range of a crypto for each sliding window in the range"
+    )
+    @ApiResponse(responseCode = "200", description = "Rolling normalized ranges successfully calculated")
+    @ApiResponse(responseCode = "304", description = "Data unchanged since the version identified by If-None-Match")
+    @ApiResponse(
+            responseCode = "404",
+            description = "Unsupported crypto or no data available",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid window, step or date range supplied",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+    )
+    @GetMapping(value = "/{symbol}/normalized-range/rolling", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public List<RollingNormalizedRangePoint> getRollingNormalizedRange(
+            @Parameter(description = "Cryptocurrency symbol (e.g. BTC)", example = "BTC")
+            @PathVariable String symbol,
+            @Parameter(description = "Window length (e.g. 7d, 12h, P30D)", example = "7d")
+            @RequestParam(defaultValue = "7d") String window,
+            @Parameter(description = "Distance between consecutive windows (e.g. 1d, 6h)", example = "1d")
+            @RequestParam(defaultValue = "1d") String step,
+            @Parameter(description = "Start date (YYYY-MM-DD)", example = "2022-01-01")
+            @RequestParam(required = false) LocalDate from,
+            @Parameter(description = "End date (YYYY-MM-DD)", example = "2022-01-31")
+            @RequestParam(required = false) LocalDate to,
+            @Parameter(description = ZONE_DESCRIPTION, example = "Asia/Singapore")
+            @RequestParam(defaultValue = "UTC") String zone,
+            NativeWebRequest webRequest) {
+        Duration windowDuration = DurationStyle.detectAndParse(window);
+        Duration stepDuration = DurationStyle.detectAndParse(step);
+        ZoneId zoneId = DayBoundaries.parseZone(zone);
+        DataVersion version = dataVersionTracker.symbolVersion(symbol).orElse(null);
+        if (version != null && isNotModified(webRequest, version)) {
+            return null;
+        }
+        return cryptoPriceService.getRollingNormalizedRange(
+                symbol, windowDuration, stepDuration, from, to, zoneId, version);
+    }
+
+    /**
+     * Returns price statistics for several cryptocurrencies in one request.
+     *
+     * <p>
+     * The optional {@code from} and {@code to} dates apply to all symbols.
+     * Unsupported symbols and symbols without data are reported per item with
+     * the same error codes as {@link #getCryptoStats}, and never fail the batch.
+     * Batches are not cached, so no validators are set.
+     * </p>
+     *
+     * <p>
+     * The response is not streamed item by item: the grouped queries yield
+     * the statistics of all symbols at once, and with at most
+     * {@value CryptoPriceService#MAX_BATCH_SIZE} items the complete list is
+     * small enough to be serialized in one go.
+     * </p>
+     *
+     * @param request symbols and optional date range
+     * @return one result per requested symbol, in request order
+     */
+    @Operation(
+            summary = "Get price statistics for several cryptos",
+            description = "Returns oldest, newest, minimum and maximum prices for up to 200 crypto symbols"
+    )
+    @ApiResponse(responseCode = "200", description = "Statistics calculated; failures are reported per item")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid symbol list or date range supplied",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+    )
+    @PostMapping(
+            value = "/stats:batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
+    )
+    public List<CryptoStatsBatchItem> getCryptoStatsBatch(@RequestBody CryptoStatsBatchRequest request) {
+        ZoneId zone = request.zone() != null ? DayBoundaries.parseZone(request.zone()) : ZoneOffset.UTC;
+        return cryptoPriceService.getCryptoStatsBatch(
+                request.symbols(), request.from(), request.to(), zone, dataVersionTracker.globalVersion());
     }
 
     /**
-     * Returns all supported cryptocurrencies sorted by normalized price range
-     * in descending order.
+     * Returns all supported cryptocurrencies sorted by normalized price range,
+     * or by other metrics, in descending order.
      *
      * <p>
-     * Normalized range is calculated as {@code (max - min) / min}.
+     * Normalized range is calculated as {@code (max - min) / min}. With
+     * {@code metric} the cryptos are ranked by {@code volatility},
+     * {@code total-return}, {@code max-drawdown} or {@code sharpe-ratio}
+     * instead; several comma-separated metrics are all included in the
+     * response and the first one is the ranking key.
      * </p>
      * <p>
      * The time range can be optionally restricted using {@code from} and {@code to} dates.
      * If omitted, the full available time range is used.
      * </p>
      *
-     * @param from optional start date (inclusive)
-     * @param to   optional end date (inclusive)
-     * @return list of cryptos sorted by normalized range
+     * <p>
+     * With sharding, the response carries no {@code ETag} or
+     * {@code Last-Modified}. A ranking missing the cryptos of unavailable
+     * nodes is still returned, marked with the
+     * {@value #UNAVAILABLE_SHARDS_HEADER} header listing these nodes and
+     * {@code Cache-Control: no-store}.
+     * </p>
+     *
+     * @param metric metrics to include, the first one being the ranking key
+     * @param from   optional start date (inclusive)
+     * @param to     optional end date (inclusive)
+     * @param limit  optional maximum number of cryptos to return
+     * @return list of cryptos sorted by the first metric
      */
     @Operation(
-            summary = "Get cryptos by normalized range",
-            description = "Returns all cryptos sorted descending by normalized price range"
+            summary = "Get cryptos by normalized range or another metric",
+            description = "Returns all cryptos sorted descending by normalized price range or by the first requested metric"
     )
-    @ApiResponse(responseCode = "200", description = "Normalized ranges successfully calculated")
+    @ApiResponse(responseCode = "200", description = "Metrics successfully calculated")
+    @ApiResponse(responseCode = "304", description = "Data unchanged since the version identified by If-None-Match")
     @ApiResponse(
             responseCode = "400",
-            description = "Invalid date range supplied",
+            description = "Invalid metric or date range supplied",
             content = @Content(schema = @Schema(implementation = ApiError.class))
     )
-    @GetMapping("/normalized-range")
-    public List<CryptoNormalizedRange> getCryptosByNormalizedRange(
+    @GetMapping(value = "/normalized-range", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public List<CryptoRanking> getCryptosByNormalizedRange(
+            @Parameter(description = METRIC_DESCRIPTION, example = "volatility,max-drawdown")
+            @RequestParam(defaultValue = "normalized-range") List<String> metric,
             @Parameter(description = "Start date (YYYY-MM-DD)", example = "2022-01-01")
             @RequestParam(required = false) LocalDate from,
             @Parameter(description = "End date (YYYY-MM-DD)", example = "2022-01-31")
-            @RequestParam(required = false) LocalDate to
+            @RequestParam(required = false) LocalDate to,
+            @Parameter(description = ZONE_DESCRIPTION, example = "Asia/Singapore")
+            @RequestParam(defaultValue = "UTC") String zone,
+            @Parameter(description = "Maximum number of cryptos to return (top K)", example = "10")
+            @RequestParam(required = false) Integer limit,
+            NativeWebRequest webRequest
     ) {
-        return cryptoPriceService.getCryptosByNormalizedRange(from, to);
+        List<RankingMetric> metrics = RankingMetric.parse(metric);
+        ZoneId zoneId = DayBoundaries.parseZone(zone);
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        DataVersion version = dataVersionTracker.globalVersion();
+        if (isNotModifiedAcrossCryptos(webRequest, version)) {
+            return null;
+        }
+        MergedRanking ranking = cryptoPriceService.getCryptoRanking(
+                metrics, from, to, zoneId, limit == null ? Integer.MAX_VALUE : limit, version);
+        if (!ranking.isComplete()) {
+            markIncomplete(webRequest, ranking.unavailableNodes());
+        }
+        return ranking.rankings();
     }
 
     /**
-     * Returns the cryptocurrency with the highest normalized price range
-     * for a specific day.
+     * Returns the cryptocurrency with the highest normalized price range,
+     * or the highest value of another metric, for a specific day.
      *
-     * @param date date for which the highest normalized range should be calculated
-     * @return crypto with the highest normalized range on the given date
+     * @param metric metrics to include, the first one being the ranking key
+     * @param date   date for which the metrics should be calculated
+     * @return crypto with the highest value of the first metric on the given date
      */
     @Operation(
             summary = "Get crypto with highest normalized range for a day",
-            description = "Returns the crypto that had the highest normalized range on the specified date"
+            description = "Returns the crypto that had the highest normalized range, or first requested metric, on the specified date"
     )
     @ApiResponse(responseCode = "200", description = "Crypto successfully identified")
+    @ApiResponse(responseCode = "304", description = "Data unchanged since the version identified by If-None-Match")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid metric supplied",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+    )
     @ApiResponse(
             responseCode = "404",
             description = "No data available for the given date",
             content = @Content(schema = @Schema(implementation = ApiError.class))
     )
-    @GetMapping("/highest-normalized-range")
-    public CryptoNormalizedRange getHighestNormalizedRange(
+    @GetMapping(value = "/highest-normalized-range", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CryptoRanking getHighestNormalizedRange(
+            @Parameter(description = METRIC_DESCRIPTION, example = "volatility")
+            @RequestParam(defaultValue = "normalized-range") List<String> metric,
             @Parameter(description = "Date to evaluate (YYYY-MM-DD)", example = "2022-01-01", required = true)
-            @RequestParam LocalDate date
+            @RequestParam LocalDate date,
+            @Parameter(description = ZONE_DESCRIPTION, example = "Asia/Singapore")
+            @RequestParam(defaultValue = "UTC") String zone,
+            NativeWebRequest webRequest
+    ) {
+        List<RankingMetric> metrics = RankingMetric.parse(metric);
+        ZoneId zoneId = DayBoundaries.parseZone(zone);
+        DataVersion version = dataVersionTracker.globalVersion();
+        if (isNotModifiedAcrossCryptos(webRequest, version)) {
+            return null;
+        }
+        return cryptoPriceService.getTopCryptoForDay(metrics, date, zoneId, version);
+    }
+
+    /**
+     * Returns the cryptocurrencies with the highest normalized price range
+     * for every day of a date range.
+     *
+     * <p>
+     * Selected instead of {@link #getHighestNormalizedRange} when {@code from}
+     * and {@code to} are given instead of {@code date}. The leaderboards are
+     * precomputed at ingestion time; days without data are omitted.
+     * </p>
+     *
+     * @param from first date (inclusive)
+     * @param to   last date (inclusive)
+     * @param top  number of leaders per day
+     * @return one leaderboard per day with data, in chronological order
+     */
+    @Operation(
+            summary = "Get cryptos with highest normalized range for each day of a range",
+            description = "Returns the per-day winners (and runners-up with top > 1) by normalized range"
+    )
+    @ApiResponse(responseCode = "200", description = "Leaderboards successfully retrieved")
+    @ApiResponse(responseCode = "304", description = "Data unchanged since the version identified by If-None-Match")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid date range or top supplied",
+            content = @Content(schema = @Schema(implementation = ApiError.class))
+    )
+    @GetMapping(
+            value = "/highest-normalized-range",
+            params = {"from", "to", "!date"},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
+    )
+    public List<DailyLeaderboard> getDailyLeaderboards(
+            @Parameter(description = "First date (YYYY-MM-DD)", example = "2022-01-01", required = true)
+            @RequestParam LocalDate from,
+            @Parameter(description = "Last date (YYYY-MM-DD)", example = "2022-01-31", required = true)
+            @RequestParam LocalDate to,
+            @Parameter(description = "Number of leaders per day", example = "3")
+            @RequestParam(defaultValue = "1") int top,
+            @Parameter(description = ZONE_DESCRIPTION, example = "Asia/Singapore")
+            @RequestParam(defaultValue = "UTC") String zone,
+            NativeWebRequest webRequest
     ) {
-        return cryptoPriceService.getHighestNormalizedRangeForDay(date);
+        ZoneId zoneId = DayBoundaries.parseZone(zone);
+        DataVersion version = dataVersionTracker.globalVersion();
+        if (isNotModifiedAcrossCryptos(webRequest, version)) {
+            return null;
+        }
+        return cryptoPriceService.getDailyLeaderboards(from, to, top, zoneId, version);
+    }
+
+    /**
+     * Sets the validators of the given data version on the response and checks
+     * them against the conditional request headers.
+     *
+     * <p>
+     * If the client copy is still current, the response status is set to 304
+     * and the handler must return without a body.
+     * </p>
+     */
+    private boolean isNotModified(NativeWebRequest webRequest, DataVersion version) {
+        String etag = MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(negotiatedMediaType(webRequest))
+                ? version.etag(CBOR_REPRESENTATION)
+                : version.etag();
+        return webRequest.checkNotModified(etag, version.lastModified().toEpochMilli());
+    }
+
+    /**
+     * Checks the validators of a query across all cryptos, see
+     * {@link #isNotModified}.
+     *
+     * <p>
+     * With sharding such responses get no validators at all. The global
+     * version of this node does not cover the data of the other nodes, and
+     * a revalidation routed to another node would be compared against that
+     * node's unrelated version sequence.
+     * </p>
+     */
+    private boolean isNotModifiedAcrossCryptos(NativeWebRequest webRequest, DataVersion version) {
+        return !shardCoordinator.isEnabled() && isNotModified(webRequest, version);
+    }
+
+    /**
+     * Marks a response lacking the data of some shards, which must not be
+     * cached: a later request may well get the complete ranking.
+     */
+    private static void markIncomplete(NativeWebRequest webRequest, List<String> unavailableNodes) {
+        if (webRequest.getNativeResponse() instanceof HttpServletResponse response) {
+            response.setHeader(UNAVAILABLE_SHARDS_HEADER, String.join(",", unavailableNodes));
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        }
+    }
+
+    /**
+     * Returns the media type Spring MVC will write the response body in, so
+     * that each representation of a data version gets its own strong ETag.
+     *
+     * <p>
+     * The type is selected as the message converters select it: the types
+     * accepted according to the {@link ContentNegotiationManager} are matched
+     * against the types the handler produces, sorted by quality and
+     * specificity (keeping the order of the {@code Accept} header among
+     * equals), and the first concrete one wins. JSON is assumed if nothing
+     * matches, in which case the request fails with 406 anyway.
+     * </p>
+     */
+    private MediaType negotiatedMediaType(NativeWebRequest webRequest) {
+        Object producibleTypes = webRequest.getAttribute(
+                HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (!(producibleTypes instanceof Collection<?> producible)) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptableTypes;
+        try {
+            acceptableTypes = contentNegotiationManager.resolveMediaTypes(webRequest);
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+
+        List<MediaType> compatibleTypes = new ArrayList<>();
+        for (MediaType acceptable : acceptableTypes) {
+            for (Object type : producible) {
+                MediaType producibleType = (MediaType) type;
+                if (acceptable.isCompatibleWith(producibleType)) {
+                    MediaType withQuality = producibleType.copyQualityValue(acceptable);
+                    compatibleTypes.add(acceptable.isLessSpecific(withQuality) ? withQuality : acceptable);
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(compatibleTypes);
+        return compatibleTypes.stream()
+                .filter(MediaType::isConcrete)
+                .findFirst()
+                .orElse(MediaType.APPLICATION_JSON);
     }
 }
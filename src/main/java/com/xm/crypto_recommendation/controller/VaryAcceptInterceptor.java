@@ -0,0 +1,32 @@
+package com.xm.crypto_recommendation.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collection;
+
+/**
+ * Adds {@code Vary: Accept} to the responses of handlers producing more than
+ * one media type, e.g. JSON and CBOR.
+ *
+ * <p>
+ * The header is set before the handler runs, so that 304 responses carry it
+ * as well. Without it a shared cache could serve one representation to a
+ * client that asked for the other: both have the same {@code Last-Modified}.
+ * </p>
+ */
+public class VaryAcceptInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE) instanceof Collection<?> producible
+                && producible.size() > 1
+                && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return true;
+    }
+}
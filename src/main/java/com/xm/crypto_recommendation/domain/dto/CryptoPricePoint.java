@@ -1,16 +1,31 @@
 package com.xm.crypto_recommendation.domain.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.xm.crypto_recommendation.domain.json.CryptoPricePointSerializer;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import io.swagger.v3.oas.annotations.media.Schema;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 
 /**
  * DTO representing a cryptocurrency price point at a specific timestamp.
  *
- * @param price     The price of the cryptocurrency.
+ * @param price     The price of the cryptocurrency, as {@link FixedPoint8} value.
  * @param timestamp The timestamp when the price was recorded.
  */
+@JsonSerialize(using = CryptoPricePointSerializer.class)
 public record CryptoPricePoint(
-        BigDecimal price,
+        @Schema(type = "number", example = "46813.21000000")
+        long price,
         Instant timestamp
 ) {
+
+    /**
+     * Creates a price point from a decimal price with at most 8 decimal places.
+     * Also used by JPQL constructor expressions.
+     */
+    public CryptoPricePoint(BigDecimal price, Instant timestamp) {
+        this(FixedPoint8.of(price), timestamp);
+    }
 }
@@ -0,0 +1,47 @@
+package com.xm.crypto_recommendation.domain.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.xm.crypto_recommendation.domain.json.CryptoRankingSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * DTO representing a cryptocurrency in a ranking by one or more metrics.
+ *
+ * <p>
+ * Only the requested metrics are written, each under its
+ * {@link RankingMetric#fieldName() field name}, e.g.
+ * {@code {"symbol":"BTC","normalizedRange":0.50000000}}.
+ * </p>
+ *
+ * @param symbol  the symbol of the cryptocurrency
+ * @param metrics the requested metrics, the first one being the ranking key
+ * @param values  the metric values of the cryptocurrency
+ */
+@JsonSerialize(using = CryptoRankingSerializer.class)
+@Schema(example = "{\"symbol\":\"BTC\",\"normalizedRange\":0.50000000,\"volatility\":0.01234567}")
+public record CryptoRanking(
+        String symbol,
+        @Schema(hidden = true)
+        List<RankingMetric> metrics,
+        @Schema(hidden = true)
+        PriceMetrics values
+) {
+
+    /**
+     * Ranking order: descending by the ranking key, ties broken by symbol, so
+     * that every ranking and leaderboard of the same data agrees.
+     */
+    public static final Comparator<CryptoRanking> RANKING_ORDER = Comparator
+            .comparingLong(CryptoRanking::rankingValue).reversed()
+            .thenComparing(CryptoRanking::symbol);
+
+    /**
+     * Returns the value of the ranking key.
+     */
+    public long rankingValue() {
+        return metrics.getFirst().valueOf(values);
+    }
+}
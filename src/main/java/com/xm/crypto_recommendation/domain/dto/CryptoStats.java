@@ -1,5 +1,8 @@
 package com.xm.crypto_recommendation.domain.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.xm.crypto_recommendation.domain.json.CryptoStatsSerializer;
+
 /**
  * DTO representing statistical data for a cryptocurrency.
  *
@@ -9,6 +12,7 @@ package com.xm.crypto_recommendation.domain.dto;
  * @param min    The minimum price point recorded.
  * @param max    The maximum price point recorded.
  */
+@JsonSerialize(using = CryptoStatsSerializer.class)
 public record CryptoStats(
         String symbol,
         CryptoPricePoint oldest,
@@ -0,0 +1,32 @@
+package com.xm.crypto_recommendation.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.xm.crypto_recommendation.exception.ApiError;
+
+/**
+ * Result for a single symbol of a batch statistics request.
+ *
+ * <p>
+ * Exactly one of {@code stats} and {@code error} is present, so that an
+ * unsupported symbol or a symbol without data does not fail the whole batch.
+ * </p>
+ *
+ * @param symbol requested symbol
+ * @param stats  statistics of the symbol, if available
+ * @param error  reason why no statistics are available
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CryptoStatsBatchItem(
+        String symbol,
+        CryptoStats stats,
+        ApiError error
+) {
+
+    public static CryptoStatsBatchItem of(String symbol, CryptoStats stats) {
+        return new CryptoStatsBatchItem(symbol, stats, null);
+    }
+
+    public static CryptoStatsBatchItem failed(String symbol, ApiError error) {
+        return new CryptoStatsBatchItem(symbol, null, error);
+    }
+}
@@ -0,0 +1,27 @@
+package com.xm.crypto_recommendation.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request body for retrieving statistics of several cryptocurrencies at once.
+ *
+ * @param symbols cryptocurrency symbols (case-insensitive)
+ * @param from    optional start date (inclusive), applied to all symbols
+ * @param to      optional end date (inclusive), applied to all symbols
+ * @param zone    optional time zone the dates are taken in, UTC by default
+ */
+public record CryptoStatsBatchRequest(
+        @ArraySchema(schema = @Schema(example = "BTC"), minItems = 1, maxItems = 200)
+        List<String> symbols,
+        @Schema(example = "2022-01-01")
+        LocalDate from,
+        @Schema(example = "2022-01-31")
+        LocalDate to,
+        @Schema(example = "Asia/Singapore")
+        String zone
+) {
+}
@@ -0,0 +1,47 @@
+package com.xm.crypto_recommendation.domain.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.xm.crypto_recommendation.domain.json.CryptoSummarySerializer;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * DTO representing summary statistics of the prices of a cryptocurrency
+ * within a time range. Prices are {@link FixedPoint8} values rounded half-up
+ * to 8 decimal places.
+ *
+ * <p>
+ * The variance is in squared price units and exceeds the {@link FixedPoint8}
+ * range of about 9.2 &times; 10<sup>10</sup> once prices spread by a few
+ * hundred thousand, so it is kept as a {@code double}. It is still serialized
+ * with 8 decimal places like the prices.
+ * </p>
+ *
+ * @param symbol              the symbol of the cryptocurrency
+ * @param oldest              timestamp of the oldest price in the range
+ * @param newest              timestamp of the newest price in the range
+ * @param count               number of prices in the range
+ * @param mean                arithmetic mean of the prices
+ * @param variance            sample variance of the prices
+ * @param standardDeviation   sample standard deviation of the prices
+ * @param timeWeightedAverage average price weighted by how long each price held,
+ *                            from the oldest to the newest price
+ */
+@JsonSerialize(using = CryptoSummarySerializer.class)
+public record CryptoSummary(
+        String symbol,
+        Instant oldest,
+        Instant newest,
+        long count,
+        @Schema(type = "number", example = "46979.61000000")
+        long mean,
+        @Schema(type = "number", example = "15306.63840000")
+        double variance,
+        @Schema(type = "number", example = "123.72000000")
+        long standardDeviation,
+        @Schema(type = "number", example = "46981.20000000")
+        long timeWeightedAverage
+) {
+}
@@ -0,0 +1,32 @@
+package com.xm.crypto_recommendation.domain.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO representing the cryptocurrencies with the highest normalized range
+ * on one calendar day of the zone the leaderboard is kept for.
+ *
+ * @param date    the day, in the leaderboard's zone
+ * @param leaders cryptos in descending order of normalized range, ties broken by symbol,
+ *                the first one being the winner
+ */
+public record DailyLeaderboard(
+        LocalDate date,
+        List<CryptoRanking> leaders
+) {
+
+    /**
+     * Returns the crypto with the highest normalized range of the day.
+     */
+    public CryptoRanking winner() {
+        return leaders.getFirst();
+    }
+
+    /**
+     * Returns this leaderboard truncated to the given number of leaders.
+     */
+    public DailyLeaderboard top(int count) {
+        return leaders.size() <= count ? this : new DailyLeaderboard(date, leaders.subList(0, count));
+    }
+}
@@ -0,0 +1,45 @@
+package com.xm.crypto_recommendation.domain.dto;
+
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceMetricsAccumulator;
+
+/**
+ * DTO holding the ranking metrics of a cryptocurrency within a time range,
+ * all as {@link FixedPoint8} values rounded half-up (ties away from zero, so
+ * negative returns round like positive ones) to 8 decimal places.
+ *
+ * @param normalizedRange {@code (max - min) / min}
+ * @param volatility      standard deviation of the log returns between consecutive prices
+ * @param totalReturn     {@code newest / oldest - 1}
+ * @param maxDrawdown     largest relative fall from a preceding peak
+ * @param sharpeRatio     mean log return divided by the volatility
+ */
+public record PriceMetrics(
+        long normalizedRange,
+        long volatility,
+        long totalReturn,
+        long maxDrawdown,
+        long sharpeRatio
+) {
+
+    /**
+     * Creates the metrics of a fully accumulated series with a positive minimum price.
+     */
+    public static PriceMetrics of(PriceMetricsAccumulator accumulator) {
+        return new PriceMetrics(
+                FixedPoint8.normalizedRange(accumulator.min(), accumulator.max()),
+                FixedPoint8.round(accumulator.volatility()),
+                FixedPoint8.round(accumulator.totalReturn()),
+                FixedPoint8.round(accumulator.maxDrawdown()),
+                FixedPoint8.round(accumulator.sharpeRatio())
+        );
+    }
+
+    /**
+     * Creates metrics carrying only the normalized range, for rankings that
+     * need nothing else and can be answered from the range summaries.
+     */
+    public static PriceMetrics ofNormalizedRange(long normalizedRange) {
+        return new PriceMetrics(normalizedRange, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,56 @@
+package com.xm.crypto_recommendation.domain.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * DTO representing the oldest, newest, minimum and maximum price points
+ * of a cryptocurrency within a time range.
+ *
+ * <p>
+ * Ties are resolved the same way as the underlying queries: the earliest
+ * point wins for the minimum and the latest point wins for the maximum.
+ * </p>
+ *
+ * @param oldest The oldest price point in the range.
+ * @param newest The most recent price point in the range.
+ * @param min    The minimum price point in the range.
+ * @param max    The maximum price point in the range.
+ */
+public record PriceRangeStats(
+        CryptoPricePoint oldest,
+        CryptoPricePoint newest,
+        CryptoPricePoint min,
+        CryptoPricePoint max
+) {
+
+    /**
+     * Flat constructor used by JPQL constructor expressions, which cannot nest
+     * {@link CryptoPricePoint} instances.
+     */
+    public PriceRangeStats(
+            BigDecimal oldestPrice, Instant oldestTimestamp,
+            BigDecimal newestPrice, Instant newestTimestamp,
+            BigDecimal minPrice, Instant minTimestamp,
+            BigDecimal maxPrice, Instant maxTimestamp
+    ) {
+        this(
+                new CryptoPricePoint(oldestPrice, oldestTimestamp),
+                new CryptoPricePoint(newestPrice, newestTimestamp),
+                new CryptoPricePoint(minPrice, minTimestamp),
+                new CryptoPricePoint(maxPrice, maxTimestamp)
+        );
+    }
+
+    /**
+     * Combines these stats with the stats of an adjacent, strictly later time range.
+     *
+     * @param later stats of a range starting after this one ends
+     * @return stats covering both ranges
+     */
+    public PriceRangeStats followedBy(PriceRangeStats later) {
+        CryptoPricePoint combinedMin = later.min().price() < min.price() ? later.min() : min;
+        CryptoPricePoint combinedMax = later.max().price() >= max.price() ? later.max() : max;
+        return new PriceRangeStats(oldest, later.newest(), combinedMin, combinedMax);
+    }
+}
@@ -0,0 +1,77 @@
+package com.xm.crypto_recommendation.domain.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+/**
+ * Metrics by which cryptocurrencies can be ranked.
+ *
+ * <p>
+ * Each metric is selected by its parameter name (e.g. {@code max-drawdown})
+ * and written to responses under its field name (e.g. {@code maxDrawdown}).
+ * </p>
+ */
+public enum RankingMetric {
+
+    NORMALIZED_RANGE("normalized-range", "normalizedRange", PriceMetrics::normalizedRange),
+    VOLATILITY("volatility", "volatility", PriceMetrics::volatility),
+    TOTAL_RETURN("total-return", "totalReturn", PriceMetrics::totalReturn),
+    MAX_DRAWDOWN("max-drawdown", "maxDrawdown", PriceMetrics::maxDrawdown),
+    SHARPE_RATIO("sharpe-ratio", "sharpeRatio", PriceMetrics::sharpeRatio);
+
+    private final String parameterName;
+    private final String fieldName;
+    private final ToLongFunction<PriceMetrics> value;
+
+    RankingMetric(String parameterName, String fieldName, ToLongFunction<PriceMetrics> value) {
+        this.parameterName = parameterName;
+        this.fieldName = fieldName;
+        this.value = value;
+    }
+
+    public String parameterName() {
+        return parameterName;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Returns the value of this metric, as fixed-point value.
+     */
+    public long valueOf(PriceMetrics metrics) {
+        return value.applyAsLong(metrics);
+    }
+
+    /**
+     * Resolves metric parameter names (case-insensitive), dropping duplicates
+     * but keeping the order of first occurrence.
+     *
+     * @throws IllegalArgumentException if no or an unknown metric is given
+     */
+    public static List<RankingMetric> parse(List<String> parameterNames) {
+        List<RankingMetric> metrics = new ArrayList<>();
+        for (String parameterName : parameterNames) {
+            RankingMetric metric = fromParameterName(parameterName.trim());
+            if (!metrics.contains(metric)) {
+                metrics.add(metric);
+            }
+        }
+        if (metrics.isEmpty()) {
+            throw new IllegalArgumentException("at least one metric must be requested");
+        }
+        return List.copyOf(metrics);
+    }
+
+    private static RankingMetric fromParameterName(String parameterName) {
+        for (RankingMetric metric : values()) {
+            if (metric.parameterName.equals(parameterName.toLowerCase(Locale.ROOT))) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException("unknown metric '" + parameterName + "'");
+    }
+}
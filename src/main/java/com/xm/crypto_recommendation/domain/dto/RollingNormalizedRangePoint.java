@@ -0,0 +1,25 @@
+package com.xm.crypto_recommendation.domain.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.xm.crypto_recommendation.domain.json.RollingNormalizedRangePointSerializer;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * DTO representing the normalized range of a cryptocurrency within one
+ * window of a rolling time series.
+ *
+ * @param windowStart     start of the window (inclusive)
+ * @param windowEnd       end of the window (exclusive)
+ * @param normalizedRange the normalized range value, as {@link FixedPoint8} value
+ */
+@JsonSerialize(using = RollingNormalizedRangePointSerializer.class)
+public record RollingNormalizedRangePoint(
+        Instant windowStart,
+        Instant windowEnd,
+        @Schema(type = "number", example = "0.50000000")
+        long normalizedRange
+) {
+}
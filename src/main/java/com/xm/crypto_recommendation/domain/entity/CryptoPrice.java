@@ -2,6 +2,7 @@ package com.xm.crypto_recommendation.domain.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
@@ -21,17 +22,17 @@ import java.time.Instant;
  * </p>
  *
  * <p>
- * Database indexes are defined to optimize queries filtering by
- * cryptocurrency and ordering by timestamp or price.
+ * A single index on {@code (crypto_id, timestamp, price)} serves all range
+ * scans. It covers them: the price is read from the index entry without
+ * visiting the table. Price-ordered lookups only ever scan the edges of a
+ * range, bounded by a monthly {@link CryptoPricePartition}, so no index led
+ * by the price is kept up to date on insert.
  * </p>
  */
 @Entity
 @Table(
         name = "crypto_price",
-        indexes = {
-                @Index(name = "idx_crypto_timestamp", columnList = "crypto_id, timestamp"),
-                @Index(name = "idx_crypto_price", columnList = "crypto_id, price")
-        }
+        indexes = @Index(name = "idx_crypto_price_covering", columnList = "crypto_id, timestamp, price")
 )
 public class CryptoPrice {
 
@@ -42,7 +43,7 @@ public class CryptoPrice {
     /**
      * Owning cryptocurrency.
      */
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Crypto crypto;
 
     /**
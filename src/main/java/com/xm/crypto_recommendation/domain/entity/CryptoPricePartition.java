@@ -0,0 +1,210 @@
+package com.xm.crypto_recommendation.domain.entity;
+
+import com.xm.crypto_recommendation.domain.price.PriceBlockCodec;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Represents one monthly (UTC) time partition of the price history of a cryptocurrency.
+ *
+ * <p>
+ * Each partition stores precomputed first, last, minimum and maximum price
+ * points of the {@link CryptoPrice} rows falling into its month. Range queries
+ * use these summaries for every sealed partition that is fully covered by the
+ * requested range and only scan raw rows for the partially covered edges.
+ * </p>
+ *
+ * <p>
+ * All ticks of the partition are additionally kept as one compressed
+ * {@link PriceBlockCodec} block, so scans over long ranges read a few
+ * hundred bytes per month instead of one row per tick. The summary columns
+ * double as the block header.
+ * </p>
+ *
+ * <p>
+ * The block is a read format only: the {@link CryptoPrice} rows stay the
+ * source of truth and still answer the edge scans of range queries, so the
+ * block adds to the stored size instead of replacing the rows.
+ * </p>
+ *
+ * <p>
+ * A partition is sealed once a later partition exists for the same crypto,
+ * i.e. once its month is no longer the one receiving new ticks. The most
+ * recent partition stays open and is always scanned.
+ * </p>
+ */
+@Entity
+@Table(
+        name = "crypto_price_partition",
+        uniqueConstraints = @UniqueConstraint(name = "uk_crypto_partition_start", columnNames = {"crypto_id", "partition_start"})
+)
+public class CryptoPricePartition {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    /**
+     * Owning cryptocurrency.
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Crypto crypto;
+
+    /**
+     * Start of the partition month (inclusive, UTC).
+     */
+    @Column(name = "partition_start", nullable = false)
+    private Instant partitionStart;
+
+    /**
+     * Start of the following month (exclusive, UTC).
+     */
+    @Column(nullable = false)
+    private Instant partitionEnd;
+
+    /**
+     * Whether the partition is closed for new ticks and its summary can replace a scan.
+     */
+    @Column(nullable = false)
+    private boolean sealed;
+
+    @Column(nullable = false)
+    private long rowCount;
+
+    private Instant firstTimestamp;
+
+    @Column(precision = 19, scale = 8)
+    private BigDecimal firstPrice;
+
+    private Instant lastTimestamp;
+
+    @Column(precision = 19, scale = 8)
+    private BigDecimal lastPrice;
+
+    private Instant minTimestamp;
+
+    @Column(precision = 19, scale = 8)
+    private BigDecimal minPrice;
+
+    private Instant maxTimestamp;
+
+    @Column(precision = 19, scale = 8)
+    private BigDecimal maxPrice;
+
+    /**
+     * All ticks of the partition, encoded with {@link PriceBlockCodec}.
+     */
+    @Lob
+    @Column(name = "block")
+    private byte[] block;
+
+    protected CryptoPricePartition() {
+    }
+
+    public CryptoPricePartition(Crypto crypto, Instant partitionStart) {
+        this.crypto = crypto;
+        this.partitionStart = partitionStart;
+        this.partitionEnd = partitionStart.atOffset(ZoneOffset.UTC).plusMonths(1).toInstant();
+    }
+
+    /**
+     * Returns the start of the monthly partition the given timestamp belongs to.
+     */
+    public static Instant partitionStartOf(Instant timestamp) {
+        return YearMonth.from(timestamp.atOffset(ZoneOffset.UTC))
+                .atDay(1)
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant();
+    }
+
+    /**
+     * Folds a single price tick into the partition summary.
+     *
+     * <p>
+     * Ties follow the repository ordering: the earliest tick wins for the
+     * minimum, the latest tick wins for the maximum.
+     * </p>
+     */
+    public void include(Instant timestamp, BigDecimal price) {
+        rowCount++;
+        if (firstTimestamp == null || timestamp.isBefore(firstTimestamp)) {
+            firstTimestamp = timestamp;
+            firstPrice = price;
+        }
+        if (lastTimestamp == null || timestamp.isAfter(lastTimestamp)) {
+            lastTimestamp = timestamp;
+            lastPrice = price;
+        }
+        int minComparison = minPrice == null ? -1 : price.compareTo(minPrice);
+        if (minComparison < 0 || (minComparison == 0 && timestamp.isBefore(minTimestamp))) {
+            minTimestamp = timestamp;
+            minPrice = price;
+        }
+        int maxComparison = maxPrice == null ? 1 : price.compareTo(maxPrice);
+        if (maxComparison > 0 || (maxComparison == 0 && timestamp.isAfter(maxTimestamp))) {
+            maxTimestamp = timestamp;
+            maxPrice = price;
+        }
+    }
+
+    /**
+     * Adds ticks, in timestamp order, to the compressed block of the partition.
+     */
+    public void append(long[] timestamps, long[] prices, int count) {
+        this.block = block == null
+                ? PriceBlockCodec.encode(timestamps, prices, count)
+                : PriceBlockCodec.append(block, timestamps, prices, count);
+    }
+
+    public void seal() {
+        this.sealed = true;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Crypto getCrypto() {
+        return crypto;
+    }
+
+    public Instant getPartitionStart() {
+        return partitionStart;
+    }
+
+    public Instant getPartitionEnd() {
+        return partitionEnd;
+    }
+
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public Instant getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public Instant getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public byte[] getBlock() {
+        return block;
+    }
+}
@@ -0,0 +1,126 @@
+package com.xm.crypto_recommendation.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.Instant;
+
+/**
+ * Represents one entry of the ingestion manifest: what has already been
+ * ingested from a single CSV file.
+ *
+ * <p>
+ * The entry records how many bytes of the file have been consumed, a checksum
+ * of the bytes right before that offset and the newest price timestamp
+ * ingested for its symbol. On restart these allow an unchanged file to be
+ * skipped, an appended file to be read from its last offset only, and a
+ * rewritten file to contribute only prices newer than the high-water mark.
+ * </p>
+ */
+@Entity
+@Table(
+        name = "ingestion_manifest",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ingestion_manifest_file", columnNames = "file_name")
+)
+public class IngestedFile {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    /**
+     * Name of the ingested file (e.g. {@code BTC_values.csv}).
+     */
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    /**
+     * Symbol the file's prices belong to.
+     */
+    @Column(nullable = false)
+    private String symbol;
+
+    /**
+     * Number of bytes of the file consumed so far, i.e. its size when last ingested.
+     */
+    @Column(nullable = false)
+    private long byteOffset;
+
+    /**
+     * Hex SHA-256 of the bytes preceding {@link #byteOffset} (at most
+     * {@code IngestionManifest.ANCHOR_LENGTH} of them).
+     */
+    @Column(nullable = false, length = 64)
+    private String checksum;
+
+    /**
+     * Newest price timestamp ingested for the symbol (high-water mark), if any.
+     */
+    private Instant maxTimestamp;
+
+    /**
+     * Total number of price rows ingested from the file.
+     */
+    @Column(nullable = false)
+    private long rowCount;
+
+    @Column(nullable = false)
+    private Instant ingestedAt;
+
+    protected IngestedFile() {
+    }
+
+    public IngestedFile(String fileName, String symbol) {
+        this.fileName = fileName;
+        this.symbol = symbol;
+    }
+
+    /**
+     * Advances the entry past a newly ingested chunk of the file.
+     */
+    public void advance(long byteOffset, String checksum, Instant chunkMaxTimestamp, long chunkRows, Instant ingestedAt) {
+        this.byteOffset = byteOffset;
+        this.checksum = checksum;
+        if (chunkMaxTimestamp != null && (maxTimestamp == null || chunkMaxTimestamp.isAfter(maxTimestamp))) {
+            this.maxTimestamp = chunkMaxTimestamp;
+        }
+        this.rowCount += chunkRows;
+        this.ingestedAt = ingestedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public Instant getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public Instant getIngestedAt() {
+        return ingestedAt;
+    }
+}
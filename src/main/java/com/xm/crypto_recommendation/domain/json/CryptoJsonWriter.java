@@ -0,0 +1,192 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.dto.RollingNormalizedRangePoint;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hand-written encoding of the API response DTOs.
+ *
+ * <p>
+ * Field names and crypto symbols are written from pre-encoded
+ * {@link SerializedString} instances, whose UTF-8 bytes Jackson caches and
+ * copies straight into the output buffer. Fixed-point prices and ISO
+ * timestamps are formatted into a small scratch buffer and written as raw
+ * characters, bypassing the generic {@link java.math.BigDecimal} and
+ * {@link Instant} serializers.
+ * </p>
+ *
+ * <p>
+ * The produced JSON is identical to the default databind output for these records.
+ * Binary generators such as CBOR cannot take pre-formatted numbers; for them
+ * prices are written as native decimals (CBOR tag 4) so no precision is lost.
+ * </p>
+ */
+final class CryptoJsonWriter {
+
+    private static final SerializableString SYMBOL = new SerializedString("symbol");
+    private static final SerializableString OLDEST = new SerializedString("oldest");
+    private static final SerializableString NEWEST = new SerializedString("newest");
+    private static final SerializableString MIN = new SerializedString("min");
+    private static final SerializableString MAX = new SerializedString("max");
+    private static final SerializableString PRICE = new SerializedString("price");
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString NORMALIZED_RANGE = new SerializedString("normalizedRange");
+    private static final SerializableString WINDOW_START = new SerializedString("windowStart");
+    private static final SerializableString WINDOW_END = new SerializedString("windowEnd");
+    private static final SerializableString COUNT = new SerializedString("count");
+    private static final SerializableString MEAN = new SerializedString("mean");
+    private static final SerializableString VARIANCE = new SerializedString("variance");
+    private static final SerializableString STANDARD_DEVIATION = new SerializedString("standardDeviation");
+    private static final SerializableString TIME_WEIGHTED_AVERAGE = new SerializedString("timeWeightedAverage");
+
+    /**
+     * Just below the fixed-point limit of about 9.2e10, clear of rounding at the edge.
+     */
+    private static final double MAX_FIXED_POINT_VARIANCE = 9e10;
+
+    private static final Map<RankingMetric, SerializableString> METRICS = new EnumMap<>(RankingMetric.class);
+
+    static {
+        for (RankingMetric metric : RankingMetric.values()) {
+            METRICS.put(metric, new SerializedString(metric.fieldName()));
+        }
+    }
+
+    /**
+     * Pre-encoded symbol values. Only canonical symbols of supported cryptos are
+     * written, so the cache stays as small as the registry.
+     */
+    private static final Map<String, SerializableString> SYMBOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Size of the scratch buffer needed by the write methods.
+     */
+    static final int SCRATCH_LENGTH = Math.max(FixedPoint8.MAX_FORMATTED_LENGTH, IsoInstantFormat.MAX_LENGTH);
+
+    private CryptoJsonWriter() {
+    }
+
+    static void writeStats(JsonGenerator generator, CryptoStats stats, char[] scratch) throws IOException {
+        generator.writeStartObject(stats);
+        generator.writeFieldName(SYMBOL);
+        writeSymbol(generator, stats.symbol());
+        generator.writeFieldName(OLDEST);
+        writePricePoint(generator, stats.oldest(), scratch);
+        generator.writeFieldName(NEWEST);
+        writePricePoint(generator, stats.newest(), scratch);
+        generator.writeFieldName(MIN);
+        writePricePoint(generator, stats.min(), scratch);
+        generator.writeFieldName(MAX);
+        writePricePoint(generator, stats.max(), scratch);
+        generator.writeEndObject();
+    }
+
+    static void writePricePoint(JsonGenerator generator, CryptoPricePoint point, char[] scratch) throws IOException {
+        if (point == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(point);
+        generator.writeFieldName(PRICE);
+        writeFixedPoint(generator, point.price(), scratch);
+        generator.writeFieldName(TIMESTAMP);
+        writeInstant(generator, point.timestamp(), scratch);
+        generator.writeEndObject();
+    }
+
+    static void writeRanking(JsonGenerator generator, CryptoRanking ranking, char[] scratch) throws IOException {
+        generator.writeStartObject(ranking);
+        generator.writeFieldName(SYMBOL);
+        writeSymbol(generator, ranking.symbol());
+        for (RankingMetric metric : ranking.metrics()) {
+            generator.writeFieldName(METRICS.get(metric));
+            writeFixedPoint(generator, metric.valueOf(ranking.values()), scratch);
+        }
+        generator.writeEndObject();
+    }
+
+    static void writeRollingNormalizedRangePoint(
+            JsonGenerator generator, RollingNormalizedRangePoint point, char[] scratch) throws IOException {
+        generator.writeStartObject(point);
+        generator.writeFieldName(WINDOW_START);
+        writeInstant(generator, point.windowStart(), scratch);
+        generator.writeFieldName(WINDOW_END);
+        writeInstant(generator, point.windowEnd(), scratch);
+        generator.writeFieldName(NORMALIZED_RANGE);
+        writeFixedPoint(generator, point.normalizedRange(), scratch);
+        generator.writeEndObject();
+    }
+
+    static void writeSummary(JsonGenerator generator, CryptoSummary summary, char[] scratch) throws IOException {
+        generator.writeStartObject(summary);
+        generator.writeFieldName(SYMBOL);
+        writeSymbol(generator, summary.symbol());
+        generator.writeFieldName(OLDEST);
+        writeInstant(generator, summary.oldest(), scratch);
+        generator.writeFieldName(NEWEST);
+        writeInstant(generator, summary.newest(), scratch);
+        generator.writeFieldName(COUNT);
+        generator.writeNumber(summary.count());
+        generator.writeFieldName(MEAN);
+        writeFixedPoint(generator, summary.mean(), scratch);
+        generator.writeFieldName(VARIANCE);
+        writeVariance(generator, summary.variance(), scratch);
+        generator.writeFieldName(STANDARD_DEVIATION);
+        writeFixedPoint(generator, summary.standardDeviation(), scratch);
+        generator.writeFieldName(TIME_WEIGHTED_AVERAGE);
+        writeFixedPoint(generator, summary.timeWeightedAverage(), scratch);
+        generator.writeEndObject();
+    }
+
+    private static void writeSymbol(JsonGenerator generator, String symbol) throws IOException {
+        if (symbol == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeString(SYMBOLS.computeIfAbsent(symbol, SerializedString::new));
+    }
+
+    private static void writeFixedPoint(JsonGenerator generator, long value, char[] scratch) throws IOException {
+        if (generator.canWriteFormattedNumbers()) {
+            generator.writeNumber(scratch, 0, FixedPoint8.format(value, scratch, 0));
+        } else {
+            generator.writeNumber(FixedPoint8.toBigDecimal(value));
+        }
+    }
+
+    /**
+     * Writes a variance with 8 decimal places, going through {@link BigDecimal}
+     * only beyond the fixed-point range.
+     */
+    private static void writeVariance(JsonGenerator generator, double variance, char[] scratch) throws IOException {
+        if (variance < MAX_FIXED_POINT_VARIANCE) {
+            writeFixedPoint(generator, FixedPoint8.round(variance), scratch);
+        } else {
+            generator.writeNumber(BigDecimal.valueOf(variance).setScale(FixedPoint8.SCALE, RoundingMode.HALF_UP));
+        }
+    }
+
+    private static void writeInstant(JsonGenerator generator, Instant instant, char[] scratch) throws IOException {
+        if (instant == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeString(scratch, 0, IsoInstantFormat.format(instant, scratch, 0));
+    }
+}
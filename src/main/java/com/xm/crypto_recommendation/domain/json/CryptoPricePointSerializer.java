@@ -0,0 +1,25 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializer for {@link CryptoPricePoint}.
+ *
+ * @see CryptoJsonWriter
+ */
+public class CryptoPricePointSerializer extends StdSerializer<CryptoPricePoint> {
+
+    public CryptoPricePointSerializer() {
+        super(CryptoPricePoint.class);
+    }
+
+    @Override
+    public void serialize(CryptoPricePoint point, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        CryptoJsonWriter.writePricePoint(generator, point, new char[CryptoJsonWriter.SCRATCH_LENGTH]);
+    }
+}
@@ -0,0 +1,25 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializer for {@link CryptoRanking}.
+ *
+ * @see CryptoJsonWriter
+ */
+public class CryptoRankingSerializer extends StdSerializer<CryptoRanking> {
+
+    public CryptoRankingSerializer() {
+        super(CryptoRanking.class);
+    }
+
+    @Override
+    public void serialize(CryptoRanking ranking, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        CryptoJsonWriter.writeRanking(generator, ranking, new char[CryptoJsonWriter.SCRATCH_LENGTH]);
+    }
+}
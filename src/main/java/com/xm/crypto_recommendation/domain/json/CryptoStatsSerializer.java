@@ -0,0 +1,25 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializer for {@link CryptoStats}.
+ *
+ * @see CryptoJsonWriter
+ */
+public class CryptoStatsSerializer extends StdSerializer<CryptoStats> {
+
+    public CryptoStatsSerializer() {
+        super(CryptoStats.class);
+    }
+
+    @Override
+    public void serialize(CryptoStats stats, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        CryptoJsonWriter.writeStats(generator, stats, new char[CryptoJsonWriter.SCRATCH_LENGTH]);
+    }
+}
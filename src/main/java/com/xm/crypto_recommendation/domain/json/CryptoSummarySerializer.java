@@ -0,0 +1,25 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializer for {@link CryptoSummary}.
+ *
+ * @see CryptoJsonWriter
+ */
+public class CryptoSummarySerializer extends StdSerializer<CryptoSummary> {
+
+    public CryptoSummarySerializer() {
+        super(CryptoSummary.class);
+    }
+
+    @Override
+    public void serialize(CryptoSummary summary, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        CryptoJsonWriter.writeSummary(generator, summary, new char[CryptoJsonWriter.SCRATCH_LENGTH]);
+    }
+}
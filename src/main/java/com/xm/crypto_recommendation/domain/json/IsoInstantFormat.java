@@ -0,0 +1,94 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import java.time.Instant;
+
+/**
+ * Allocation-free formatting of {@link Instant} values in ISO-8601 form.
+ *
+ * <p>
+ * Produces exactly the output of {@link Instant#toString()} (and therefore of
+ * {@link java.time.format.DateTimeFormatter#ISO_INSTANT}) for years 0 to 9999:
+ * the fraction of second is omitted when zero and otherwise printed in groups
+ * of three digits.
+ * </p>
+ */
+final class IsoInstantFormat {
+
+    /**
+     * Upper bound of characters written by {@link #format(Instant, char[], int)}.
+     */
+    static final int MAX_LENGTH = 30;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long MIN_SECOND = -62_167_219_200L; // 0000-01-01T00:00:00Z
+    private static final long MAX_SECOND = 253_402_300_799L; // 9999-12-31T23:59:59Z
+
+    private IsoInstantFormat() {
+    }
+
+    /**
+     * Writes the ISO-8601 representation of the instant into the buffer.
+     *
+     * @param instant instant to format
+     * @param buffer  destination, needs {@link #MAX_LENGTH} free characters
+     * @param offset  first index to write to
+     * @return number of characters written
+     */
+    static int format(Instant instant, char[] buffer, int offset) {
+        long seconds = instant.getEpochSecond();
+        if (seconds < MIN_SECOND || seconds > MAX_SECOND) {
+            String text = instant.toString();
+            text.getChars(0, text.length(), buffer, offset);
+            return text.length();
+        }
+
+        long epochDay = Math.floorDiv(seconds, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+
+        // Civil-from-days conversion (proleptic Gregorian calendar, eras of 400 years).
+        long shifted = epochDay + 719_468;
+        long era = Math.floorDiv(shifted, 146_097);
+        int dayOfEra = (int) (shifted - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        int position = offset;
+        position = digits(year, 4, buffer, position);
+        buffer[position++] = '-';
+        position = digits(month, 2, buffer, position);
+        buffer[position++] = '-';
+        position = digits(day, 2, buffer, position);
+        buffer[position++] = 'T';
+        position = digits(secondOfDay / 3_600, 2, buffer, position);
+        buffer[position++] = ':';
+        position = digits(secondOfDay / 60 % 60, 2, buffer, position);
+        buffer[position++] = ':';
+        position = digits(secondOfDay % 60, 2, buffer, position);
+
+        int nanos = instant.getNano();
+        if (nanos != 0) {
+            buffer[position++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                position = digits(nanos / 1_000_000, 3, buffer, position);
+            } else if (nanos % 1_000 == 0) {
+                position = digits(nanos / 1_000, 6, buffer, position);
+            } else {
+                position = digits(nanos, 9, buffer, position);
+            }
+        }
+        buffer[position++] = 'Z';
+        return position - offset;
+    }
+
+    private static int digits(int value, int width, char[] buffer, int position) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + width;
+    }
+}
@@ -0,0 +1,25 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.xm.crypto_recommendation.domain.dto.RollingNormalizedRangePoint;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializer for {@link RollingNormalizedRangePoint}.
+ *
+ * @see CryptoJsonWriter
+ */
+public class RollingNormalizedRangePointSerializer extends StdSerializer<RollingNormalizedRangePoint> {
+
+    public RollingNormalizedRangePointSerializer() {
+        super(RollingNormalizedRangePoint.class);
+    }
+
+    @Override
+    public void serialize(RollingNormalizedRangePoint point, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        CryptoJsonWriter.writeRollingNormalizedRangePoint(generator, point, new char[CryptoJsonWriter.SCRATCH_LENGTH]);
+    }
+}
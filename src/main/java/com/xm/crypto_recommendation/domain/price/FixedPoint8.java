@@ -0,0 +1,169 @@
+package com.xm.crypto_recommendation.domain.price;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic for prices stored with 8 decimal places.
+ *
+ * <p>
+ * A price is represented as a plain {@code long} holding its value multiplied
+ * by 10<sup>8</sup> (e.g. {@code 46813.21} is {@code 4_681_321_000_000L}),
+ * which matches the {@code DECIMAL(19, 8)} column it is read from. All
+ * operations work on primitives and allocate nothing, while producing results
+ * identical to the equivalent {@link BigDecimal} operations at scale 8.
+ * </p>
+ *
+ * <p>
+ * Representable values are limited to about &plusmn;9.2 &times; 10<sup>10</sup>;
+ * conversions and operations fail with {@link ArithmeticException} instead of
+ * overflowing silently.
+ * </p>
+ */
+public final class FixedPoint8 {
+
+    /**
+     * Number of decimal places.
+     */
+    public static final int SCALE = 8;
+
+    /**
+     * Fixed-point representation of {@code 1}.
+     */
+    public static final long ONE = 100_000_000L;
+
+    /**
+     * Upper bound of characters needed by {@link #format(long, char[], int)}.
+     */
+    public static final int MAX_FORMATTED_LENGTH = 21;
+
+    private FixedPoint8() {
+    }
+
+    /**
+     * Converts a decimal value to its fixed-point representation.
+     *
+     * @throws ArithmeticException if the value has more than 8 decimal places or is out of range
+     */
+    public static long of(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Rounds a floating-point value half-up, i.e. ties away from zero as
+     * {@link RoundingMode#HALF_UP}, to its fixed-point representation.
+     *
+     * @throws ArithmeticException if the value is not finite or out of range
+     */
+    public static long round(double value) {
+        double scaled = Math.copySign(Math.floor(Math.abs(value) * ONE + 0.5), value);
+        if (!Double.isFinite(scaled) || scaled >= 0x1p63 || scaled < -0x1p63) {
+            throw new ArithmeticException("Value out of fixed-point range: " + value);
+        }
+        return (long) scaled;
+    }
+
+    /**
+     * Converts a fixed-point value to a {@link BigDecimal} with scale 8.
+     */
+    public static BigDecimal toBigDecimal(long value) {
+        return BigDecimal.valueOf(value, SCALE);
+    }
+
+    /**
+     * Calculates the normalized range {@code (max - min) / min}, rounded
+     * {@link RoundingMode#HALF_UP} to 8 decimal places.
+     *
+     * @param min minimum price, must be positive
+     * @param max maximum price, must not be below {@code min}
+     * @return normalized range as fixed-point value
+     */
+    public static long normalizedRange(long min, long max) {
+        return divide(Math.subtractExact(max, min), min);
+    }
+
+    /**
+     * Divides two fixed-point values, rounding {@link RoundingMode#HALF_UP} to
+     * 8 decimal places. Equivalent to
+     * {@code dividend.divide(divisor, 8, RoundingMode.HALF_UP)}.
+     *
+     * @param dividend non-negative dividend
+     * @param divisor  positive divisor
+     * @return quotient as fixed-point value
+     */
+    public static long divide(long dividend, long divisor) {
+        if (dividend < 0 || divisor <= 0) {
+            throw new IllegalArgumentException("Expected non-negative dividend and positive divisor");
+        }
+        long integerPart = dividend / divisor;
+        long remainder = dividend % divisor;
+
+        // The fraction is remainder * 10^8 / divisor. The product needs up to
+        // 91 bits, so it is formed as a 128-bit value and divided bit by bit.
+        long high = Math.multiplyHigh(remainder, ONE);
+        long low = remainder * ONE;
+        long fraction = 0;
+        long rest = high;
+        for (int bit = Long.SIZE - 1; bit >= 0; bit--) {
+            // rest < divisor < 2^63, so shifting left cannot lose a bit in unsigned terms.
+            rest = (rest << 1) | ((low >>> bit) & 1);
+            fraction <<= 1;
+            if (Long.compareUnsigned(rest, divisor) >= 0) {
+                rest -= divisor;
+                fraction |= 1;
+            }
+        }
+        if (Long.compareUnsigned(rest << 1, divisor) >= 0) {
+            fraction++;
+        }
+        return Math.addExact(Math.multiplyExact(integerPart, ONE), fraction);
+    }
+
+    /**
+     * Writes the plain decimal representation of a fixed-point value, always
+     * with 8 decimal places (e.g. {@code 46813.21000000}).
+     *
+     * @param value  fixed-point value
+     * @param buffer destination, needs {@link #MAX_FORMATTED_LENGTH} free characters
+     * @param offset first index to write to
+     * @return number of characters written
+     */
+    public static int format(long value, char[] buffer, int offset) {
+        int position = offset;
+        // Work on the negated value so that Long.MIN_VALUE needs no special case.
+        long negative = value;
+        if (value < 0) {
+            buffer[position++] = '-';
+        } else {
+            negative = -value;
+        }
+        long integerPart = -(negative / ONE);
+        long fraction = -(negative % ONE);
+
+        int digits = 1;
+        for (long remaining = integerPart; remaining >= 10; remaining /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + integerPart % 10);
+            integerPart /= 10;
+        }
+        position += digits;
+        buffer[position++] = '.';
+        for (int i = position + SCALE - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        return position + SCALE - offset;
+    }
+
+    /**
+     * Returns the plain decimal representation of a fixed-point value.
+     *
+     * @see #format(long, char[], int)
+     */
+    public static String toString(long value) {
+        char[] buffer = new char[MAX_FORMATTED_LENGTH];
+        return new String(buffer, 0, format(value, buffer, 0));
+    }
+}
@@ -0,0 +1,408 @@
+package com.xm.crypto_recommendation.domain.price;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Gorilla-style compression of a block of price ticks.
+ *
+ * <p>
+ * A block stores ticks in timestamp order as a bit stream. Its header holds
+ * the tick count, the first tick and two units: the greatest common divisor
+ * of all timestamp deltas and of all price deltas. Ticks arriving on whole
+ * hours or prices quoted in cents thus shrink to small integers before
+ * encoding. Each further tick is then encoded as
+ * <ul>
+ *     <li>the delta of its timestamp delta (delta-of-delta), which is
+ *     {@code 0} for regular ticks and costs a single bit:
+ *     {@code 0} | {@code 10}+7 bits | {@code 110}+9 bits | {@code 1110}+12 bits
+ *     | {@code 11110}+32 bits | {@code 11111}+64 bits</li>
+ *     <li>the delta of its fixed-point price: {@code 0} if unchanged, otherwise
+ *     {@code 1} followed by a 6-bit length and that many significant bits</li>
+ * </ul>
+ * All deltas are zigzag encoded so small negative values stay small.
+ * </p>
+ *
+ * <p>
+ * Non-empty blocks end in a byte-aligned trailer holding the encoder state
+ * after the last tick: its timestamp, price and timestamp delta, and the bit
+ * length of the stream. {@link #append} resumes encoding from there, so ticks
+ * arriving in order extend a block without decoding it.
+ * </p>
+ *
+ * <p>
+ * Timestamps are encoded with millisecond precision, the precision of the
+ * CSV input. Deltas wrap around on overflow consistently on both sides, so
+ * any sequence of {@code long}s round-trips.
+ * </p>
+ */
+public final class PriceBlockCodec {
+
+    private static final int COUNT_BITS = 32;
+    private static final int TRAILER_BYTES = 4 * Long.BYTES;
+
+    private PriceBlockCodec() {
+    }
+
+    /**
+     * Encodes the first {@code count} ticks of the given arrays.
+     *
+     * @param timestamps epoch milliseconds, in ascending order
+     * @param prices     fixed-point prices
+     * @param count      number of ticks to encode
+     * @return the encoded block
+     */
+    public static byte[] encode(long[] timestamps, long[] prices, int count) {
+        // Header plus an estimate of a few bytes per tick.
+        BitWriter writer = new BitWriter(new byte[36 + 4 * Math.max(count, 0)], 0);
+        writer.write(count, COUNT_BITS);
+        if (count == 0) {
+            return writer.toByteArray();
+        }
+
+        long timestampUnit = deltaUnit(timestamps, count);
+        long priceUnit = deltaUnit(prices, count);
+        writer.write(timestampUnit, Long.SIZE);
+        writer.write(priceUnit, Long.SIZE);
+        writer.write(timestamps[0], Long.SIZE);
+        writer.write(prices[0], Long.SIZE);
+
+        long previousDelta = writeTicks(writer, timestampUnit, priceUnit, timestamps[0], prices[0], 0, timestamps, prices, 1, count);
+        return withTrailer(writer, timestamps[count - 1], prices[count - 1], previousDelta);
+    }
+
+    /**
+     * Appends ticks to a block.
+     *
+     * <p>
+     * If the ticks start no earlier than the last tick of the block and their
+     * deltas are multiples of the block's units, encoding resumes from the
+     * trailer and the existing stream is copied as is. Otherwise the block is
+     * decoded, merged and encoded again; ticks with equal timestamps keep the
+     * existing one first either way.
+     * </p>
+     *
+     * @param block      encoded block
+     * @param timestamps epoch milliseconds, in ascending order
+     * @param prices     fixed-point prices
+     * @param count      number of ticks to append
+     * @return the encoded block holding the ticks of both
+     */
+    public static byte[] append(byte[] block, long[] timestamps, long[] prices, int count) {
+        if (count == 0) {
+            return block;
+        }
+        BitReader reader = new BitReader(block);
+        int existing = (int) reader.read(COUNT_BITS);
+        if (existing == 0) {
+            return encode(timestamps, prices, count);
+        }
+        long timestampUnit = reader.read(Long.SIZE);
+        long priceUnit = reader.read(Long.SIZE);
+
+        ByteBuffer trailer = ByteBuffer.wrap(block, block.length - TRAILER_BYTES, TRAILER_BYTES);
+        long lastTimestamp = trailer.getLong();
+        long lastPrice = trailer.getLong();
+        long previousDelta = trailer.getLong();
+        long bitLength = trailer.getLong();
+
+        if (timestamps[0] < lastTimestamp
+                || !continuesInUnits(lastTimestamp, timestamps, count, timestampUnit)
+                || !continuesInUnits(lastPrice, prices, count, priceUnit)) {
+            return merge(block, timestamps, prices, count);
+        }
+
+        // Copy the stream without the trailer: the writer ORs bits into zeroed bytes.
+        int streamBytes = (int) ((bitLength + 7) >>> 3);
+        byte[] bytes = new byte[streamBytes + 4 * count];
+        System.arraycopy(block, 0, bytes, 0, streamBytes);
+        ByteBuffer.wrap(bytes).putInt(0, existing + count);
+
+        BitWriter writer = new BitWriter(bytes, bitLength);
+        previousDelta = writeTicks(writer, timestampUnit, priceUnit, lastTimestamp, lastPrice, previousDelta, timestamps, prices, 0, count);
+        return withTrailer(writer, timestamps[count - 1], prices[count - 1], previousDelta);
+    }
+
+    /**
+     * Returns the number of ticks in a block without decoding it.
+     */
+    public static int count(byte[] block) {
+        return (int) new BitReader(block).read(COUNT_BITS);
+    }
+
+    /**
+     * Decodes all ticks of a block.
+     *
+     * @param block encoded block
+     * @param into  series the ticks are appended to
+     */
+    public static void decode(byte[] block, PriceSeries into) {
+        decode(block, Long.MIN_VALUE, Long.MAX_VALUE, into);
+    }
+
+    /**
+     * Decodes the ticks of a block within a time range.
+     *
+     * <p>
+     * Decoding stops at the first tick after the range.
+     * </p>
+     *
+     * @param block encoded block
+     * @param from  start of the range in epoch milliseconds (inclusive)
+     * @param to    end of the range in epoch milliseconds (inclusive)
+     * @param into  series the ticks are appended to
+     */
+    public static void decode(byte[] block, long from, long to, PriceSeries into) {
+        BitReader reader = new BitReader(block);
+        int count = (int) reader.read(COUNT_BITS);
+        if (count == 0) {
+            return;
+        }
+
+        long timestampUnit = reader.read(Long.SIZE);
+        long priceUnit = reader.read(Long.SIZE);
+        long timestamp = reader.read(Long.SIZE);
+        long price = reader.read(Long.SIZE);
+
+        long delta = 0;
+        for (int i = 0; ; i++) {
+            if (timestamp > to) {
+                return;
+            }
+            if (timestamp >= from) {
+                into.add(timestamp, price);
+            }
+            if (i == count - 1) {
+                return;
+            }
+            delta += unzigzag(readDeltaOfDelta(reader));
+            timestamp += delta * timestampUnit;
+            price += unzigzag(readPriceDelta(reader)) * priceUnit;
+        }
+    }
+
+    /**
+     * Writes the ticks from {@code from} to {@code count} following the given
+     * previous tick, and returns the last timestamp delta.
+     */
+    private static long writeTicks(BitWriter writer, long timestampUnit, long priceUnit,
+                                   long previousTimestamp, long previousPrice, long previousDelta,
+                                   long[] timestamps, long[] prices, int from, int count) {
+        for (int i = from; i < count; i++) {
+            long delta = (timestamps[i] - previousTimestamp) / timestampUnit;
+            writeDeltaOfDelta(writer, zigzag(delta - previousDelta));
+            previousDelta = delta;
+            writePriceDelta(writer, zigzag((prices[i] - previousPrice) / priceUnit));
+            previousTimestamp = timestamps[i];
+            previousPrice = prices[i];
+        }
+        return previousDelta;
+    }
+
+    private static byte[] withTrailer(BitWriter writer, long lastTimestamp, long lastPrice, long previousDelta) {
+        byte[] stream = writer.toByteArray();
+        return ByteBuffer.allocate(stream.length + TRAILER_BYTES)
+                .put(stream)
+                .putLong(lastTimestamp)
+                .putLong(lastPrice)
+                .putLong(previousDelta)
+                .putLong(writer.bitLength)
+                .array();
+    }
+
+    /**
+     * Returns whether all deltas from {@code previous} through the given values
+     * are multiples of {@code unit}.
+     */
+    private static boolean continuesInUnits(long previous, long[] values, int count, long unit) {
+        if (unit == 1) {
+            return true;
+        }
+        try {
+            for (int i = 0; i < count; i++) {
+                if (Math.subtractExact(values[i], previous) % unit != 0) {
+                    return false;
+                }
+                previous = values[i];
+            }
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a block, merges the given ticks in timestamp order and encodes the result.
+     */
+    private static byte[] merge(byte[] block, long[] timestamps, long[] prices, int count) {
+        PriceSeries existing = new PriceSeries(count(block));
+        decode(block, existing);
+
+        int total = existing.size() + count;
+        long[] mergedTimestamps = new long[total];
+        long[] mergedPrices = new long[total];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            if (j == count || (i < existing.size() && existing.timestamp(i) <= timestamps[j])) {
+                mergedTimestamps[k] = existing.timestamp(i);
+                mergedPrices[k] = existing.price(i++);
+            } else {
+                mergedTimestamps[k] = timestamps[j];
+                mergedPrices[k] = prices[j++];
+            }
+        }
+        return encode(mergedTimestamps, mergedPrices, total);
+    }
+
+    private static void writeDeltaOfDelta(BitWriter writer, long value) {
+        if (value == 0) {
+            writer.write(0b0, 1);
+        } else if (value >>> 7 == 0) {
+            writer.write(0b10, 2);
+            writer.write(value, 7);
+        } else if (value >>> 9 == 0) {
+            writer.write(0b110, 3);
+            writer.write(value, 9);
+        } else if (value >>> 12 == 0) {
+            writer.write(0b1110, 4);
+            writer.write(value, 12);
+        } else if (value >>> 32 == 0) {
+            writer.write(0b11110, 5);
+            writer.write(value, 32);
+        } else {
+            writer.write(0b11111, 5);
+            writer.write(value, Long.SIZE);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader reader) {
+        if (reader.read(1) == 0) {
+            return 0;
+        }
+        if (reader.read(1) == 0) {
+            return reader.read(7);
+        }
+        if (reader.read(1) == 0) {
+            return reader.read(9);
+        }
+        if (reader.read(1) == 0) {
+            return reader.read(12);
+        }
+        return reader.read(reader.read(1) == 0 ? 32 : Long.SIZE);
+    }
+
+    private static void writePriceDelta(BitWriter writer, long value) {
+        if (value == 0) {
+            writer.write(0b0, 1);
+            return;
+        }
+        int length = Long.SIZE - Long.numberOfLeadingZeros(value);
+        writer.write(0b1, 1);
+        writer.write(length - 1, 6);
+        writer.write(value, length);
+    }
+
+    private static long readPriceDelta(BitReader reader) {
+        if (reader.read(1) == 0) {
+            return 0;
+        }
+        return reader.read((int) reader.read(6) + 1);
+    }
+
+    /**
+     * Returns the greatest common divisor of all deltas between consecutive
+     * values, or {@code 1} if there is none or a delta overflows.
+     */
+    private static long deltaUnit(long[] values, int count) {
+        long unit = 0;
+        try {
+            for (int i = 1; i < count && unit != 1; i++) {
+                unit = gcd(unit, Math.absExact(Math.subtractExact(values[i], values[i - 1])));
+            }
+        } catch (ArithmeticException e) {
+            return 1;
+        }
+        return unit == 0 ? 1 : unit;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Appends bit fields, most significant bit first.
+     */
+    private static final class BitWriter {
+
+        private byte[] bytes;
+        private long bitLength;
+
+        /**
+         * Resumes writing after the first {@code bitLength} bits of the given
+         * bytes; all bits after them must be zero.
+         */
+        private BitWriter(byte[] bytes, long bitLength) {
+            this.bytes = bytes;
+            this.bitLength = bitLength;
+        }
+
+        private void write(long value, int bits) {
+            while (bits > 0) {
+                int index = (int) (bitLength >>> 3);
+                if (index == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+                int available = 8 - (int) (bitLength & 7);
+                int taken = Math.min(available, bits);
+                int chunk = (int) ((value >>> (bits - taken)) & ((1L << taken) - 1));
+                bytes[index] |= (byte) (chunk << (available - taken));
+                bits -= taken;
+                bitLength += taken;
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, (int) ((bitLength + 7) >>> 3));
+        }
+    }
+
+    /**
+     * Reads bit fields written by {@link BitWriter}.
+     */
+    private static final class BitReader {
+
+        private final byte[] bytes;
+        private long position;
+
+        private BitReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private long read(int bits) {
+            long value = 0;
+            while (bits > 0) {
+                int available = 8 - (int) (position & 7);
+                int taken = Math.min(available, bits);
+                int current = bytes[(int) (position >>> 3)] & 0xFF;
+                value = (value << taken) | ((current >>> (available - taken)) & ((1 << taken) - 1));
+                bits -= taken;
+                position += taken;
+            }
+            return value;
+        }
+    }
+}
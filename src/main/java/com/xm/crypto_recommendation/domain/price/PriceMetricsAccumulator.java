@@ -0,0 +1,122 @@
+package com.xm.crypto_recommendation.domain.price;
+
+/**
+ * Risk and return metrics of a price series, computed in a single streaming
+ * pass over prices in timestamp order.
+ *
+ * <p>
+ * Every {@link #add} updates all metrics at once in constant time and space:
+ * the minimum and maximum price, the first and last price, the mean and
+ * variance of the log returns between consecutive prices (Welford's
+ * algorithm, which stays numerically stable over long series) and the
+ * deepest fall from a running peak. The cost of a series is therefore the
+ * same whichever and however many metrics are read afterwards.
+ * </p>
+ *
+ * <p>
+ * Returns are per tick and not annualized, as ticks are not evenly spaced.
+ * The accumulator requires positive prices; callers skip series whose
+ * minimum is zero, as for the normalized range.
+ * </p>
+ */
+public final class PriceMetricsAccumulator {
+
+    private long count;
+    private long first;
+    private long last;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    private long returns;
+    private double meanReturn;
+    private double squaredDeviations;
+
+    private long peak;
+    private double maxDrawdown;
+
+    /**
+     * Adds the next price of the series.
+     *
+     * @param price fixed-point price, not earlier than the previously added one
+     */
+    public void add(long price) {
+        if (count == 0) {
+            first = price;
+        } else if (last > 0 && price > 0) {
+            double logReturn = Math.log((double) price / last);
+            returns++;
+            double delta = logReturn - meanReturn;
+            meanReturn += delta / returns;
+            squaredDeviations += delta * (logReturn - meanReturn);
+        }
+        count++;
+        last = price;
+        min = Math.min(min, price);
+        max = Math.max(max, price);
+
+        if (price > peak) {
+            peak = price;
+        } else if (peak > 0) {
+            maxDrawdown = Math.max(maxDrawdown, (double) (peak - price) / peak);
+        }
+    }
+
+    /**
+     * Adds all prices of a series.
+     */
+    public void addAll(PriceSeries series) {
+        for (int i = 0; i < series.size(); i++) {
+            add(series.price(i));
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the minimum price, or {@link Long#MAX_VALUE} if no price was added.
+     */
+    public long min() {
+        return min;
+    }
+
+    /**
+     * Returns the maximum price, or {@link Long#MIN_VALUE} if no price was added.
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the sample standard deviation of the log returns, or zero with
+     * fewer than two returns.
+     */
+    public double volatility() {
+        return returns < 2 ? 0 : Math.sqrt(squaredDeviations / (returns - 1));
+    }
+
+    /**
+     * Returns the total return {@code newest / oldest - 1}.
+     */
+    public double totalReturn() {
+        return first == 0 ? 0 : (double) last / first - 1;
+    }
+
+    /**
+     * Returns the largest relative fall from a preceding peak, between
+     * {@code 0} and {@code 1}.
+     */
+    public double maxDrawdown() {
+        return maxDrawdown;
+    }
+
+    /**
+     * Returns the mean log return per unit of volatility (a Sharpe ratio
+     * with a risk-free rate of zero), or zero if the volatility is zero.
+     */
+    public double sharpeRatio() {
+        double volatility = volatility();
+        return volatility == 0 ? 0 : meanReturn / volatility;
+    }
+}
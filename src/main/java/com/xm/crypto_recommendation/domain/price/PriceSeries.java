@@ -0,0 +1,98 @@
+package com.xm.crypto_recommendation.domain.price;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Growable, columnar sequence of price ticks.
+ *
+ * <p>
+ * Timestamps are held as epoch milliseconds and prices as {@link FixedPoint8}
+ * longs in two parallel primitive arrays, so decoding or scanning a series
+ * creates no object per tick.
+ * </p>
+ */
+public final class PriceSeries {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private long[] timestamps;
+    private long[] prices;
+    private int size;
+
+    public PriceSeries() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PriceSeries(int capacity) {
+        this.timestamps = new long[Math.max(capacity, 1)];
+        this.prices = new long[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Appends a tick.
+     *
+     * @param timestamp epoch milliseconds
+     * @param price     fixed-point price
+     */
+    public void add(long timestamp, long price) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            prices = Arrays.copyOf(prices, size * 2);
+        }
+        timestamps[size] = timestamp;
+        prices[size] = price;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the timestamp of the tick at the given index, in epoch milliseconds.
+     */
+    public long timestamp(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * Returns the fixed-point price of the tick at the given index.
+     */
+    public long price(int index) {
+        return prices[index];
+    }
+
+    /**
+     * Returns the ticks in timestamp order, ticks with equal timestamps
+     * keeping their relative order. Returns this series if it is already
+     * ordered.
+     */
+    public PriceSeries sortedByTimestamp() {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = timestamps[i - 1] <= timestamps[i];
+        }
+        if (sorted) {
+            return this;
+        }
+        PriceSeries series = new PriceSeries(size);
+        IntStream.range(0, size)
+                .boxed()
+                .sorted(Comparator.comparingLong(i -> timestamps[i]))
+                .forEach(i -> series.add(timestamps[i], prices[i]));
+        return series;
+    }
+
+    /**
+     * Returns a copy of the prices of all ticks.
+     */
+    public long[] prices() {
+        return Arrays.copyOf(prices, size);
+    }
+}
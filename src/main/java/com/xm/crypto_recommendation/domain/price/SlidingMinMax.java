@@ -0,0 +1,90 @@
+package com.xm.crypto_recommendation.domain.price;
+
+/**
+ * Minimum and maximum of a sliding window over a fixed sequence of prices.
+ *
+ * <p>
+ * The window is the index range {@code [start, end)} and both bounds only
+ * ever move forward. Two monotonic deques of indices are maintained: the
+ * minimum deque holds strictly increasing prices, the maximum deque strictly
+ * decreasing ones, so the current extreme is always at the head. Every index
+ * is pushed and popped at most once per deque, making a full pass over
+ * {@code n} prices O(n) regardless of the window size.
+ * </p>
+ *
+ * <p>
+ * Ties follow the repository ordering: the earliest index wins for the
+ * minimum, the latest index wins for the maximum.
+ * </p>
+ */
+public final class SlidingMinMax {
+
+    private final long[] prices;
+
+    // Each index enters a deque at most once, so plain arrays never wrap.
+    private final int[] minDeque;
+    private final int[] maxDeque;
+    private int minHead;
+    private int minTail;
+    private int maxHead;
+    private int maxTail;
+
+    private int end;
+
+    public SlidingMinMax(long[] prices) {
+        this.prices = prices;
+        this.minDeque = new int[prices.length];
+        this.maxDeque = new int[prices.length];
+    }
+
+    /**
+     * Moves the end of the window forward, adding all prices before {@code newEnd}.
+     *
+     * @param newEnd exclusive end index, never smaller than the current one
+     */
+    public void extendTo(int newEnd) {
+        for (; end < newEnd; end++) {
+            long price = prices[end];
+            while (minTail > minHead && prices[minDeque[minTail - 1]] > price) {
+                minTail--;
+            }
+            minDeque[minTail++] = end;
+            while (maxTail > maxHead && prices[maxDeque[maxTail - 1]] <= price) {
+                maxTail--;
+            }
+            maxDeque[maxTail++] = end;
+        }
+    }
+
+    /**
+     * Moves the start of the window forward, evicting all prices before {@code newStart}.
+     *
+     * @param newStart inclusive start index, never smaller than the current one
+     */
+    public void shrinkFrom(int newStart) {
+        while (minHead < minTail && minDeque[minHead] < newStart) {
+            minHead++;
+        }
+        while (maxHead < maxTail && maxDeque[maxHead] < newStart) {
+            maxHead++;
+        }
+    }
+
+    public boolean isEmpty() {
+        return minHead == minTail;
+    }
+
+    /**
+     * @return index of the minimum price in the window, which must not be empty
+     */
+    public int minIndex() {
+        return minDeque[minHead];
+    }
+
+    /**
+     * @return index of the maximum price in the window, which must not be empty
+     */
+    public int maxIndex() {
+        return maxDeque[maxHead];
+    }
+}
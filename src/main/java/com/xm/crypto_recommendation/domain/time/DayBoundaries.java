@@ -0,0 +1,172 @@
+package com.xm.crypto_recommendation.domain.time;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Start and end instants of the calendar days of a time zone.
+ *
+ * <p>
+ * Resolving the start of a day with {@code date.atStartOfDay(zone)} looks up
+ * the zone's transition rules on every call. Instead, the start of every day
+ * from {@link #TABLE_START} to {@link #TABLE_END} is resolved once per zone
+ * into a table of epoch milliseconds, so a bound is an array read and the day
+ * of a timestamp is a binary search. Days that a zone skips (e.g. Pacific/Apia
+ * on 2011-12-30) start and end where the next day starts, and hold no
+ * timestamp. Fixed offsets such as UTC need no table and are computed.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and cached per zone. At most
+ * {@value #MAX_CACHED_ZONES} tables (about 290 KiB each) are kept; further
+ * zones, and dates outside the table, fall back to {@code java.time}
+ * resolution with identical results.
+ * </p>
+ */
+public final class DayBoundaries {
+
+    /**
+     * First day covered by the tables.
+     */
+    public static final LocalDate TABLE_START = LocalDate.of(2000, 1, 1);
+
+    /**
+     * Last day covered by the tables.
+     */
+    public static final LocalDate TABLE_END = LocalDate.of(2099, 12, 31);
+
+    static final int MAX_CACHED_ZONES = 64;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long FIRST_EPOCH_DAY = TABLE_START.toEpochDay();
+    private static final long LAST_EPOCH_DAY = TABLE_END.toEpochDay();
+
+    private static final ConcurrentMap<ZoneId, DayBoundaries> CACHE = new ConcurrentHashMap<>();
+
+    public static final DayBoundaries UTC = of(ZoneOffset.UTC);
+
+    private final ZoneId zone;
+    // Fixed offsets only.
+    private final long offsetMillis;
+    // Region zones only, null if not cached: starts[i] is the start of day FIRST_EPOCH_DAY + i,
+    // with one extra entry for the end of the last day.
+    private final long[] starts;
+
+    private DayBoundaries(ZoneId zone, boolean withTable) {
+        this.zone = zone;
+        if (zone instanceof ZoneOffset offset) {
+            this.offsetMillis = offset.getTotalSeconds() * 1000L;
+            this.starts = null;
+        } else {
+            this.offsetMillis = 0;
+            this.starts = withTable ? resolveStarts(zone) : null;
+        }
+    }
+
+    /**
+     * Returns the day boundaries of a zone.
+     *
+     * @param zone time zone; equivalent ids such as {@code UTC} and {@code Z} share an instance
+     */
+    public static DayBoundaries of(ZoneId zone) {
+        ZoneId normalized = zone.normalized();
+        DayBoundaries cached = CACHE.get(normalized);
+        if (cached != null) {
+            return cached;
+        }
+        if (!(normalized instanceof ZoneOffset) && CACHE.size() >= MAX_CACHED_ZONES) {
+            return new DayBoundaries(normalized, false);
+        }
+        return CACHE.computeIfAbsent(normalized, z -> new DayBoundaries(z, true));
+    }
+
+    /**
+     * Parses a time zone id, as accepted by {@link ZoneId#of(String)}.
+     *
+     * @return the zone, {@linkplain ZoneId#normalized() normalized} so that
+     *         e.g. {@code UTC} is {@link ZoneOffset#UTC}
+     * @throws IllegalArgumentException if the id is malformed or the region is unknown
+     */
+    public static ZoneId parseZone(String zone) {
+        try {
+            return ZoneId.of(zone.strip()).normalized();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + zone);
+        }
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    /**
+     * Returns the first instant of a day.
+     */
+    public Instant startOf(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay >= FIRST_EPOCH_DAY && epochDay <= LAST_EPOCH_DAY + 1) {
+            if (zone instanceof ZoneOffset) {
+                return Instant.ofEpochMilli(epochDay * MILLIS_PER_DAY - offsetMillis);
+            }
+            if (starts != null) {
+                return Instant.ofEpochMilli(starts[(int) (epochDay - FIRST_EPOCH_DAY)]);
+            }
+        }
+        return date.atStartOfDay(zone).toInstant();
+    }
+
+    /**
+     * Returns the last instant of a day (the start of the next day minus one nanosecond).
+     */
+    public Instant endOf(LocalDate date) {
+        return startOf(date.plusDays(1)).minusNanos(1);
+    }
+
+    /**
+     * Returns the day a timestamp falls on.
+     *
+     * @param epochMilli timestamp in epoch milliseconds
+     */
+    public LocalDate dayOf(long epochMilli) {
+        if (zone instanceof ZoneOffset) {
+            long epochDay = Math.floorDiv(epochMilli + offsetMillis, MILLIS_PER_DAY);
+            if (epochDay >= FIRST_EPOCH_DAY && epochDay <= LAST_EPOCH_DAY) {
+                return LocalDate.ofEpochDay(epochDay);
+            }
+        } else if (starts != null && epochMilli >= starts[0] && epochMilli < starts[starts.length - 1]) {
+            return LocalDate.ofEpochDay(FIRST_EPOCH_DAY + lastStartAtOrBefore(epochMilli));
+        }
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMilli), zone);
+    }
+
+    /**
+     * Returns the index of the last day starting at or before the timestamp,
+     * skipping days of zero length.
+     */
+    private int lastStartAtOrBefore(long epochMilli) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= epochMilli) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static long[] resolveStarts(ZoneId zone) {
+        long[] starts = new long[(int) (LAST_EPOCH_DAY - FIRST_EPOCH_DAY + 2)];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = LocalDate.ofEpochDay(FIRST_EPOCH_DAY + i).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return starts;
+    }
+}
@@ -0,0 +1,25 @@
+package com.xm.crypto_recommendation.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a query depends on price data that is still being ingested.
+ *
+ * <p>
+ * Unlike {@link UnsupportedCryptoException}, the condition is temporary;
+ * the exception carries a hint on when the client should retry.
+ * </p>
+ */
+public class DataLoadingException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public DataLoadingException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
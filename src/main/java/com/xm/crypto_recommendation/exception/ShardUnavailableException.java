@@ -0,0 +1,23 @@
+package com.xm.crypto_recommendation.exception;
+
+/**
+ * Thrown when a node of a sharded cluster cannot answer a partial query.
+ *
+ * <p>
+ * Never surfaces to clients: the coordinator leaves the node's cryptos out
+ * and reports the result as incomplete.
+ * </p>
+ */
+public class ShardUnavailableException extends RuntimeException {
+
+    private final String node;
+
+    public ShardUnavailableException(String node, String reason) {
+        super("Shard " + node + " unavailable: " + reason);
+        this.node = node;
+    }
+
+    public String getNode() {
+        return node;
+    }
+}
@@ -1,16 +1,21 @@
 package com.xm.crypto_recommendation.exception.handler;
 
 import com.xm.crypto_recommendation.exception.ApiError;
+import com.xm.crypto_recommendation.exception.DataLoadingException;
 import com.xm.crypto_recommendation.exception.NoDataException;
 import com.xm.crypto_recommendation.exception.UnsupportedCryptoException;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Global exception handler for the REST API.
@@ -31,6 +36,11 @@ public class GlobalExceptionHandler {
     /**
      * Handles requests for unsupported or unknown cryptocurrency symbols.
      *
+     * <p>
+     * Requests for a stats stream accept only {@code text/event-stream}, in
+     * which no {@link ApiError} can be written, so their error is sent as JSON.
+     * </p>
+     *
      * @param ex thrown when a requested crypto does not exist
      * @return HTTP 404 response with error details
      */
@@ -43,10 +53,13 @@ public class GlobalExceptionHandler {
     })
     @ExceptionHandler(UnsupportedCryptoException.class)
     public ResponseEntity<ApiError> handleUnsupportedCrypto(
-            UnsupportedCryptoException ex
+            UnsupportedCryptoException ex, WebRequest request
     ) {
-        return ResponseEntity
-                .status(HttpStatus.NOT_FOUND)
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.NOT_FOUND);
+        if (acceptsOnlyEventStream(request)) {
+            response.contentType(MediaType.APPLICATION_JSON);
+        }
+        return response
                 .body(new ApiError(
                         "UNSUPPORTED_CRYPTO",
                         ex.getMessage()
@@ -78,6 +91,32 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    /**
+     * Handles queries for data that is still being ingested.
+     *
+     * @param ex thrown when the requested data is not loaded yet
+     * @return HTTP 503 response with a {@code Retry-After} header and error details
+     */
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Requested data is still being loaded",
+                    content = @Content(schema = @Schema(implementation = ApiError.class))
+            )
+    })
+    @ExceptionHandler(DataLoadingException.class)
+    public ResponseEntity<ApiError> handleDataLoading(
+            DataLoadingException ex
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(new ApiError(
+                        "DATA_LOADING",
+                        ex.getMessage()
+                ));
+    }
+
     /**
      * Handles invalid request parameters or logically incorrect input.
      *
@@ -103,6 +142,31 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    /**
+     * Handles request bodies that are missing or cannot be parsed.
+     *
+     * @param ex thrown when the request body cannot be read
+     * @return HTTP 400 response with error details
+     */
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed request body",
+                    content = @Content(schema = @Schema(implementation = ApiError.class))
+            )
+    })
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ApiError> handleUnreadableBody(
+            HttpMessageNotReadableException ex
+    ) {
+        return ResponseEntity
+                .badRequest()
+                .body(new ApiError(
+                        "INVALID_REQUEST",
+                        "Malformed request body"
+                ));
+    }
+
     /**
      * Catches all unhandled exceptions, returning a generic server error response.
      *
@@ -122,4 +186,10 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiError("INTERNAL_ERROR", "Unexpected server error"));
     }
+
+    private static boolean acceptsOnlyEventStream(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && MediaType.parseMediaTypes(accept).stream()
+                .allMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype);
+    }
 }
@@ -0,0 +1,49 @@
+package com.xm.crypto_recommendation.filter;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Saturation of the connection pool serving queries.
+ *
+ * <p>
+ * The pool is the Hikari pool named {@code rate-limit.backpressure.pool}
+ * ({@code read} with separate read and write pools), or the only Hikari
+ * pool if there is just one.
+ * </p>
+ */
+@Component
+public class PoolSaturation {
+
+    private final HikariDataSource pool;
+
+    @Autowired
+    public PoolSaturation(ObjectProvider<HikariDataSource> pools, RateLimitProperties properties) {
+        this(pools.orderedStream().toList(), properties.backpressure().pool());
+    }
+
+    PoolSaturation(List<HikariDataSource> pools, String poolName) {
+        this.pool = pools.stream()
+                .filter(candidate -> poolName.equals(candidate.getPoolName()))
+                .findFirst()
+                .orElse(pools.size() == 1 ? pools.getFirst() : null);
+    }
+
+    /**
+     * Returns {@code (active + waiting) / maximum} connections of the pool:
+     * 1 when every connection is in use, above 1 when threads queue for one,
+     * and 0 if there is no pool or it has not been started yet.
+     */
+    public double saturation() {
+        HikariPoolMXBean bean = pool == null ? null : pool.getHikariPoolMXBean();
+        if (bean == null) {
+            return 0;
+        }
+        return (double) (bean.getActiveConnections() + bean.getThreadsAwaitingConnection()) / pool.getMaximumPoolSize();
+    }
+}
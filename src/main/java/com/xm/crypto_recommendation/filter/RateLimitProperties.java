@@ -0,0 +1,61 @@
+package com.xm.crypto_recommendation.filter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration of the {@link RateLimitingFilter}, under {@code rate-limit}.
+ *
+ * @param requestsPerMinute   cheap requests per minute of an anonymous client
+ * @param workPerMinute       tokens of expensive work per minute of an anonymous client
+ * @param routes              token cost per route pattern (e.g. {@code /api/cryptos/{symbol}/stats});
+ *                            routes costing more than one token are expensive, unlisted routes cost one
+ * @param adaptiveCosts       whether listed routes are re-costed from their measured latency
+ * @param costUnit            latency charged one token by adaptive costs
+ * @param maxCost             upper bound of adaptive costs
+ * @param tiers               limits per API key tier
+ * @param apiKeys             tier of each API key, sent in {@value RateLimitingFilter#API_KEY_HEADER}
+ * @param backpressure        shedding of expensive requests under database load
+ */
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("60") int requestsPerMinute,
+        @DefaultValue("600") int workPerMinute,
+        Map<String, Integer> routes,
+        @DefaultValue("false") boolean adaptiveCosts,
+        @DefaultValue("10ms") Duration costUnit,
+        @DefaultValue("100") int maxCost,
+        Map<String, Tier> tiers,
+        Map<String, String> apiKeys,
+        @DefaultValue Backpressure backpressure
+) {
+
+    public RateLimitProperties {
+        routes = routes == null ? Map.of() : routes;
+        tiers = tiers == null ? Map.of() : tiers;
+        apiKeys = apiKeys == null ? Map.of() : apiKeys;
+    }
+
+    /**
+     * Limits of the clients of one API key tier.
+     *
+     * @param requestsPerMinute cheap requests per minute of each client
+     * @param workPerMinute     tokens of expensive work per minute of each client
+     */
+    public record Tier(int requestsPerMinute, int workPerMinute) {
+    }
+
+    /**
+     * @param pool      name of the connection pool serving queries
+     * @param threshold saturation of that pool, {@code (active + waiting) / maximum},
+     *                  from which expensive requests are rejected
+     */
+    public record Backpressure(
+            @DefaultValue("read") String pool,
+            @DefaultValue("1.0") double threshold
+    ) {
+    }
+}
@@ -2,6 +2,8 @@ package com.xm.crypto_recommendation.filter;
 
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,26 +11,51 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Simple IP-based rate limiting filter.
+ * Rate limiting filter weighting requests by the cost of their route.
  *
  * <p>
- * This filter limits the number of incoming HTTP requests per client IP
- * using the Bucket4j token bucket algorithm.
+ * Each client gets two Bucket4j token buckets. Cheap requests (routes
+ * costing one token, e.g. {@code /{symbol}/stats}) take one token of the
+ * request bucket, refilled with {@code requests-per-minute}; expensive
+ * requests (e.g. a ranking of every crypto) take their route's cost from the
+ * work bucket, refilled with {@code work-per-minute}. Since they never share
+ * a bucket, a client bursting expensive requests can exhaust its work budget
+ * but never gets its cheap requests rejected. Route costs are configured per
+ * path pattern under {@code rate-limit.routes} and, with
+ * {@code rate-limit.adaptive-costs}, re-derived from measured latency
+ * (see {@link RouteCosts}).
  * </p>
  *
  * <p>
- * The implementation is intentionally lightweight and stateless outside
- * of the in-memory bucket map. It is suitable for single-instance
- * deployments or demonstration purposes.
+ * Clients sending an {@value #API_KEY_HEADER} header listed under
+ * {@code rate-limit.api-keys} are limited per key with the budgets of their
+ * tier; all others are limited per IP with the default budgets. A rejected
+ * request gets HTTP 429 with a {@code Retry-After} header.
+ * </p>
+ *
+ * <p>
+ * Expensive requests are also shed, with HTTP 503, while the connection pool
+ * serving queries is saturated (see {@link PoolSaturation}), so that they
+ * queue neither for connections nor in front of cheap requests. Rejections
+ * are counted in {@code rate-limit.rejected}, tagged with the reason
+ * ({@code quota} or {@code backpressure}) and the route class.
+ * </p>
+ *
+ * <p>
+ * Health probes ({@code /actuator/health/**}) are exempt, so that an
+ * orchestrator polling them never gets throttled into restarting or
+ * unrouting the instance.
  * </p>
  *
  * <p>
@@ -40,25 +67,50 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class RateLimitingFilter implements Filter {
 
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private static final String HEALTH_PATH = "/actuator/health";
+
+    /**
+     * Token buckets of one client.
+     */
+    private record ClientBuckets(Bucket requests, Bucket work) {
+    }
+
     /**
-     * In-memory store mapping client IP addresses to rate-limiting buckets.
+     * In-memory store mapping clients (API keys or IP addresses) to their buckets.
      */
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, ClientBuckets> buckets = new ConcurrentHashMap<>();
 
-    private final int requestsPerMinute;
+    private final RateLimitProperties properties;
+    private final RateLimitProperties.Tier anonymousTier;
+    private final RouteCosts routeCosts;
+    private final PoolSaturation poolSaturation;
+    private final MeterRegistry meterRegistry;
 
-    public RateLimitingFilter(
-        @Value("${rate-limit.requests-per-minute:60}") int requestsPerMinute
-    ) {
-        this.requestsPerMinute = requestsPerMinute;
+    @Autowired
+    public RateLimitingFilter(RateLimitProperties properties, PoolSaturation poolSaturation, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.anonymousTier = new RateLimitProperties.Tier(properties.requestsPerMinute(), properties.workPerMinute());
+        this.routeCosts = new RouteCosts(
+                properties.routes(), properties.adaptiveCosts(), properties.costUnit(), properties.maxCost());
+        this.poolSaturation = poolSaturation;
+        this.meterRegistry = meterRegistry;
+        properties.apiKeys().forEach((key, tier) -> {
+            if (!properties.tiers().containsKey(tier)) {
+                throw new IllegalArgumentException("API key tier " + tier + " is not configured under rate-limit.tiers");
+            }
+        });
     }
 
     /**
      * Applies rate limiting before allowing the request to proceed.
      *
      * <p>
-     * If the client exceeds the allowed number of requests, the filter
-     * responds with HTTP 429 (Too Many Requests).
+     * If the client exceeds the budget of the request's route class, the
+     * filter responds with HTTP 429 (Too Many Requests); if the request is
+     * expensive and the database is saturated, with HTTP 503 (Service
+     * Unavailable).
      * </p>
      */
     @Override
@@ -69,32 +121,74 @@ public class RateLimitingFilter implements Filter {
     ) throws IOException, ServletException {
 
         HttpServletRequest httpRequest = (HttpServletRequest) request;
-        String clientIp = extractClientIp(httpRequest);
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+        if (isHealthProbe(path)) {
+            chain.doFilter(request, response);
+            return;
+        }
 
-        Bucket bucket = buckets.computeIfAbsent(clientIp, this::createNewBucket);
+        RouteCosts.Route route = routeCosts.find(path);
+        int cost = routeCosts.costOf(route);
+        boolean expensive = cost > 1;
+        String routeClass = expensive ? "expensive" : "cheap";
 
-        if (bucket.tryConsume(1)) {
-            chain.doFilter(request, response);
+        if (expensive && poolSaturation.saturation() >= properties.backpressure().threshold()) {
+            meterRegistry.counter("rate-limit.rejected", "reason", "backpressure", "route", routeClass).increment();
+            reject(httpResponse, HttpServletResponse.SC_SERVICE_UNAVAILABLE, 1, "Service busy, retry later");
+            return;
+        }
+
+        String apiKey = httpRequest.getHeader(API_KEY_HEADER);
+        String tierName = apiKey != null ? properties.apiKeys().get(apiKey) : null;
+        ClientBuckets client = tierName != null
+                ? buckets.computeIfAbsent("key:" + apiKey, key -> createBuckets(properties.tiers().get(tierName)))
+                : buckets.computeIfAbsent("ip:" + extractClientIp(httpRequest), ip -> createBuckets(anonymousTier));
+        ConsumptionProbe probe = expensive
+                ? client.work().tryConsumeAndReturnRemaining(cost)
+                : client.requests().tryConsumeAndReturnRemaining(1);
+
+        if (probe.isConsumed()) {
+            long start = System.nanoTime();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                routeCosts.record(route, System.nanoTime() - start);
+            }
         } else {
-            HttpServletResponse httpResponse = (HttpServletResponse) response;
-            httpResponse.setStatus(429);
-            httpResponse.getWriter().write("Too many requests");
+            meterRegistry.counter("rate-limit.rejected", "reason", "quota", "route", routeClass).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+            reject(httpResponse, 429, retryAfter, "Too many requests");
         }
     }
 
+    private boolean isHealthProbe(String path) {
+        return path.equals(HEALTH_PATH) || path.startsWith(HEALTH_PATH + "/");
+    }
+
+    private void reject(HttpServletResponse response, int status, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getWriter().write(message);
+    }
+
     /**
-     * Creates a new rate-limiting bucket for a client IP.
+     * Creates the buckets of a client, sized by its tier.
      *
      * <p>
-     * The bucket allows a fixed number of requests per minute and refills
-     * at a constant rate.
+     * Each bucket allows a fixed budget per minute and refills at a
+     * constant rate.
      * </p>
      */
-    private Bucket createNewBucket(String ip) {
+    private ClientBuckets createBuckets(RateLimitProperties.Tier tier) {
+        return new ClientBuckets(perMinute(tier.requestsPerMinute()), perMinute(tier.workPerMinute()));
+    }
+
+    private static Bucket perMinute(int tokens) {
         return Bucket.builder()
                 .addLimit(Bandwidth.builder()
-                        .capacity(requestsPerMinute)
-                        .refillIntervally(requestsPerMinute, Duration.ofMinutes(1))
+                        .capacity(tokens)
+                        .refillIntervally(tokens, Duration.ofMinutes(1))
                         .build())
                 .build();
     }
@@ -0,0 +1,117 @@
+package com.xm.crypto_recommendation.filter;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token costs of the routes, static or derived from measured latency.
+ *
+ * <p>
+ * Every listed route starts at its configured cost. With adaptive costs,
+ * the latency of its requests is tracked as an exponentially weighted
+ * moving average, and once enough requests were measured the route costs
+ * one token per {@code costUnit} of average latency, at most
+ * {@code maxCost}. Routes that are not listed always cost one token.
+ * </p>
+ */
+class RouteCosts {
+
+    /**
+     * Requests measured before a route is re-costed.
+     */
+    static final int MIN_SAMPLES = 20;
+
+    private static final double SMOOTHING = 0.1;
+
+    /**
+     * A listed route and its latency statistics.
+     */
+    static final class Route {
+
+        private final PathPattern pattern;
+        private final int configuredCost;
+        private long samples;
+        private double meanNanos;
+
+        private Route(PathPattern pattern, int configuredCost) {
+            this.pattern = pattern;
+            this.configuredCost = configuredCost;
+        }
+
+        synchronized void record(long nanos) {
+            meanNanos = samples == 0 ? nanos : meanNanos + SMOOTHING * (nanos - meanNanos);
+            samples++;
+        }
+
+        synchronized long samples() {
+            return samples;
+        }
+
+        synchronized double meanNanos() {
+            return meanNanos;
+        }
+    }
+
+    private final List<Route> routes;
+    private final boolean adaptive;
+    private final long unitNanos;
+    private final int maxCost;
+
+    RouteCosts(Map<String, Integer> costs, boolean adaptive, Duration unit, int maxCost) {
+        costs.values().forEach(cost -> {
+            if (cost < 1) {
+                throw new IllegalArgumentException("Route costs must be positive: " + costs);
+            }
+        });
+        this.routes = costs.entrySet().stream()
+                .map(entry -> new Route(PathPatternParser.defaultInstance.parse(entry.getKey()), entry.getValue()))
+                .toList();
+        this.adaptive = adaptive;
+        this.unitNanos = unit.toNanos();
+        this.maxCost = maxCost;
+    }
+
+    /**
+     * Returns the listed route matching a path, or {@code null} if it is not listed.
+     *
+     * @param path request path without context path
+     */
+    Route find(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (Route route : routes) {
+            if (route.pattern.matches(container)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the tokens a request to the route costs.
+     *
+     * @param route route as returned by {@link #find}
+     */
+    int costOf(Route route) {
+        if (route == null) {
+            return 1;
+        }
+        if (!adaptive || route.samples() < MIN_SAMPLES) {
+            return route.configuredCost;
+        }
+        return (int) Math.clamp((long) Math.ceil(route.meanNanos() / unitNanos), 1, maxCost);
+    }
+
+    /**
+     * Records the latency of a request to the route, if costs are adaptive.
+     */
+    void record(Route route, long nanos) {
+        if (adaptive && route != null) {
+            route.record(nanos);
+        }
+    }
+}
@@ -2,20 +2,37 @@ package com.xm.crypto_recommendation.ingestion;
 
 import com.xm.crypto_recommendation.domain.entity.Crypto;
 import com.xm.crypto_recommendation.domain.entity.CryptoPrice;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
+import com.xm.crypto_recommendation.registry.DataVersionTracker;
 import com.xm.crypto_recommendation.repository.CryptoPriceRepository;
 import com.xm.crypto_recommendation.repository.CryptoRepository;
-import jakarta.transaction.Transactional;
+import com.xm.crypto_recommendation.store.DailyLeaderboardIndex;
+import com.xm.crypto_recommendation.store.OffHeapPriceStore;
+import com.xm.crypto_recommendation.store.PriceSummaryIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Loads historical cryptocurrency price data from CSV files into the database
@@ -23,16 +40,19 @@ import java.util.stream.Collectors;
  *
  * <p>
  * This component is implemented as an {@link ApplicationRunner} so that CSV
- * ingestion happens once during application initialization, before any API
- * requests are served.
+ * ingestion starts once during application initialization. By default it
+ * completes before any API requests are served. With
+ * {@code ingestion.async=true} it runs on a background thread instead, so
+ * the application starts (and passes its liveness probe) immediately; each
+ * symbol becomes queryable as soon as its file is committed, and the
+ * readiness probe follows the {@link IngestionProgress}.
  * </p>
  *
  * <p>
- * For the purpose of this exercise, the loader assumes an empty database on
- * startup (e.g. in-memory H2). In a production environment with a persistent
- * database, CSV ingestion would typically be handled using a versioned
- * migration or ingestion mechanism (such as Flyway, Liquibase, or a dedicated
- * ingestion history table) to ensure idempotency and safe re-deployments.
+ * Ingestion is idempotent and incremental: the {@link IngestionManifest}
+ * remembers what has been ingested from every file, so on a restart against
+ * a persistent database unchanged files are skipped and only rows appended
+ * since the previous run are inserted.
  * </p>
  *
  * <p>
@@ -43,63 +63,238 @@ import java.util.stream.Collectors;
 @Component
 public class CsvDataLoader implements ApplicationRunner {
 
+    private record LoadedFile(Crypto crypto, PriceSeries ticks) {
+
+        int rows() {
+            return ticks.size();
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CsvDataLoader.class);
+
+    /**
+     * Number of parsed prices persisted at a time, bounding the entities
+     * held in the persistence context while a file is loaded.
+     */
+    static final int CHUNK_SIZE = 10_000;
+
     private final CryptoRepository cryptoRepository;
     private final CryptoPriceRepository priceRepository;
     private final CsvResourceLoader resourceLoader;
     private final CsvParser csvParser;
-
+    private final CryptoRegistry cryptoRegistry;
+    private final DataVersionTracker dataVersionTracker;
+    private final IngestionProgress ingestionProgress;
+    private final IngestionManifest ingestionManifest;
+    private final OffHeapPriceStore offHeapPriceStore;
+    private final PriceSummaryIndex priceSummaryIndex;
+    private final DailyLeaderboardIndex dailyLeaderboardIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean async;
 
     @Autowired
     public CsvDataLoader(
             CryptoRepository cryptoRepository, CryptoPriceRepository priceRepository,
-            CsvResourceLoader resourceLoader, CsvParser csvParser
+            CsvResourceLoader resourceLoader, CsvParser csvParser,
+            CryptoRegistry cryptoRegistry, DataVersionTracker dataVersionTracker,
+            IngestionProgress ingestionProgress, IngestionManifest ingestionManifest,
+            OffHeapPriceStore offHeapPriceStore, PriceSummaryIndex priceSummaryIndex,
+            DailyLeaderboardIndex dailyLeaderboardIndex, PlatformTransactionManager transactionManager,
+            @Value("${ingestion.async:false}") boolean async
     ) {
         this.cryptoRepository = cryptoRepository;
         this.priceRepository = priceRepository;
         this.resourceLoader = resourceLoader;
         this.csvParser = csvParser;
+        this.cryptoRegistry = cryptoRegistry;
+        this.dataVersionTracker = dataVersionTracker;
+        this.ingestionProgress = ingestionProgress;
+        this.ingestionManifest = ingestionManifest;
+        this.offHeapPriceStore = offHeapPriceStore;
+        this.priceSummaryIndex = priceSummaryIndex;
+        this.dailyLeaderboardIndex = dailyLeaderboardIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.async = async;
     }
 
     /**
      * Executes CSV ingestion on application startup.
      *
      * <p>
-     * For each discovered CSV file:
+     * All discovered files are announced to the {@link IngestionProgress}
+     * first, so that their symbols are known to be loading. In asynchronous
+     * mode the files are then loaded on a dedicated background thread.
+     * </p>
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Resource> resources = resourceLoader.loadAllCsvs();
+
+        Map<String, Long> fileSizesBySymbol = new LinkedHashMap<>();
+        resources.forEach(resource -> fileSizesBySymbol.put(extractSymbol(resource), contentLength(resource)));
+        ingestionProgress.start(fileSizesBySymbol);
+
+        if (async) {
+            new SimpleAsyncTaskExecutor("csv-ingestion-").execute(() -> loadAll(resources));
+        } else {
+            loadAll(resources);
+        }
+    }
+
+    /**
+     * Loads the given files one by one.
+     *
+     * <p>
+     * For each file:
      * <ul>
      *     <li>The crypto symbol is derived from the file name</li>
      *     <li>The crypto entity is created if not already present</li>
-     *     <li>All price records are parsed and persisted in bulk</li>
+     *     <li>The part of the file not ingested by a previous run is read</li>
+     *     <li>Its new price records are parsed as they are read, rounded to 8 decimals and
+     *     persisted in chunks of {@value #CHUNK_SIZE}</li>
+     *     <li>The monthly partition summaries touched by the records are updated</li>
+     *     <li>The manifest entry of the file is advanced</li>
      * </ul>
      * </p>
      *
      * <p>
-     * The method is transactional to ensure consistency in case of parsing
-     * or persistence errors.
+     * Each file is loaded in its own transaction to ensure consistency in case
+     * of parsing or persistence errors. The crypto is published to the
+     * {@link CryptoRegistry} and its data version is bumped only after the
+     * transaction commits, so a symbol never becomes visible before its prices.
+     * The committed prices are added to the {@link PriceSummaryIndex} and the
+     * {@link DailyLeaderboardIndex}, and mirrored into the
+     * {@link OffHeapPriceStore} (if enabled) first.
      * </p>
      */
-    @Override
-    @Transactional
-    public void run(ApplicationArguments args) {
-        resourceLoader.loadAllCsvs().forEach(resource -> {
-            try (InputStream csvInputStream = resource.getInputStream()) {
-                List<CryptoPriceCsvRecord> records = csvParser.parse(csvInputStream);
+    private void loadAll(List<Resource> resources) {
+        try {
+            for (Resource resource : resources) {
+                LoadedFile loaded = loadAndPublish(resource, false);
+                ingestionProgress.loaded(loaded.crypto().getSymbol(), loaded.rows(), contentLength(resource));
+            }
+            ingestionProgress.completed();
+        } catch (RuntimeException e) {
+            ingestionProgress.failed(e);
+            if (!async) {
+                throw e;
+            }
+            log.error("CSV ingestion failed", e);
+        }
+    }
 
-                String symbol = extractSymbol(resource);
-                Crypto crypto = cryptoRepository.findBySymbol(symbol).orElseGet(() -> cryptoRepository.save(new Crypto(symbol)));
+    /**
+     * Ingests what has been added to a single file since it was last loaded.
+     *
+     * <p>
+     * Used for files that may still be written to: a trailing line without
+     * line break is left for the next call. As with the startup load, the new
+     * prices become visible to queries at once, when the transaction commits
+     * and the symbol's data version is bumped.
+     * </p>
+     *
+     * @param resource CSV file following the {@code SYMBOL_*.csv} naming convention
+     * @return number of price rows inserted
+     */
+    public int ingest(Resource resource) {
+        return loadAndPublish(resource, true).rows();
+    }
+
+    private LoadedFile loadAndPublish(Resource resource, boolean completeLinesOnly) {
+        LoadedFile loaded = transactionTemplate.execute(status -> load(resource, completeLinesOnly));
+
+        String symbol = loaded.crypto().getSymbol();
+        PriceSeries ticks = loaded.ticks().sortedByTimestamp();
+        Supplier<PriceSeries> history = lazyHistory(loaded.crypto());
+        priceSummaryIndex.append(symbol, ticks, history);
+        dailyLeaderboardIndex.append(symbol, ticks, history);
+        if (offHeapPriceStore.isEnabled()) {
+            offHeapPriceStore.append(symbol, ticks, history);
+        }
+        cryptoRegistry.register(List.of(loaded.crypto()));
+        // Unchanged files still need an initial version after a restart.
+        if (loaded.rows() > 0 || dataVersionTracker.symbolVersion(symbol).isEmpty()) {
+            dataVersionTracker.bump(List.of(symbol));
+        }
+        return loaded;
+    }
+
+    private LoadedFile load(Resource resource, boolean completeLinesOnly) {
+        try {
+            IngestionManifest.Delta delta = ingestionManifest.read(resource, completeLinesOnly);
+
+            String symbol = extractSymbol(resource);
+            Crypto crypto = cryptoRepository.findBySymbol(symbol).orElseGet(() -> cryptoRepository.save(new Crypto(symbol)));
+
+            if (delta.change() == IngestionManifest.Change.UNCHANGED) {
+                log.debug("Skipping unchanged CSV {}", resource.getFilename());
+                return new LoadedFile(crypto, new PriceSeries());
+            }
+
+            // Only the compact ticks the in-memory indexes are fed with outlive a chunk.
+            PriceSeries ticks = new PriceSeries();
+            List<CryptoPrice> chunk = new ArrayList<>(CHUNK_SIZE);
+            try (InputStream csv = delta.openCsv()) {
+                csvParser.parse(csv, cryptoPriceCsvRecord -> {
+                    CryptoPrice cryptoPrice = new CryptoPrice(
+                            crypto, Instant.ofEpochMilli(cryptoPriceCsvRecord.getTimestamp()), round(cryptoPriceCsvRecord.getPrice()));
+                    if (!delta.includes(cryptoPrice.getTimestamp())) {
+                        return;
+                    }
+                    ticks.add(cryptoPrice.getTimestamp().toEpochMilli(), FixedPoint8.of(cryptoPrice.getPrice()));
+                    chunk.add(cryptoPrice);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        priceRepository.saveAllPartitioned(crypto, chunk);
+                        chunk.clear();
+                    }
+                });
+            }
+            if (!chunk.isEmpty()) {
+                priceRepository.saveAllPartitioned(crypto, chunk);
+            }
 
-                List<CryptoPrice> cryptoPrices = records.stream()
-                        .map(cryptoPriceCsvRecord ->
-                                new CryptoPrice(crypto, Instant.ofEpochMilli(cryptoPriceCsvRecord.getTimestamp()), cryptoPriceCsvRecord.getPrice()))
-                        .collect(Collectors.toList());
+            ingestionManifest.record(symbol, delta, ticks);
+            log.info("Ingested {} rows from {} CSV {}", ticks.size(), delta.change(), resource.getFilename());
+            return new LoadedFile(crypto, ticks);
 
-                priceRepository.saveAll(cryptoPrices);
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Failed to read CSV: " + resource.getFilename(), e
+            );
+        }
+    }
 
-            } catch (IOException e) {
-                throw new IllegalStateException(
-                        "Failed to read CSV: " + resource.getFilename(), e
-                );
+    /**
+     * Rounds a parsed price half-up to the {@link FixedPoint8#SCALE} decimals
+     * every store keeps, once, so the database rows, the partition blocks and
+     * the in-memory indexes all hold the same value.
+     */
+    private static BigDecimal round(BigDecimal price) {
+        return price.setScale(FixedPoint8.SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Returns the full price history of a crypto, read at most once however
+     * many indexes need to be rebuilt from it.
+     */
+    private Supplier<PriceSeries> lazyHistory(Crypto crypto) {
+        return new Supplier<>() {
+            private PriceSeries series;
+
+            @Override
+            public PriceSeries get() {
+                if (series == null) {
+                    series = history(crypto);
+                }
+                return series;
             }
-        });
+        };
+    }
+
+    private PriceSeries history(Crypto crypto) {
+        Instant min = priceRepository.findMinTimestamp(crypto);
+        Instant max = priceRepository.findMaxTimestamp(crypto);
+        return min == null ? new PriceSeries() : priceRepository.findPriceSeries(crypto, min, max);
     }
 
     /**
@@ -113,4 +308,14 @@ public class CsvDataLoader implements ApplicationRunner {
         String filename = resource.getFilename();
         return filename.substring(0, filename.indexOf("_"));
     }
+
+    private long contentLength(Resource resource) {
+        try {
+            return resource.contentLength();
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Failed to read CSV: " + resource.getFilename(), e
+            );
+        }
+    }
 }
@@ -0,0 +1,189 @@
+package com.xm.crypto_recommendation.ingestion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Hot-loads new and appended CSV files from the {@code ingestion.directory}.
+ *
+ * <p>
+ * The directory is monitored with a {@link WatchService}. Created or modified
+ * {@code SYMBOL_values.csv} files are collected until no further event arrives
+ * for one poll interval (or for at most a few intervals), so a file being
+ * written is not re-read for every write. They are then handed to
+ * {@link CsvDataLoader#ingest}, which only reads what was appended since the
+ * last run.
+ * </p>
+ *
+ * <p>
+ * The watch is registered before the startup load begins, so no change is
+ * missed, but events are only processed once the startup load has finished.
+ * The time from a file's last modification until its rows are visible to
+ * queries is recorded as the {@value #LAG_METER_NAME} timer.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty("ingestion.directory")
+public class CsvDirectoryWatcher implements SmartLifecycle {
+
+    static final String LAG_METER_NAME = "crypto.ingestion.lag";
+
+    private static final int MAX_SETTLE_INTERVALS = 5;
+
+    private static final Logger log = LoggerFactory.getLogger(CsvDirectoryWatcher.class);
+
+    private final Path directory;
+    private final CsvDataLoader csvDataLoader;
+    private final IngestionProgress ingestionProgress;
+    private final Duration pollInterval;
+    private final Clock clock;
+    private final Timer lag;
+
+    private volatile WatchService watchService;
+    private volatile Thread thread;
+
+    @Autowired
+    public CsvDirectoryWatcher(
+            @Value("${ingestion.directory}") Path directory,
+            @Value("${ingestion.watch.poll-interval:1s}") Duration pollInterval,
+            CsvDataLoader csvDataLoader, IngestionProgress ingestionProgress, MeterRegistry meterRegistry
+    ) {
+        this(directory, pollInterval, csvDataLoader, ingestionProgress, meterRegistry, Clock.systemUTC());
+    }
+
+    CsvDirectoryWatcher(
+            Path directory, Duration pollInterval,
+            CsvDataLoader csvDataLoader, IngestionProgress ingestionProgress, MeterRegistry meterRegistry,
+            Clock clock
+    ) {
+        this.directory = directory.toAbsolutePath();
+        this.pollInterval = pollInterval;
+        this.csvDataLoader = csvDataLoader;
+        this.ingestionProgress = ingestionProgress;
+        this.clock = clock;
+        this.lag = Timer.builder(LAG_METER_NAME)
+                .description("Time from the modification of a CSV file until its new rows are visible to queries")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to watch CSV directory: " + directory, e);
+        }
+        thread = Thread.ofPlatform().daemon().name("csv-watcher").start(this::watch);
+    }
+
+    @Override
+    public void stop() {
+        Thread running = thread;
+        thread = null;
+        if (running != null) {
+            running.interrupt();
+        }
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Failed to close watch service of {}", directory, e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    private void watch() {
+        Set<Path> changed = new LinkedHashSet<>();
+        Instant changedSince = null;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    collect(key, changed);
+                    changedSince = changedSince == null ? clock.instant() : changedSince;
+                }
+                // Files written to continuously are still picked up after a few intervals.
+                boolean settled = key == null
+                        || Duration.between(changedSince, clock.instant()).compareTo(pollInterval.multipliedBy(MAX_SETTLE_INTERVALS)) >= 0;
+                if (settled && !changed.isEmpty() && startupLoadFinished()) {
+                    changed.forEach(this::ingest);
+                    changed.clear();
+                    changedSince = null;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean startupLoadFinished() {
+        IngestionProgress.State state = ingestionProgress.state();
+        return state == IngestionProgress.State.COMPLETED || state == IngestionProgress.State.FAILED;
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost: look at every file, unchanged ones are skipped cheaply.
+                try (Stream<Path> files = Files.list(directory)) {
+                    files.filter(file -> CsvResourceLoader.isCsvFileName(file.getFileName().toString()))
+                            .forEach(changed::add);
+                } catch (IOException e) {
+                    log.warn("Failed to list CSV directory {}", directory, e);
+                }
+            } else if (event.context() instanceof Path file && CsvResourceLoader.isCsvFileName(file.toString())) {
+                changed.add(directory.resolve(file));
+            }
+        }
+        key.reset();
+    }
+
+    private void ingest(Path file) {
+        try {
+            if (!Files.isRegularFile(file)) {
+                return;
+            }
+            Instant modifiedAt = Files.getLastModifiedTime(file).toInstant();
+            int rows = csvDataLoader.ingest(new FileSystemResource(file));
+            if (rows > 0) {
+                lag.record(Duration.between(modifiedAt, clock.instant()));
+                log.info("Hot-loaded {} rows from {}", rows, file.getFileName());
+            }
+        } catch (IOException | RuntimeException e) {
+            // The file is retried on its next modification.
+            log.warn("Failed to ingest {}", file, e);
+        }
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Parses CSV files containing cryptocurrency price data into strongly typed records.
@@ -29,18 +29,23 @@ public class CsvParser {
     private final CsvMapper csvMapper;
 
     public CsvParser() {
-        this.csvMapper = new CsvMapper();
+        // Appended chunks may start with the line break the previous chunk lacked.
+        this.csvMapper = CsvMapper.builder()
+                .enable(com.fasterxml.jackson.dataformat.csv.CsvParser.Feature.SKIP_EMPTY_LINES)
+                .build();
     }
 
     /**
-     * Parses the provided CSV input stream into a list of price records.
+     * Parses the provided CSV input stream row by row, handing each price
+     * record to the consumer as soon as it is read, so that no more than one
+     * row is held by the parser however long the input is.
      *
      * @param inputStream input stream of a CSV file with headers
-     * @return list of parsed {@link CryptoPriceCsvRecord} instances
+     * @param consumer    receives the parsed {@link CryptoPriceCsvRecord} instances in file order
      *
      * @throws IllegalStateException if the CSV cannot be parsed
      */
-    public List<CryptoPriceCsvRecord> parse(InputStream inputStream) {
+    public void parse(InputStream inputStream, Consumer<CryptoPriceCsvRecord> consumer) {
         try {
             CsvSchema schema = CsvSchema.emptySchema()
                     .withHeader();
@@ -50,7 +55,9 @@ public class CsvParser {
                             .with(schema)
                             .readValues(inputStream);
 
-            return iterator.readAll();
+            while (iterator.hasNextValue()) {
+                consumer.accept(iterator.nextValue());
+            }
         } catch (IOException e) {
             throw new IllegalStateException("Failed to parse CSV file", e);
         }
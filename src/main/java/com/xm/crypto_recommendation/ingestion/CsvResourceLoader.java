@@ -1,11 +1,14 @@
 package com.xm.crypto_recommendation.ingestion;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -14,7 +17,9 @@ import java.util.List;
  * <p>
  * CSV files are loaded from the classpath using a glob pattern, allowing
  * new cryptocurrencies to be added simply by introducing new CSV files
- * without requiring any code changes.
+ * without requiring any code changes. If {@code ingestion.directory} is set,
+ * files are loaded from that filesystem directory instead, which is then
+ * monitored by the {@link CsvDirectoryWatcher}.
  * </p>
  *
  * <p>
@@ -26,7 +31,25 @@ import java.util.List;
 @Component
 public class CsvResourceLoader {
 
-    private static final String DATA_PATTERN = "classpath:data/*_values.csv";
+    static final String FILE_SUFFIX = "_values.csv";
+
+    private static final String DATA_PATTERN = "classpath:data/*" + FILE_SUFFIX;
+
+    private final String pattern;
+
+    @Autowired
+    public CsvResourceLoader(@Value("${ingestion.directory:}") String directory) {
+        this.pattern = directory.isBlank()
+                ? DATA_PATTERN
+                : "file:" + Path.of(directory).toAbsolutePath() + "/*" + FILE_SUFFIX;
+    }
+
+    /**
+     * Returns whether the file name follows the expected naming convention.
+     */
+    static boolean isCsvFileName(String fileName) {
+        return fileName.endsWith(FILE_SUFFIX) && fileName.indexOf('_') > 0;
+    }
 
     /**
      * Loads all CSV resources matching the configured pattern.
@@ -39,7 +62,7 @@ public class CsvResourceLoader {
         try {
             ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
 
-            return List.of(resolver.getResources(DATA_PATTERN));
+            return List.of(resolver.getResources(pattern));
         } catch (IOException e) {
             throw new IllegalStateException("Failed to load CSV resources", e);
         }
@@ -0,0 +1,27 @@
+package com.xm.crypto_recommendation.ingestion;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint ({@code /actuator/ingestion}) reporting the ingestion
+ * progress: files, rows and bytes loaded, ETA and per-symbol loaded flags.
+ */
+@Component
+@Endpoint(id = "ingestion")
+public class IngestionEndpoint {
+
+    private final IngestionProgress ingestionProgress;
+
+    @Autowired
+    public IngestionEndpoint(IngestionProgress ingestionProgress) {
+        this.ingestionProgress = ingestionProgress;
+    }
+
+    @ReadOperation
+    public IngestionProgress.Snapshot progress() {
+        return ingestionProgress.snapshot();
+    }
+}
@@ -0,0 +1,41 @@
+package com.xm.crypto_recommendation.ingestion;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the CSV ingestion state as part of the readiness probe.
+ *
+ * <p>
+ * The instance is alive as soon as the context has started, so liveness is
+ * unaffected. Readiness stays {@code OUT_OF_SERVICE} until all files are
+ * loaded and turns {@code DOWN} if ingestion fails.
+ * </p>
+ */
+@Component("ingestion")
+public class IngestionHealthIndicator implements HealthIndicator {
+
+    private final IngestionProgress ingestionProgress;
+
+    @Autowired
+    public IngestionHealthIndicator(IngestionProgress ingestionProgress) {
+        this.ingestionProgress = ingestionProgress;
+    }
+
+    @Override
+    public Health health() {
+        IngestionProgress.Snapshot snapshot = ingestionProgress.snapshot();
+        Health.Builder builder = switch (snapshot.state()) {
+            case COMPLETED -> Health.up();
+            case FAILED -> Health.down().withDetail("failure", String.valueOf(snapshot.failure()));
+            case PENDING, RUNNING -> Health.outOfService();
+        };
+        return builder
+                .withDetail("state", snapshot.state())
+                .withDetail("filesLoaded", snapshot.filesLoaded())
+                .withDetail("filesTotal", snapshot.filesTotal())
+                .build();
+    }
+}
@@ -0,0 +1,329 @@
+package com.xm.crypto_recommendation.ingestion;
+
+import com.xm.crypto_recommendation.domain.entity.IngestedFile;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import com.xm.crypto_recommendation.repository.IngestedFileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Determines which part of a CSV file still has to be ingested, based on the
+ * {@link IngestedFile} manifest entries of previous runs.
+ *
+ * <p>
+ * A file is identified by its name. Its entry stores the number of bytes
+ * consumed and a SHA-256 checksum of the (at most {@link #ANCHOR_LENGTH})
+ * bytes right before that offset. When the file is seen again:
+ * <ul>
+ *     <li>same size and matching checksum: the file is unchanged and skipped</li>
+ *     <li>larger and matching checksum: rows were appended, and only the bytes
+ *     after the stored offset are read</li>
+ *     <li>otherwise the file was rewritten: it is read in full, but only prices
+ *     newer than the stored high-water mark are ingested</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Only the bytes right before the offset are hashed, so detecting an unchanged
+ * or appended file reads a constant amount of data, however long the history
+ * is. Restart cost therefore grows with the new data, not with the file size.
+ * The new bytes are not buffered either: {@link Delta#openCsv()} streams
+ * them from the file into the parser, which hands each row on as it is read.
+ * </p>
+ */
+@Component
+public class IngestionManifest {
+
+    /**
+     * Maximum number of bytes preceding the consumed offset covered by the checksum.
+     */
+    static final int ANCHOR_LENGTH = 64 * 1024;
+
+    /**
+     * Number of bytes read at a time when looking for the last line break.
+     */
+    private static final int SCAN_LENGTH = 8 * 1024;
+
+    /**
+     * How a file relates to what has been ingested from it before.
+     */
+    public enum Change {
+        /** The file has never been ingested. */
+        NEW,
+        /** The file has not changed since it was last ingested. */
+        UNCHANGED,
+        /** Rows were appended to the previously ingested content. */
+        APPENDED,
+        /** The previously ingested content was modified or truncated. */
+        REWRITTEN
+    }
+
+    /**
+     * The part of a file that still has to be ingested.
+     *
+     * @param fileName      name of the file
+     * @param change        how the file changed since it was last ingested
+     * @param resource      the file
+     * @param offset        offset of the first byte to parse; the header line is prepended if positive
+     * @param size          number of bytes of the file covered by this delta, i.e. the end of the bytes to parse
+     * @param checksum      checksum of the bytes preceding {@code size}
+     * @param highWaterMark only prices after this timestamp are new, {@code null} if all are
+     * @param entry         manifest entry of the previous ingestion, {@code null} if none
+     */
+    public record Delta(
+            String fileName,
+            Change change,
+            Resource resource,
+            long offset,
+            long size,
+            String checksum,
+            Instant highWaterMark,
+            IngestedFile entry
+    ) {
+        /**
+         * Returns whether a price observed at the given time is part of the delta.
+         */
+        public boolean includes(Instant timestamp) {
+            return highWaterMark == null || timestamp.isAfter(highWaterMark);
+        }
+
+        /**
+         * Opens the CSV content to parse: the header line, unless the delta
+         * starts with it, followed by the bytes from {@code offset} to
+         * {@code size}, read from the file as the stream is consumed. The
+         * content is empty if the file is unchanged.
+         *
+         * @throws IOException if the file cannot be read
+         */
+        public InputStream openCsv() throws IOException {
+            if (offset == size) {
+                return InputStream.nullInputStream();
+            }
+            InputStream content = new RangeInputStream(resource, offset, size);
+            return offset == 0 ? content : new SequenceInputStream(new ByteArrayInputStream(header(resource)), content);
+        }
+    }
+
+    private final IngestedFileRepository ingestedFileRepository;
+    private final Clock clock;
+
+    @Autowired
+    public IngestionManifest(IngestedFileRepository ingestedFileRepository) {
+        this(ingestedFileRepository, Clock.systemUTC());
+    }
+
+    IngestionManifest(IngestedFileRepository ingestedFileRepository, Clock clock) {
+        this.ingestedFileRepository = ingestedFileRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Determines the part of the file that has not been ingested yet.
+     *
+     * @param resource CSV file
+     * @return the delta to ingest
+     * @throws IOException if the file cannot be read
+     */
+    public Delta read(Resource resource) throws IOException {
+        return read(resource, false);
+    }
+
+    /**
+     * Determines the part of the file that has not been ingested yet.
+     *
+     * <p>
+     * A file that may still be written to can end with a partially written
+     * line. With {@code completeLinesOnly} the delta stops after the last line
+     * break, and the remainder is picked up by a later read.
+     * </p>
+     *
+     * @param resource          CSV file
+     * @param completeLinesOnly whether to leave out a trailing line without line break
+     * @return the delta to ingest
+     * @throws IOException if the file cannot be read
+     */
+    public Delta read(Resource resource, boolean completeLinesOnly) throws IOException {
+        String fileName = resource.getFilename();
+        long size = resource.contentLength();
+        IngestedFile entry = ingestedFileRepository.findByFileName(fileName).orElse(null);
+
+        if (entry != null && size >= entry.getByteOffset() && checksum(resource, entry.getByteOffset()).equals(entry.getChecksum())) {
+            long offset = entry.getByteOffset();
+            long end = completeLinesOnly ? completeLinesEnd(resource, offset, size) : size;
+            if (end == offset) {
+                return new Delta(fileName, Change.UNCHANGED, resource, offset, offset, entry.getChecksum(), null, entry);
+            }
+            return new Delta(fileName, Change.APPENDED, resource, offset, end, checksum(resource, end), null, entry);
+        }
+
+        long end = completeLinesOnly ? completeLinesEnd(resource, 0, size) : size;
+        return new Delta(
+                fileName, entry == null ? Change.NEW : Change.REWRITTEN, resource, 0, end,
+                checksum(resource, end), entry == null ? null : entry.getMaxTimestamp(), entry
+        );
+    }
+
+    /**
+     * Records that the delta has been ingested.
+     *
+     * <p>
+     * Must run in the transaction that persists the prices, so the manifest
+     * never runs ahead of the data.
+     * </p>
+     *
+     * @param symbol symbol of the file
+     * @param delta  the ingested delta
+     * @param ticks  ticks persisted from the delta, in any order
+     */
+    public void record(String symbol, Delta delta, PriceSeries ticks) {
+        IngestedFile entry = delta.entry() != null ? delta.entry() : new IngestedFile(delta.fileName(), symbol);
+        Instant maxTimestamp = null;
+        for (int i = 0; i < ticks.size(); i++) {
+            if (maxTimestamp == null || ticks.timestamp(i) > maxTimestamp.toEpochMilli()) {
+                maxTimestamp = Instant.ofEpochMilli(ticks.timestamp(i));
+            }
+        }
+
+        entry.advance(delta.size(), delta.checksum(), maxTimestamp, ticks.size(), clock.instant());
+        ingestedFileRepository.save(entry);
+    }
+
+    /**
+     * Returns the first line of the file, including its line terminator.
+     */
+    private static byte[] header(Resource resource) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (InputStream inputStream = resource.getInputStream()) {
+            int b;
+            while ((b = inputStream.read()) != -1) {
+                header.write(b);
+                if (b == '\n') {
+                    break;
+                }
+            }
+        }
+        return header.toByteArray();
+    }
+
+    /**
+     * Returns the offset right after the last line break between {@code from}
+     * and {@code to}, or {@code from} if there is none. The bytes are scanned
+     * backwards in chunks of {@link #SCAN_LENGTH}, so usually only the tail of
+     * the range is read.
+     */
+    private static long completeLinesEnd(Resource resource, long from, long to) throws IOException {
+        for (long end = to; end > from; end -= SCAN_LENGTH) {
+            long start = Math.max(from, end - SCAN_LENGTH);
+            byte[] chunk = range(resource, start, end);
+            for (int i = chunk.length - 1; i >= 0; i--) {
+                if (chunk[i] == '\n') {
+                    return start + i + 1;
+                }
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Reads the bytes between two offsets into memory, for short ranges only.
+     */
+    private static byte[] range(Resource resource, long from, long to) throws IOException {
+        try (InputStream inputStream = new RangeInputStream(resource, from, to)) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    /**
+     * Stream of the bytes of a file between two offsets, failing if the file
+     * ends before the second one.
+     */
+    private static final class RangeInputStream extends FilterInputStream {
+
+        private final String fileName;
+        private long remaining;
+
+        RangeInputStream(Resource resource, long from, long to) throws IOException {
+            super(resource.getInputStream());
+            this.fileName = resource.getFilename();
+            this.remaining = to - from;
+            try {
+                in.skipNBytes(from);
+            } catch (EOFException e) {
+                in.close();
+                throw new IOException("File shrank while reading: " + fileName, e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b == -1) {
+                throw new IOException("File shrank while reading: " + fileName);
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read == -1) {
+                throw new IOException("File shrank while reading: " + fileName);
+            }
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Hashes the (at most {@link #ANCHOR_LENGTH}) bytes preceding the given offset.
+     */
+    private static String checksum(Resource resource, long offset) throws IOException {
+        byte[] anchor = range(resource, Math.max(0, offset - ANCHOR_LENGTH), offset);
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(anchor));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
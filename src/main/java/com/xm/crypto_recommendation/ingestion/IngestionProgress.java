@@ -0,0 +1,222 @@
+package com.xm.crypto_recommendation.ingestion;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tracks the state and progress of the CSV ingestion.
+ *
+ * <p>
+ * All symbols are announced when ingestion starts and flagged as loaded one
+ * by one as their files are committed. While ingestion runs, queries for an
+ * announced symbol that is not loaded yet can be answered with a retry hint
+ * instead of a "not supported" error, and queries spanning all symbols can be
+ * held back until the data is complete.
+ * </p>
+ *
+ * <p>
+ * Progress is measured in bytes of CSV input, which are known up front, so
+ * an ETA can be extrapolated from the throughput so far.
+ * </p>
+ */
+@Component
+public class IngestionProgress {
+
+    /**
+     * Lifecycle of the ingestion.
+     */
+    public enum State {
+        /** Ingestion has not started yet. */
+        PENDING,
+        /** Files are being loaded; some symbols may already be available. */
+        RUNNING,
+        /** All files have been loaded. */
+        COMPLETED,
+        /** Ingestion stopped with an error; symbols loaded so far stay available. */
+        FAILED
+    }
+
+    /**
+     * Point-in-time view of the ingestion progress.
+     *
+     * @param state          current lifecycle state
+     * @param filesTotal     number of files to load
+     * @param filesLoaded    number of files loaded and committed
+     * @param rowsLoaded     number of price rows loaded and committed
+     * @param bytesTotal     total size of all files
+     * @param bytesLoaded    size of the files loaded so far
+     * @param startedAt      start of the ingestion, {@code null} if not started
+     * @param elapsed        time spent so far, or in total once finished
+     * @param eta            estimated remaining time, {@code null} if unknown or finished
+     * @param loadedSymbols  symbols available for queries
+     * @param pendingSymbols symbols announced but not loaded yet
+     * @param failure        error message if the ingestion failed
+     */
+    public record Snapshot(
+            State state,
+            int filesTotal,
+            int filesLoaded,
+            long rowsLoaded,
+            long bytesTotal,
+            long bytesLoaded,
+            Instant startedAt,
+            Duration elapsed,
+            Duration eta,
+            List<String> loadedSymbols,
+            List<String> pendingSymbols,
+            String failure
+    ) {
+    }
+
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(60);
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final Clock clock;
+
+    private final List<Runnable> completionListeners = new CopyOnWriteArrayList<>();
+    private volatile State state = State.PENDING;
+    private final Set<String> loadedSymbols = new LinkedHashSet<>();
+    private final Set<String> pendingSymbols = new LinkedHashSet<>();
+    private int filesTotal;
+    private int filesLoaded;
+    private long rowsLoaded;
+    private long bytesTotal;
+    private long bytesLoaded;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String failure;
+
+    @Autowired
+    public IngestionProgress() {
+        this(Clock.systemUTC());
+    }
+
+    IngestionProgress(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Announces the files about to be loaded.
+     *
+     * @param fileSizesBySymbol size in bytes of the file of each symbol
+     */
+    public synchronized void start(Map<String, Long> fileSizesBySymbol) {
+        fileSizesBySymbol.keySet().forEach(symbol -> pendingSymbols.add(normalize(symbol)));
+        filesTotal += fileSizesBySymbol.size();
+        bytesTotal += fileSizesBySymbol.values().stream().mapToLong(Long::longValue).sum();
+        if (startedAt == null) {
+            startedAt = clock.instant();
+        }
+        finishedAt = null;
+        state = State.RUNNING;
+    }
+
+    /**
+     * Flags a symbol as loaded once its file has been committed.
+     */
+    public synchronized void loaded(String symbol, long rows, long bytes) {
+        String normalized = normalize(symbol);
+        pendingSymbols.remove(normalized);
+        loadedSymbols.add(normalized);
+        filesLoaded++;
+        rowsLoaded += rows;
+        bytesLoaded += bytes;
+    }
+
+    /**
+     * Registers a listener called once all files are loaded, on the ingesting
+     * thread, e.g. to warm up queries before the instance becomes ready.
+     */
+    public void addCompletionListener(Runnable listener) {
+        completionListeners.add(listener);
+    }
+
+    /**
+     * Marks the ingestion as completed, then notifies the completion listeners.
+     */
+    public void completed() {
+        synchronized (this) {
+            pendingSymbols.clear();
+            finishedAt = clock.instant();
+            state = State.COMPLETED;
+        }
+        completionListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Marks the ingestion as failed. Symbols not loaded so far will not
+     * become available and are no longer reported as pending.
+     */
+    public synchronized void failed(Throwable cause) {
+        pendingSymbols.clear();
+        finishedAt = clock.instant();
+        failure = cause.getMessage();
+        state = State.FAILED;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Tells whether ingestion is still running, i.e. whether data spanning
+     * all symbols is incomplete.
+     */
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    /**
+     * Tells whether the given symbol is announced but not loaded yet.
+     *
+     * @param symbol cryptocurrency symbol (case-insensitive)
+     */
+    public synchronized boolean isPending(String symbol) {
+        return pendingSymbols.contains(normalize(symbol));
+    }
+
+    /**
+     * Suggests how long clients should wait before retrying a query that
+     * depends on data still being loaded, based on the current ETA.
+     */
+    public Duration retryAfter() {
+        Duration eta = snapshot().eta();
+        if (eta == null) {
+            return DEFAULT_RETRY_AFTER;
+        }
+        if (eta.compareTo(MIN_RETRY_AFTER) < 0) {
+            return MIN_RETRY_AFTER;
+        }
+        return eta.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : eta;
+    }
+
+    public synchronized Snapshot snapshot() {
+        Instant now = finishedAt != null ? finishedAt : clock.instant();
+        Duration elapsed = startedAt == null ? Duration.ZERO : Duration.between(startedAt, now);
+        Duration eta = null;
+        if (state == State.RUNNING && bytesLoaded > 0) {
+            // Extrapolate the throughput so far to the remaining bytes.
+            eta = Duration.ofMillis(Math.round(
+                    elapsed.toMillis() * (double) (bytesTotal - bytesLoaded) / bytesLoaded));
+        }
+        return new Snapshot(
+                state, filesTotal, filesLoaded, rowsLoaded, bytesTotal, bytesLoaded, startedAt, elapsed, eta,
+                List.copyOf(loadedSymbols), List.copyOf(pendingSymbols), failure
+        );
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.toUpperCase(Locale.ROOT);
+    }
+}
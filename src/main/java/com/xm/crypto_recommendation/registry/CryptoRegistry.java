@@ -0,0 +1,54 @@
+package com.xm.crypto_recommendation.registry;
+
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory registry of supported cryptocurrencies.
+ *
+ * <p>
+ * The set of supported symbols only changes during ingestion, so request
+ * handling resolves symbols against an immutable {@link SymbolTable} instead
+ * of querying the database. Ingestion publishes new symbols by building a
+ * copy of the current table and swapping it in atomically; readers never
+ * block and always see a consistent snapshot.
+ * </p>
+ */
+@Component
+public class CryptoRegistry {
+
+    private final AtomicReference<SymbolTable> table = new AtomicReference<>(SymbolTable.EMPTY);
+
+    /**
+     * Finds a registered cryptocurrency by its symbol.
+     *
+     * @param symbol cryptocurrency symbol (case-insensitive)
+     * @return optional crypto entity if registered
+     */
+    public Optional<Crypto> findBySymbol(String symbol) {
+        return Optional.ofNullable(table.get().get(symbol));
+    }
+
+    /**
+     * Returns all registered cryptocurrencies.
+     *
+     * @return immutable list of crypto entities in registration order
+     */
+    public List<Crypto> findAll() {
+        return table.get().all();
+    }
+
+    /**
+     * Registers the given cryptocurrencies, replacing entries with the same symbol.
+     *
+     * @param cryptos persisted crypto entities
+     */
+    public void register(Collection<Crypto> cryptos) {
+        table.updateAndGet(current -> current.with(cryptos));
+    }
+}
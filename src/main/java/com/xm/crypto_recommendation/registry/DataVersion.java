@@ -0,0 +1,46 @@
+package com.xm.crypto_recommendation.registry;
+
+import java.time.Instant;
+
+/**
+ * Version of a slice of ingested price data.
+ *
+ * @param scope        data slice the version applies to, e.g. a crypto symbol
+ * @param sequence     monotonically increasing counter, bumped on every ingestion
+ * @param lastModified time of the ingestion that produced this version
+ */
+public record DataVersion(
+        String scope,
+        long sequence,
+        Instant lastModified
+) {
+
+    /**
+     * Returns a strong entity tag identifying this version.
+     *
+     * <p>
+     * The ingestion time is part of the tag so that counters restarting from
+     * zero after a redeploy never validate a stale client copy.
+     * </p>
+     *
+     * @return quoted strong ETag value
+     */
+    public String etag() {
+        return "\"" + tag() + "\"";
+    }
+
+    /**
+     * Returns a strong entity tag identifying this version in a specific
+     * representation, e.g. a binary encoding of the same data.
+     *
+     * @param representation short name of the representation, e.g. {@code cbor}
+     * @return quoted strong ETag value, distinct from {@link #etag()}
+     */
+    public String etag(String representation) {
+        return "\"" + tag() + "-" + representation + "\"";
+    }
+
+    private String tag() {
+        return scope + "-" + sequence + "-" + lastModified.toEpochMilli();
+    }
+}
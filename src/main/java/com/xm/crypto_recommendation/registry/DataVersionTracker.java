@@ -0,0 +1,102 @@
+package com.xm.crypto_recommendation.registry;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Tracks per-symbol and global versions of the ingested price data.
+ *
+ * <p>
+ * API responses only change when new prices are ingested, so these versions
+ * are used to derive HTTP validators ({@code ETag}, {@code Last-Modified})
+ * and to answer conditional requests without recomputing anything.
+ * </p>
+ *
+ * <p>
+ * Listeners registered with {@link #addListener} are told about every
+ * changed symbol once its new version is visible, e.g. to push updates to
+ * subscribed clients.
+ * </p>
+ */
+@Component
+public class DataVersionTracker {
+
+    /**
+     * Scope of the version covering the data of all cryptos.
+     */
+    static final String GLOBAL_SCOPE = "all";
+
+    private final CryptoRegistry cryptoRegistry;
+    private final Clock clock;
+    private final Map<String, DataVersion> symbolVersions = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private volatile DataVersion globalVersion;
+
+    @Autowired
+    public DataVersionTracker(CryptoRegistry cryptoRegistry) {
+        this(cryptoRegistry, Clock.systemUTC());
+    }
+
+    DataVersionTracker(CryptoRegistry cryptoRegistry, Clock clock) {
+        this.cryptoRegistry = cryptoRegistry;
+        this.clock = clock;
+        this.globalVersion = new DataVersion(GLOBAL_SCOPE, 0, clock.instant());
+    }
+
+    /**
+     * Returns the version of all ingested data.
+     */
+    public DataVersion globalVersion() {
+        return globalVersion;
+    }
+
+    /**
+     * Returns the version of the data of a single crypto.
+     *
+     * @param symbol cryptocurrency symbol (case-insensitive)
+     * @return version, or empty if the symbol is not supported
+     */
+    public Optional<DataVersion> symbolVersion(String symbol) {
+        return cryptoRegistry.findBySymbol(symbol)
+                .map(crypto -> symbolVersions.get(crypto.getSymbol()));
+    }
+
+    /**
+     * Registers a listener called with the canonical symbol of every crypto
+     * whose version is bumped, on the ingesting thread.
+     */
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Records an ingestion that changed the data of the given symbols, then
+     * notifies the listeners.
+     *
+     * @param symbols canonical symbols of the cryptos that received new prices
+     */
+    public void bump(Collection<String> symbols) {
+        advance(symbols);
+        symbols.forEach(symbol -> listeners.forEach(listener -> listener.accept(symbol)));
+    }
+
+    private synchronized void advance(Collection<String> symbols) {
+        Instant now = clock.instant();
+        symbols.forEach(symbol -> symbolVersions.merge(
+                symbol,
+                new DataVersion(symbol, 1, now),
+                (current, ignored) -> new DataVersion(symbol, current.sequence() + 1, now)
+        ));
+        globalVersion = new DataVersion(GLOBAL_SCOPE, globalVersion.sequence() + 1, now);
+    }
+}
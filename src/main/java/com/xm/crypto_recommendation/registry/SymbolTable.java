@@ -0,0 +1,102 @@
+package com.xm.crypto_recommendation.registry;
+
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable, case-insensitive symbol-to-crypto lookup table.
+ *
+ * <p>
+ * Implemented as an open-addressing hash table whose hash folds the case of
+ * each character on the fly, so lookups are O(1) and allocate nothing (no
+ * {@code toUpperCase} copy of the requested symbol).
+ * </p>
+ *
+ * <p>
+ * Instances are never modified; {@link #with(Collection)} returns a new table.
+ * </p>
+ */
+final class SymbolTable {
+
+    static final SymbolTable EMPTY = new SymbolTable(List.of());
+
+    private final String[] keys;
+    private final Crypto[] values;
+    private final int mask;
+    private final List<Crypto> all;
+
+    private SymbolTable(List<Crypto> cryptos) {
+        int capacity = 2;
+        while (capacity < cryptos.size() * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new String[capacity];
+        this.values = new Crypto[capacity];
+        this.mask = capacity - 1;
+
+        List<Crypto> distinct = new ArrayList<>(cryptos.size());
+        for (Crypto crypto : cryptos) {
+            int slot = slotOf(crypto.getSymbol());
+            if (keys[slot] == null) {
+                keys[slot] = crypto.getSymbol();
+                distinct.add(crypto);
+            } else {
+                distinct.set(distinct.indexOf(values[slot]), crypto);
+            }
+            values[slot] = crypto;
+        }
+        this.all = List.copyOf(distinct);
+    }
+
+    /**
+     * Returns the crypto registered under the given symbol, ignoring case.
+     *
+     * @return the crypto, or {@code null} if the symbol is not registered
+     */
+    Crypto get(String symbol) {
+        return values[slotOf(symbol)];
+    }
+
+    /**
+     * Returns all registered cryptos in registration order.
+     */
+    List<Crypto> all() {
+        return all;
+    }
+
+    /**
+     * Returns a new table containing this table's entries plus the given cryptos.
+     * A crypto whose symbol is already present replaces the existing entry.
+     */
+    SymbolTable with(Collection<Crypto> added) {
+        List<Crypto> merged = new ArrayList<>(all.size() + added.size());
+        merged.addAll(all);
+        merged.addAll(added);
+        return new SymbolTable(merged);
+    }
+
+    /**
+     * Returns the slot holding the symbol, or the empty slot where it would be inserted.
+     */
+    private int slotOf(String symbol) {
+        int slot = hash(symbol) & mask;
+        while (keys[slot] != null && !keys[slot].equalsIgnoreCase(symbol)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Case-insensitive hash, consistent with {@link String#equalsIgnoreCase(String)}.
+     */
+    private static int hash(String symbol) {
+        int hash = 0;
+        for (int i = 0; i < symbol.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(symbol.charAt(i)));
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
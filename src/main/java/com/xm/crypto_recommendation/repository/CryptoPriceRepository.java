@@ -1,5 +1,6 @@
 package com.xm.crypto_recommendation.repository;
 
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
 import com.xm.crypto_recommendation.domain.entity.Crypto;
 import com.xm.crypto_recommendation.domain.entity.CryptoPrice;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,8 +25,20 @@ import java.util.List;
  * limit result size at the database level (e.g. retrieving min/max values
  * without loading full result sets into memory).
  * </p>
+ *
+ * <p>
+ * Range queries project directly into {@link CryptoPricePoint} via constructor
+ * expressions, so no {@link CryptoPrice} entity is hydrated or registered in
+ * the persistence context on the read path.
+ * </p>
+ *
+ * <p>
+ * Statistics over a whole range are served by
+ * {@link PartitionedCryptoPriceRepository#findRangeStats}, which prunes fully
+ * covered monthly partitions instead of scanning their rows.
+ * </p>
  */
-public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long> {
+public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>, PartitionedCryptoPriceRepository {
 
     /**
      * Retrieves price entries ordered by ascending price within a time range.
@@ -35,13 +49,13 @@ public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>
      * </p>
      */
     @Query("""
-                SELECT cp
+                SELECT new com.xm.crypto_recommendation.domain.dto.CryptoPricePoint(cp.price, cp.timestamp)
                 FROM CryptoPrice cp
                 WHERE cp.crypto = :crypto
                   AND cp.timestamp BETWEEN :from AND :to
                 ORDER BY cp.price ASC, cp.timestamp ASC
             """)
-    List<CryptoPrice> findPricesInRangeOrderedByPriceAsc(
+    List<CryptoPricePoint> findPricesInRangeOrderedByPriceAsc(
             @Param("crypto") Crypto crypto,
             @Param("from") Instant from,
             @Param("to") Instant to,
@@ -57,13 +71,13 @@ public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>
      * </p>
      */
     @Query("""
-                SELECT cp
+                SELECT new com.xm.crypto_recommendation.domain.dto.CryptoPricePoint(cp.price, cp.timestamp)
                 FROM CryptoPrice cp
                 WHERE cp.crypto = :crypto
                   AND cp.timestamp BETWEEN :from AND :to
                 ORDER BY cp.price DESC, cp.timestamp DESC
             """)
-    List<CryptoPrice> findPricesInRangeOrderedByPriceDesc(
+    List<CryptoPricePoint> findPricesInRangeOrderedByPriceDesc(
             @Param("crypto") Crypto crypto,
             @Param("from") Instant from,
             @Param("to") Instant to,
@@ -75,16 +89,19 @@ public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>
      *
      * <p>
      * Typically used to obtain the oldest price entry in the given range.
+     * Ordering by crypto as well, although fixed, lets the database read the
+     * first entry of the {@code (crypto_id, timestamp, price)} index instead
+     * of sorting the range.
      * </p>
      */
     @Query("""
-                SELECT cp
+                SELECT new com.xm.crypto_recommendation.domain.dto.CryptoPricePoint(cp.price, cp.timestamp)
                 FROM CryptoPrice cp
                 WHERE cp.crypto = :crypto
                   AND cp.timestamp BETWEEN :from AND :to
-                ORDER BY cp.timestamp ASC
+                ORDER BY cp.crypto.id ASC, cp.timestamp ASC
             """)
-    List<CryptoPrice> findPricesInRangeOrderedByTimestampAsc(
+    List<CryptoPricePoint> findPricesInRangeOrderedByTimestampAsc(
             @Param("crypto") Crypto crypto,
             @Param("from") Instant from,
             @Param("to") Instant to,
@@ -99,13 +116,13 @@ public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>
      * </p>
      */
     @Query("""
-                SELECT cp
+                SELECT new com.xm.crypto_recommendation.domain.dto.CryptoPricePoint(cp.price, cp.timestamp)
                 FROM CryptoPrice cp
                 WHERE cp.crypto = :crypto
                   AND cp.timestamp BETWEEN :from AND :to
-                ORDER BY cp.timestamp DESC
+                ORDER BY cp.crypto.id DESC, cp.timestamp DESC
             """)
-    List<CryptoPrice> findPricesInRangeOrderedByTimestampDesc(
+    List<CryptoPricePoint> findPricesInRangeOrderedByTimestampDesc(
             @Param("crypto") Crypto crypto,
             @Param("from") Instant from,
             @Param("to") Instant to,
@@ -138,4 +155,33 @@ public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>
             """)
     Instant findMaxTimestamp(@Param("crypto") Crypto crypto);
 
+    /**
+     * Retrieves the earliest available timestamp across the given cryptocurrencies.
+     *
+     * <p>
+     * Answered from the partition summaries rather than the price rows.
+     * </p>
+     *
+     * @param cryptos cryptocurrency entities
+     * @return minimum timestamp of all given cryptos, or {@code null} if none has prices
+     */
+    @Query("""
+                SELECT MIN(p.firstTimestamp)
+                FROM CryptoPricePartition p
+                WHERE p.crypto IN :cryptos
+            """)
+    Instant findMinTimestampAcross(@Param("cryptos") Collection<Crypto> cryptos);
+
+    /**
+     * Retrieves the latest available timestamp across the given cryptocurrencies.
+     *
+     * @param cryptos cryptocurrency entities
+     * @return maximum timestamp of all given cryptos, or {@code null} if none has prices
+     */
+    @Query("""
+                SELECT MAX(p.lastTimestamp)
+                FROM CryptoPricePartition p
+                WHERE p.crypto IN :cryptos
+            """)
+    Instant findMaxTimestampAcross(@Param("cryptos") Collection<Crypto> cryptos);
 }
@@ -1,8 +1,12 @@
 package com.xm.crypto_recommendation.repository;
 
 import com.xm.crypto_recommendation.domain.entity.Crypto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,6 +16,11 @@ import java.util.Optional;
  * Provides lookup operations for supported cryptocurrencies based on
  * their unique symbol.
  * </p>
+ *
+ * <p>
+ * Lookups are executed as read-only queries: the returned entities are only
+ * used as query parameters, so Hibernate keeps no dirty-checking snapshot.
+ * </p>
  */
 public interface CryptoRepository extends JpaRepository<Crypto, Long> {
     /**
@@ -20,5 +29,15 @@ public interface CryptoRepository extends JpaRepository<Crypto, Long> {
      * @param symbol unique cryptocurrency symbol (e.g. BTC, ETH)
      * @return optional crypto entity if found
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Optional<Crypto> findBySymbol(String symbol);
+
+    /**
+     * Returns all supported cryptocurrencies.
+     *
+     * @return list of crypto entities
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Crypto> findAll();
 }
@@ -0,0 +1,23 @@
+package com.xm.crypto_recommendation.repository;
+
+import com.xm.crypto_recommendation.domain.entity.IngestedFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repository for the ingestion manifest.
+ *
+ * <p>
+ * Holds one {@link IngestedFile} entry per CSV file ever ingested.
+ * </p>
+ */
+public interface IngestedFileRepository extends JpaRepository<IngestedFile, Long> {
+    /**
+     * Finds the manifest entry of a file.
+     *
+     * @param fileName name of the CSV file (e.g. BTC_values.csv)
+     * @return optional manifest entry if the file was ingested before
+     */
+    Optional<IngestedFile> findByFileName(String fileName);
+}
@@ -0,0 +1,81 @@
+package com.xm.crypto_recommendation.repository;
+
+import com.xm.crypto_recommendation.domain.dto.PriceRangeStats;
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.domain.entity.CryptoPrice;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository fragment adding monthly time partitioning to {@link CryptoPriceRepository}.
+ *
+ * <p>
+ * Price rows are grouped into monthly partitions with precomputed
+ * first/last/min/max summaries (see
+ * {@link com.xm.crypto_recommendation.domain.entity.CryptoPricePartition}).
+ * Range statistics are answered from the summaries of fully covered sealed
+ * partitions, and only the partially covered edges are scanned.
+ * </p>
+ */
+public interface PartitionedCryptoPriceRepository {
+
+    /**
+     * Persists the given prices and updates the summaries of all partitions they fall into.
+     *
+     * <p>
+     * The changes are flushed and the persistence context is cleared
+     * afterwards, so that prices can be saved in chunks without accumulating
+     * entities; entities loaded before the call are detached.
+     * </p>
+     *
+     * @param crypto owning cryptocurrency of all prices
+     * @param prices new price entries
+     */
+    void saveAllPartitioned(Crypto crypto, List<CryptoPrice> prices);
+
+    /**
+     * Computes the oldest, newest, minimum and maximum price points within a time range.
+     *
+     * @param crypto cryptocurrency entity
+     * @param from   start of the range (inclusive)
+     * @param to     end of the range (inclusive)
+     * @return range stats, or empty if no price exists in the range
+     */
+    Optional<PriceRangeStats> findRangeStats(Crypto crypto, Instant from, Instant to);
+
+    /**
+     * Computes the range stats of several cryptocurrencies at once.
+     *
+     * <p>
+     * Runs two queries regardless of the number of cryptos: one loading the
+     * summaries of all fully covered sealed partitions and one loading the raw
+     * rows of all remaining partitions that overlap the range.
+     * </p>
+     *
+     * @param cryptos cryptocurrency entities
+     * @param from    start of the range (inclusive)
+     * @param to      end of the range (inclusive)
+     * @return range stats keyed by crypto id; cryptos without prices in the range are absent
+     */
+    Map<Long, PriceRangeStats> findAllRangeStats(Collection<Crypto> cryptos, Instant from, Instant to);
+
+    /**
+     * Reads all prices within a time range from the compressed partition blocks.
+     *
+     * <p>
+     * Only the blocks of the partitions overlapping the range are loaded and
+     * decoded; no raw price row is read. Timestamps have millisecond precision.
+     * </p>
+     *
+     * @param crypto cryptocurrency entity
+     * @param from   start of the range (inclusive)
+     * @param to     end of the range (inclusive)
+     * @return prices in the range, ordered by timestamp
+     */
+    PriceSeries findPriceSeries(Crypto crypto, Instant from, Instant to);
+}
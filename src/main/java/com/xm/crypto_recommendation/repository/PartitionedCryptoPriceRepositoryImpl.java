@@ -0,0 +1,298 @@
+package com.xm.crypto_recommendation.repository;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.PriceRangeStats;
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.domain.entity.CryptoPrice;
+import com.xm.crypto_recommendation.domain.entity.CryptoPricePartition;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceBlockCodec;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * JPA implementation of {@link PartitionedCryptoPriceRepository}.
+ *
+ * <p>
+ * A range is split into up to three time-ordered segments: the head before
+ * the first fully covered sealed partition, the covered partitions themselves,
+ * and the tail after the last one. Only head and tail are scanned; covered
+ * partitions contribute their stored summaries.
+ * </p>
+ *
+ * <p>
+ * Scans over whole ranges decode the compressed blocks of the overlapping
+ * partitions instead of reading raw rows. The raw rows are still persisted
+ * and still answer the head and tail scans, so the blocks speed up reads at
+ * the cost of extra storage rather than saving space.
+ * </p>
+ *
+ * <p>
+ * All reads project straight into DTOs, so the read path hydrates no entities
+ * and leaves the persistence context empty.
+ * </p>
+ */
+public class PartitionedCryptoPriceRepositoryImpl implements PartitionedCryptoPriceRepository {
+
+    /**
+     * Timestamp predicates of the scanned segments. The head and tail are
+     * half-open so that they never overlap a covered partition.
+     */
+    private enum Segment {
+        WHOLE("cp.timestamp >= :lower AND cp.timestamp <= :upper"),
+        HEAD("cp.timestamp >= :lower AND cp.timestamp < :upper"),
+        TAIL("cp.timestamp > :lower AND cp.timestamp <= :upper");
+
+        private final String predicate;
+
+        Segment(String predicate) {
+            this.predicate = predicate;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void saveAllPartitioned(Crypto crypto, List<CryptoPrice> prices) {
+        Map<Instant, List<CryptoPrice>> pricesByPartition = new HashMap<>();
+        for (CryptoPrice price : prices) {
+            entityManager.persist(price);
+            pricesByPartition.computeIfAbsent(CryptoPricePartition.partitionStartOf(price.getTimestamp()), start -> new ArrayList<>())
+                    .add(price);
+        }
+
+        pricesByPartition.forEach((start, added) -> {
+            CryptoPricePartition partition = findPartition(crypto, start);
+            added.forEach(price -> partition.include(price.getTimestamp(), price.getPrice()));
+            appendToBlock(partition, added);
+        });
+
+        List<CryptoPricePartition> partitions = entityManager.createQuery("""
+                        SELECT p
+                        FROM CryptoPricePartition p
+                        WHERE p.crypto = :crypto
+                        ORDER BY p.partitionStart ASC
+                        """, CryptoPricePartition.class)
+                .setParameter("crypto", crypto)
+                .getResultList();
+
+        // Every partition but the most recent one is closed for new ticks.
+        partitions.stream()
+                .limit(Math.max(0, partitions.size() - 1))
+                .forEach(CryptoPricePartition::seal);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public Optional<PriceRangeStats> findRangeStats(Crypto crypto, Instant from, Instant to) {
+        List<PriceRangeStats> covered = entityManager.createQuery("""
+                        SELECT new com.xm.crypto_recommendation.domain.dto.PriceRangeStats(
+                                p.firstPrice, p.firstTimestamp,
+                                p.lastPrice, p.lastTimestamp,
+                                p.minPrice, p.minTimestamp,
+                                p.maxPrice, p.maxTimestamp)
+                        FROM CryptoPricePartition p
+                        WHERE p.crypto = :crypto
+                          AND p.sealed = true
+                          AND p.firstTimestamp >= :from
+                          AND p.lastTimestamp <= :to
+                        ORDER BY p.partitionStart ASC
+                        """, PriceRangeStats.class)
+                .setParameter("crypto", crypto)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+
+        if (covered.isEmpty()) {
+            return scan(crypto, Segment.WHOLE, from, to);
+        }
+
+        Optional<PriceRangeStats> head = scan(crypto, Segment.HEAD, from, covered.getFirst().oldest().timestamp());
+        Optional<PriceRangeStats> body = covered.stream().reduce(PriceRangeStats::followedBy);
+        Optional<PriceRangeStats> tail = scan(crypto, Segment.TAIL, covered.getLast().newest().timestamp(), to);
+
+        return Stream.of(head, body, tail)
+                .flatMap(Optional::stream)
+                .reduce(PriceRangeStats::followedBy);
+    }
+
+    @Override
+    public Map<Long, PriceRangeStats> findAllRangeStats(Collection<Crypto> cryptos, Instant from, Instant to) {
+        Map<Long, List<PriceRangeStats>> pieces = new HashMap<>();
+
+        entityManager.createQuery("""
+                        SELECT p.crypto.id,
+                               p.firstPrice, p.firstTimestamp,
+                               p.lastPrice, p.lastTimestamp,
+                               p.minPrice, p.minTimestamp,
+                               p.maxPrice, p.maxTimestamp
+                        FROM CryptoPricePartition p
+                        WHERE p.crypto IN :cryptos
+                          AND p.sealed = true
+                          AND p.firstTimestamp >= :from
+                          AND p.lastTimestamp <= :to
+                        """, Object[].class)
+                .setParameter("cryptos", cryptos)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultStream()
+                .forEach(row -> pieces.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(new PriceRangeStats(
+                        (BigDecimal) row[1], (Instant) row[2],
+                        (BigDecimal) row[3], (Instant) row[4],
+                        (BigDecimal) row[5], (Instant) row[6],
+                        (BigDecimal) row[7], (Instant) row[8]
+                )));
+
+        // Raw rows of every overlapping partition that is not covered: the
+        // partially covered edges and the open partition of each crypto.
+        entityManager.createQuery("""
+                        SELECT p.crypto.id, cp.price, cp.timestamp
+                        FROM CryptoPricePartition p
+                        JOIN CryptoPrice cp
+                          ON cp.crypto = p.crypto
+                         AND cp.timestamp >= p.partitionStart
+                         AND cp.timestamp < p.partitionEnd
+                        WHERE p.crypto IN :cryptos
+                          AND p.partitionStart <= :to
+                          AND p.partitionEnd > :from
+                          AND NOT (p.sealed = true AND p.firstTimestamp >= :from AND p.lastTimestamp <= :to)
+                          AND cp.timestamp >= :from
+                          AND cp.timestamp <= :to
+                        """, Object[].class)
+                .setParameter("cryptos", cryptos)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultStream()
+                .forEach(row -> {
+                    CryptoPricePoint point = new CryptoPricePoint((BigDecimal) row[1], (Instant) row[2]);
+                    pieces.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                            .add(new PriceRangeStats(point, point, point, point));
+                });
+
+        Map<Long, PriceRangeStats> stats = new HashMap<>();
+        pieces.forEach((cryptoId, cryptoPieces) -> cryptoPieces.stream()
+                .sorted(Comparator.comparing(piece -> piece.oldest().timestamp()))
+                .reduce(PriceRangeStats::followedBy)
+                .ifPresent(combined -> stats.put(cryptoId, combined)));
+        return stats;
+    }
+
+    @Override
+    public PriceSeries findPriceSeries(Crypto crypto, Instant from, Instant to) {
+        List<byte[]> blocks = entityManager.createQuery("""
+                        SELECT p.block
+                        FROM CryptoPricePartition p
+                        WHERE p.crypto = :crypto
+                          AND p.partitionStart <= :to
+                          AND p.partitionEnd > :from
+                        ORDER BY p.partitionStart ASC
+                        """, byte[].class)
+                .setParameter("crypto", crypto)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+
+        // Blocks hold milliseconds: round the bounds inwards.
+        long fromMillis = from.toEpochMilli() + (from.getNano() % 1_000_000 == 0 ? 0 : 1);
+        long toMillis = to.toEpochMilli();
+        PriceSeries series = new PriceSeries(blocks.stream().mapToInt(PriceBlockCodec::count).sum());
+        blocks.forEach(block -> PriceBlockCodec.decode(block, fromMillis, toMillis, series));
+        return series;
+    }
+
+    /**
+     * Adds newly added prices to the compressed block of a partition.
+     *
+     * <p>
+     * Ingestion delivers ticks in file order, so they usually extend the open
+     * block and are appended without decoding it.
+     * </p>
+     */
+    private static void appendToBlock(CryptoPricePartition partition, List<CryptoPrice> added) {
+        List<CryptoPrice> sorted = added.stream()
+                .sorted(Comparator.comparing(CryptoPrice::getTimestamp))
+                .toList();
+        long[] timestamps = new long[sorted.size()];
+        long[] prices = new long[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            timestamps[i] = sorted.get(i).getTimestamp().toEpochMilli();
+            prices[i] = FixedPoint8.of(sorted.get(i).getPrice());
+        }
+        partition.append(timestamps, prices, sorted.size());
+    }
+
+    /**
+     * Returns the existing partition starting at the given instant, or a new persisted one.
+     */
+    private CryptoPricePartition findPartition(Crypto crypto, Instant partitionStart) {
+        return entityManager.createQuery("""
+                        SELECT p
+                        FROM CryptoPricePartition p
+                        WHERE p.crypto = :crypto
+                          AND p.partitionStart = :partitionStart
+                        """, CryptoPricePartition.class)
+                .setParameter("crypto", crypto)
+                .setParameter("partitionStart", partitionStart)
+                .getResultStream()
+                .findFirst()
+                .orElseGet(() -> {
+                    CryptoPricePartition partition = new CryptoPricePartition(crypto, partitionStart);
+                    entityManager.persist(partition);
+                    return partition;
+                });
+    }
+
+    /**
+     * Scans raw price rows of a single segment.
+     *
+     * <p>
+     * The oldest and newest rows are ordered by crypto first: although the
+     * crypto is fixed, only then does the database recognize the order of the
+     * {@code (crypto_id, timestamp, price)} index and read a single entry
+     * instead of sorting the segment.
+     * </p>
+     */
+    private Optional<PriceRangeStats> scan(Crypto crypto, Segment segment, Instant lower, Instant upper) {
+        Optional<CryptoPricePoint> oldest = first(crypto, segment, lower, upper, "cp.crypto.id ASC, cp.timestamp ASC");
+        if (oldest.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new PriceRangeStats(
+                oldest.get(),
+                first(crypto, segment, lower, upper, "cp.crypto.id DESC, cp.timestamp DESC").orElseThrow(),
+                first(crypto, segment, lower, upper, "cp.price ASC, cp.timestamp ASC").orElseThrow(),
+                first(crypto, segment, lower, upper, "cp.price DESC, cp.timestamp DESC").orElseThrow()
+        ));
+    }
+
+    private Optional<CryptoPricePoint> first(Crypto crypto, Segment segment, Instant lower, Instant upper, String orderBy) {
+        return entityManager.createQuery(
+                        "SELECT new com.xm.crypto_recommendation.domain.dto.CryptoPricePoint(cp.price, cp.timestamp)"
+                                + " FROM CryptoPrice cp WHERE cp.crypto = :crypto AND " + segment.predicate
+                                + " ORDER BY " + orderBy,
+                        CryptoPricePoint.class)
+                .setParameter("crypto", crypto)
+                .setParameter("lower", lower)
+                .setParameter("upper", upper)
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,207 @@
+package com.xm.crypto_recommendation.service;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.CryptoStatsBatchItem;
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+import com.xm.crypto_recommendation.domain.dto.DailyLeaderboard;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.dto.RollingNormalizedRangePoint;
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
+import com.xm.crypto_recommendation.registry.DataVersion;
+import com.xm.crypto_recommendation.shard.MergedRanking;
+import com.xm.crypto_recommendation.shard.ShardCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Request-coalescing front for {@link CryptoPriceService}.
+ *
+ * <p>
+ * Popular queries tend to arrive in bursts of identical concurrent requests.
+ * Each operation is routed through a {@link SingleFlight}, so callers with
+ * the same arguments share one in-flight computation instead of each running
+ * their own.
+ * </p>
+ *
+ * <p>
+ * Coalescing happens outside the transactional service, so waiting callers
+ * hold neither a transaction nor a database connection.
+ * </p>
+ *
+ * <p>
+ * Every call takes the {@link DataVersion} the caller tagged its response
+ * with (the symbol's version, or the global one for queries across all
+ * cryptos), and only calls of the same version share a computation. A
+ * request arriving just after an ingestion therefore never joins a flight
+ * started before it, and never sends an older result under the new ETag.
+ * </p>
+ *
+ * <p>
+ * With sharding enabled, rankings across all cryptos are executed by the
+ * {@link ShardCoordinator} instead of locally.
+ * </p>
+ */
+@Service
+public class CoalescingCryptoPriceService {
+
+    private record StatsKey(String symbol, LocalDate from, LocalDate to, ZoneId zone, DataVersion version) {
+    }
+
+    private record StatsBatchKey(List<String> symbols, LocalDate from, LocalDate to, ZoneId zone, DataVersion version) {
+    }
+
+    private record RankingKey(
+            List<RankingMetric> metrics, LocalDate from, LocalDate to, ZoneId zone, int limit, DataVersion version
+    ) {
+    }
+
+    private record RollingKey(
+            String symbol, Duration window, Duration step, LocalDate from, LocalDate to, ZoneId zone,
+            DataVersion version
+    ) {
+    }
+
+    private record TopForDayKey(List<RankingMetric> metrics, LocalDate date, ZoneId zone, DataVersion version) {
+    }
+
+    private record LeaderboardKey(LocalDate from, LocalDate to, int top, ZoneId zone, DataVersion version) {
+    }
+
+    private final CryptoPriceService cryptoPriceService;
+    private final CryptoRegistry cryptoRegistry;
+    private final ShardCoordinator shardCoordinator;
+    private final SingleFlight<StatsKey, CryptoStats> statsFlight;
+    private final SingleFlight<StatsKey, CryptoSummary> summaryFlight;
+    private final SingleFlight<StatsBatchKey, List<CryptoStatsBatchItem>> statsBatchFlight;
+    private final SingleFlight<RankingKey, MergedRanking> rankingFlight;
+    private final SingleFlight<RollingKey, List<RollingNormalizedRangePoint>> rollingNormalizedRangeFlight;
+    private final SingleFlight<TopForDayKey, CryptoRanking> topForDayFlight;
+    private final SingleFlight<LeaderboardKey, List<DailyLeaderboard>> leaderboardFlight;
+
+    @Autowired
+    public CoalescingCryptoPriceService(
+            CryptoPriceService cryptoPriceService, CryptoRegistry cryptoRegistry, ShardCoordinator shardCoordinator,
+            MeterRegistry meterRegistry
+    ) {
+        this.cryptoPriceService = cryptoPriceService;
+        this.cryptoRegistry = cryptoRegistry;
+        this.shardCoordinator = shardCoordinator;
+        this.statsFlight = new SingleFlight<>(meterRegistry, "stats");
+        this.summaryFlight = new SingleFlight<>(meterRegistry, "summary");
+        this.statsBatchFlight = new SingleFlight<>(meterRegistry, "stats-batch");
+        this.rankingFlight = new SingleFlight<>(meterRegistry, "ranking");
+        this.rollingNormalizedRangeFlight = new SingleFlight<>(meterRegistry, "rolling-normalized-range");
+        this.topForDayFlight = new SingleFlight<>(meterRegistry, "top-for-day");
+        this.leaderboardFlight = new SingleFlight<>(meterRegistry, "daily-leaderboard");
+    }
+
+    /**
+     * @see CryptoPriceService#getCryptoStats(String, LocalDate, LocalDate, ZoneId)
+     */
+    public CryptoStats getCryptoStats(
+            String cryptoSymbol, LocalDate from, LocalDate to, ZoneId zone, DataVersion version
+    ) {
+        return statsFlight.execute(
+                new StatsKey(canonicalSymbol(cryptoSymbol), from, to, zone.normalized(), version),
+                () -> cryptoPriceService.getCryptoStats(cryptoSymbol, from, to, zone)
+        );
+    }
+
+    /**
+     * @see CryptoPriceService#getCryptoSummary(String, LocalDate, LocalDate, ZoneId)
+     */
+    public CryptoSummary getCryptoSummary(
+            String cryptoSymbol, LocalDate from, LocalDate to, ZoneId zone, DataVersion version
+    ) {
+        return summaryFlight.execute(
+                new StatsKey(canonicalSymbol(cryptoSymbol), from, to, zone.normalized(), version),
+                () -> cryptoPriceService.getCryptoSummary(cryptoSymbol, from, to, zone)
+        );
+    }
+
+    /**
+     * @see CryptoPriceService#getCryptoStatsBatch(List, LocalDate, LocalDate, ZoneId)
+     */
+    public List<CryptoStatsBatchItem> getCryptoStatsBatch(
+            List<String> cryptoSymbols, LocalDate from, LocalDate to, ZoneId zone, DataVersion version
+    ) {
+        return statsBatchFlight.execute(
+                new StatsBatchKey(cryptoSymbols, from, to, zone.normalized(), version),
+                () -> cryptoPriceService.getCryptoStatsBatch(cryptoSymbols, from, to, zone)
+        );
+    }
+
+    /**
+     * Returns the top {@code limit} cryptos of {@link CryptoPriceService#getCryptoRanking},
+     * merged from all shards if sharding is enabled.
+     *
+     * @see CryptoPriceService#getCryptoRanking(List, LocalDate, LocalDate, ZoneId)
+     * @see ShardCoordinator#rank(List, LocalDate, LocalDate, ZoneId, int)
+     */
+    public MergedRanking getCryptoRanking(
+            List<RankingMetric> metrics, LocalDate from, LocalDate to, ZoneId zone, int limit, DataVersion version
+    ) {
+        return rankingFlight.execute(
+                new RankingKey(metrics, from, to, zone.normalized(), limit, version),
+                () -> shardCoordinator.isEnabled()
+                        ? shardCoordinator.rank(metrics, from, to, zone, limit)
+                        : MergedRanking.complete(cryptoPriceService.getCryptoRanking(metrics, from, to, zone).stream()
+                                .limit(limit)
+                                .toList())
+        );
+    }
+
+    /**
+     * @see CryptoPriceService#getRollingNormalizedRange(String, Duration, Duration, LocalDate, LocalDate, ZoneId)
+     */
+    public List<RollingNormalizedRangePoint> getRollingNormalizedRange(
+            String cryptoSymbol, Duration window, Duration step, LocalDate from, LocalDate to, ZoneId zone,
+            DataVersion version
+    ) {
+        return rollingNormalizedRangeFlight.execute(
+                new RollingKey(canonicalSymbol(cryptoSymbol), window, step, from, to, zone.normalized(), version),
+                () -> cryptoPriceService.getRollingNormalizedRange(cryptoSymbol, window, step, from, to, zone)
+        );
+    }
+
+    /**
+     * @see CryptoPriceService#getTopCryptoForDay(List, LocalDate, ZoneId)
+     */
+    public CryptoRanking getTopCryptoForDay(
+            List<RankingMetric> metrics, LocalDate date, ZoneId zone, DataVersion version
+    ) {
+        return topForDayFlight.execute(
+                new TopForDayKey(metrics, date, zone.normalized(), version),
+                () -> cryptoPriceService.getTopCryptoForDay(metrics, date, zone)
+        );
+    }
+
+    /**
+     * @see CryptoPriceService#getDailyLeaderboards(LocalDate, LocalDate, int, ZoneId)
+     */
+    public List<DailyLeaderboard> getDailyLeaderboards(
+            LocalDate from, LocalDate to, int top, ZoneId zone, DataVersion version
+    ) {
+        return leaderboardFlight.execute(
+                new LeaderboardKey(from, to, top, zone.normalized(), version),
+                () -> cryptoPriceService.getDailyLeaderboards(from, to, top, zone)
+        );
+    }
+
+    /**
+     * Returns the canonical spelling of a symbol so that "btc" and "BTC" share an execution.
+     */
+    private String canonicalSymbol(String cryptoSymbol) {
+        return cryptoRegistry.findBySymbol(cryptoSymbol)
+                .map(Crypto::getSymbol)
+                .orElse(cryptoSymbol);
+    }
+}
@@ -1,50 +1,102 @@
 package com.xm.crypto_recommendation.service;
 
-import com.xm.crypto_recommendation.domain.dto.CryptoNormalizedRange;
-import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
 import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.CryptoStatsBatchItem;
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+import com.xm.crypto_recommendation.domain.dto.DailyLeaderboard;
+import com.xm.crypto_recommendation.domain.dto.PriceMetrics;
+import com.xm.crypto_recommendation.domain.dto.PriceRangeStats;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.dto.RollingNormalizedRangePoint;
 import com.xm.crypto_recommendation.domain.entity.Crypto;
-import com.xm.crypto_recommendation.domain.entity.CryptoPrice;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceMetricsAccumulator;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import com.xm.crypto_recommendation.domain.price.SlidingMinMax;
+import com.xm.crypto_recommendation.domain.time.DayBoundaries;
+import com.xm.crypto_recommendation.exception.ApiError;
+import com.xm.crypto_recommendation.exception.DataLoadingException;
 import com.xm.crypto_recommendation.exception.NoDataException;
 import com.xm.crypto_recommendation.exception.UnsupportedCryptoException;
+import com.xm.crypto_recommendation.ingestion.IngestionProgress;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
 import com.xm.crypto_recommendation.repository.CryptoPriceRepository;
-import com.xm.crypto_recommendation.repository.CryptoRepository;
+import com.xm.crypto_recommendation.store.DailyLeaderboardIndex;
+import com.xm.crypto_recommendation.store.OffHeapPriceStore;
+import com.xm.crypto_recommendation.store.PriceSummaryIndex;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
-import java.util.Comparator;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Supplier;
+import java.util.function.Predicate;
 
 /**
  * Service responsible for calculating cryptocurrency statistics and
  * investment-related metrics based on historical price data.
+ *
+ * <p>
+ * All operations run in read-only transactions and read price data through
+ * DTO projections, so no price entities are hydrated or tracked per request.
+ * Symbols are resolved against the in-memory {@link CryptoRegistry} rather
+ * than the database.
+ * </p>
+ *
+ * <p>
+ * While ingestion runs in the background, symbols that are not loaded yet
+ * and queries spanning all symbols fail with {@link DataLoadingException}
+ * instead of returning incomplete results.
+ * </p>
+ *
+ * <p>
+ * Dates are calendar days of the requested time zone, mapped to instants
+ * through the cached {@link DayBoundaries} of that zone.
+ * </p>
  */
 @Service
+@Transactional(readOnly = true)
 public class CryptoPriceService {
 
     /**
-     * Pageable used to efficiently fetch only a single record
-     * (e.g. min/max/oldest/newest) from the database.
+     * Maximum number of symbols accepted by {@link #getCryptoStatsBatch}.
      */
-    private static final Pageable LIMIT_ONE = PageRequest.of(0, 1);
+    public static final int MAX_BATCH_SIZE = 200;
 
-    private final CryptoRepository cryptoRepository;
+    /**
+     * Maximum number of windows returned by {@link #getRollingNormalizedRange}.
+     */
+    public static final int MAX_ROLLING_WINDOWS = 10_000;
+
+    private final CryptoRegistry cryptoRegistry;
     private final CryptoPriceRepository cryptoPriceRepository;
+    private final IngestionProgress ingestionProgress;
+    private final OffHeapPriceStore offHeapPriceStore;
+    private final PriceSummaryIndex priceSummaryIndex;
+    private final DailyLeaderboardIndex dailyLeaderboardIndex;
 
     @Autowired
-    public CryptoPriceService(CryptoRepository cryptoRepository, CryptoPriceRepository cryptoPriceRepository) {
-        this.cryptoRepository = cryptoRepository;
+    public CryptoPriceService(
+            CryptoRegistry cryptoRegistry, CryptoPriceRepository cryptoPriceRepository,
+            IngestionProgress ingestionProgress, OffHeapPriceStore offHeapPriceStore,
+            PriceSummaryIndex priceSummaryIndex, DailyLeaderboardIndex dailyLeaderboardIndex
+    ) {
+        this.cryptoRegistry = cryptoRegistry;
         this.cryptoPriceRepository = cryptoPriceRepository;
+        this.ingestionProgress = ingestionProgress;
+        this.offHeapPriceStore = offHeapPriceStore;
+        this.priceSummaryIndex = priceSummaryIndex;
+        this.dailyLeaderboardIndex = dailyLeaderboardIndex;
     }
 
     /**
@@ -53,25 +105,31 @@ public class CryptoPriceService {
      *
      * <p>
      * If {@code from} or {@code to} are not provided, the earliest or latest
-     * available timestamps for the crypto are used respectively.
+     * available timestamps for the crypto are used respectively. If the
+     * {@link OffHeapPriceStore} holds the crypto, the statistics are computed
+     * from it instead of the database.
      * </p>
      *
      * @param cryptoSymbol crypto symbol (case-insensitive)
      * @param from         optional start date (inclusive)
      * @param to           optional end date (inclusive)
+     * @param zone         time zone the dates are taken in
      * @return aggregated crypto statistics
      *
      * @throws UnsupportedCryptoException if the crypto symbol is not supported
+     * @throws DataLoadingException       if the prices of the crypto are still being loaded
      * @throws NoDataException            if no price data exists in the given range
      * @throws IllegalArgumentException   if the resolved date range is invalid
      */
-    public CryptoStats getCryptoStats(String cryptoSymbol, LocalDate from, LocalDate to) {
-        String normalizedSymbol = cryptoSymbol.toUpperCase(Locale.ROOT);
-        Crypto crypto = cryptoRepository.findBySymbol(normalizedSymbol).orElseThrow(() ->
-                new UnsupportedCryptoException(normalizedSymbol));
+    public CryptoStats getCryptoStats(String cryptoSymbol, LocalDate from, LocalDate to, ZoneId zone) {
+        Crypto crypto = resolve(cryptoSymbol);
+        DayBoundaries days = DayBoundaries.of(zone);
+        if (offHeapPriceStore.contains(crypto.getSymbol())) {
+            return getCryptoStatsOffHeap(crypto, cryptoSymbol, from, to, days);
+        }
 
-        Instant resolvedFrom = (from != null) ? toStartInstant(from) : cryptoPriceRepository.findMinTimestamp(crypto);
-        Instant resolvedTo = (to != null) ? toEndInstant(to) : cryptoPriceRepository.findMaxTimestamp(crypto);
+        Instant resolvedFrom = (from != null) ? days.startOf(from) : cryptoPriceRepository.findMinTimestamp(crypto);
+        Instant resolvedTo = (to != null) ? days.endOf(to) : cryptoPriceRepository.findMaxTimestamp(crypto);
 
         if (resolvedFrom.isAfter(resolvedTo)) {
             throw new IllegalArgumentException(
@@ -79,129 +137,454 @@ public class CryptoPriceService {
             );
         }
 
-        CryptoPricePoint oldestPricePoint = fetchPricePoint(() -> cryptoPriceRepository.findPricesInRangeOrderedByTimestampAsc(crypto, resolvedFrom, resolvedTo, LIMIT_ONE), cryptoSymbol);
-        CryptoPricePoint newestPricePoint = fetchPricePoint(() -> cryptoPriceRepository.findPricesInRangeOrderedByTimestampDesc(crypto, resolvedFrom, resolvedTo, LIMIT_ONE), cryptoSymbol);
-        CryptoPricePoint minPricePoint = fetchPricePoint(() -> cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(crypto, resolvedFrom, resolvedTo, LIMIT_ONE), cryptoSymbol);
-        CryptoPricePoint maxPricePoint = fetchPricePoint(() -> cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(crypto, resolvedFrom, resolvedTo, LIMIT_ONE), cryptoSymbol);
+        PriceRangeStats stats = cryptoPriceRepository.findRangeStats(crypto, resolvedFrom, resolvedTo)
+                .orElseThrow(() -> new NoDataException(cryptoSymbol));
 
-        return new CryptoStats(crypto.getSymbol(), oldestPricePoint, newestPricePoint, minPricePoint, maxPricePoint);
+        return new CryptoStats(crypto.getSymbol(), stats.oldest(), stats.newest(), stats.min(), stats.max());
     }
 
     /**
-     * Returns all supported cryptocurrencies sorted by normalized price range
-     * in descending order.
+     * Same as {@link #getCryptoStats}, answered from the {@link OffHeapPriceStore}.
+     */
+    private CryptoStats getCryptoStatsOffHeap(
+            Crypto crypto, String cryptoSymbol, LocalDate from, LocalDate to, DayBoundaries days
+    ) {
+        String symbol = crypto.getSymbol();
+        Instant resolvedFrom = (from != null)
+                ? days.startOf(from)
+                : offHeapPriceStore.findMinTimestamp(symbol).orElseThrow(() -> new NoDataException(cryptoSymbol));
+        Instant resolvedTo = (to != null)
+                ? days.endOf(to)
+                : offHeapPriceStore.findMaxTimestamp(symbol).orElseThrow(() -> new NoDataException(cryptoSymbol));
+
+        if (resolvedFrom.isAfter(resolvedTo)) {
+            throw new IllegalArgumentException(
+                    "'from' date must be before or equal to 'to' date"
+            );
+        }
+
+        PriceRangeStats stats = offHeapPriceStore.findRangeStats(symbol, resolvedFrom, resolvedTo)
+                .orElseThrow(() -> new NoDataException(cryptoSymbol));
+
+        return new CryptoStats(symbol, stats.oldest(), stats.newest(), stats.min(), stats.max());
+    }
+
+    /**
+     * Returns the mean, variance and time-weighted average price of a
+     * cryptocurrency within an optional date range.
      *
      * <p>
-     * The normalized range is calculated as {@code (max - min) / min}.
+     * The summary is answered from the {@link PriceSummaryIndex} in
+     * O(log n), by binary search over the timestamps and subtraction of
+     * cumulative sums, however long the range. If {@code from} or {@code to}
+     * are not provided, the range is unbounded on that side.
+     * </p>
+     *
+     * @param cryptoSymbol crypto symbol (case-insensitive)
+     * @param from         optional start date (inclusive)
+     * @param to           optional end date (inclusive)
+     * @param zone         time zone the dates are taken in
+     * @return price summary of the range
+     *
+     * @throws UnsupportedCryptoException if the crypto symbol is not supported
+     * @throws DataLoadingException       if the prices of the crypto are still being loaded
+     * @throws NoDataException            if no price data exists in the given range
+     * @throws IllegalArgumentException   if the date range is invalid
+     */
+    public CryptoSummary getCryptoSummary(String cryptoSymbol, LocalDate from, LocalDate to, ZoneId zone) {
+        Crypto crypto = resolve(cryptoSymbol);
+        DayBoundaries days = DayBoundaries.of(zone);
+
+        Instant resolvedFrom = (from != null) ? days.startOf(from) : Instant.ofEpochMilli(Long.MIN_VALUE);
+        Instant resolvedTo = (to != null) ? days.endOf(to) : Instant.ofEpochMilli(Long.MAX_VALUE);
+
+        if (resolvedFrom.isAfter(resolvedTo)) {
+            throw new IllegalArgumentException(
+                    "'from' date must be before or equal to 'to' date"
+            );
+        }
+
+        return priceSummaryIndex.findSummary(crypto.getSymbol(), resolvedFrom, resolvedTo)
+                .orElseThrow(() -> new NoDataException(cryptoSymbol));
+    }
+
+    /**
+     * Returns aggregated price statistics for several cryptocurrencies within
+     * an optional date range shared by all of them.
+     *
+     * <p>
+     * All symbols are resolved against the registry in one pass and the
+     * statistics of all supported ones are computed with a constant number of
+     * queries. Missing bounds default to the earliest or latest timestamp
+     * across the requested cryptos. Unsupported symbols and symbols without
+     * data in the range are reported per item instead of failing the batch,
+     * as are symbols still being loaded.
+     * </p>
+     *
+     * @param cryptoSymbols crypto symbols (case-insensitive), at most {@value #MAX_BATCH_SIZE}
+     * @param from          optional start date (inclusive)
+     * @param to            optional end date (inclusive)
+     * @param zone          time zone the dates are taken in
+     * @return one result per requested symbol, in request order
+     *
+     * @throws IllegalArgumentException if no or too many symbols are given,
+     *                                  or if the resolved date range is invalid
+     */
+    public List<CryptoStatsBatchItem> getCryptoStatsBatch(
+            List<String> cryptoSymbols, LocalDate from, LocalDate to, ZoneId zone
+    ) {
+        if (cryptoSymbols == null || cryptoSymbols.isEmpty() || cryptoSymbols.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "between 1 and " + MAX_BATCH_SIZE + " symbols must be requested"
+            );
+        }
+        if (cryptoSymbols.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("symbols must not be null");
+        }
+
+        Map<String, Optional<Crypto>> resolved = new LinkedHashMap<>();
+        Map<Long, Crypto> cryptos = new LinkedHashMap<>();
+        for (String symbol : cryptoSymbols) {
+            Optional<Crypto> crypto = resolved.computeIfAbsent(symbol, cryptoRegistry::findBySymbol);
+            crypto.ifPresent(c -> cryptos.putIfAbsent(c.getId(), c));
+        }
+
+        Map<Long, PriceRangeStats> stats = cryptos.isEmpty()
+                ? Map.of()
+                : findAllRangeStats(cryptos.values().stream().toList(), from, to, DayBoundaries.of(zone));
+
+        return cryptoSymbols.stream()
+                .map(symbol -> resolved.get(symbol)
+                        .map(crypto -> toBatchItem(symbol, crypto, stats.get(crypto.getId())))
+                        .orElseGet(() -> CryptoStatsBatchItem.failed(symbol, ingestionProgress.isPending(symbol)
+                                ? new ApiError("DATA_LOADING", symbol.toUpperCase(Locale.ROOT))
+                                : new ApiError("UNSUPPORTED_CRYPTO", symbol.toUpperCase(Locale.ROOT)))))
+                .toList();
+    }
+
+    /**
+     * Returns all supported cryptocurrencies ranked by one or more metrics,
+     * in descending order of the first one.
+     *
+     * <p>
+     * The normalized range is calculated as {@code (max - min) / min} using
+     * {@link FixedPoint8} arithmetic, rounded half-up to 8 decimal places.
      * Cryptos with insufficient data or a minimum price of zero are excluded.
+     * See {@link #calculateMetrics} for how the metrics are computed.
      * </p>
      *
-     * @param from optional start date (inclusive)
-     * @param to   optional end date (inclusive)
-     * @return list of cryptos sorted by normalized range
+     * @param metrics metrics to compute, the first one being the ranking key
+     * @param from    optional start date (inclusive)
+     * @param to      optional end date (inclusive)
+     * @param zone    time zone the dates are taken in
+     * @return list of cryptos sorted by the first metric
+     *
+     * @throws DataLoadingException if ingestion is still running
+     */
+    public List<CryptoRanking> getCryptoRanking(
+            List<RankingMetric> metrics,
+            LocalDate from,
+            LocalDate to,
+            ZoneId zone
+    ) {
+        return getCryptoRanking(metrics, from, to, zone, symbol -> true);
+    }
+
+    /**
+     * Same as {@link #getCryptoRanking(List, LocalDate, LocalDate, ZoneId)},
+     * restricted to some of the supported cryptocurrencies, e.g. those of one shard.
+     *
+     * @param symbols selects the canonical symbols to rank
      */
-    public List<CryptoNormalizedRange> getCryptosByNormalizedRange(
+    public List<CryptoRanking> getCryptoRanking(
+            List<RankingMetric> metrics,
             LocalDate from,
-            LocalDate to
+            LocalDate to,
+            ZoneId zone,
+            Predicate<String> symbols
     ) {
-        List<Crypto> cryptos = cryptoRepository.findAll();
+        requireIngestionFinished();
+        List<Crypto> cryptos = cryptoRegistry.findAll();
+        DayBoundaries days = DayBoundaries.of(zone);
 
         return cryptos.stream()
-                .map(crypto -> calculateNormalizedRange(crypto, from, to))
+                .filter(crypto -> symbols.test(crypto.getSymbol()))
+                .map(crypto -> calculateMetrics(crypto, metrics, from, to, days))
                 .flatMap(Optional::stream)
-                .sorted(Comparator.comparing(CryptoNormalizedRange::normalizedRange).reversed())
+                .sorted(CryptoRanking.RANKING_ORDER)
                 .toList();
     }
 
     /**
-     * Returns the cryptocurrency with the highest normalized range for a given day.
+     * Returns the cryptocurrency with the highest value of the first of the
+     * given metrics for a given day.
      *
-     * @param date date for which the normalized range should be calculated
-     * @return crypto with the highest normalized range
+     * <p>
+     * The normalized range alone is looked up in the
+     * {@link DailyLeaderboardIndex} if it maintains the zone; other metrics
+     * and zones are computed per crypto.
+     * </p>
      *
-     * @throws NoDataException if no crypto has data for the given date
+     * @param metrics metrics to compute, the first one being the ranking key
+     * @param date    date for which the metrics should be calculated
+     * @param zone    time zone the date is taken in
+     * @return crypto with the highest value of the first metric
+     *
+     * @throws NoDataException      if no crypto has data for the given date
+     * @throws DataLoadingException if ingestion is still running
      */
-    public CryptoNormalizedRange getHighestNormalizedRangeForDay(LocalDate date) {
+    public CryptoRanking getTopCryptoForDay(List<RankingMetric> metrics, LocalDate date, ZoneId zone) {
+        requireIngestionFinished();
+
+        if (metrics.equals(List.of(RankingMetric.NORMALIZED_RANGE)) && dailyLeaderboardIndex.maintains(zone)) {
+            return dailyLeaderboardIndex.findLeaderboard(zone, date)
+                    .map(DailyLeaderboard::winner)
+                    .orElseThrow(() -> new NoDataException("No data for date: " + date));
+        }
 
-        return cryptoRepository.findAll().stream()
-                .map(crypto -> calculateNormalizedRange(crypto, date, date))
+        return cryptoRegistry.findAll().stream()
+                .map(crypto -> calculateMetrics(crypto, metrics, date, date, DayBoundaries.of(zone)))
                 .flatMap(Optional::stream)
-                .max(Comparator.comparing(CryptoNormalizedRange::normalizedRange))
+                .min(CryptoRanking.RANKING_ORDER)
                 .orElseThrow(() -> new NoDataException("No data for date: " + date));
     }
 
     /**
-     * Executes a price query expected to return a single result and converts
-     * it into a {@link CryptoPricePoint}.
+     * Returns the cryptocurrencies with the highest normalized range for each
+     * day of a date range.
+     *
+     * <p>
+     * The leaderboards are precomputed at ingestion time by the
+     * {@link DailyLeaderboardIndex} for the zones in {@code leaderboard.zones},
+     * so no prices are read. Days without data are omitted.
+     * </p>
+     *
+     * @param from first date (inclusive)
+     * @param to   last date (inclusive)
+     * @param top  number of leaders per day, between 1 and the configured {@code leaderboard.top-n}
+     * @param zone time zone the dates are taken in
+     * @return one leaderboard per day with data, in chronological order
+     *
+     * @throws DataLoadingException     if ingestion is still running
+     * @throws IllegalArgumentException if the date range or {@code top} is invalid,
+     *                                  or leaderboards are not maintained for the zone
+     */
+    public List<DailyLeaderboard> getDailyLeaderboards(LocalDate from, LocalDate to, int top, ZoneId zone) {
+        requireIngestionFinished();
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException(
+                    "'from' date must be before or equal to 'to' date"
+            );
+        }
+        if (top < 1 || top > dailyLeaderboardIndex.topN()) {
+            throw new IllegalArgumentException(
+                    "'top' must be between 1 and " + dailyLeaderboardIndex.topN()
+            );
+        }
+
+        return dailyLeaderboardIndex.findLeaderboards(zone, from, to).values().stream()
+                .map(leaderboard -> leaderboard.top(top))
+                .toList();
+    }
+
+    /**
+     * Returns the normalized price range of a cryptocurrency over a series of
+     * sliding windows.
+     *
+     * <p>
+     * Windows are half-open, {@code window} long and start every {@code step}
+     * from the beginning of the range; only windows ending within the range
+     * are included. If {@code from} or {@code to} are not provided, the days of
+     * the earliest or latest available price are used respectively.
+     * </p>
+     *
+     * <p>
+     * The prices of the range are decoded once, in timestamp order, from the
+     * compressed blocks of the partitions the range touches, and the series
+     * is computed in a single pass with {@link SlidingMinMax}, so the work is
+     * linear in the number of prices plus windows and independent of the
+     * window size. Windows without prices or with a minimum price of zero are
+     * omitted.
+     * </p>
+     *
+     * @param cryptoSymbol crypto symbol (case-insensitive)
+     * @param window       length of each window
+     * @param step         distance between the starts of consecutive windows
+     * @param from         optional start date (inclusive)
+     * @param to           optional end date (inclusive)
+     * @param zone         time zone the dates are taken in
+     * @return normalized range per window, in chronological order
+     *
+     * @throws UnsupportedCryptoException if the crypto symbol is not supported
+     * @throws DataLoadingException       if the prices of the crypto are still being loaded
+     * @throws NoDataException            if the crypto has no price data
+     * @throws IllegalArgumentException   if window or step are not positive, the
+     *                                    resolved date range is invalid or the series
+     *                                    would exceed {@value #MAX_ROLLING_WINDOWS} windows
      */
-    private CryptoPricePoint fetchPricePoint(Supplier<List<CryptoPrice>> query, String symbol) {
-        return query.get().stream()
-                .findFirst()
-                .map(this::createCryptoPricePoint)
-                .orElseThrow(() -> new NoDataException(symbol));
+    public List<RollingNormalizedRangePoint> getRollingNormalizedRange(
+            String cryptoSymbol,
+            Duration window,
+            Duration step,
+            LocalDate from,
+            LocalDate to,
+            ZoneId zone
+    ) {
+        if (!window.isPositive() || !step.isPositive()) {
+            throw new IllegalArgumentException("'window' and 'step' must be positive");
+        }
+
+        Crypto crypto = resolve(cryptoSymbol);
+        DayBoundaries days = DayBoundaries.of(zone);
+
+        LocalDate resolvedFrom = (from != null) ? from : toDate(cryptoPriceRepository.findMinTimestamp(crypto), cryptoSymbol, days);
+        LocalDate resolvedTo = (to != null) ? to : toDate(cryptoPriceRepository.findMaxTimestamp(crypto), cryptoSymbol, days);
+
+        if (resolvedFrom.isAfter(resolvedTo)) {
+            throw new IllegalArgumentException(
+                    "'from' date must be before or equal to 'to' date"
+            );
+        }
+
+        Instant rangeStart = days.startOf(resolvedFrom);
+        Instant rangeEnd = days.startOf(resolvedTo.plusDays(1));
+        Duration span = Duration.between(rangeStart, rangeEnd);
+        if (span.compareTo(window) < 0) {
+            return List.of();
+        }
+        if (span.minus(window).dividedBy(step) >= MAX_ROLLING_WINDOWS) {
+            throw new IllegalArgumentException(
+                    "at most " + MAX_ROLLING_WINDOWS + " windows can be requested"
+            );
+        }
+
+        PriceSeries points = cryptoPriceRepository.findPriceSeries(crypto, rangeStart, rangeEnd.minusNanos(1));
+        long[] prices = points.prices();
+        SlidingMinMax sliding = new SlidingMinMax(prices);
+
+        List<RollingNormalizedRangePoint> series = new ArrayList<>();
+        int start = 0;
+        int end = 0;
+        for (Instant windowStart = rangeStart, windowEnd = rangeStart.plus(window);
+             !windowEnd.isAfter(rangeEnd);
+             windowStart = windowStart.plus(step), windowEnd = windowEnd.plus(step)) {
+            while (end < prices.length && points.timestamp(end) < windowEnd.toEpochMilli()) {
+                end++;
+            }
+            while (start < end && points.timestamp(start) < windowStart.toEpochMilli()) {
+                start++;
+            }
+            sliding.extendTo(end);
+            sliding.shrinkFrom(start);
+
+            if (!sliding.isEmpty() && prices[sliding.minIndex()] != 0) {
+                series.add(new RollingNormalizedRangePoint(
+                        windowStart,
+                        windowEnd,
+                        FixedPoint8.normalizedRange(prices[sliding.minIndex()], prices[sliding.maxIndex()])
+                ));
+            }
+        }
+        return series;
     }
 
     /**
-     * Calculates the normalized price range for a crypto within the given date range.
+     * Calculates the requested metrics for a crypto within the given date range.
+     *
+     * <p>
+     * The normalized range alone is answered from the range summaries, like
+     * {@link #getCryptoStats}. Any other metric needs the individual prices:
+     * they are decoded once and all metrics are computed together in a single
+     * pass with a {@link PriceMetricsAccumulator}, so the cost does not depend
+     * on how many metrics are requested.
+     * </p>
      *
      * <p>
      * Returns {@link Optional#empty()} if the crypto has no data in the range
      * or if the minimum price is zero.
      * </p>
      */
-    private Optional<CryptoNormalizedRange> calculateNormalizedRange(
+    private Optional<CryptoRanking> calculateMetrics(
             Crypto crypto,
+            List<RankingMetric> metrics,
             LocalDate from,
-            LocalDate to
+            LocalDate to,
+            DayBoundaries days
     ) {
-        Instant resolvedFrom = (from != null) ? toStartInstant(from) : cryptoPriceRepository.findMinTimestamp(crypto);
-        Instant resolvedTo = (to != null) ? toEndInstant(to) : cryptoPriceRepository.findMaxTimestamp(crypto);
-
-        CryptoPrice min = cryptoPriceRepository
-                .findPricesInRangeOrderedByPriceAsc(crypto, resolvedFrom, resolvedTo, LIMIT_ONE)
-                .stream()
-                .findFirst()
-                .orElse(null);
-
-        CryptoPrice max = cryptoPriceRepository
-                .findPricesInRangeOrderedByPriceDesc(crypto, resolvedFrom, resolvedTo, LIMIT_ONE)
-                .stream()
-                .findFirst()
-                .orElse(null);
-
-        if (min == null || max == null) {
-            return Optional.empty();
+        Instant resolvedFrom = (from != null) ? days.startOf(from) : cryptoPriceRepository.findMinTimestamp(crypto);
+        Instant resolvedTo = (to != null) ? days.endOf(to) : cryptoPriceRepository.findMaxTimestamp(crypto);
+
+        if (metrics.equals(List.of(RankingMetric.NORMALIZED_RANGE))) {
+            Optional<PriceRangeStats> stats = cryptoPriceRepository.findRangeStats(crypto, resolvedFrom, resolvedTo);
+            if (stats.isEmpty() || stats.get().min().price() == 0) {
+                return Optional.empty();
+            }
+            long normalizedRange = FixedPoint8.normalizedRange(stats.get().min().price(), stats.get().max().price());
+            return Optional.of(new CryptoRanking(crypto.getSymbol(), metrics, PriceMetrics.ofNormalizedRange(normalizedRange)));
         }
 
-        if (min.getPrice().compareTo(BigDecimal.ZERO) == 0) {
+        if (resolvedFrom == null || resolvedTo == null) {
+            return Optional.empty();
+        }
+        PriceMetricsAccumulator accumulator = new PriceMetricsAccumulator();
+        accumulator.addAll(cryptoPriceRepository.findPriceSeries(crypto, resolvedFrom, resolvedTo));
+        if (accumulator.count() == 0 || accumulator.min() == 0) {
             return Optional.empty();
         }
+        return Optional.of(new CryptoRanking(crypto.getSymbol(), metrics, PriceMetrics.of(accumulator)));
+    }
 
-        BigDecimal normalizedRange = max.getPrice()
-                .subtract(min.getPrice())
-                .divide(min.getPrice(), 8, RoundingMode.HALF_UP);
+    private Map<Long, PriceRangeStats> findAllRangeStats(
+            List<Crypto> cryptos, LocalDate from, LocalDate to, DayBoundaries days
+    ) {
+        Instant resolvedFrom = (from != null) ? days.startOf(from) : cryptoPriceRepository.findMinTimestampAcross(cryptos);
+        Instant resolvedTo = (to != null) ? days.endOf(to) : cryptoPriceRepository.findMaxTimestampAcross(cryptos);
+
+        if (resolvedFrom == null || resolvedTo == null) {
+            return Map.of();
+        }
+        if (resolvedFrom.isAfter(resolvedTo)) {
+            throw new IllegalArgumentException(
+                    "'from' date must be before or equal to 'to' date"
+            );
+        }
 
-        return Optional.of(
-                new CryptoNormalizedRange(
-                        crypto.getSymbol(),
-                        normalizedRange
-                )
-        );
+        return cryptoPriceRepository.findAllRangeStats(cryptos, resolvedFrom, resolvedTo);
     }
 
+    private CryptoStatsBatchItem toBatchItem(String symbol, Crypto crypto, PriceRangeStats stats) {
+        if (stats == null) {
+            return CryptoStatsBatchItem.failed(symbol, new ApiError("NO_DATA", symbol));
+        }
+        return CryptoStatsBatchItem.of(symbol,
+                new CryptoStats(crypto.getSymbol(), stats.oldest(), stats.newest(), stats.min(), stats.max()));
+    }
 
-    private CryptoPricePoint createCryptoPricePoint(CryptoPrice cryptoPrice) {
-        return new CryptoPricePoint(cryptoPrice.getPrice(), cryptoPrice.getTimestamp());
+    /**
+     * Resolves a symbol against the registry, telling symbols still being
+     * loaded apart from unsupported ones.
+     */
+    private Crypto resolve(String cryptoSymbol) {
+        return cryptoRegistry.findBySymbol(cryptoSymbol).orElseThrow(() -> {
+            String symbol = cryptoSymbol.toUpperCase(Locale.ROOT);
+            if (ingestionProgress.isPending(symbol)) {
+                return new DataLoadingException(symbol + " is still being loaded", ingestionProgress.retryAfter());
+            }
+            return new UnsupportedCryptoException(symbol);
+        });
     }
 
-    private Instant toStartInstant(LocalDate date) {
-        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    private void requireIngestionFinished() {
+        if (ingestionProgress.isRunning()) {
+            throw new DataLoadingException("Price data is still being loaded", ingestionProgress.retryAfter());
+        }
     }
 
-    private Instant toEndInstant(LocalDate date) {
-        return date.plusDays(1)
-                .atStartOfDay(ZoneOffset.UTC)
-                .toInstant()
-                .minusNanos(1);
+    private LocalDate toDate(Instant timestamp, String cryptoSymbol, DayBoundaries days) {
+        if (timestamp == null) {
+            throw new NoDataException(cryptoSymbol);
+        }
+        return days.dayOf(timestamp.toEpochMilli());
     }
 }
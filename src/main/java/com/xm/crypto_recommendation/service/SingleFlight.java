@@ -0,0 +1,96 @@
+package com.xm.crypto_recommendation.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical computations into a single execution.
+ *
+ * <p>
+ * The first caller for a key runs the computation on its own thread and
+ * publishes the outcome through a {@link CompletableFuture}. Callers arriving
+ * with the same key while it is in flight wait for that future instead of
+ * recomputing. Once the computation finishes the key is released, so results
+ * are never cached beyond the lifetime of a single execution.
+ * </p>
+ *
+ * <p>
+ * Exceptions thrown by the computation are rethrown unchanged to every
+ * waiting caller. Executed and coalesced calls are counted in the
+ * {@code crypto.query.calls} meter, tagged by query and result, from which
+ * the coalescing ratio can be derived.
+ * </p>
+ *
+ * @param <K> key type identifying identical computations
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    static final String METER_NAME = "crypto.query.calls";
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(MeterRegistry meterRegistry, String query) {
+        this.executed = Counter.builder(METER_NAME)
+                .description("Query calls, by whether they executed or joined an in-flight execution")
+                .tag("query", query)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder(METER_NAME)
+                .description("Query calls, by whether they executed or joined an in-flight execution")
+                .tag("query", query)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the result of the computation for the given key, sharing an
+     * in-flight execution if one exists.
+     *
+     * @param key         identifies identical computations
+     * @param computation computation to run if none is in flight
+     * @return computed value
+     */
+    public V execute(K key, Supplier<V> computation) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            V value = computation.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.xm.crypto_recommendation.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Assigns symbols to nodes by consistent hashing.
+ *
+ * <p>
+ * Every node is placed on a 64-bit hash ring at a number of virtual points,
+ * and a symbol belongs to the node of the first point at or after the
+ * symbol's hash. Adding or removing a node therefore only moves the symbols
+ * between its points and their predecessors, about {@code 1/n} of all
+ * symbols, and virtual points spread the symbols evenly over the nodes.
+ * </p>
+ *
+ * <p>
+ * The hash is FNV-1a with a 64-bit finalizer, computed over UTF-8 bytes, so
+ * every node of a cluster computes the same assignment. Symbols are hashed
+ * case-insensitively. Instances are immutable.
+ * </p>
+ */
+public final class ConsistentHashRing {
+
+    private record Point(long hash, String node) {
+    }
+
+    private final List<String> nodes;
+    // Sorted by hash, then node.
+    private final long[] hashes;
+    private final String[] owners;
+
+    /**
+     * @param nodes         distinct node ids
+     * @param virtualNodes  number of points per node on the ring
+     * @throws IllegalArgumentException if there are no nodes, duplicate nodes
+     *                                  or fewer than one point per node
+     */
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one node is required");
+        }
+        if (nodes.stream().distinct().count() != nodes.size()) {
+            throw new IllegalArgumentException("Duplicate node ids: " + nodes);
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.nodes = List.copyOf(nodes);
+
+        Point[] points = new Point[nodes.size() * virtualNodes];
+        int i = 0;
+        for (String node : nodes) {
+            for (int v = 0; v < virtualNodes; v++) {
+                points[i++] = new Point(hash(node + "#" + v), node);
+            }
+        }
+        Arrays.sort(points, Comparator.comparingLong(Point::hash).thenComparing(Point::node));
+        this.hashes = new long[points.length];
+        this.owners = new String[points.length];
+        for (int p = 0; p < points.length; p++) {
+            hashes[p] = points[p].hash();
+            owners[p] = points[p].node();
+        }
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the node a symbol is assigned to.
+     */
+    public String ownerOf(String symbol) {
+        int index = Arrays.binarySearch(hashes, hash(symbol.toUpperCase(Locale.ROOT)));
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // Equal hashes: the first point of the run.
+            while (index > 0 && hashes[index - 1] == hashes[index]) {
+                index--;
+            }
+        }
+        return owners[index == hashes.length ? 0 : index];
+    }
+
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        // Finalizer of MurmurHash3: FNV alone spreads short keys poorly.
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
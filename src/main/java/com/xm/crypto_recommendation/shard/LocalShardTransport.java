@@ -0,0 +1,61 @@
+package com.xm.crypto_recommendation.shard;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.exception.ShardUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-process {@link ShardTransport} between the nodes of one JVM.
+ *
+ * <p>
+ * Every node, i.e. every application context, exposes its coordinator in a
+ * JVM-wide directory under its cluster and node id, and queries go straight
+ * to the coordinator found there. This runs a whole cluster in one process,
+ * e.g. in tests; a node whose context is closed becomes unavailable.
+ * </p>
+ */
+@Component
+public class LocalShardTransport implements ShardTransport {
+
+    private static final ConcurrentMap<String, ShardCoordinator> DIRECTORY = new ConcurrentHashMap<>();
+
+    private final String cluster;
+
+    @Autowired
+    public LocalShardTransport(@Value("${shard.cluster:${spring.application.name}}") String cluster) {
+        this.cluster = cluster;
+    }
+
+    @Override
+    public void expose(String node, ShardCoordinator coordinator) {
+        DIRECTORY.put(address(node), coordinator);
+    }
+
+    @Override
+    public void withdraw(String node) {
+        DIRECTORY.remove(address(node));
+    }
+
+    @Override
+    public List<CryptoRanking> rank(String node, PartialRankingQuery query) {
+        ShardCoordinator coordinator = DIRECTORY.get(address(node));
+        if (coordinator == null) {
+            throw new ShardUnavailableException(node, "not running");
+        }
+        try {
+            return coordinator.rankOwnSymbols(query);
+        } catch (RuntimeException e) {
+            throw new ShardUnavailableException(node, e.getMessage());
+        }
+    }
+
+    private String address(String node) {
+        return cluster + "/" + node;
+    }
+}
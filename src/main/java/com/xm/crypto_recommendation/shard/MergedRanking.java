@@ -0,0 +1,31 @@
+package com.xm.crypto_recommendation.shard;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+
+import java.util.List;
+
+/**
+ * Ranking merged from the partial rankings of the shards.
+ *
+ * <p>
+ * A ranking is incomplete if some nodes did not answer in time: it then
+ * lacks the cryptos of these nodes, but is still ordered and limited
+ * correctly among the others.
+ * </p>
+ *
+ * @param rankings         merged cryptos, sorted by the first metric
+ * @param unavailableNodes nodes whose cryptos are missing
+ */
+public record MergedRanking(List<CryptoRanking> rankings, List<String> unavailableNodes) {
+
+    /**
+     * Returns a ranking computed from all cryptos, e.g. without sharding.
+     */
+    public static MergedRanking complete(List<CryptoRanking> rankings) {
+        return new MergedRanking(rankings, List.of());
+    }
+
+    public boolean isComplete() {
+        return unavailableNodes.isEmpty();
+    }
+}
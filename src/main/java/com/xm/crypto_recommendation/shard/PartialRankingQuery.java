@@ -0,0 +1,25 @@
+package com.xm.crypto_recommendation.shard;
+
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Ranking query sent to every shard, which answers it for its own symbols.
+ *
+ * @param metrics metrics to compute, the first one being the ranking key
+ * @param from    optional start date (inclusive)
+ * @param to      optional end date (inclusive)
+ * @param zone    time zone the dates are taken in
+ * @param limit   maximum number of cryptos to return
+ */
+public record PartialRankingQuery(
+        List<RankingMetric> metrics,
+        LocalDate from,
+        LocalDate to,
+        ZoneId zone,
+        int limit
+) {
+}
@@ -0,0 +1,177 @@
+package com.xm.crypto_recommendation.shard;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.service.CryptoPriceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes rankings across the nodes of a sharded cluster.
+ *
+ * <p>
+ * Enabled with {@code shard.enabled=true}. The symbols are assigned to the
+ * nodes listed in {@code shard.nodes} by a {@link ConsistentHashRing}; this
+ * node is {@code shard.node}. A ranking is sent to every other node through
+ * the {@link ShardTransport} in parallel, while this node ranks its own
+ * symbols. Each node returns only its top {@code limit} cryptos, and the
+ * coordinator merges these partial rankings into the overall top
+ * {@code limit}: any crypto of the overall top is in the top of its node.
+ * </p>
+ *
+ * <p>
+ * A node that fails, or does not answer within {@code shard.timeout}, does
+ * not fail the ranking: its cryptos are left out and the result is marked
+ * incomplete. Calls to other nodes are counted in the {@value #METER_NAME}
+ * meter, tagged by node and outcome.
+ * </p>
+ *
+ * <p>
+ * Every node answers for its own symbols from its own data; ingestion is
+ * not sharded, so a node may hold, but never ranks, the prices of symbols
+ * assigned to other nodes.
+ * </p>
+ */
+@Service
+public class ShardCoordinator implements SmartLifecycle {
+
+    static final String METER_NAME = "crypto.shard.calls";
+
+    private static final Logger log = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    private final boolean enabled;
+    private final String node;
+    private final ConsistentHashRing ring;
+    private final Duration timeout;
+    private final CryptoPriceService cryptoPriceService;
+    private final ShardTransport transport;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile boolean running;
+
+    @Autowired
+    public ShardCoordinator(
+            @Value("${shard.enabled:false}") boolean enabled,
+            @Value("${shard.node:}") String node,
+            @Value("${shard.nodes:}") List<String> nodes,
+            @Value("${shard.virtual-nodes:128}") int virtualNodes,
+            @Value("${shard.timeout:2s}") Duration timeout,
+            CryptoPriceService cryptoPriceService, ShardTransport transport, MeterRegistry meterRegistry
+    ) {
+        if (enabled && !nodes.contains(node)) {
+            throw new IllegalArgumentException("shard.node '" + node + "' is not one of shard.nodes " + nodes);
+        }
+        this.enabled = enabled;
+        this.node = node;
+        this.ring = enabled ? new ConsistentHashRing(nodes, virtualNodes) : null;
+        this.timeout = timeout;
+        this.cryptoPriceService = cryptoPriceService;
+        this.transport = transport;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the top cryptos of the whole cluster, ranked by one or more
+     * metrics in descending order of the first one.
+     *
+     * @param metrics metrics to compute, the first one being the ranking key
+     * @param from    optional start date (inclusive)
+     * @param to      optional end date (inclusive)
+     * @param zone    time zone the dates are taken in
+     * @param limit   maximum number of cryptos to return
+     * @return merged ranking, incomplete if some nodes were unavailable
+     *
+     * @throws com.xm.crypto_recommendation.exception.DataLoadingException if this node is still ingesting
+     */
+    public MergedRanking rank(List<RankingMetric> metrics, LocalDate from, LocalDate to, ZoneId zone, int limit) {
+        PartialRankingQuery query = new PartialRankingQuery(metrics, from, to, zone, limit);
+        Map<String, Future<List<CryptoRanking>>> partials = new LinkedHashMap<>();
+        for (String other : ring.nodes()) {
+            if (!other.equals(node)) {
+                partials.put(other, executor.submit(() -> transport.rank(other, query)));
+            }
+        }
+
+        List<CryptoRanking> merged = new ArrayList<>(rankOwnSymbols(query));
+        List<String> unavailable = new ArrayList<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Map.Entry<String, Future<List<CryptoRanking>>> partial : partials.entrySet()) {
+            try {
+                merged.addAll(partial.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                count(partial.getKey(), "success");
+            } catch (ExecutionException | TimeoutException e) {
+                partial.getValue().cancel(true);
+                unavailable.add(partial.getKey());
+                count(partial.getKey(), "unavailable");
+                log.warn("Ranking without shard {}: {}", partial.getKey(),
+                        e instanceof ExecutionException ? e.getCause().getMessage() : "timed out after " + timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for shard " + partial.getKey(), e);
+            }
+        }
+
+        return new MergedRanking(merged.stream().sorted(CryptoRanking.RANKING_ORDER).limit(limit).toList(), List.copyOf(unavailable));
+    }
+
+    /**
+     * Returns the partial ranking of the symbols assigned to this node.
+     */
+    public List<CryptoRanking> rankOwnSymbols(PartialRankingQuery query) {
+        return cryptoPriceService.getCryptoRanking(
+                        query.metrics(), query.from(), query.to(), query.zone(), symbol -> node.equals(ring.ownerOf(symbol)))
+                .stream()
+                .sorted(CryptoRanking.RANKING_ORDER)
+                .limit(query.limit())
+                .toList();
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            transport.expose(node, this);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (enabled) {
+            transport.withdraw(node);
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void count(String other, String outcome) {
+        meterRegistry.counter(METER_NAME, "node", other, "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,33 @@
+package com.xm.crypto_recommendation.shard;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.exception.ShardUnavailableException;
+
+import java.util.List;
+
+/**
+ * Carries partial ranking queries from a coordinator to the other nodes of
+ * a cluster.
+ */
+public interface ShardTransport {
+
+    /**
+     * Makes the local node reachable for the other nodes.
+     *
+     * @param node        id of the local node
+     * @param coordinator answers the queries sent to the node
+     */
+    void expose(String node, ShardCoordinator coordinator);
+
+    /**
+     * Makes the local node unreachable, e.g. on shutdown.
+     */
+    void withdraw(String node);
+
+    /**
+     * Returns the partial ranking of a node's own symbols.
+     *
+     * @throws ShardUnavailableException if the node cannot be reached or fails to answer
+     */
+    List<CryptoRanking> rank(String node, PartialRankingQuery query);
+}
@@ -0,0 +1,200 @@
+package com.xm.crypto_recommendation.store;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.DailyLeaderboard;
+import com.xm.crypto_recommendation.domain.dto.PriceMetrics;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import com.xm.crypto_recommendation.domain.time.DayBoundaries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Per day leaderboard of the cryptocurrencies with the highest normalized
+ * range, maintained at ingestion time for each configured time zone.
+ *
+ * <p>
+ * For every day of every zone in {@code leaderboard.zones} (default UTC) the
+ * index keeps each symbol's minimum and maximum price, and the top entries
+ * ranked by {@code (max - min) / min}. Ingested ticks only update the days
+ * they fall on, and only those days are re-ranked, so appending a few hours
+ * of prices costs a handful of days per zone however long the history is.
+ * Ties are broken by symbol, and days with a minimum price of zero are left
+ * out for that symbol, as in the computed rankings.
+ * </p>
+ *
+ * <p>
+ * A symbol the index does not hold yet is added from its full history.
+ * Minimum and maximum are idempotent, so ticks that are already part of a
+ * day are harmless. Readers take no lock and see immutable leaderboards.
+ * </p>
+ */
+@Component
+public class DailyLeaderboardIndex {
+
+    /**
+     * Number of leaders kept per day unless configured otherwise.
+     */
+    static final int DEFAULT_TOP_N = 5;
+
+    private static final List<RankingMetric> METRICS = List.of(RankingMetric.NORMALIZED_RANGE);
+
+    /**
+     * Daily ranges and leaderboards of one zone.
+     */
+    private static final class ZoneLeaderboards {
+
+        private final DayBoundaries days;
+        // Guarded by the index; only the writer reads the per-symbol ranges.
+        private final Map<LocalDate, Map<String, long[]>> rangesByDay = new HashMap<>();
+        private final ConcurrentSkipListMap<LocalDate, DailyLeaderboard> leaderboards = new ConcurrentSkipListMap<>();
+
+        private ZoneLeaderboards(ZoneId zone) {
+            this.days = DayBoundaries.of(zone);
+        }
+    }
+
+    private final int topN;
+    private final Map<ZoneId, ZoneLeaderboards> zones;
+
+    // Guarded by this.
+    private final Set<String> symbols = new HashSet<>();
+
+    @Autowired
+    public DailyLeaderboardIndex(
+            @Value("${leaderboard.top-n:" + DEFAULT_TOP_N + "}") int topN,
+            @Value("${leaderboard.zones:UTC}") List<String> zones
+    ) {
+        this(topN, zones.stream().map(DayBoundaries::parseZone).toList());
+    }
+
+    /**
+     * Creates an index maintaining UTC days only.
+     */
+    public DailyLeaderboardIndex(int topN) {
+        this(topN, List.<ZoneId>of(ZoneOffset.UTC));
+    }
+
+    DailyLeaderboardIndex(int topN, Collection<ZoneId> zones) {
+        if (topN < 1) {
+            throw new IllegalArgumentException("leaderboard.top-n must be positive");
+        }
+        if (zones.isEmpty()) {
+            throw new IllegalArgumentException("leaderboard.zones must not be empty");
+        }
+        this.topN = topN;
+        Map<ZoneId, ZoneLeaderboards> byZone = new LinkedHashMap<>();
+        zones.forEach(zone -> byZone.putIfAbsent(zone.normalized(), new ZoneLeaderboards(zone)));
+        this.zones = Map.copyOf(byZone);
+    }
+
+    /**
+     * Returns the number of leaders kept per day.
+     */
+    public int topN() {
+        return topN;
+    }
+
+    /**
+     * Returns whether leaderboards are maintained for the days of a zone.
+     */
+    public boolean maintains(ZoneId zone) {
+        return zones.containsKey(zone.normalized());
+    }
+
+    /**
+     * Returns the zones leaderboards are maintained for.
+     */
+    public Set<ZoneId> zones() {
+        return zones.keySet();
+    }
+
+    /**
+     * Adds newly ingested ticks of a symbol and re-ranks the days they fall on.
+     *
+     * @param symbol  canonical cryptocurrency symbol
+     * @param ticks   newly ingested ticks, in any order
+     * @param history supplies all ticks of the symbol, if the symbol is not indexed yet
+     */
+    public synchronized void append(String symbol, PriceSeries ticks, Supplier<PriceSeries> history) {
+        PriceSeries added = symbols.add(symbol) ? history.get() : ticks;
+        zones.values().forEach(zone -> append(zone, symbol, added));
+    }
+
+    /**
+     * Returns the leaderboard of a day.
+     *
+     * @param zone time zone the day is taken in, one of {@link #zones()}
+     * @param date day
+     * @return leaderboard, or empty if no crypto has a positive price range that day
+     */
+    public Optional<DailyLeaderboard> findLeaderboard(ZoneId zone, LocalDate date) {
+        return Optional.ofNullable(zone(zone).leaderboards.get(date));
+    }
+
+    /**
+     * Returns the leaderboards of all days within a date range that have one.
+     *
+     * @param zone time zone the days are taken in, one of {@link #zones()}
+     * @param from first day (inclusive)
+     * @param to   last day (inclusive)
+     * @return leaderboards in chronological order
+     */
+    public NavigableMap<LocalDate, DailyLeaderboard> findLeaderboards(ZoneId zone, LocalDate from, LocalDate to) {
+        return zone(zone).leaderboards.subMap(from, true, to, true);
+    }
+
+    private ZoneLeaderboards zone(ZoneId zone) {
+        ZoneLeaderboards leaderboards = zones.get(zone.normalized());
+        if (leaderboards == null) {
+            throw new IllegalArgumentException("Leaderboards are not maintained for time zone " + zone);
+        }
+        return leaderboards;
+    }
+
+    private void append(ZoneLeaderboards zone, String symbol, PriceSeries added) {
+        Set<LocalDate> touchedDays = new HashSet<>();
+        for (int i = 0; i < added.size(); i++) {
+            LocalDate day = zone.days.dayOf(added.timestamp(i));
+            long price = added.price(i);
+            long[] range = zone.rangesByDay.computeIfAbsent(day, d -> new HashMap<>())
+                    .computeIfAbsent(symbol, s -> new long[]{price, price});
+            range[0] = Math.min(range[0], price);
+            range[1] = Math.max(range[1], price);
+            touchedDays.add(day);
+        }
+        touchedDays.forEach(day -> rank(zone, day));
+    }
+
+    private void rank(ZoneLeaderboards zone, LocalDate day) {
+        List<CryptoRanking> leaders = zone.rangesByDay.get(day).entrySet().stream()
+                .filter(entry -> entry.getValue()[0] != 0)
+                .map(entry -> new CryptoRanking(entry.getKey(), METRICS, PriceMetrics.ofNormalizedRange(
+                        FixedPoint8.normalizedRange(entry.getValue()[0], entry.getValue()[1]))))
+                .sorted(CryptoRanking.RANKING_ORDER)
+                .limit(topN)
+                .toList();
+        if (leaders.isEmpty()) {
+            zone.leaderboards.remove(day);
+        } else {
+            zone.leaderboards.put(day, new DailyLeaderboard(day, leaders));
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.xm.crypto_recommendation.store;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.PriceRangeStats;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only price series of one cryptocurrency held outside the Java heap.
+ *
+ * <p>
+ * Ticks are stored in fixed-size chunks of native memory, each laid out as
+ * a tick count followed by a column of epoch millisecond timestamps and a
+ * column of fixed-point prices. Chunks are never moved or resized, so a
+ * series of any length costs the garbage collector a handful of small
+ * objects. With a directory, every chunk is a memory-mapped file and the
+ * series survives restarts.
+ * </p>
+ *
+ * <p>
+ * A single writer appends in timestamp order; readers take no lock. The
+ * size is published only after the ticks are written, so a reader sees
+ * every tick below the size it read.
+ * </p>
+ */
+final class OffHeapPriceSeries {
+
+    private static final long HEADER_BYTES = Long.BYTES;
+
+    private final Path directory;
+    private final String symbol;
+    private final long generation;
+    private final int chunkTicks;
+    // Memory is released once the series and all its segments are unreachable,
+    // so concurrent readers of a replaced series stay safe.
+    private final Arena arena = Arena.ofAuto();
+
+    private volatile MemorySegment[] chunks = new MemorySegment[0];
+    private volatile long size;
+
+    private OffHeapPriceSeries(Path directory, String symbol, long generation, int chunkTicks) {
+        this.directory = directory;
+        this.symbol = symbol;
+        this.generation = generation;
+        this.chunkTicks = chunkTicks;
+    }
+
+    /**
+     * Creates an empty series, backed by files in the given directory if not {@code null}.
+     */
+    static OffHeapPriceSeries create(Path directory, String symbol, long generation, int chunkTicks) {
+        return new OffHeapPriceSeries(directory, symbol, generation, chunkTicks);
+    }
+
+    /**
+     * Maps the chunk files of a series persisted in the given directory.
+     *
+     * <p>
+     * The chunk size is read from the first file, so a series written with a
+     * different {@code chunkTicks} keeps its layout; {@code chunkTicks} only
+     * applies if the series has no file yet.
+     * </p>
+     */
+    static OffHeapPriceSeries open(Path directory, String symbol, long generation, int chunkTicks) {
+        Path first = chunkFile(directory, symbol, generation, 0);
+        if (Files.exists(first)) {
+            try {
+                chunkTicks = (int) ((Files.size(first) - HEADER_BYTES) / (2L * Long.BYTES));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read price series chunk of " + symbol, e);
+            }
+        }
+        OffHeapPriceSeries series = new OffHeapPriceSeries(directory, symbol, generation, chunkTicks);
+        long size = 0;
+        List<MemorySegment> chunks = new ArrayList<>();
+        while (Files.exists(series.chunkFile(chunks.size()))) {
+            MemorySegment chunk = series.map(chunks.size());
+            long count = chunk.get(ValueLayout.JAVA_LONG, 0);
+            chunks.add(chunk);
+            size += count;
+            if (count < chunkTicks) {
+                break;
+            }
+        }
+        series.chunks = chunks.toArray(MemorySegment[]::new);
+        series.size = size;
+        return series;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long timestamp(long index) {
+        return chunks[(int) (index / chunkTicks)].getAtIndex(ValueLayout.JAVA_LONG, 1 + index % chunkTicks);
+    }
+
+    long price(long index) {
+        return chunks[(int) (index / chunkTicks)].getAtIndex(ValueLayout.JAVA_LONG, 1 + chunkTicks + index % chunkTicks);
+    }
+
+    /**
+     * Returns whether ticks starting at the given timestamp can be appended
+     * without breaking the timestamp order.
+     */
+    boolean accepts(long timestamp) {
+        long currentSize = size;
+        return currentSize == 0 || timestamp >= timestamp(currentSize - 1);
+    }
+
+    /**
+     * Appends ticks in timestamp order.
+     *
+     * @throws IllegalArgumentException if the ticks are not in order or start before the last tick
+     */
+    synchronized void appendAll(PriceSeries ticks) {
+        if (ticks.isEmpty()) {
+            return;
+        }
+        if (!accepts(ticks.timestamp(0))) {
+            throw new IllegalArgumentException("Ticks of " + symbol + " must not precede the last stored tick");
+        }
+        for (int i = 1; i < ticks.size(); i++) {
+            if (ticks.timestamp(i) < ticks.timestamp(i - 1)) {
+                throw new IllegalArgumentException("Ticks of " + symbol + " must be in timestamp order");
+            }
+        }
+        MemorySegment[] current = chunks;
+        long index = size;
+        for (int i = 0; i < ticks.size(); i++) {
+            int chunkIndex = (int) (index / chunkTicks);
+            if (chunkIndex == current.length) {
+                current = Arrays.copyOf(current, chunkIndex + 1);
+                current[chunkIndex] = allocate(chunkIndex);
+            }
+            long offset = index % chunkTicks;
+            current[chunkIndex].setAtIndex(ValueLayout.JAVA_LONG, 1 + offset, ticks.timestamp(i));
+            current[chunkIndex].setAtIndex(ValueLayout.JAVA_LONG, 1 + chunkTicks + offset, ticks.price(i));
+            index++;
+        }
+        for (int chunkIndex = (int) (size / chunkTicks); chunkIndex < current.length; chunkIndex++) {
+            current[chunkIndex].set(ValueLayout.JAVA_LONG, 0, Math.min(chunkTicks, index - (long) chunkIndex * chunkTicks));
+        }
+        chunks = current;
+        size = index;
+    }
+
+    /**
+     * Flushes file-backed chunks to disk.
+     */
+    void force() {
+        if (directory != null) {
+            for (MemorySegment chunk : chunks) {
+                chunk.force();
+            }
+        }
+    }
+
+    /**
+     * Deletes the chunk files of this series.
+     */
+    void deleteFiles() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        for (int chunkIndex = 0; Files.deleteIfExists(chunkFile(chunkIndex)); chunkIndex++) {
+            // Chunk files are contiguous.
+        }
+    }
+
+    Optional<Instant> firstTimestamp() {
+        return size == 0 ? Optional.empty() : Optional.of(Instant.ofEpochMilli(timestamp(0)));
+    }
+
+    Optional<Instant> lastTimestamp() {
+        long currentSize = size;
+        return currentSize == 0 ? Optional.empty() : Optional.of(Instant.ofEpochMilli(timestamp(currentSize - 1)));
+    }
+
+    /**
+     * Computes the oldest, newest, minimum and maximum ticks within a time range.
+     *
+     * <p>
+     * The range is located by binary search and scanned once. Ties follow the
+     * repository ordering: the earliest tick wins for the minimum, the latest
+     * for the maximum.
+     * </p>
+     *
+     * @param from start of the range in epoch milliseconds (inclusive)
+     * @param to   end of the range in epoch milliseconds (inclusive)
+     * @return range stats, or empty if no tick lies in the range
+     */
+    Optional<PriceRangeStats> rangeStats(long from, long to) {
+        long end = size;
+        long first = lowerBound(from, end);
+        long last = to == Long.MAX_VALUE ? end : lowerBound(to + 1, end);
+        if (first >= last) {
+            return Optional.empty();
+        }
+
+        long minIndex = first;
+        long maxIndex = first;
+        long minPrice = price(first);
+        long maxPrice = minPrice;
+        for (long index = first + 1; index < last; index++) {
+            long price = price(index);
+            if (price < minPrice) {
+                minPrice = price;
+                minIndex = index;
+            }
+            if (price >= maxPrice) {
+                maxPrice = price;
+                maxIndex = index;
+            }
+        }
+        return Optional.of(new PriceRangeStats(point(first), point(last - 1), point(minIndex), point(maxIndex)));
+    }
+
+    /**
+     * Returns the index of the first tick at or after the given timestamp.
+     */
+    private long lowerBound(long timestamp, long end) {
+        long low = 0;
+        long high = end;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (timestamp(middle) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private CryptoPricePoint point(long index) {
+        return new CryptoPricePoint(price(index), Instant.ofEpochMilli(timestamp(index)));
+    }
+
+    private long chunkBytes() {
+        return HEADER_BYTES + 2L * chunkTicks * Long.BYTES;
+    }
+
+    private MemorySegment allocate(int chunkIndex) {
+        return directory == null ? arena.allocate(chunkBytes(), Long.BYTES) : map(chunkIndex);
+    }
+
+    private MemorySegment map(int chunkIndex) {
+        try (FileChannel channel = FileChannel.open(
+                chunkFile(chunkIndex), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, chunkBytes(), arena);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map price series chunk of " + symbol, e);
+        }
+    }
+
+    private Path chunkFile(int chunkIndex) {
+        return chunkFile(directory, symbol, generation, chunkIndex);
+    }
+
+    private static Path chunkFile(Path directory, String symbol, long generation, int chunkIndex) {
+        return directory.resolve(String.format("%s-%d-%05d.bin", symbol, generation, chunkIndex));
+    }
+}
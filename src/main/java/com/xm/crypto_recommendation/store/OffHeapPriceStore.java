@@ -0,0 +1,221 @@
+package com.xm.crypto_recommendation.store;
+
+import com.xm.crypto_recommendation.domain.dto.PriceRangeStats;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Off-heap mirror of the price history, answering range statistics without
+ * touching the database or the Java heap.
+ *
+ * <p>
+ * Enabled with {@code price-store.off-heap.enabled=true}. Each symbol's
+ * ticks are held in an {@link OffHeapPriceSeries} of native memory, so the
+ * heap and GC pauses stay flat however many ticks are loaded. With
+ * {@code price-store.off-heap.directory} the series are memory-mapped files
+ * in that directory and are reopened on restart. Native memory counts
+ * against {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap
+ * size and should be raised to fit 16 bytes per tick.
+ * </p>
+ *
+ * <p>
+ * Memory is allocated in whole chunks of
+ * {@code price-store.off-heap.chunk-ticks} ticks, so every symbol takes at
+ * least one chunk however few ticks it has. The budget is thus 16 bytes per
+ * chunk tick times the chunks of all symbols, not 16 bytes per tick. Series
+ * reopened from files keep the chunk size they were written with.
+ * </p>
+ *
+ * <p>
+ * The store is fed by ingestion after each committed file. Ticks that would
+ * break the timestamp order of a series, or a symbol the store does not
+ * hold yet, cause the series to be rebuilt from the full history, written
+ * as a new file generation and swapped in atomically.
+ * </p>
+ */
+@Component
+public class OffHeapPriceStore {
+
+    /**
+     * Number of ticks per chunk of native memory unless configured otherwise (1 MiB per chunk).
+     */
+    static final int DEFAULT_CHUNK_TICKS = 1 << 16;
+
+    private static final Pattern CHUNK_FILE = Pattern.compile("(.+)-(\\d+)-(\\d+)\\.bin");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int chunkTicks;
+    private final ConcurrentMap<String, OffHeapPriceSeries> seriesBySymbol = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OffHeapPriceStore(
+            @Value("${price-store.off-heap.enabled:false}") boolean enabled,
+            @Value("${price-store.off-heap.directory:}") String directory,
+            @Value("${price-store.off-heap.chunk-ticks:" + DEFAULT_CHUNK_TICKS + "}") int chunkTicks
+    ) {
+        this(enabled, directory.isBlank() ? null : Path.of(directory), chunkTicks);
+    }
+
+    OffHeapPriceStore(boolean enabled, Path directory, int chunkTicks) {
+        if (chunkTicks < 1) {
+            throw new IllegalArgumentException("price-store.off-heap.chunk-ticks must be positive");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.chunkTicks = chunkTicks;
+        if (enabled && directory != null) {
+            openAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns whether the store holds the series of the given symbol.
+     *
+     * @param symbol canonical cryptocurrency symbol
+     */
+    public boolean contains(String symbol) {
+        return seriesBySymbol.containsKey(symbol);
+    }
+
+    /**
+     * Adds newly ingested ticks of a symbol.
+     *
+     * @param symbol  canonical cryptocurrency symbol
+     * @param ticks   newly ingested ticks, in timestamp order
+     * @param history supplies all ticks of the symbol, in timestamp order,
+     *                if the series has to be rebuilt
+     */
+    public void append(String symbol, PriceSeries ticks, Supplier<PriceSeries> history) {
+        if (!enabled) {
+            return;
+        }
+        OffHeapPriceSeries current = seriesBySymbol.get(symbol);
+        if (current != null && isAppendable(current, ticks)) {
+            current.appendAll(ticks);
+            current.force();
+            return;
+        }
+
+        OffHeapPriceSeries rebuilt = OffHeapPriceSeries.create(
+                directory, symbol, current == null ? nextGeneration(symbol) : current.generation() + 1, chunkTicks);
+        rebuilt.appendAll(history.get());
+        rebuilt.force();
+        seriesBySymbol.put(symbol, rebuilt);
+        if (current != null) {
+            deleteFiles(current);
+        }
+    }
+
+    /**
+     * Returns the timestamp of the oldest tick of a symbol.
+     */
+    public Optional<Instant> findMinTimestamp(String symbol) {
+        return series(symbol).flatMap(OffHeapPriceSeries::firstTimestamp);
+    }
+
+    /**
+     * Returns the timestamp of the newest tick of a symbol.
+     */
+    public Optional<Instant> findMaxTimestamp(String symbol) {
+        return series(symbol).flatMap(OffHeapPriceSeries::lastTimestamp);
+    }
+
+    /**
+     * Computes the oldest, newest, minimum and maximum price points of a symbol within a time range.
+     *
+     * @param symbol canonical cryptocurrency symbol
+     * @param from   start of the range (inclusive)
+     * @param to     end of the range (inclusive)
+     * @return range stats, or empty if the symbol has no tick in the range
+     */
+    public Optional<PriceRangeStats> findRangeStats(String symbol, Instant from, Instant to) {
+        // Ticks hold milliseconds: round the bounds inwards.
+        long fromMillis = from.toEpochMilli() + (from.getNano() % 1_000_000 == 0 ? 0 : 1);
+        return series(symbol).flatMap(series -> series.rangeStats(fromMillis, to.toEpochMilli()));
+    }
+
+    private Optional<OffHeapPriceSeries> series(String symbol) {
+        return Optional.ofNullable(seriesBySymbol.get(symbol));
+    }
+
+    private static boolean isAppendable(OffHeapPriceSeries series, PriceSeries ticks) {
+        if (ticks.isEmpty()) {
+            return true;
+        }
+        for (int i = 1; i < ticks.size(); i++) {
+            if (ticks.timestamp(i) < ticks.timestamp(i - 1)) {
+                return false;
+            }
+        }
+        return series.accepts(ticks.timestamp(0));
+    }
+
+    /**
+     * Returns a generation above any leftover files of the symbol.
+     */
+    private long nextGeneration(String symbol) {
+        return latestGenerations().getOrDefault(symbol, -1L) + 1;
+    }
+
+    /**
+     * Opens the latest generation of every persisted series and deletes older ones.
+     */
+    private void openAll() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create price store directory: " + directory, e);
+        }
+        latestGenerations().forEach((symbol, generation) -> {
+            seriesBySymbol.put(symbol, OffHeapPriceSeries.open(directory, symbol, generation, chunkTicks));
+            for (long older = 0; older < generation; older++) {
+                deleteFiles(OffHeapPriceSeries.create(directory, symbol, older, chunkTicks));
+            }
+        });
+    }
+
+    private Map<String, Long> latestGenerations() {
+        Map<String, Long> generations = new HashMap<>();
+        if (directory == null) {
+            return generations;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> CHUNK_FILE.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .forEach(matcher -> generations.merge(matcher.group(1), Long.parseLong(matcher.group(2)), Math::max));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list price store directory: " + directory, e);
+        }
+        return generations;
+    }
+
+    private static void deleteFiles(OffHeapPriceSeries series) {
+        try {
+            series.deleteFiles();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete replaced price series files", e);
+        }
+    }
+}
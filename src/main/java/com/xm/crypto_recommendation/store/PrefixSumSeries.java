@@ -0,0 +1,258 @@
+package com.xm.crypto_recommendation.store;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Append-only price series of one cryptocurrency with precomputed aggregates,
+ * so that the summary of any time range is answered in O(log n).
+ *
+ * <p>
+ * The ticks are grouped into aligned blocks of 2<sup>k</sup> ticks for every
+ * level {@code k}, and the mean and sum of squared deviations of each block
+ * are stored once it is complete, merged from the two blocks below it with
+ * Chan's formula. A range is located by two binary searches and covered by
+ * at most two blocks per level, whose moments are merged the same way. Every
+ * block is centered on its own mean, so the variance never subtracts large
+ * nearly equal sums and keeps its precision at any price level.
+ * </p>
+ *
+ * <p>
+ * The time-weighted average comes from a prefix array of the price
+ * multiplied by the time until the next tick, relative to the first price of
+ * the series; a range's sum is the difference of two prefix entries.
+ * </p>
+ *
+ * <p>
+ * A single writer appends in timestamp order; readers take no lock and see
+ * an immutable {@link Snapshot}. The entries a snapshot reads are never
+ * modified afterwards, and arrays are copied, not resized in place, when full.
+ * </p>
+ */
+final class PrefixSumSeries {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Arrays shared by successive snapshots, filled up to {@code size}.
+     * {@code means[k][j]} and {@code squaredDeviations[k][j]} describe the
+     * block of ticks {@code [j << k, (j + 1) << k)}; single ticks have no
+     * deviation, so {@code squaredDeviations[0]} is empty. The prefix array
+     * has one more entry, starting with zero; the time-weighted sum at
+     * {@code size} is provisional until the next tick is appended.
+     */
+    private record Snapshot(
+            long[] timestamps, double[][] means, double[][] squaredDeviations, double[] timeWeightedSums, int size
+    ) {
+    }
+
+    /**
+     * Count, mean and sum of squared deviations of a set of ticks.
+     */
+    private record Moments(long count, double mean, double squaredDeviations) {
+
+        private static final Moments EMPTY = new Moments(0, 0, 0);
+
+        /**
+         * Adds another disjoint set of ticks, by the parallel algorithm of Chan et al.
+         */
+        Moments merge(long otherCount, double otherMean, double otherSquaredDeviations) {
+            long total = count + otherCount;
+            double delta = otherMean - mean;
+            return new Moments(
+                    total,
+                    mean + delta * otherCount / total,
+                    squaredDeviations + otherSquaredDeviations + delta * delta * count * otherCount / total
+            );
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(
+            new long[INITIAL_CAPACITY], levels(INITIAL_CAPACITY, 0), levels(INITIAL_CAPACITY, 1),
+            new double[INITIAL_CAPACITY + 1], 0);
+    private double reference;
+    private double lastShifted;
+
+    int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Returns whether ticks starting at the given timestamp can be appended
+     * without breaking the timestamp order.
+     */
+    boolean accepts(long timestamp) {
+        Snapshot current = snapshot;
+        return current.size() == 0 || timestamp >= current.timestamps()[current.size() - 1];
+    }
+
+    /**
+     * Appends ticks in timestamp order.
+     *
+     * @throws IllegalArgumentException if the ticks are not in order or start before the last tick
+     */
+    synchronized void appendAll(PriceSeries ticks) {
+        if (ticks.isEmpty()) {
+            return;
+        }
+        if (!accepts(ticks.timestamp(0))) {
+            throw new IllegalArgumentException("Ticks must not precede the last stored tick");
+        }
+        for (int i = 1; i < ticks.size(); i++) {
+            if (ticks.timestamp(i) < ticks.timestamp(i - 1)) {
+                throw new IllegalArgumentException("Ticks must be in timestamp order");
+            }
+        }
+
+        Snapshot current = snapshot;
+        int size = current.size();
+        int newSize = Math.addExact(size, ticks.size());
+        long[] timestamps = current.timestamps();
+        double[][] means = current.means();
+        double[][] squaredDeviations = current.squaredDeviations();
+        double[] timeWeightedSums = current.timeWeightedSums();
+        if (newSize > timestamps.length) {
+            int capacity = Math.max(newSize, timestamps.length * 2);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            means = grow(means, capacity, 0);
+            squaredDeviations = grow(squaredDeviations, capacity, 1);
+            timeWeightedSums = Arrays.copyOf(timeWeightedSums, capacity + 1);
+        }
+        if (size == 0) {
+            reference = price(ticks.price(0));
+        }
+
+        for (int i = 0; i < ticks.size(); i++) {
+            int index = size + i;
+            double price = price(ticks.price(i));
+            double shifted = price - reference;
+            timestamps[index] = ticks.timestamp(i);
+            means[0][index] = price;
+            // The tick completes every block it ends, one per level while the block index is odd.
+            for (int level = 0, block = index; (block & 1) == 1; level++, block >>>= 1) {
+                long blockCount = 1L << level;
+                double delta = means[level][block] - means[level][block - 1];
+                means[level + 1][block >>> 1] = means[level][block - 1] + delta / 2;
+                squaredDeviations[level + 1][block >>> 1] = squaredDeviations(squaredDeviations, level, block - 1)
+                        + squaredDeviations(squaredDeviations, level, block) + delta * delta * blockCount / 2;
+            }
+            // A price holds until the next tick, so its weight is only known once that tick arrives.
+            if (index > 0) {
+                timeWeightedSums[index] = timeWeightedSums[index - 1] + lastShifted * (timestamps[index] - timestamps[index - 1]);
+            }
+            timeWeightedSums[index + 1] = timeWeightedSums[index];
+            lastShifted = shifted;
+        }
+        snapshot = new Snapshot(timestamps, means, squaredDeviations, timeWeightedSums, newSize);
+    }
+
+    /**
+     * Summarizes the ticks within a time range.
+     *
+     * @param symbol symbol to report in the summary
+     * @param from   start of the range in epoch milliseconds (inclusive)
+     * @param to     end of the range in epoch milliseconds (inclusive)
+     * @return summary, or empty if no tick lies in the range
+     */
+    Optional<CryptoSummary> summary(String symbol, long from, long to) {
+        Snapshot current = snapshot;
+        int first = lowerBound(current, from);
+        int end = to == Long.MAX_VALUE ? current.size() : lowerBound(current, to + 1);
+        if (first >= end) {
+            return Optional.empty();
+        }
+        int last = end - 1;
+        long count = end - first;
+
+        Moments moments = moments(current, first, end);
+        double variance = count < 2 ? 0 : moments.squaredDeviations() / (count - 1);
+
+        long span = current.timestamps()[last] - current.timestamps()[first];
+        double timeWeightedAverage = span == 0
+                ? moments.mean()
+                : reference + (current.timeWeightedSums()[last] - current.timeWeightedSums()[first]) / span;
+
+        return Optional.of(new CryptoSummary(
+                symbol,
+                Instant.ofEpochMilli(current.timestamps()[first]),
+                Instant.ofEpochMilli(current.timestamps()[last]),
+                count,
+                FixedPoint8.round(moments.mean()),
+                variance,
+                FixedPoint8.round(Math.sqrt(variance)),
+                FixedPoint8.round(timeWeightedAverage)
+        ));
+    }
+
+    /**
+     * Merges the moments of the ticks {@code [first, end)} from the largest
+     * complete blocks covering them, at most two per level.
+     */
+    private static Moments moments(Snapshot snapshot, int first, int end) {
+        Moments moments = Moments.EMPTY;
+        for (int level = 0, low = first, high = end; low < high; level++, low >>>= 1, high >>>= 1) {
+            long blockCount = 1L << level;
+            if ((low & 1) == 1) {
+                moments = moments.merge(blockCount, snapshot.means()[level][low],
+                        squaredDeviations(snapshot.squaredDeviations(), level, low));
+                low++;
+            }
+            if ((high & 1) == 1) {
+                high--;
+                moments = moments.merge(blockCount, snapshot.means()[level][high],
+                        squaredDeviations(snapshot.squaredDeviations(), level, high));
+            }
+        }
+        return moments;
+    }
+
+    private static double squaredDeviations(double[][] squaredDeviations, int level, int block) {
+        return level == 0 ? 0 : squaredDeviations[level][block];
+    }
+
+    /**
+     * Allocates the per-level block arrays for the given tick capacity,
+     * starting at {@code firstLevel}; lower levels get empty arrays.
+     */
+    private static double[][] levels(int capacity, int firstLevel) {
+        return grow(new double[0][], capacity, firstLevel);
+    }
+
+    /**
+     * Returns copies of the per-level block arrays sized for the given tick capacity.
+     */
+    private static double[][] grow(double[][] levels, int capacity, int firstLevel) {
+        double[][] grown = new double[Integer.SIZE - Integer.numberOfLeadingZeros(capacity)][];
+        for (int level = 0; level < grown.length; level++) {
+            int length = level < firstLevel ? 0 : capacity >>> level;
+            grown[level] = level < levels.length ? Arrays.copyOf(levels[level], length) : new double[length];
+        }
+        return grown;
+    }
+
+    /**
+     * Returns the index of the first tick at or after the given timestamp.
+     */
+    private static int lowerBound(Snapshot snapshot, long timestamp) {
+        int low = 0;
+        int high = snapshot.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshot.timestamps()[middle] < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static double price(long fixedPoint) {
+        return (double) fixedPoint / FixedPoint8.ONE;
+    }
+}
@@ -0,0 +1,77 @@
+package com.xm.crypto_recommendation.store;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index answering the mean, variance and time-weighted average
+ * price of any time range in O(log n), without scanning prices.
+ *
+ * <p>
+ * Each symbol's ticks are held in a {@link PrefixSumSeries} of timestamps,
+ * block moments and cumulative sums, about 40 bytes per tick. The index is fed by
+ * ingestion after each committed file, like the {@link OffHeapPriceStore}:
+ * ticks that would break the timestamp order of a series, or a symbol the
+ * index does not hold yet, cause the series to be rebuilt from the full
+ * history and swapped in atomically.
+ * </p>
+ */
+@Component
+public class PriceSummaryIndex {
+
+    private final ConcurrentMap<String, PrefixSumSeries> seriesBySymbol = new ConcurrentHashMap<>();
+
+    /**
+     * Adds newly ingested ticks of a symbol.
+     *
+     * @param symbol  canonical cryptocurrency symbol
+     * @param ticks   newly ingested ticks, in timestamp order
+     * @param history supplies all ticks of the symbol, in timestamp order,
+     *                if the series has to be rebuilt
+     */
+    public void append(String symbol, PriceSeries ticks, Supplier<PriceSeries> history) {
+        PrefixSumSeries current = seriesBySymbol.get(symbol);
+        if (current != null && isAppendable(current, ticks)) {
+            current.appendAll(ticks);
+            return;
+        }
+
+        PrefixSumSeries rebuilt = new PrefixSumSeries();
+        rebuilt.appendAll(history.get());
+        seriesBySymbol.put(symbol, rebuilt);
+    }
+
+    /**
+     * Summarizes the prices of a symbol within a time range.
+     *
+     * @param symbol canonical cryptocurrency symbol
+     * @param from   start of the range (inclusive)
+     * @param to     end of the range (inclusive)
+     * @return summary, or empty if the symbol has no tick in the range
+     */
+    public Optional<CryptoSummary> findSummary(String symbol, Instant from, Instant to) {
+        // Ticks hold milliseconds: round the bounds inwards.
+        long fromMillis = from.toEpochMilli() + (from.getNano() % 1_000_000 == 0 ? 0 : 1);
+        return Optional.ofNullable(seriesBySymbol.get(symbol))
+                .flatMap(series -> series.summary(symbol, fromMillis, to.toEpochMilli()));
+    }
+
+    private static boolean isAppendable(PrefixSumSeries series, PriceSeries ticks) {
+        if (ticks.isEmpty()) {
+            return true;
+        }
+        for (int i = 1; i < ticks.size(); i++) {
+            if (ticks.timestamp(i) < ticks.timestamp(i - 1)) {
+                return false;
+            }
+        }
+        return series.accepts(ticks.timestamp(0));
+    }
+}
@@ -0,0 +1,371 @@
+package com.xm.crypto_recommendation.stream;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.exception.DataLoadingException;
+import com.xm.crypto_recommendation.exception.NoDataException;
+import com.xm.crypto_recommendation.exception.UnsupportedCryptoException;
+import com.xm.crypto_recommendation.ingestion.IngestionProgress;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
+import com.xm.crypto_recommendation.registry.DataVersionTracker;
+import com.xm.crypto_recommendation.service.CryptoPriceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the all-time statistics of a crypto to its subscribers whenever
+ * ingestion changes its minimum, maximum or newest price.
+ *
+ * <p>
+ * The broadcaster listens to the {@link DataVersionTracker}. On every bump
+ * of a symbol with subscribers, its statistics are recomputed once and, if
+ * the minimum, maximum or newest price point changed, offered to every
+ * subscriber. A newly subscribed client first receives the current
+ * statistics.
+ * </p>
+ *
+ * <p>
+ * Each subscriber has a queue of at most {@code stats-stream.queue-capacity}
+ * updates, drained by its own virtual thread, so that a slow client blocks
+ * only that thread and never the ingestion. When a queue is full, its oldest
+ * update is dropped: since every update holds the complete statistics, a
+ * client that lags behind skips intermediate states but always ends on the
+ * latest one. Dropped updates are counted in
+ * {@code crypto.stats.stream.dropped}, subscribers in
+ * {@code crypto.stats.stream.subscribers}.
+ * </p>
+ *
+ * <p>
+ * On shutdown all streams are completed, before the web server waits for
+ * active requests to finish.
+ * </p>
+ */
+@Component
+public class StatsBroadcaster implements SmartLifecycle {
+
+    static final String EVENT_NAME = "stats";
+
+    private static final Logger log = LoggerFactory.getLogger(StatsBroadcaster.class);
+
+    /**
+     * Destination of the updates of one subscriber.
+     */
+    @FunctionalInterface
+    public interface StatsSink {
+
+        /**
+         * Delivers an update, possibly blocking until the client accepted it.
+         *
+         * @throws IOException if the client is gone; the subscription is then cancelled
+         */
+        void send(CryptoStats stats) throws IOException;
+
+        /**
+         * Ends the delivery on shutdown.
+         */
+        default void close() {
+        }
+    }
+
+    /**
+     * Sends updates as Server-Sent Events.
+     */
+    private record EmitterSink(SseEmitter emitter) implements StatsSink {
+
+        @Override
+        public void send(CryptoStats stats) throws IOException {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(stats, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+
+    /**
+     * Subscribers of one symbol and the statistics last sent to them.
+     */
+    private static final class Channel {
+
+        private final List<Subscription> subscriptions = new ArrayList<>();
+        private final AtomicLong generation = new AtomicLong();
+        private CryptoStats last;
+        private long lastGeneration;
+    }
+
+    /**
+     * Subscription of one client to the updates of one symbol.
+     */
+    public final class Subscription {
+
+        private final Channel channel;
+        private final StatsSink sink;
+        private final BlockingDeque<CryptoStats> queue;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final Thread thread;
+
+        private Subscription(String symbol, Channel channel, StatsSink sink) {
+            this.channel = channel;
+            this.sink = sink;
+            this.queue = new LinkedBlockingDeque<>(queueCapacity);
+            this.thread = Thread.ofVirtual().name("stats-stream-" + symbol).unstarted(this::drain);
+        }
+
+        /**
+         * Queues an update, dropping the oldest queued one if the queue is full.
+         */
+        private void offer(CryptoStats stats) {
+            while (!queue.offerLast(stats)) {
+                if (queue.pollFirst() != null) {
+                    dropped.increment();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!cancelled.get()) {
+                    sink.send(queue.takeFirst());
+                }
+            } catch (InterruptedException e) {
+                // Cancelled while waiting for an update.
+            } catch (IOException | RuntimeException e) {
+                log.debug("Stats stream closed: {}", e.toString());
+            } finally {
+                cancel();
+            }
+        }
+
+        /**
+         * Ends the subscription; further updates are discarded.
+         */
+        public void cancel() {
+            if (!cancelled.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (channel) {
+                channel.subscriptions.remove(this);
+            }
+            subscribers.decrementAndGet();
+            if (Thread.currentThread() != thread) {
+                thread.interrupt();
+            }
+        }
+
+        private void close() {
+            cancel();
+            sink.close();
+        }
+
+        /**
+         * Returns the number of updates waiting to be sent.
+         */
+        int queued() {
+            return queue.size();
+        }
+    }
+
+    private final CryptoPriceService cryptoPriceService;
+    private final CryptoRegistry cryptoRegistry;
+    private final IngestionProgress ingestionProgress;
+    private final int queueCapacity;
+    private final Duration timeout;
+    private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter dropped;
+    private volatile boolean running;
+
+    @Autowired
+    public StatsBroadcaster(
+            CryptoPriceService cryptoPriceService, CryptoRegistry cryptoRegistry,
+            IngestionProgress ingestionProgress, DataVersionTracker dataVersionTracker, MeterRegistry meterRegistry,
+            @Value("${stats-stream.queue-capacity:16}") int queueCapacity,
+            @Value("${stats-stream.timeout:30m}") Duration timeout
+    ) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("stats-stream.queue-capacity must be positive");
+        }
+        this.cryptoPriceService = cryptoPriceService;
+        this.cryptoRegistry = cryptoRegistry;
+        this.ingestionProgress = ingestionProgress;
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+        this.dropped = Counter.builder("crypto.stats.stream.dropped")
+                .description("Stats updates dropped because a subscriber fell behind")
+                .register(meterRegistry);
+        Gauge.builder("crypto.stats.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Clients subscribed to stats updates")
+                .register(meterRegistry);
+        dataVersionTracker.addListener(this::publish);
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the statistics of a crypto, one
+     * {@value #EVENT_NAME} event per update.
+     *
+     * @param symbol crypto symbol (case-insensitive); may still be being loaded
+     * @throws UnsupportedCryptoException if the crypto symbol is not supported
+     */
+    public SseEmitter stream(String symbol) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = subscribe(symbol, new EmitterSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * Subscribes a sink to the statistics of a crypto.
+     *
+     * @param symbol crypto symbol (case-insensitive); may still be being loaded
+     * @throws UnsupportedCryptoException if the crypto symbol is not supported
+     */
+    public Subscription subscribe(String symbol, StatsSink sink) {
+        String canonical = canonicalSymbol(symbol);
+        Channel channel = channels.computeIfAbsent(canonical, ignored -> new Channel());
+        Subscription subscription = new Subscription(canonical, channel, sink);
+        synchronized (channel) {
+            if (channel.last == null) {
+                channel.last = currentStats(canonical);
+            }
+            channel.subscriptions.add(subscription);
+            if (channel.last != null) {
+                subscription.offer(channel.last);
+            }
+        }
+        subscribers.incrementAndGet();
+        subscription.thread.start();
+        return subscription;
+    }
+
+    /**
+     * Offers the statistics of a crypto to its subscribers if its minimum,
+     * maximum or newest price changed since the last update.
+     *
+     * <p>
+     * The statistics are computed outside the channel lock, so a slow query
+     * delays neither subscribing nor cancelling. Concurrent publications are
+     * ordered by the generation they started with: the statistics of an
+     * earlier one never replace those of a later one.
+     * </p>
+     *
+     * @param symbol canonical crypto symbol
+     */
+    void publish(String symbol) {
+        Channel channel = channels.get(symbol);
+        if (channel == null) {
+            return;
+        }
+        synchronized (channel) {
+            if (channel.subscriptions.isEmpty()) {
+                // Recomputed for the next subscriber.
+                channel.last = null;
+                return;
+            }
+        }
+        long generation = channel.generation.incrementAndGet();
+        CryptoStats stats = currentStats(symbol);
+        if (stats == null) {
+            return;
+        }
+        synchronized (channel) {
+            if (generation <= channel.lastGeneration) {
+                return;
+            }
+            channel.lastGeneration = generation;
+            if (!changed(channel.last, stats)) {
+                return;
+            }
+            channel.last = stats;
+            channel.subscriptions.forEach(subscription -> subscription.offer(stats));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        channels.values().forEach(channel -> {
+            List<Subscription> subscriptions;
+            synchronized (channel) {
+                subscriptions = List.copyOf(channel.subscriptions);
+            }
+            subscriptions.forEach(Subscription::close);
+        });
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the number of subscribed clients.
+     */
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    private String canonicalSymbol(String symbol) {
+        return cryptoRegistry.findBySymbol(symbol)
+                .map(Crypto::getSymbol)
+                .orElseGet(() -> {
+                    String normalized = symbol.toUpperCase(Locale.ROOT);
+                    if (!ingestionProgress.isPending(normalized)) {
+                        throw new UnsupportedCryptoException(normalized);
+                    }
+                    return normalized;
+                });
+    }
+
+    /**
+     * Returns the all-time statistics of a crypto, or {@code null} if it has
+     * no prices (yet).
+     */
+    private CryptoStats currentStats(String symbol) {
+        try {
+            return cryptoPriceService.getCryptoStats(symbol, null, null, ZoneOffset.UTC);
+        } catch (NoDataException | DataLoadingException | UnsupportedCryptoException e) {
+            return null;
+        } catch (RuntimeException e) {
+            log.warn("Failed to compute stats update of {}", symbol, e);
+            return null;
+        }
+    }
+
+    private static boolean changed(CryptoStats last, CryptoStats current) {
+        return last == null
+                || !Objects.equals(last.min(), current.min())
+                || !Objects.equals(last.max(), current.max())
+                || !Objects.equals(last.newest(), current.newest());
+    }
+}
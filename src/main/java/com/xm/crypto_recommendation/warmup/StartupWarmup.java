@@ -0,0 +1,261 @@
+package com.xm.crypto_recommendation.warmup;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.domain.time.DayBoundaries;
+import com.xm.crypto_recommendation.ingestion.IngestionProgress;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
+import com.xm.crypto_recommendation.service.CryptoPriceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs representative queries once ingestion has finished, before the
+ * instance reports itself ready.
+ *
+ * <p>
+ * After a deploy the query code runs in the interpreter and Hibernate has
+ * not yet built its query plans, so the first requests are many times
+ * slower than later ones. Once the {@link IngestionProgress} completes, the
+ * warm-up repeatedly runs a pass of stats, summary, rolling normalized range,
+ * ranking and leaderboard queries for every ingested symbol, directly against
+ * {@link CryptoPriceService}, for at most {@code warmup.max-passes} passes or
+ * {@code warmup.max-duration}. Meanwhile the {@code warmup} readiness
+ * contributor reports {@code OUT_OF_SERVICE} (see {@link WarmupHealthIndicator}).
+ * A failing query is skipped; the warm-up never fails the startup.
+ * </p>
+ *
+ * <p>
+ * The result is reported as a {@link Report} and as the
+ * {@code crypto.warmup.first-pass}, {@code crypto.warmup.fastest-pass} and
+ * {@code crypto.warmup.time-to-fast} gauges. Time-to-fast is the JVM uptime
+ * at the end of the first pass taking at most {@value #FAST_FACTOR} times the
+ * fastest pass, i.e. from when requests were served at close to steady-state
+ * speed.
+ * </p>
+ *
+ * <p>
+ * With {@code warmup.exit-on-completion} the application shuts down after
+ * the warm-up. This is a training run: started with
+ * {@code -XX:AOTCacheOutput}, the JVM writes the classes loaded and the
+ * method profiles collected by the warm-up into an AOT cache on exit, and
+ * later starts with {@code -XX:AOTCache} begin from that state (see the
+ * {@code Dockerfile}).
+ * </p>
+ */
+@Component
+public class StartupWarmup {
+
+    /**
+     * Lifecycle of the warm-up.
+     */
+    public enum State {
+        DISABLED,
+        PENDING,
+        RUNNING,
+        COMPLETED
+    }
+
+    /**
+     * Outcome of a completed warm-up.
+     *
+     * @param passes      number of passes run
+     * @param duration    time spent warming up
+     * @param firstPass   duration of the first, cold pass
+     * @param fastestPass duration of the fastest pass
+     * @param timeToFast  JVM uptime at the end of the first fast pass
+     */
+    public record Report(int passes, Duration duration, Duration firstPass, Duration fastestPass, Duration timeToFast) {
+    }
+
+    static final int FAST_FACTOR = 2;
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final int LEADERS = 1;
+
+    private final CryptoPriceService cryptoPriceService;
+    private final CryptoRegistry cryptoRegistry;
+    private final int maxPasses;
+    private final Duration maxDuration;
+    private final LongSupplier uptimeNanos;
+    private ConfigurableApplicationContext exitContext;
+
+    private volatile State state;
+    private volatile Report report;
+
+    @Autowired
+    public StartupWarmup(
+            CryptoPriceService cryptoPriceService, CryptoRegistry cryptoRegistry,
+            IngestionProgress ingestionProgress, MeterRegistry meterRegistry,
+            @Value("${warmup.enabled:true}") boolean enabled,
+            @Value("${warmup.max-passes:50}") int maxPasses,
+            @Value("${warmup.max-duration:20s}") Duration maxDuration,
+            @Value("${warmup.exit-on-completion:false}") boolean exitOnCompletion,
+            ConfigurableApplicationContext applicationContext
+    ) {
+        this(cryptoPriceService, cryptoRegistry, enabled, maxPasses, maxDuration,
+                () -> TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime()));
+        this.exitContext = exitOnCompletion ? applicationContext : null;
+        if (enabled) {
+            ingestionProgress.addCompletionListener(this::run);
+        }
+        registerGauge(meterRegistry, "crypto.warmup.first-pass", "Duration of the first warm-up pass", Report::firstPass);
+        registerGauge(meterRegistry, "crypto.warmup.fastest-pass", "Duration of the fastest warm-up pass", Report::fastestPass);
+        registerGauge(meterRegistry, "crypto.warmup.time-to-fast",
+                "JVM uptime when queries first ran at close to steady-state speed", Report::timeToFast);
+    }
+
+    StartupWarmup(
+            CryptoPriceService cryptoPriceService, CryptoRegistry cryptoRegistry,
+            boolean enabled, int maxPasses, Duration maxDuration, LongSupplier uptimeNanos
+    ) {
+        if (maxPasses < 1) {
+            throw new IllegalArgumentException("warmup.max-passes must be positive");
+        }
+        this.cryptoPriceService = cryptoPriceService;
+        this.cryptoRegistry = cryptoRegistry;
+        this.maxPasses = maxPasses;
+        this.maxDuration = maxDuration;
+        this.uptimeNanos = uptimeNanos;
+        this.state = enabled ? State.PENDING : State.DISABLED;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Returns the outcome of the warm-up, or {@code null} until it completed.
+     */
+    public Report report() {
+        return report;
+    }
+
+    /**
+     * Runs the warm-up passes.
+     */
+    void run() {
+        state = State.RUNNING;
+        try {
+            List<Long> passes = new ArrayList<>();
+            List<Long> passEnds = new ArrayList<>();
+            long start = System.nanoTime();
+            long deadline = start + maxDuration.toNanos();
+            while (passes.size() < maxPasses && System.nanoTime() < deadline) {
+                long passStart = System.nanoTime();
+                runPass();
+                passes.add(System.nanoTime() - passStart);
+                passEnds.add(uptimeNanos.getAsLong());
+            }
+            report = report(passes, passEnds, System.nanoTime() - start);
+            log.info("Warm-up ran {} passes in {} ms: first pass {} ms, fastest {} ms, fast after {} ms of uptime",
+                    report.passes(), report.duration().toMillis(), report.firstPass().toMillis(),
+                    report.fastestPass().toMillis(), report.timeToFast().toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Warm-up aborted", e);
+        } finally {
+            state = State.COMPLETED;
+        }
+        if (exitContext != null) {
+            exit();
+        }
+    }
+
+    /**
+     * Ends the training run, from a separate thread since the context may be
+     * waiting for the calling thread, e.g. the application runner.
+     */
+    private void exit() {
+        log.info("Warm-up completed, exiting");
+        Thread.ofPlatform().name("warmup-exit").start(() -> System.exit(SpringApplication.exit(exitContext)));
+    }
+
+    private void runPass() {
+        LocalDate first = null;
+        LocalDate last = null;
+        for (Crypto crypto : cryptoRegistry.findAll()) {
+            String symbol = crypto.getSymbol();
+            CryptoStats stats = attempt(() -> cryptoPriceService.getCryptoStats(symbol, null, null, ZoneOffset.UTC));
+            if (stats == null) {
+                continue;
+            }
+            LocalDate oldest = DayBoundaries.UTC.dayOf(stats.oldest().timestamp().toEpochMilli());
+            LocalDate newest = DayBoundaries.UTC.dayOf(stats.newest().timestamp().toEpochMilli());
+            first = first == null || oldest.isBefore(first) ? oldest : first;
+            last = last == null || newest.isAfter(last) ? newest : last;
+
+            LocalDate lastWeek = newest.minusDays(6);
+            attempt(() -> cryptoPriceService.getCryptoStats(symbol, lastWeek, newest, ZoneOffset.UTC));
+            attempt(() -> cryptoPriceService.getCryptoSummary(symbol, null, null, ZoneOffset.UTC));
+            attempt(() -> cryptoPriceService.getRollingNormalizedRange(
+                    symbol, Duration.ofDays(1), Duration.ofHours(12), newest.minusDays(29), newest, ZoneOffset.UTC));
+        }
+        if (first == null) {
+            return;
+        }
+        LocalDate from = first;
+        LocalDate to = last;
+        attempt(() -> cryptoPriceService.getCryptoRanking(List.of(RankingMetric.values()), null, null, ZoneOffset.UTC));
+        attempt(() -> cryptoPriceService.getCryptoRanking(List.of(RankingMetric.NORMALIZED_RANGE), from, to, ZoneOffset.UTC));
+        attempt(() -> cryptoPriceService.getTopCryptoForDay(List.of(RankingMetric.NORMALIZED_RANGE), to, ZoneOffset.UTC));
+        attempt(() -> cryptoPriceService.getDailyLeaderboards(from, to, LEADERS, ZoneOffset.UTC));
+    }
+
+    private static <T> T attempt(Supplier<T> query) {
+        try {
+            return query.get();
+        } catch (RuntimeException e) {
+            log.debug("Warm-up query failed: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Summarizes the passes.
+     *
+     * @param passes   duration of each pass in nanoseconds
+     * @param passEnds JVM uptime in nanoseconds at the end of each pass
+     * @param total    time spent in nanoseconds
+     */
+    static Report report(List<Long> passes, List<Long> passEnds, long total) {
+        long fastest = passes.stream().mapToLong(Long::longValue).min().orElse(0);
+        int firstFast = 0;
+        while (firstFast < passes.size() - 1 && passes.get(firstFast) > FAST_FACTOR * fastest) {
+            firstFast++;
+        }
+        return new Report(
+                passes.size(),
+                Duration.ofNanos(total),
+                Duration.ofNanos(passes.isEmpty() ? 0 : passes.getFirst()),
+                Duration.ofNanos(fastest),
+                Duration.ofNanos(passEnds.isEmpty() ? 0 : passEnds.get(firstFast)));
+    }
+
+    private void registerGauge(MeterRegistry meterRegistry, String name, String description,
+                               Function<Report, Duration> value) {
+        TimeGauge.builder(name, this, TimeUnit.MILLISECONDS,
+                        warmup -> warmup.report == null ? Double.NaN : value.apply(warmup.report).toMillis())
+                .description(description)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.xm.crypto_recommendation.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the startup warm-up as part of the readiness probe.
+ *
+ * <p>
+ * Readiness stays {@code OUT_OF_SERVICE} until the {@link StartupWarmup}
+ * has completed, so that no traffic is routed to the instance while its
+ * queries are still cold. A disabled warm-up is always {@code UP}.
+ * </p>
+ */
+@Component("warmup")
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final StartupWarmup startupWarmup;
+
+    @Autowired
+    public WarmupHealthIndicator(StartupWarmup startupWarmup) {
+        this.startupWarmup = startupWarmup;
+    }
+
+    @Override
+    public Health health() {
+        StartupWarmup.State state = startupWarmup.state();
+        Health.Builder builder = switch (state) {
+            case COMPLETED, DISABLED -> Health.up();
+            case PENDING, RUNNING -> Health.outOfService();
+        };
+        builder.withDetail("state", state);
+        StartupWarmup.Report report = startupWarmup.report();
+        if (report != null) {
+            builder.withDetail("passes", report.passes())
+                    .withDetail("durationMs", report.duration().toMillis())
+                    .withDetail("firstPassMs", report.firstPass().toMillis())
+                    .withDetail("fastestPassMs", report.fastestPass().toMillis())
+                    .withDetail("timeToFastMs", report.timeToFast().toMillis());
+        }
+        return builder.build();
+    }
+}
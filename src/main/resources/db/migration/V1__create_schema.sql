@@ -0,0 +1,61 @@
+-- Schema of the entities in com.xm.crypto_recommendation.domain.entity;
+-- Hibernate validates it on startup.
+
+create sequence crypto_price_seq start with 1 increment by 50;
+create sequence crypto_price_partition_seq start with 1 increment by 50;
+create sequence ingestion_manifest_seq start with 1 increment by 50;
+
+create table crypto (
+    id bigint generated by default as identity,
+    symbol varchar(255) not null,
+    primary key (id)
+);
+
+create table crypto_price (
+    id bigint not null,
+    crypto_id bigint not null,
+    timestamp timestamp(6) with time zone not null,
+    price numeric(19,8) not null,
+    primary key (id),
+    constraint fk_crypto_price_crypto foreign key (crypto_id) references crypto
+);
+
+-- Covering index of the range scans: rows are found and ordered by
+-- (crypto_id, timestamp) and the price is read from the index entry, so the
+-- table itself is never visited. H2 has no INCLUDE clause; the price is the
+-- trailing key column instead.
+create index idx_crypto_price_covering on crypto_price (crypto_id, timestamp, price);
+
+create table crypto_price_partition (
+    id bigint not null,
+    crypto_id bigint not null,
+    partition_start timestamp(6) with time zone not null,
+    partition_end timestamp(6) with time zone not null,
+    sealed boolean not null,
+    row_count bigint not null,
+    first_timestamp timestamp(6) with time zone,
+    first_price numeric(19,8),
+    last_timestamp timestamp(6) with time zone,
+    last_price numeric(19,8),
+    min_timestamp timestamp(6) with time zone,
+    min_price numeric(19,8),
+    max_timestamp timestamp(6) with time zone,
+    max_price numeric(19,8),
+    block blob,
+    primary key (id),
+    constraint uk_crypto_partition_start unique (crypto_id, partition_start),
+    constraint fk_crypto_price_partition_crypto foreign key (crypto_id) references crypto
+);
+
+create table ingestion_manifest (
+    id bigint not null,
+    file_name varchar(255) not null,
+    symbol varchar(255) not null,
+    byte_offset bigint not null,
+    checksum varchar(64) not null,
+    max_timestamp timestamp(6) with time zone,
+    row_count bigint not null,
+    ingested_at timestamp(6) with time zone not null,
+    primary key (id),
+    constraint uk_ingestion_manifest_file unique (file_name)
+);
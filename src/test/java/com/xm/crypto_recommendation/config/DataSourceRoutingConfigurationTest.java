@@ -0,0 +1,78 @@
+package com.xm.crypto_recommendation.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Routes between two separate H2 instances, standing in for a primary and a replica.
+ */
+class DataSourceRoutingConfigurationTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("primary");
+        replica = pool("replica");
+        new JdbcTemplate(primary).execute("CREATE TABLE instance (name VARCHAR(16)); INSERT INTO instance VALUES ('primary')");
+        new JdbcTemplate(replica).execute("CREATE TABLE instance (name VARCHAR(16)); INSERT INTO instance VALUES ('replica')");
+
+        DataSource routing = DataSourceRoutingConfiguration.routingDataSource(primary, replica);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReadPool() {
+        assertEquals("replica", readTransaction.execute(status -> instanceName()));
+        assertEquals("primary", writeTransaction.execute(status -> instanceName()));
+        // Outside of transactions, e.g. schema management.
+        assertEquals("primary", instanceName());
+    }
+
+    @Test
+    void exhaustedWritePoolDoesNotBlockReads() throws Exception {
+        try (Connection held = primary.getConnection()) {
+            assertEquals("replica", readTransaction.execute(status -> instanceName()));
+            assertThrows(CannotCreateTransactionException.class, () -> writeTransaction.execute(status -> instanceName()));
+        }
+    }
+
+    private String instanceName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM instance", String.class);
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:routing-" + name);
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(250);
+        return pool;
+    }
+}
@@ -0,0 +1,52 @@
+package com.xm.crypto_recommendation.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies:
+ * <ul>
+ *     <li>Ingestion runs on the write pool</li>
+ *     <li>API queries run on the read pool</li>
+ *     <li>Both pools report their metrics under their pool name</li>
+ * </ul>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DataSourceRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void queriesUseTheReadPool() throws Exception {
+        assertTrue(connectionsUsed("write") > 0);
+        long writes = connectionsUsed("write");
+        long reads = connectionsUsed("read");
+
+        mockMvc.perform(get("/api/cryptos/BTC/stats"))
+                .andExpect(status().isOk());
+
+        assertEquals(reads + 1, connectionsUsed("read"));
+        assertEquals(writes, connectionsUsed("write"));
+    }
+
+    private long connectionsUsed(String pool) {
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timer();
+        return usage == null ? 0 : usage.count();
+    }
+}
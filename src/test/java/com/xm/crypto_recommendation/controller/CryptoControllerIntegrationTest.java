@@ -1,13 +1,28 @@
 package com.xm.crypto_recommendation.controller;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +52,46 @@ class CryptoControllerIntegrationTest {
                 .andExpect(jsonPath("$.newest.timestamp").exists());
     }
 
+    /**
+     * Verifies:
+     * - dates are taken as days of the requested zone
+     * - unknown zones are rejected with a standardized 400 response
+     */
+    @Test
+    void getCryptoStatsInZoneShouldUseLocalDays() throws Exception {
+        // The first tick, 04:00 UTC, is still 2021-12-31 in New York.
+        mockMvc.perform(get("/api/cryptos/BTC/stats")
+                        .param("from", "2022-01-01")
+                        .param("to", "2022-01-01")
+                        .param("zone", "America/New_York"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.oldest.price").value(46979.61000000))
+                .andExpect(jsonPath("$.min.price").value(46871.09000000));
+
+        mockMvc.perform(get("/api/cryptos/BTC/stats").param("zone", "Mars/Olympus_Mons"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_REQUEST"));
+    }
+
+    /**
+     * Verifies:
+     * - summary index fed by the CSV ingestion
+     * - mean and time-weighted average over the whole range
+     */
+    @Test
+    void getCryptoSummaryShouldReturnSummaryFromCsvData() throws Exception {
+        mockMvc.perform(get("/api/cryptos/btc/summary")
+                        .param("from", "2022-01-01")
+                        .param("to", "2022-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.symbol").value("BTC"))
+                .andExpect(jsonPath("$.count").value(5))
+                .andExpect(jsonPath("$.mean").value(46966.22600000))
+                .andExpect(jsonPath("$.timeWeightedAverage").value(46913.57100000))
+                .andExpect(jsonPath("$.standardDeviation").isNumber())
+                .andExpect(jsonPath("$.oldest").value("2022-01-01T04:00:00Z"));
+    }
+
     /**
      * Verifies:
      * - normalized range calculation
@@ -52,6 +107,38 @@ class CryptoControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].normalizedRange").isNumber());
     }
 
+    /**
+     * Verifies:
+     * - metric parameter binding, case-insensitive and comma-separated
+     * - only the requested metrics are written, in request order
+     * - ranking by the first metric
+     */
+    @Test
+    void getCryptosByMetricsShouldReturnRequestedMetrics() throws Exception {
+        mockMvc.perform(get("/api/cryptos/normalized-range")
+                        .param("metric", "Volatility,max-drawdown,sharpe-ratio,total-return"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].volatility").isNumber())
+                .andExpect(jsonPath("$[0].maxDrawdown").isNumber())
+                .andExpect(jsonPath("$[0].sharpeRatio").isNumber())
+                .andExpect(jsonPath("$[0].totalReturn").isNumber())
+                .andExpect(jsonPath("$[0].normalizedRange").doesNotExist());
+    }
+
+    /**
+     * Verifies:
+     * - unknown metrics are rejected with a standardized 400 response
+     */
+    @Test
+    void getCryptosByUnknownMetricShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/cryptos/highest-normalized-range")
+                        .param("date", "2022-01-01")
+                        .param("metric", "beta"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
     /**
      * Verifies:
      * - date parameter binding
@@ -66,6 +153,31 @@ class CryptoControllerIntegrationTest {
                 .andExpect(jsonPath("$.normalizedRange").isNumber());
     }
 
+    /**
+     * Verifies:
+     * - from/to selects the precomputed daily leaderboards
+     * - the winner matches the single-day endpoint and top limits the leaders
+     */
+    @Test
+    void getDailyLeaderboardsShouldReturnLeadersPerDay() throws Exception {
+        mockMvc.perform(get("/api/cryptos/highest-normalized-range")
+                        .param("from", "2022-01-01")
+                        .param("to", "2022-01-01")
+                        .param("top", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].date").value("2022-01-01"))
+                .andExpect(jsonPath("$[0].leaders.length()").value(2))
+                .andExpect(jsonPath("$[0].leaders[0].symbol").exists())
+                .andExpect(jsonPath("$[0].leaders[0].normalizedRange").isNumber());
+
+        mockMvc.perform(get("/api/cryptos/highest-normalized-range")
+                        .param("from", "2022-01-01")
+                        .param("to", "2022-01-31")
+                        .param("top", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Verifies:
      * - unsupported crypto handling
@@ -79,4 +191,142 @@ class CryptoControllerIntegrationTest {
                 .andExpect(jsonPath("$.code").value("UNSUPPORTED_CRYPTO"))
                 .andExpect(jsonPath("$.message").exists());
     }
+
+    /**
+     * Verifies:
+     * - ETag and Last-Modified headers derived from the data version
+     * - conditional requests answered with 304 and no body
+     */
+    @Test
+    void getCryptoStatsWithMatchingEtagShouldReturn304() throws Exception {
+        String etag = mockMvc.perform(get("/api/cryptos/btc/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/cryptos/BTC/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        mockMvc.perform(get("/api/cryptos/normalized-range").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Verifies:
+     * - CBOR negotiated via Accept, JSON by default
+     * - CBOR document carries the same fields and exact decimal prices as JSON
+     * - distinct ETags per representation
+     */
+    @Test
+    void getCryptoStatsShouldNegotiateCbor() throws Exception {
+        MockHttpServletResponse json = mockMvc.perform(get("/api/cryptos/BTC/stats"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse();
+        MockHttpServletResponse cbor = mockMvc.perform(get("/api/cryptos/BTC/stats").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn()
+                .getResponse();
+
+        JsonNode jsonTree = new ObjectMapper()
+                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .readTree(json.getContentAsByteArray());
+        JsonNode cborTree = new CBORMapper().readTree(cbor.getContentAsByteArray());
+
+        assertEquals(jsonTree, cborTree);
+        assertEquals(0, new BigDecimal("46813.21").compareTo(cborTree.get("min").get("price").decimalValue()));
+        assertTrue(cbor.getContentAsByteArray().length < json.getContentAsByteArray().length);
+        assertNotEquals(json.getHeader(HttpHeaders.ETAG), cbor.getHeader(HttpHeaders.ETAG));
+
+        mockMvc.perform(get("/api/cryptos/BTC/stats")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, json.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Verifies:
+     * - with equal quality the first accepted type is served, whatever its case
+     * - the ETag names the representation actually served
+     * - negotiated responses, 304s included, vary by Accept
+     */
+    @Test
+    void getCryptoStatsEtagShouldFollowNegotiatedType() throws Exception {
+        String cborEtag = mockMvc.perform(get("/api/cryptos/BTC/stats").accept(MediaType.APPLICATION_CBOR))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/cryptos/BTC/stats").header(HttpHeaders.ACCEPT, "Application/CBOR, application/json"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, cborEtag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mockMvc.perform(get("/api/cryptos/BTC/stats")
+                        .header(HttpHeaders.ACCEPT, "application/cbor, application/json")
+                        .header(HttpHeaders.IF_NONE_MATCH, cborEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mockMvc.perform(get("/api/cryptos/BTC/stats").header(HttpHeaders.ACCEPT, "application/json, application/cbor"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    /**
+     * Verifies:
+     * - multi-symbol stats in request order
+     * - per-item errors for unsupported symbols
+     * - malformed bodies answered with 400
+     */
+    @Test
+    void getCryptoStatsBatchShouldReturnItemPerSymbol() throws Exception {
+        mockMvc.perform(post("/api/cryptos/stats:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"symbols": ["eth", "UNKNOWN", "BTC"], "from": "2022-01-01", "to": "2022-01-31"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].symbol").value("eth"))
+                .andExpect(jsonPath("$[0].stats.symbol").value("ETH"))
+                .andExpect(jsonPath("$[1].error.code").value("UNSUPPORTED_CRYPTO"))
+                .andExpect(jsonPath("$[1].stats").doesNotExist())
+                .andExpect(jsonPath("$[2].stats.min.price").value(46813.21000000))
+                .andExpect(jsonPath("$[2].stats.max.price").value(47143.98000000));
+
+        mockMvc.perform(post("/api/cryptos/stats:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"symbols\": "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_REQUEST"));
+    }
+
+    /**
+     * Verifies:
+     * - rolling windows over the CSV data (all prices fall on 2022-01-01,
+     *   so only the first window has data)
+     * - duration parameter parsing
+     */
+    @Test
+    void getRollingNormalizedRangeShouldReturnSeries() throws Exception {
+        mockMvc.perform(get("/api/cryptos/BTC/normalized-range/rolling")
+                        .param("window", "7d")
+                        .param("step", "1d")
+                        .param("from", "2022-01-01")
+                        .param("to", "2022-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].windowStart").value("2022-01-01T00:00:00Z"))
+                .andExpect(jsonPath("$[0].windowEnd").value("2022-01-08T00:00:00Z"))
+                .andExpect(jsonPath("$[0].normalizedRange").value(0.00706574));
+
+        mockMvc.perform(get("/api/cryptos/BTC/normalized-range/rolling").param("window", "seven days"))
+                .andExpect(status().isBadRequest());
+    }
 }
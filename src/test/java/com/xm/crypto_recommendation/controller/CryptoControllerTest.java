@@ -1,59 +1,257 @@
 package com.xm.crypto_recommendation.controller;
 
-import com.xm.crypto_recommendation.service.CryptoPriceService;
+import com.xm.crypto_recommendation.domain.dto.CryptoStatsBatchRequest;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.registry.DataVersion;
+import com.xm.crypto_recommendation.registry.DataVersionTracker;
+import com.xm.crypto_recommendation.service.CoalescingCryptoPriceService;
+import com.xm.crypto_recommendation.shard.MergedRanking;
+import com.xm.crypto_recommendation.shard.ShardCoordinator;
+import com.xm.crypto_recommendation.stream.StatsBroadcaster;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class CryptoControllerTest {
 
+    private static final DataVersion VERSION = new DataVersion("BTC", 1, Instant.parse("2023-01-01T00:00:00Z"));
+
+    @Mock
+    private CoalescingCryptoPriceService cryptoPriceService;
+    @Mock
+    private DataVersionTracker dataVersionTracker;
+    @Mock
+    private ShardCoordinator shardCoordinator;
+    @Mock
+    private StatsBroadcaster statsBroadcaster;
     @Mock
-    private CryptoPriceService cryptoPriceService;
+    private NativeWebRequest webRequest;
 
-    @InjectMocks
     private CryptoController underTest;
 
+    @BeforeEach
+    void setUp() {
+        underTest = new CryptoController(
+                cryptoPriceService, dataVersionTracker, statsBroadcaster, shardCoordinator, new ContentNegotiationManager());
+    }
+
     @Test
     void getCryptoStats() {
         //Given
-        given(cryptoPriceService.getCryptoStats(any(), any(), any())).willReturn(mock());
+        given(cryptoPriceService.getCryptoStats(any(), any(), any(), any(), any())).willReturn(mock());
         LocalDate from = LocalDate.of(2023, 1, 1);
         LocalDate to = LocalDate.of(2023, 1, 31);
         String symbol = "BTC";
+        given(dataVersionTracker.symbolVersion(symbol)).willReturn(Optional.of(VERSION));
         //When
-        underTest.getCryptoStats(symbol, from, to);
+        underTest.getCryptoStats(symbol, from, to, "UTC", webRequest);
         //Then
-        verify(cryptoPriceService).getCryptoStats(symbol, from, to);
+        verify(cryptoPriceService).getCryptoStats(symbol, from, to, ZoneOffset.UTC, VERSION);
     }
 
     @Test
     void getCryptosByNormalizedRange() {
-        given(cryptoPriceService.getCryptosByNormalizedRange(any(), any())).willReturn(mock());
+        given(cryptoPriceService.getCryptoRanking(any(), any(), any(), any(), anyInt(), any())).willReturn(MergedRanking.complete(List.of()));
+        given(dataVersionTracker.globalVersion()).willReturn(VERSION);
         LocalDate from = LocalDate.of(2023, 1, 1);
         LocalDate to = LocalDate.of(2023, 1, 31);
         //When
-        underTest.getCryptosByNormalizedRange(from, to);
+        underTest.getCryptosByNormalizedRange(List.of("normalized-range"), from, to, "UTC", null, webRequest);
+        //Then
+        verify(cryptoPriceService).getCryptoRanking(List.of(RankingMetric.NORMALIZED_RANGE), from, to, ZoneOffset.UTC, Integer.MAX_VALUE, VERSION);
+    }
+
+    @Test
+    void getTopCryptosByNormalizedRange() {
+        given(cryptoPriceService.getCryptoRanking(any(), any(), any(), any(), anyInt(), any())).willReturn(MergedRanking.complete(List.of()));
+        given(dataVersionTracker.globalVersion()).willReturn(VERSION);
+        //When
+        underTest.getCryptosByNormalizedRange(List.of("normalized-range"), null, null, "UTC", 3, webRequest);
+        //Then
+        verify(cryptoPriceService).getCryptoRanking(List.of(RankingMetric.NORMALIZED_RANGE), null, null, ZoneOffset.UTC, 3, VERSION);
+    }
+
+    @Test
+    void getCryptosByNormalizedRangeWithUnavailableShards() {
+        given(cryptoPriceService.getCryptoRanking(any(), any(), any(), any(), anyInt(), any()))
+                .willReturn(new MergedRanking(List.of(), List.of("b", "c")));
+        given(dataVersionTracker.globalVersion()).willReturn(VERSION);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //When
+        underTest.getCryptosByNormalizedRange(List.of("normalized-range"), null, null, "UTC", null,
+                new ServletWebRequest(new MockHttpServletRequest(), response));
         //Then
-        verify(cryptoPriceService).getCryptosByNormalizedRange(from, to);
+        assertEquals("b,c", response.getHeader(CryptoController.UNAVAILABLE_SHARDS_HEADER));
+        assertEquals("no-store", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void getCryptosByNormalizedRangeWithInvalidLimit() {
+        //When/Then
+        assertThrows(IllegalArgumentException.class, () ->
+                underTest.getCryptosByNormalizedRange(List.of("normalized-range"), null, null, "UTC", 0, webRequest));
+        verifyNoInteractions(cryptoPriceService);
     }
 
     @Test
     void getHighestNormalizedRange() {
-        given(cryptoPriceService.getHighestNormalizedRangeForDay(any())).willReturn(mock());
+        given(cryptoPriceService.getTopCryptoForDay(any(), any(), any(), any())).willReturn(mock());
+        given(dataVersionTracker.globalVersion()).willReturn(VERSION);
         LocalDate day = LocalDate.of(2023, 1, 1);
         //When
-        underTest.getHighestNormalizedRange(day);
+        underTest.getHighestNormalizedRange(List.of("normalized-range"), day, "Asia/Singapore", webRequest);
+        //Then
+        verify(cryptoPriceService).getTopCryptoForDay(List.of(RankingMetric.NORMALIZED_RANGE), day, ZoneId.of("Asia/Singapore"), VERSION);
+    }
+
+    @Test
+    void getDailyLeaderboards() {
+        given(dataVersionTracker.globalVersion()).willReturn(VERSION);
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 1, 31);
+        //When
+        underTest.getDailyLeaderboards(from, to, 3, "UTC", webRequest);
+        //Then
+        verify(cryptoPriceService).getDailyLeaderboards(from, to, 3, ZoneOffset.UTC, VERSION);
+    }
+
+    @Test
+    void getCryptosByMetrics() {
+        given(cryptoPriceService.getCryptoRanking(any(), any(), any(), any(), anyInt(), any())).willReturn(MergedRanking.complete(List.of()));
+        given(dataVersionTracker.globalVersion()).willReturn(VERSION);
+        //When
+        underTest.getCryptosByNormalizedRange(List.of("Volatility", " sharpe-ratio", "volatility"), null, null, "UTC", null, webRequest);
+        //Then
+        verify(cryptoPriceService).getCryptoRanking(
+                List.of(RankingMetric.VOLATILITY, RankingMetric.SHARPE_RATIO), null, null, ZoneOffset.UTC, Integer.MAX_VALUE, VERSION);
+    }
+
+    @Test
+    void getCryptosByUnknownMetric() {
+        //When/Then
+        assertThrows(IllegalArgumentException.class, () ->
+                underTest.getCryptosByNormalizedRange(List.of("beta"), null, null, "UTC", null, webRequest));
+        verifyNoInteractions(cryptoPriceService);
+    }
+
+    @Test
+    void getCryptoStatsInUnknownZone() {
+        //When/Then
+        assertThrows(IllegalArgumentException.class, () ->
+                underTest.getCryptoStats("BTC", null, null, "Mars/Olympus_Mons", webRequest));
+        verifyNoInteractions(cryptoPriceService);
+    }
+
+    @Test
+    void getCryptoStatsWhenNotModified() {
+        given(dataVersionTracker.symbolVersion("BTC")).willReturn(Optional.of(VERSION));
+        given(webRequest.checkNotModified(any(String.class), anyLong())).willReturn(true);
+        //When
+        Object result = underTest.getCryptoStats("BTC", null, null, "UTC", webRequest);
+        //Then
+        assertNull(result);
+        verify(webRequest).checkNotModified(VERSION.etag(), VERSION.lastModified().toEpochMilli());
+        verifyNoInteractions(cryptoPriceService);
+    }
+
+    @Test
+    void getCryptoStatsWithEquallyAcceptedCborUsesCborEtag() {
+        //Given
+        String symbol = "BTC";
+        given(dataVersionTracker.symbolVersion(symbol)).willReturn(Optional.of(VERSION));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cryptos/BTC/stats");
+        request.addHeader(HttpHeaders.ACCEPT, "Application/CBOR, application/json");
+        request.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE,
+                Set.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, VERSION.etag("cbor"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //When
+        Object result = underTest.getCryptoStats(symbol, null, null, "UTC", new ServletWebRequest(request, response));
+        //Then
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+        assertEquals(VERSION.etag("cbor"), response.getHeader(HttpHeaders.ETAG));
+        verifyNoInteractions(cryptoPriceService);
+    }
+
+    @Test
+    void getCryptosByNormalizedRangeWhenNotModified() {
+        given(dataVersionTracker.globalVersion()).willReturn(VERSION);
+        given(webRequest.checkNotModified(any(String.class), anyLong())).willReturn(true);
+        //When
+        Object result = underTest.getCryptosByNormalizedRange(List.of("normalized-range"), null, null, "UTC", null, webRequest);
+        //Then
+        assertNull(result);
+        verifyNoInteractions(cryptoPriceService);
+    }
+
+    @Test
+    void getCryptosByNormalizedRangeWithShardingSetsNoValidators() {
+        //Given
+        given(shardCoordinator.isEnabled()).willReturn(true);
+        given(dataVersionTracker.globalVersion()).willReturn(VERSION);
+        given(cryptoPriceService.getCryptoRanking(any(), any(), any(), any(), anyInt(), any())).willReturn(MergedRanking.complete(List.of()));
+        //When
+        underTest.getCryptosByNormalizedRange(List.of("normalized-range"), null, null, "UTC", null, webRequest);
+        underTest.getHighestNormalizedRange(List.of("normalized-range"), LocalDate.of(2023, 1, 1), "UTC", webRequest);
+        //Then
+        verify(webRequest, never()).checkNotModified(any(String.class), anyLong());
+    }
+
+    @Test
+    void getCryptoStatsBatch() {
+        //Given
+        List<String> symbols = List.of("BTC", "ETH");
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 1, 31);
+        given(dataVersionTracker.globalVersion()).willReturn(VERSION);
+        //When
+        underTest.getCryptoStatsBatch(new CryptoStatsBatchRequest(symbols, from, to, null));
+        //Then
+        verify(cryptoPriceService).getCryptoStatsBatch(symbols, from, to, ZoneOffset.UTC, VERSION);
+    }
+
+    @Test
+    void getRollingNormalizedRange() {
+        //Given
+        given(dataVersionTracker.symbolVersion("BTC")).willReturn(Optional.of(VERSION));
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 1, 31);
+        //When
+        underTest.getRollingNormalizedRange("BTC", "7d", "PT12H", from, to, "UTC", webRequest);
         //Then
-        verify(cryptoPriceService).getHighestNormalizedRangeForDay(day);
+        verify(cryptoPriceService).getRollingNormalizedRange("BTC", Duration.ofDays(7), Duration.ofHours(12), from, to, ZoneOffset.UTC, VERSION);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.PriceMetrics;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the hand-written serializers with default reflection-based
+ * databind serialization of equivalent {@link BigDecimal}/{@link Instant} records.
+ *
+ * <p>
+ * Not part of the test suite; run manually, e.g. from the IDE or with
+ * {@code java -cp target/test-classes:target/classes:<deps> ...CryptoJsonSerializationBenchmark}.
+ * Reports throughput in encoded bytes per second and heap bytes allocated per response.
+ * </p>
+ */
+public final class CryptoJsonSerializationBenchmark {
+
+    private record DefaultPricePoint(BigDecimal price, Instant timestamp) {
+    }
+
+    private record DefaultStats(String symbol, DefaultPricePoint oldest, DefaultPricePoint newest,
+                                DefaultPricePoint min, DefaultPricePoint max) {
+    }
+
+    private record DefaultNormalizedRange(String symbol, BigDecimal normalizedRange) {
+    }
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    private CryptoJsonSerializationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ObjectWriter writer = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN)
+                .writer();
+
+        Instant timestamp = Instant.parse("2022-01-01T04:00:00Z");
+        CryptoPricePoint point = new CryptoPricePoint(new BigDecimal("46813.21"), timestamp);
+        CryptoStats stats = new CryptoStats("BTC", point, point, point, point);
+        DefaultPricePoint defaultPoint = new DefaultPricePoint(new BigDecimal("46813.21000000"), timestamp);
+        DefaultStats defaultStats = new DefaultStats("BTC", defaultPoint, defaultPoint, defaultPoint, defaultPoint);
+
+        List<CryptoRanking> ranges = IntStream.range(0, 100)
+                .mapToObj(i -> new CryptoRanking("SYM" + i, List.of(RankingMetric.NORMALIZED_RANGE), PriceMetrics.ofNormalizedRange(FixedPoint8.ONE / (i + 3))))
+                .toList();
+        List<DefaultNormalizedRange> defaultRanges = ranges.stream()
+                .map(range -> new DefaultNormalizedRange(range.symbol(), FixedPoint8.toBigDecimal(range.values().normalizedRange())))
+                .toList();
+
+        run("stats / default databind", writer, defaultStats);
+        run("stats / hand-written", writer, stats);
+        run("normalized-range x100 / default databind", writer, defaultRanges);
+        run("normalized-range x100 / hand-written", writer, ranges);
+    }
+
+    private static void run(String name, ObjectWriter writer, Object value) throws Exception {
+        int size = writer.writeValueAsBytes(value).length;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            writer.writeValue(DISCARD, value);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            writer.writeValue(DISCARD, value);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        double seconds = elapsed / 1e9;
+        System.out.printf("%-42s %6d B/response  %8.1f MB/s  %8.0f ns/response  %6d B allocated/response%n",
+                name, size, size * (double) MEASURED_ITERATIONS / seconds / 1e6,
+                elapsed / (double) MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+}
@@ -0,0 +1,145 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+import com.xm.crypto_recommendation.domain.dto.PriceMetrics;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the hand-written serializers produce exactly the JSON the
+ * default databind serializers produce for equivalent records.
+ */
+class CryptoJsonSerializersTest {
+
+    /**
+     * Shape of the DTOs as serialized by reflection before the hand-written serializers.
+     */
+    private record DefaultPricePoint(BigDecimal price, Instant timestamp) {
+    }
+
+    private record DefaultStats(String symbol, DefaultPricePoint oldest, DefaultPricePoint newest,
+                                DefaultPricePoint min, DefaultPricePoint max) {
+    }
+
+    private record DefaultNormalizedRange(String symbol, BigDecimal normalizedRange) {
+    }
+
+    private record DefaultRiskRanking(String symbol, BigDecimal maxDrawdown, BigDecimal totalReturn) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            // The hand-written serializers never fall back to scientific notation (e.g. 1E-8).
+            .enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+
+    @Test
+    void statsMatchDefaultSerialization() throws Exception {
+        CryptoPricePoint oldest = point("46813.21", "2022-01-01T04:00:00Z");
+        CryptoPricePoint newest = point("47722.66", "2022-01-31T20:00:00.123Z");
+        CryptoPricePoint min = point("0.1", "1970-01-01T00:00:00.000001Z");
+        CryptoPricePoint max = point("92233720368.54775807", "2024-02-29T23:59:59.999999999Z");
+
+        assertEquals(
+                objectMapper.writeValueAsString(new DefaultStats("BTC",
+                        legacy(oldest), legacy(newest), legacy(min), legacy(max))),
+                objectMapper.writeValueAsString(new CryptoStats("BTC", oldest, newest, min, max))
+        );
+    }
+
+    @Test
+    void summaryWritesVarianceWithEightDecimalsBeyondTheFixedPointRange() throws Exception {
+        CryptoSummary small = new CryptoSummary("BTC", null, null, 2, 1, 15306.6384, 12372000000L, 1);
+        CryptoSummary large = new CryptoSummary("BTC", null, null, 2, 1, 1.6e21, 1, 1);
+
+        assertTrue(objectMapper.writeValueAsString(small).contains("\"variance\":15306.63840000,"));
+        assertTrue(objectMapper.writeValueAsString(large).contains("\"variance\":1600000000000000000000.00000000,"));
+    }
+
+    @Test
+    void normalizedRangesMatchDefaultSerialization() throws Exception {
+        List<CryptoRanking> ranges = List.of(
+                normalizedRange("ETH", FixedPoint8.of(new BigDecimal("0.63863"))),
+                normalizedRange("BTC", FixedPoint8.of(new BigDecimal("12.5"))),
+                normalizedRange("X\"Y", 1),
+                normalizedRange("DOGE", 0)
+        );
+        List<DefaultNormalizedRange> expected = ranges.stream()
+                .map(range -> new DefaultNormalizedRange(range.symbol(), FixedPoint8.toBigDecimal(range.values().normalizedRange())))
+                .toList();
+
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(ranges));
+    }
+
+    @Test
+    void rankingsWriteOnlyRequestedMetricsInOrder() throws Exception {
+        PriceMetrics values = new PriceMetrics(1, 2, FixedPoint8.of(new BigDecimal("-0.25")), FixedPoint8.of(new BigDecimal("0.5")), 5);
+        CryptoRanking ranking = new CryptoRanking("BTC", List.of(RankingMetric.MAX_DRAWDOWN, RankingMetric.TOTAL_RETURN), values);
+
+        assertEquals(
+                objectMapper.writeValueAsString(new DefaultRiskRanking("BTC", new BigDecimal("0.50000000"), new BigDecimal("-0.25000000"))),
+                objectMapper.writeValueAsString(ranking)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "1970-01-01T00:00:00Z",
+            "1969-12-31T23:59:59.999Z",
+            "2000-02-29T12:34:56.780Z",
+            "0000-01-01T00:00:00Z",
+            "9999-12-31T23:59:59.999999999Z",
+            "+10000-01-01T00:00:00Z",
+            "-0001-12-31T23:59:59Z"
+    })
+    void instantFormatMatchesToString(String text) {
+        Instant instant = Instant.parse(text);
+        assertEquals(instant.toString(), format(instant));
+    }
+
+    @Test
+    void instantFormatMatchesToStringForRandomInstants() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            Instant instant = Instant.ofEpochSecond(
+                    random.nextLong(-62_167_219_200L, 253_402_300_800L),
+                    i % 3 == 0 ? 0 : random.nextInt(1_000_000_000));
+            assertEquals(instant.toString(), format(instant));
+        }
+    }
+
+    private static String format(Instant instant) {
+        char[] buffer = new char[IsoInstantFormat.MAX_LENGTH];
+        return new String(buffer, 0, IsoInstantFormat.format(instant, buffer, 0));
+    }
+
+    private static CryptoRanking normalizedRange(String symbol, long normalizedRange) {
+        return new CryptoRanking(symbol, List.of(RankingMetric.NORMALIZED_RANGE), PriceMetrics.ofNormalizedRange(normalizedRange));
+    }
+
+    private static CryptoPricePoint point(String price, String timestamp) {
+        return new CryptoPricePoint(new BigDecimal(price), Instant.parse(timestamp));
+    }
+
+    private static DefaultPricePoint legacy(CryptoPricePoint point) {
+        return new DefaultPricePoint(FixedPoint8.toBigDecimal(point.price()), point.timestamp());
+    }
+}
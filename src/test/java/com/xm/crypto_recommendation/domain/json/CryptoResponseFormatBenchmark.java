@@ -0,0 +1,95 @@
+package com.xm.crypto_recommendation.domain.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.PriceMetrics;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compares JSON and CBOR response encodings in payload size and round-trip
+ * cost (server-side encode plus client-side decode into plain records).
+ *
+ * <p>
+ * Not part of the test suite; run manually like {@link CryptoJsonSerializationBenchmark}.
+ * </p>
+ */
+public final class CryptoResponseFormatBenchmark {
+
+    /**
+     * Client-side view of the responses, as a consumer would declare them.
+     */
+    private record ClientPricePoint(BigDecimal price, Instant timestamp) {
+    }
+
+    private record ClientStats(String symbol, ClientPricePoint oldest, ClientPricePoint newest,
+                               ClientPricePoint min, ClientPricePoint max) {
+    }
+
+    private record ClientNormalizedRange(String symbol, BigDecimal normalizedRange) {
+    }
+
+    private static final int WARMUP_ITERATIONS = 100_000;
+    private static final int MEASURED_ITERATIONS = 500_000;
+
+    private CryptoResponseFormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        ObjectMapper cbor = CBORMapper.builder()
+                .addModule(new JavaTimeModule())
+                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .build();
+
+        CryptoPricePoint point = new CryptoPricePoint(new BigDecimal("46813.21"), Instant.parse("2022-01-01T04:00:00Z"));
+        CryptoStats stats = new CryptoStats("BTC", point, point, point, point);
+        List<CryptoRanking> ranges = IntStream.range(0, 100)
+                .mapToObj(i -> new CryptoRanking("SYM" + i, List.of(RankingMetric.NORMALIZED_RANGE), PriceMetrics.ofNormalizedRange(FixedPoint8.ONE / (i + 3))))
+                .toList();
+
+        TypeReference<ClientStats> statsType = new TypeReference<>() {
+        };
+        TypeReference<List<ClientNormalizedRange>> rangesType = new TypeReference<>() {
+        };
+
+        run("stats / json", json, stats, statsType);
+        run("stats / cbor", cbor, stats, statsType);
+        run("normalized-range x100 / json", json, ranges, rangesType);
+        run("normalized-range x100 / cbor", cbor, ranges, rangesType);
+    }
+
+    private static void run(String name, ObjectMapper mapper, Object value, TypeReference<?> clientType) throws Exception {
+        int size = mapper.writeValueAsBytes(value).length;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(value), clientType);
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            byte[] bytes = mapper.writeValueAsBytes(value);
+            long encoded = System.nanoTime();
+            mapper.readValue(bytes, clientType);
+            decodeNanos += System.nanoTime() - encoded;
+            encodeNanos += encoded - start;
+        }
+
+        System.out.printf("%-32s %6d B/response  %8.0f ns encode  %8.0f ns decode%n",
+                name, size, encodeNanos / (double) MEASURED_ITERATIONS, decodeNanos / (double) MEASURED_ITERATIONS);
+    }
+}
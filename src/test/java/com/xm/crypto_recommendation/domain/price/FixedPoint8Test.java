@@ -0,0 +1,105 @@
+package com.xm.crypto_recommendation.domain.price;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FixedPoint8Test {
+
+    @ParameterizedTest
+    @CsvSource({
+            "46813.21, 47143.98",
+            "100, 200",
+            "123.456, 654.321",
+            "0.00000001, 0.00000002",
+            "0.00000003, 0.00000004",
+            "3, 5",
+            "7, 7",
+            "92233720368.54775807, 92233720368.54775807",
+            "0.00000001, 1",
+            "92233720368.54775806, 92233720368.54775807"
+    })
+    void normalizedRangeMatchesBigDecimal(String min, String max) {
+        assertMatchesBigDecimal(new BigDecimal(min), new BigDecimal(max));
+    }
+
+    @Test
+    void normalizedRangeMatchesBigDecimalForRandomPrices() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long min = random.nextLong(1, i % 2 == 0 ? 10_000 * FixedPoint8.ONE : Long.MAX_VALUE / 2);
+            long max = min + random.nextLong(0, min);
+            assertMatchesBigDecimal(FixedPoint8.toBigDecimal(min), FixedPoint8.toBigDecimal(max));
+        }
+    }
+
+    @Test
+    void divideRoundsHalfUp() {
+        // 1 / 8 = 0.125 exactly -> 0.12500000, 2 / 3 = 0.666666666... -> 0.66666667
+        assertEquals(12_500_000L, FixedPoint8.divide(FixedPoint8.ONE, 8 * FixedPoint8.ONE));
+        assertEquals(66_666_667L, FixedPoint8.divide(2 * FixedPoint8.ONE, 3 * FixedPoint8.ONE));
+        // 0.00000001 / 2 = 0.000000005 -> rounds up to 0.00000001
+        assertEquals(1L, FixedPoint8.divide(1, 2 * FixedPoint8.ONE));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0.000000005, 1",
+            "-0.000000005, -1",
+            "-0.125000004, -12500000",
+            "-46813.21, -4681321000000",
+            "0.0, 0"
+    })
+    void roundRoundsTiesAwayFromZero(double value, long expected) {
+        assertEquals(expected, FixedPoint8.round(value));
+    }
+
+    @Test
+    void roundRejectsValuesOutOfRange() {
+        assertThrows(ArithmeticException.class, () -> FixedPoint8.round(1e11));
+        assertThrows(ArithmeticException.class, () -> FixedPoint8.round(-1e11));
+        assertThrows(ArithmeticException.class, () -> FixedPoint8.round(Double.NaN));
+    }
+
+    @Test
+    void divideRejectsInvalidOperands() {
+        assertThrows(IllegalArgumentException.class, () -> FixedPoint8.divide(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> FixedPoint8.divide(-1, 1));
+        assertThrows(ArithmeticException.class, () -> FixedPoint8.divide(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> FixedPoint8.normalizedRange(1, Long.MAX_VALUE));
+    }
+
+    @Test
+    void ofRejectsExcessScaleAndOverflow() {
+        assertEquals(4_681_321_000_000L, FixedPoint8.of(new BigDecimal("46813.21")));
+        assertThrows(ArithmeticException.class, () -> FixedPoint8.of(new BigDecimal("0.000000001")));
+        assertThrows(ArithmeticException.class, () -> FixedPoint8.of(new BigDecimal("100000000000")));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0",
+            "1",
+            "-1",
+            "4681321000000",
+            "-4681321000000",
+            "9223372036854775807",
+            "-9223372036854775808"
+    })
+    void toStringMatchesPlainBigDecimal(long value) {
+        assertEquals(BigDecimal.valueOf(value, 8).toPlainString(), FixedPoint8.toString(value));
+    }
+
+    private static void assertMatchesBigDecimal(BigDecimal min, BigDecimal max) {
+        BigDecimal expected = max.subtract(min).divide(min, 8, RoundingMode.HALF_UP);
+        BigDecimal actual = FixedPoint8.toBigDecimal(FixedPoint8.normalizedRange(FixedPoint8.of(min), FixedPoint8.of(max)));
+        assertEquals(expected, actual, () -> "min=" + min + ", max=" + max);
+    }
+}
@@ -0,0 +1,131 @@
+package com.xm.crypto_recommendation.domain.price;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Reports the compression ratio and scan throughput of {@link PriceBlockCodec}
+ * on the bundled CSV data and on a synthetic year of regular ticks.
+ *
+ * <p>
+ * Ticks are grouped into monthly blocks, as stored by the partitions. The
+ * uncompressed baseline is 16 bytes per tick (a millisecond timestamp and a
+ * fixed-point price); a {@code crypto_price} row additionally carries its id,
+ * the crypto id and an index entry.
+ * </p>
+ *
+ * <p>
+ * Not part of the test suite; run the {@code main} method manually from the
+ * project root.
+ * </p>
+ */
+public final class PriceBlockCodecBenchmark {
+
+    private static final Path DATA_DIRECTORY = Path.of("src/main/resources/data");
+    private static final long RAW_BYTES_PER_TICK = 2 * Long.BYTES;
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    private PriceBlockCodecBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<byte[]> bundled = new ArrayList<>();
+        long csvBytes = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(DATA_DIRECTORY, "*_values.csv")) {
+            for (Path file : files) {
+                csvBytes += Files.size(file);
+                bundled.addAll(monthlyBlocks(Files.readAllLines(file)));
+            }
+        }
+        report("bundled CSVs", bundled, csvBytes);
+        report("synthetic 3h ticks, 1 year", syntheticYear(), -1);
+    }
+
+    private static void report(String name, List<byte[]> blocks, long csvBytes) {
+        long ticks = blocks.stream().mapToLong(PriceBlockCodec::count).sum();
+        long encodedBytes = blocks.stream().mapToLong(block -> block.length).sum();
+        long rawBytes = ticks * RAW_BYTES_PER_TICK;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            scan(blocks);
+        }
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            checksum += scan(blocks);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%s: %d ticks in %d blocks%n", name, ticks, blocks.size());
+        System.out.printf("  encoded %d B (%.1f bits/tick), raw %d B -> ratio %.2fx%s%n",
+                encodedBytes, encodedBytes * 8.0 / ticks, rawBytes, rawBytes / (double) encodedBytes,
+                csvBytes < 0 ? "" : String.format(", CSV %d B -> ratio %.2fx", csvBytes, csvBytes / (double) encodedBytes));
+        System.out.printf("  scan %.1f M ticks/s (checksum %d)%n", ticks * MEASURED_ITERATIONS / seconds / 1e6, checksum);
+    }
+
+    private static long scan(List<byte[]> blocks) {
+        long sum = 0;
+        for (byte[] block : blocks) {
+            PriceSeries series = new PriceSeries(PriceBlockCodec.count(block));
+            PriceBlockCodec.decode(block, series);
+            sum += series.price(series.size() - 1);
+        }
+        return sum;
+    }
+
+    private static List<byte[]> monthlyBlocks(List<String> lines) {
+        List<byte[]> blocks = new ArrayList<>();
+        PriceSeries month = new PriceSeries();
+        YearMonth current = null;
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",");
+            long timestamp = Long.parseLong(columns[0]);
+            YearMonth yearMonth = YearMonth.from(Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.UTC));
+            if (current != null && !yearMonth.equals(current)) {
+                blocks.add(encode(month));
+                month = new PriceSeries();
+            }
+            current = yearMonth;
+            month.add(timestamp, FixedPoint8.of(new BigDecimal(columns[2])));
+        }
+        if (!month.isEmpty()) {
+            blocks.add(encode(month));
+        }
+        return blocks;
+    }
+
+    private static List<byte[]> syntheticYear() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<byte[]> blocks = new ArrayList<>();
+        long timestamp = Instant.parse("2022-01-01T00:00:00Z").toEpochMilli();
+        long cents = 4_681_321;
+        for (int month = 0; month < 12; month++) {
+            PriceSeries series = new PriceSeries();
+            for (int tick = 0; tick < 240; tick++) {
+                series.add(timestamp, cents * 1_000_000L);
+                timestamp += 3 * 3_600_000L;
+                cents += random.nextLong(-50_000, 50_001);
+            }
+            blocks.add(encode(series));
+        }
+        return blocks;
+    }
+
+    private static byte[] encode(PriceSeries series) {
+        long[] timestamps = new long[series.size()];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = series.timestamp(i);
+        }
+        return PriceBlockCodec.encode(timestamps, series.prices(), series.size());
+    }
+}
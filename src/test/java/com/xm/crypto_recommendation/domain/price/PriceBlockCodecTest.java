@@ -0,0 +1,120 @@
+package com.xm.crypto_recommendation.domain.price;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceBlockCodecTest {
+
+    private static final long START = 1641009600000L;
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void roundTripsIrregularTicks() {
+        SplittableRandom random = new SplittableRandom(42);
+        int count = 1_000;
+        long[] timestamps = new long[count];
+        long[] prices = new long[count];
+        timestamps[0] = START;
+        prices[0] = 4_681_321_000_000L;
+        for (int i = 1; i < count; i++) {
+            // Mostly hourly gaps with occasional jitter and large jumps.
+            long gap = random.nextInt(10) == 0 ? random.nextLong(1, 100 * HOUR) : random.nextInt(1, 13) * HOUR;
+            timestamps[i] = timestamps[i - 1] + gap;
+            prices[i] = prices[i - 1] + random.nextLong(-50_000_000_000L, 50_000_000_000L);
+        }
+
+        assertRoundTrip(timestamps, prices);
+    }
+
+    @Test
+    void roundTripsExtremeValues() {
+        long[] timestamps = {Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE};
+        long[] prices = {Long.MAX_VALUE, Long.MIN_VALUE, 0, Long.MAX_VALUE, -1};
+
+        assertRoundTrip(timestamps, prices);
+    }
+
+    @Test
+    void roundTripsEmptyAndSingleTickBlocks() {
+        assertRoundTrip(new long[0], new long[0]);
+        assertRoundTrip(new long[]{START}, new long[]{FixedPoint8.ONE});
+    }
+
+    @Test
+    void regularTicksCostAboutOneBitPerTimestamp() {
+        int count = 1_000;
+        long[] timestamps = new long[count];
+        long[] prices = new long[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = START + 3 * HOUR * i;
+            prices[i] = 100 * FixedPoint8.ONE;
+        }
+
+        byte[] block = PriceBlockCodec.encode(timestamps, prices, count);
+
+        // One bit each for the timestamp and the unchanged price, plus header and trailer.
+        assertTrue(block.length <= 72 + count * 2 / 8, "block size " + block.length);
+        assertRoundTrip(timestamps, prices);
+    }
+
+    @Test
+    void decodesOnlyTheRequestedRange() {
+        long[] timestamps = {START, START + HOUR, START + 2 * HOUR, START + 3 * HOUR};
+        long[] prices = {1, 2, 3, 4};
+        byte[] block = PriceBlockCodec.encode(timestamps, prices, timestamps.length);
+
+        PriceSeries series = new PriceSeries();
+        PriceBlockCodec.decode(block, START + 1, START + 2 * HOUR, series);
+
+        assertEquals(2, series.size());
+        assertEquals(START + HOUR, series.timestamp(0));
+        assertArrayEquals(new long[]{2, 3}, series.prices());
+    }
+
+    @Test
+    void appendsTicksInOrderWithoutReencoding() {
+        long[] timestamps = {START, START + HOUR, START + 2 * HOUR, START + 3 * HOUR, START + 5 * HOUR};
+        long[] prices = {100, 200, 200, 100, 300};
+        byte[] block = PriceBlockCodec.encode(timestamps, prices, 2);
+
+        block = PriceBlockCodec.append(block, new long[]{START + 2 * HOUR, START + 3 * HOUR}, new long[]{200, 100}, 2);
+        block = PriceBlockCodec.append(block, new long[]{START + 5 * HOUR}, new long[]{300}, 1);
+
+        assertArrayEquals(PriceBlockCodec.encode(timestamps, prices, timestamps.length), block);
+    }
+
+    @Test
+    void appendMergesTicksOutOfOrderOrOffTheBlockUnits() {
+        byte[] block = PriceBlockCodec.encode(new long[]{START, START + 2 * HOUR}, new long[]{100, 300}, 2);
+
+        block = PriceBlockCodec.append(block, new long[]{START + HOUR}, new long[]{200}, 1);
+        block = PriceBlockCodec.append(block, new long[]{START + 2 * HOUR + 1}, new long[]{301}, 1);
+
+        PriceSeries series = new PriceSeries();
+        PriceBlockCodec.decode(block, series);
+        assertEquals(4, PriceBlockCodec.count(block));
+        long[] expectedTimestamps = {START, START + HOUR, START + 2 * HOUR, START + 2 * HOUR + 1};
+        for (int i = 0; i < expectedTimestamps.length; i++) {
+            assertEquals(expectedTimestamps[i], series.timestamp(i));
+        }
+        assertArrayEquals(new long[]{100, 200, 300, 301}, series.prices());
+    }
+
+    private static void assertRoundTrip(long[] timestamps, long[] prices) {
+        byte[] block = PriceBlockCodec.encode(timestamps, prices, timestamps.length);
+        PriceSeries series = new PriceSeries();
+        PriceBlockCodec.decode(block, series);
+
+        assertEquals(timestamps.length, PriceBlockCodec.count(block));
+        assertEquals(timestamps.length, series.size());
+        for (int i = 0; i < timestamps.length; i++) {
+            assertEquals(timestamps[i], series.timestamp(i));
+        }
+        assertArrayEquals(prices, series.prices());
+    }
+}
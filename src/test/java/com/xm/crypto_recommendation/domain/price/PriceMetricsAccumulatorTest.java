@@ -0,0 +1,79 @@
+package com.xm.crypto_recommendation.domain.price;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriceMetricsAccumulatorTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void matchesTwoPassComputation() {
+        SplittableRandom random = new SplittableRandom(41);
+        long[] prices = new long[5_000];
+        prices[0] = 40_000 * FixedPoint8.ONE;
+        for (int i = 1; i < prices.length; i++) {
+            prices[i] = Math.max(1, Math.round(prices[i - 1] * (1 + random.nextGaussian() * 0.01)));
+        }
+        PriceMetricsAccumulator underTest = new PriceMetricsAccumulator();
+        for (long price : prices) {
+            underTest.add(price);
+        }
+
+        double[] returns = new double[prices.length - 1];
+        double mean = 0;
+        for (int i = 1; i < prices.length; i++) {
+            returns[i - 1] = Math.log((double) prices[i] / prices[i - 1]);
+            mean += returns[i - 1] / returns.length;
+        }
+        double variance = 0;
+        for (double logReturn : returns) {
+            variance += (logReturn - mean) * (logReturn - mean) / (returns.length - 1);
+        }
+        double maxDrawdown = 0;
+        for (int i = 0; i < prices.length; i++) {
+            for (int j = i + 1; j < prices.length; j++) {
+                maxDrawdown = Math.max(maxDrawdown, (double) (prices[i] - prices[j]) / prices[i]);
+            }
+        }
+
+        assertEquals(prices.length, underTest.count());
+        assertEquals(Math.sqrt(variance), underTest.volatility(), TOLERANCE);
+        assertEquals(mean / Math.sqrt(variance), underTest.sharpeRatio(), TOLERANCE);
+        assertEquals((double) prices[prices.length - 1] / prices[0] - 1, underTest.totalReturn(), TOLERANCE);
+        assertEquals(maxDrawdown, underTest.maxDrawdown(), TOLERANCE);
+    }
+
+    @Test
+    void flatAndSinglePriceSeriesHaveNoRisk() {
+        PriceMetricsAccumulator single = new PriceMetricsAccumulator();
+        single.add(FixedPoint8.ONE);
+        PriceMetricsAccumulator flat = new PriceMetricsAccumulator();
+        flat.add(FixedPoint8.ONE);
+        flat.add(FixedPoint8.ONE);
+        flat.add(FixedPoint8.ONE);
+
+        for (PriceMetricsAccumulator underTest : new PriceMetricsAccumulator[]{single, flat}) {
+            assertEquals(0, underTest.volatility());
+            assertEquals(0, underTest.sharpeRatio());
+            assertEquals(0, underTest.totalReturn());
+            assertEquals(0, underTest.maxDrawdown());
+            assertEquals(FixedPoint8.ONE, underTest.min());
+            assertEquals(FixedPoint8.ONE, underTest.max());
+        }
+    }
+
+    @Test
+    void drawdownIsMeasuredFromTheRunningPeak() {
+        PriceMetricsAccumulator underTest = new PriceMetricsAccumulator();
+        for (long price : new long[]{100, 80, 120, 90, 150, 140}) {
+            underTest.add(price * FixedPoint8.ONE);
+        }
+
+        assertEquals(0.25, underTest.maxDrawdown(), TOLERANCE);
+        assertEquals(0.4, underTest.totalReturn(), TOLERANCE);
+    }
+}
@@ -0,0 +1,73 @@
+package com.xm.crypto_recommendation.domain.price;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingMinMaxTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 1",
+            "7, 1",
+            "30, 1",
+            "7, 3",
+            "3, 7",
+            "1000, 10"
+    })
+    void matchesBruteForce(int window, int step) {
+        SplittableRandom random = new SplittableRandom(window * 31L + step);
+        // Few distinct prices exercise the tie-breaking rules.
+        long[] prices = random.longs(500, 0, 20).toArray();
+        SlidingMinMax underTest = new SlidingMinMax(prices);
+
+        for (int start = 0; start < prices.length; start += step) {
+            int end = Math.min(start + window, prices.length);
+            underTest.extendTo(end);
+            underTest.shrinkFrom(start);
+
+            assertFalse(underTest.isEmpty());
+            assertEquals(bruteForceMinIndex(prices, start, end), underTest.minIndex());
+            assertEquals(bruteForceMaxIndex(prices, start, end), underTest.maxIndex());
+        }
+    }
+
+    @Test
+    void windowIsEmptyWhenStartReachesEnd() {
+        SlidingMinMax underTest = new SlidingMinMax(new long[]{3, 1, 2});
+
+        assertTrue(underTest.isEmpty());
+        underTest.extendTo(2);
+        underTest.shrinkFrom(2);
+        assertTrue(underTest.isEmpty());
+        underTest.extendTo(3);
+        assertEquals(2, underTest.minIndex());
+        assertEquals(2, underTest.maxIndex());
+    }
+
+    private static int bruteForceMinIndex(long[] prices, int start, int end) {
+        int min = start;
+        for (int i = start + 1; i < end; i++) {
+            if (prices[i] < prices[min]) {
+                min = i;
+            }
+        }
+        return min;
+    }
+
+    private static int bruteForceMaxIndex(long[] prices, int start, int end) {
+        int max = start;
+        for (int i = start + 1; i < end; i++) {
+            if (prices[i] >= prices[max]) {
+                max = i;
+            }
+        }
+        return max;
+    }
+}
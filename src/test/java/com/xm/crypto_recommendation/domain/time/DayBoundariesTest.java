@@ -0,0 +1,76 @@
+package com.xm.crypto_recommendation.domain.time;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DayBoundariesTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "Asia/Singapore", "Europe/Athens", "America/New_York", "Pacific/Apia", "+05:45", "-03:30"})
+    void matchesJavaTimeResolution(String zoneId) {
+        ZoneId zone = ZoneId.of(zoneId);
+        DayBoundaries underTest = DayBoundaries.of(zone);
+
+        // Inside and outside the table.
+        for (LocalDate date = LocalDate.of(1995, 1, 1); date.isBefore(LocalDate.of(2105, 1, 1)); date = date.plusDays(1)) {
+            Instant start = date.atStartOfDay(zone).toInstant();
+            assertEquals(start, underTest.startOf(date), date.toString());
+            assertEquals(date.plusDays(1).atStartOfDay(zone).toInstant().minusNanos(1), underTest.endOf(date), date.toString());
+        }
+
+        SplittableRandom random = new SplittableRandom(zoneId.hashCode());
+        long from = Instant.parse("1995-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2105-01-01T00:00:00Z").toEpochMilli();
+        for (int i = 0; i < 100_000; i++) {
+            long timestamp = random.nextLong(from, to);
+            assertEquals(LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), zone), underTest.dayOf(timestamp));
+        }
+    }
+
+    @Test
+    void daylightSavingDaysHaveTheirLength() {
+        DayBoundaries underTest = DayBoundaries.of(ZoneId.of("Europe/Athens"));
+        LocalDate springForward = LocalDate.of(2022, 3, 27);
+
+        assertEquals(Instant.parse("2022-03-26T22:00:00Z"), underTest.startOf(springForward));
+        assertEquals(Instant.parse("2022-03-27T20:59:59.999999999Z"), underTest.endOf(springForward));
+        assertEquals(springForward, underTest.dayOf(Instant.parse("2022-03-27T20:59:59.999Z").toEpochMilli()));
+        assertEquals(springForward.plusDays(1), underTest.dayOf(Instant.parse("2022-03-27T21:00:00Z").toEpochMilli()));
+    }
+
+    @Test
+    void skippedDaysHoldNoTimestamp() {
+        DayBoundaries underTest = DayBoundaries.of(ZoneId.of("Pacific/Apia"));
+        LocalDate skipped = LocalDate.of(2011, 12, 30);
+
+        assertEquals(underTest.startOf(skipped.plusDays(1)), underTest.startOf(skipped));
+        assertEquals(skipped.plusDays(1), underTest.dayOf(underTest.startOf(skipped).toEpochMilli()));
+        assertEquals(skipped.minusDays(1), underTest.dayOf(underTest.startOf(skipped).toEpochMilli() - 1));
+    }
+
+    @Test
+    void equivalentZonesShareBoundaries() {
+        assertSame(DayBoundaries.UTC, DayBoundaries.of(ZoneId.of("Z")));
+        assertSame(DayBoundaries.UTC, DayBoundaries.of(ZoneId.of("UTC")));
+        assertSame(DayBoundaries.of(ZoneId.of("Asia/Singapore")), DayBoundaries.of(ZoneId.of("Asia/Singapore")));
+    }
+
+    @Test
+    void parseZoneRejectsUnknownZones() {
+        assertEquals(ZoneId.of("Asia/Singapore"), DayBoundaries.parseZone(" Asia/Singapore "));
+        assertEquals(ZoneOffset.UTC, DayBoundaries.parseZone("UTC"));
+        assertThrows(IllegalArgumentException.class, () -> DayBoundaries.parseZone("Mars/Olympus_Mons"));
+        assertThrows(IllegalArgumentException.class, () -> DayBoundaries.parseZone("+25:00"));
+    }
+}
@@ -7,9 +7,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest(properties = {"rate-limit.requests-per-minute=3"})
+@SpringBootTest(properties = {"rate-limit.requests-per-minute=3", "rate-limit.work-per-minute=60", "ingestion.async=false"})
 @AutoConfigureMockMvc
 class RateLimitingFilterIntegrationTest {
 
@@ -26,4 +27,28 @@ class RateLimitingFilterIntegrationTest {
         mockMvc.perform(get("/api/cryptos/BTC/stats"))
                 .andExpect(status().isTooManyRequests());
     }
+
+    @Test
+    void cheapRequestsOutliveTheExpensiveBudget() throws Exception {
+        // Own client, so the other tests' requests do not count.
+        String client = "203.0.113.7";
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/cryptos/normalized-range").header("X-Forwarded-For", client))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/cryptos/normalized-range").header("X-Forwarded-For", client))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        mockMvc.perform(get("/api/cryptos/BTC/stats").header("X-Forwarded-For", client))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void healthProbesAreExempt() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/actuator/health/readiness"))
+                    .andExpect(status().isOk());
+        }
+    }
 }
@@ -0,0 +1,131 @@
+package com.xm.crypto_recommendation.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitingFilterTest {
+
+    private static final String STATS = "/api/cryptos/BTC/stats";
+    private static final String RANKING = "/api/cryptos/normalized-range";
+
+    private final PoolSaturation poolSaturation = mock(PoolSaturation.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateLimitingFilter filter(Map<String, RateLimitProperties.Tier> tiers, Map<String, String> apiKeys) {
+        RateLimitProperties properties = new RateLimitProperties(
+                3, 50, Map.of(RANKING, 20), false, Duration.ofMillis(10), 100, tiers, apiKeys,
+                new RateLimitProperties.Backpressure("read", 1.0));
+        return new RateLimitingFilter(properties, poolSaturation, meterRegistry);
+    }
+
+    private int perform(RateLimitingFilter filter, String path, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (apiKey != null) {
+            request.addHeader(RateLimitingFilter.API_KEY_HEADER, apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    void expensiveRequestsDoNotDrainTheCheapBudget() throws Exception {
+        //Given
+        RateLimitingFilter underTest = filter(Map.of(), Map.of());
+
+        //When
+        int first = perform(underTest, RANKING, null);
+        int second = perform(underTest, RANKING, null);
+        int third = perform(underTest, RANKING, null);
+
+        //Then
+        assertEquals(200, first);
+        assertEquals(200, second);
+        assertEquals(429, third);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, perform(underTest, STATS, null));
+        }
+        assertEquals(429, perform(underTest, STATS, null));
+        assertEquals(1.0, meterRegistry.get("rate-limit.rejected").tags("reason", "quota", "route", "expensive").counter().count());
+        assertEquals(1.0, meterRegistry.get("rate-limit.rejected").tags("reason", "quota", "route", "cheap").counter().count());
+    }
+
+    @Test
+    void rejectionsCarryRetryAfter() throws Exception {
+        //Given
+        RateLimitingFilter underTest = filter(Map.of(), Map.of());
+        perform(underTest, RANKING, null);
+        perform(underTest, RANKING, null);
+
+        //When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        underTest.doFilter(new MockHttpServletRequest("GET", RANKING), response, new MockFilterChain());
+
+        //Then
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertEquals("Too many requests", response.getContentAsString());
+    }
+
+    @Test
+    void apiKeysAreLimitedWithTheBudgetsOfTheirTier() throws Exception {
+        //Given
+        RateLimitingFilter underTest = filter(
+                Map.of("partner", new RateLimitProperties.Tier(10, 100)), Map.of("secret", "partner"));
+
+        //When
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, perform(underTest, STATS, null));
+        }
+
+        //Then
+        assertEquals(429, perform(underTest, STATS, null));
+        assertEquals(429, perform(underTest, STATS, "unknown"));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform(underTest, STATS, "secret"));
+        }
+        assertEquals(429, perform(underTest, STATS, "secret"));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform(underTest, RANKING, "secret"));
+        }
+        assertEquals(429, perform(underTest, RANKING, "secret"));
+    }
+
+    @Test
+    void saturatedPoolShedsOnlyExpensiveRequests() throws Exception {
+        //Given
+        RateLimitingFilter underTest = filter(Map.of(), Map.of());
+        when(poolSaturation.saturation()).thenReturn(1.5);
+
+        //When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        underTest.doFilter(new MockHttpServletRequest("GET", RANKING), response, new MockFilterChain());
+
+        //Then
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(200, perform(underTest, STATS, null));
+
+        when(poolSaturation.saturation()).thenReturn(0.5);
+        // Shed requests took no tokens.
+        assertEquals(200, perform(underTest, RANKING, null));
+        assertEquals(200, perform(underTest, RANKING, null));
+    }
+
+    @Test
+    void rejectsApiKeysOfUnknownTiers() {
+        assertThrows(IllegalArgumentException.class, () -> filter(Map.of(), Map.of("secret", "gold")));
+    }
+}
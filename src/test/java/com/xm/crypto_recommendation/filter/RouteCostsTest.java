@@ -0,0 +1,71 @@
+package com.xm.crypto_recommendation.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteCostsTest {
+
+    private static final Map<String, Integer> COSTS = Map.of(
+            "/api/cryptos/normalized-range", 20,
+            "/api/cryptos/{symbol}/normalized-range/rolling", 10
+    );
+
+    @Test
+    void listedRoutesCostTheirConfiguredTokens() {
+        RouteCosts underTest = new RouteCosts(COSTS, false, Duration.ofMillis(10), 100);
+
+        assertEquals(20, underTest.costOf(underTest.find("/api/cryptos/normalized-range")));
+        assertEquals(10, underTest.costOf(underTest.find("/api/cryptos/BTC/normalized-range/rolling")));
+        assertNull(underTest.find("/api/cryptos/BTC/stats"));
+        assertEquals(1, underTest.costOf(null));
+    }
+
+    @Test
+    void adaptiveCostsFollowMeasuredLatency() {
+        RouteCosts underTest = new RouteCosts(COSTS, true, Duration.ofMillis(10), 100);
+        RouteCosts.Route ranking = underTest.find("/api/cryptos/normalized-range");
+        RouteCosts.Route rolling = underTest.find("/api/cryptos/ETH/normalized-range/rolling");
+
+        for (int i = 0; i < RouteCosts.MIN_SAMPLES - 1; i++) {
+            underTest.record(ranking, Duration.ofMillis(45).toNanos());
+            underTest.record(rolling, Duration.ofMillis(2).toNanos());
+        }
+        // Configured costs until enough requests were measured.
+        assertEquals(20, underTest.costOf(ranking));
+        assertEquals(10, underTest.costOf(rolling));
+
+        underTest.record(ranking, Duration.ofMillis(45).toNanos());
+        underTest.record(rolling, Duration.ofMillis(2).toNanos());
+        assertEquals(5, underTest.costOf(ranking));
+        assertEquals(1, underTest.costOf(rolling));
+
+        for (int i = 0; i < 200; i++) {
+            underTest.record(ranking, Duration.ofSeconds(5).toNanos());
+        }
+        assertEquals(100, underTest.costOf(ranking));
+    }
+
+    @Test
+    void staticCostsIgnoreLatency() {
+        RouteCosts underTest = new RouteCosts(COSTS, false, Duration.ofMillis(10), 100);
+        RouteCosts.Route ranking = underTest.find("/api/cryptos/normalized-range");
+
+        for (int i = 0; i < RouteCosts.MIN_SAMPLES; i++) {
+            underTest.record(ranking, Duration.ofSeconds(1).toNanos());
+        }
+
+        assertEquals(20, underTest.costOf(ranking));
+    }
+
+    @Test
+    void rejectsNonPositiveCosts() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RouteCosts(Map.of("/api/cryptos/normalized-range", 0), false, Duration.ofMillis(10), 100));
+    }
+}
@@ -0,0 +1,155 @@
+package com.xm.crypto_recommendation.ingestion;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
+import com.xm.crypto_recommendation.registry.DataVersionTracker;
+import com.xm.crypto_recommendation.repository.CryptoPriceRepository;
+import com.xm.crypto_recommendation.repository.CryptoRepository;
+import com.xm.crypto_recommendation.repository.IngestedFileRepository;
+import com.xm.crypto_recommendation.store.DailyLeaderboardIndex;
+import com.xm.crypto_recommendation.store.OffHeapPriceStore;
+import com.xm.crypto_recommendation.store.PriceSummaryIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies:
+ * <ul>
+ *     <li>Restarting against the same database does not duplicate prices</li>
+ *     <li>Only rows appended since the previous run are inserted</li>
+ *     <li>Skipped files are still published to the registry</li>
+ *     <li>The summary index is rebuilt from the database for skipped files</li>
+ *     <li>Prices with more than 8 decimals are rounded half-up once, at ingestion</li>
+ *     <li>Files longer than one chunk are persisted in full, in timestamp order</li>
+ * </ul>
+ */
+@DataJpaTest
+class CsvDataLoaderTest {
+
+    @Autowired
+    private CryptoRepository cryptoRepository;
+    @Autowired
+    private CryptoPriceRepository cryptoPriceRepository;
+    @Autowired
+    private IngestedFileRepository ingestedFileRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private PriceSummaryIndex priceSummaryIndex;
+
+    @Test
+    void restartsIngestOnlyNewRows() throws IOException {
+        Path file = Files.writeString(directory.resolve("BTC_values.csv"), """
+                timestamp,symbol,price
+                1641009600000,BTC,46813.21
+                1641020400000,BTC,46979.61
+                """);
+        CsvResourceLoader resourceLoader = mock(CsvResourceLoader.class);
+        given(resourceLoader.loadAllCsvs()).willReturn(List.of(new FileSystemResource(file)));
+
+        start(resourceLoader);
+        assertEquals(2, cryptoPriceRepository.count());
+
+        CryptoRegistry registry = start(resourceLoader);
+        assertEquals(2, cryptoPriceRepository.count());
+        assertTrue(registry.findBySymbol("BTC").isPresent());
+        assertEquals(2, summaryCount());
+
+        Files.writeString(file, "1641031200000,BTC,47143.98\n", StandardOpenOption.APPEND);
+        start(resourceLoader);
+        assertEquals(3, cryptoPriceRepository.count());
+        assertEquals(3, summaryCount());
+        assertEquals(3, ingestedFileRepository.findByFileName("BTC_values.csv").orElseThrow().getRowCount());
+    }
+
+    @Test
+    void roundsPricesWithMoreThanEightDecimals() throws IOException {
+        Path file = Files.writeString(directory.resolve("BTC_values.csv"), """
+                timestamp,symbol,price
+                1641009600000,BTC,46813.123456785
+                1641020400000,BTC,46979.6100000049
+                """);
+        CsvResourceLoader resourceLoader = mock(CsvResourceLoader.class);
+        given(resourceLoader.loadAllCsvs()).willReturn(List.of(new FileSystemResource(file)));
+
+        start(resourceLoader);
+
+        Crypto btc = cryptoRepository.findBySymbol("BTC").orElseThrow();
+        Instant from = Instant.ofEpochMilli(1641009600000L);
+        Instant to = Instant.ofEpochMilli(1641020400000L);
+        List<Long> stored = cryptoPriceRepository.findPricesInRangeOrderedByTimestampAsc(btc, from, to, Pageable.unpaged())
+                .stream()
+                .map(CryptoPricePoint::price)
+                .toList();
+        assertEquals(List.of(4681312345679L, 4697961000000L), stored);
+
+        PriceSeries blocks = cryptoPriceRepository.findPriceSeries(btc, from, to);
+        assertEquals(4681312345679L, blocks.price(0));
+        assertEquals(4697961000000L, blocks.price(1));
+        assertEquals(2, summaryCount());
+    }
+
+    @Test
+    void loadsFilesLongerThanOneChunk() throws IOException {
+        int rows = CsvDataLoader.CHUNK_SIZE * 2 + 1;
+        StringBuilder csv = new StringBuilder("timestamp,symbol,price\n");
+        // Newest first, so the ticks must be put in order across chunks.
+        for (int i = rows - 1; i >= 0; i--) {
+            csv.append(1641009600000L + i * 60_000L).append(",BTC,").append(46000 + i % 1000).append('\n');
+        }
+        Path file = Files.writeString(directory.resolve("BTC_values.csv"), csv);
+        CsvResourceLoader resourceLoader = mock(CsvResourceLoader.class);
+        given(resourceLoader.loadAllCsvs()).willReturn(List.of(new FileSystemResource(file)));
+
+        start(resourceLoader);
+
+        assertEquals(rows, cryptoPriceRepository.count());
+        assertEquals(rows, summaryCount());
+        Crypto btc = cryptoRepository.findBySymbol("BTC").orElseThrow();
+        PriceSeries blocks = cryptoPriceRepository.findPriceSeries(btc, Instant.EPOCH, Instant.ofEpochMilli(Long.MAX_VALUE));
+        assertEquals(rows, blocks.size());
+        for (int i = 1; i < blocks.size(); i++) {
+            assertTrue(blocks.timestamp(i - 1) < blocks.timestamp(i));
+        }
+    }
+
+    private CryptoRegistry start(CsvResourceLoader resourceLoader) {
+        CryptoRegistry registry = new CryptoRegistry();
+        priceSummaryIndex = new PriceSummaryIndex();
+        new CsvDataLoader(
+                cryptoRepository, cryptoPriceRepository, resourceLoader, new CsvParser(),
+                registry, new DataVersionTracker(registry), new IngestionProgress(),
+                new IngestionManifest(ingestedFileRepository), new OffHeapPriceStore(false, "", 16),
+                priceSummaryIndex, new DailyLeaderboardIndex(5), transactionManager, false
+        ).run(null);
+        return registry;
+    }
+
+    private long summaryCount() {
+        return priceSummaryIndex.findSummary("BTC", Instant.EPOCH, Instant.ofEpochMilli(Long.MAX_VALUE))
+                .orElseThrow()
+                .count();
+    }
+}
@@ -0,0 +1,87 @@
+package com.xm.crypto_recommendation.ingestion;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class CsvDirectoryWatcherTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    private Path directory;
+
+    private final CsvDataLoader csvDataLoader = mock(CsvDataLoader.class);
+    private final IngestionProgress ingestionProgress = new IngestionProgress();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CsvDirectoryWatcher underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new CsvDirectoryWatcher(
+                directory, Duration.ofMillis(100), csvDataLoader, ingestionProgress, meterRegistry, Clock.systemUTC()
+        );
+        underTest.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.stop();
+    }
+
+    @Test
+    void newFilesAreIngestedAndLagIsRecorded() throws IOException, InterruptedException {
+        // Given
+        ingestionProgress.start(Map.of());
+        ingestionProgress.completed();
+        given(csvDataLoader.ingest(any())).willReturn(1);
+
+        // When
+        Path file = Files.writeString(directory.resolve("BTC_values.csv"), "timestamp,symbol,price\n1641009600000,BTC,46813.21\n");
+        Files.writeString(directory.resolve("notes.txt"), "ignored");
+
+        // Then
+        verify(csvDataLoader, timeout(TIMEOUT_MILLIS)).ingest(new FileSystemResource(file));
+        Timer lag = meterRegistry.get(CsvDirectoryWatcher.LAG_METER_NAME).timer();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (lag.count() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, lag.count());
+        verify(csvDataLoader, never()).ingest(new FileSystemResource(directory.resolve("notes.txt")));
+    }
+
+    @Test
+    void changesWaitForStartupLoad() throws IOException {
+        // Given
+        ingestionProgress.start(Map.of("BTC", 100L));
+
+        // When
+        Path file = Files.writeString(directory.resolve("BTC_values.csv"), "timestamp,symbol,price\n");
+
+        // Then
+        verify(csvDataLoader, timeout(500).times(0)).ingest(any());
+        ingestionProgress.loaded("BTC", 0, 100);
+        ingestionProgress.completed();
+        verify(csvDataLoader, timeout(TIMEOUT_MILLIS)).ingest(new FileSystemResource(file));
+    }
+}
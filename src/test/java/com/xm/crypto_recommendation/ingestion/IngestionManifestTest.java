@@ -0,0 +1,162 @@
+package com.xm.crypto_recommendation.ingestion;
+
+import com.xm.crypto_recommendation.domain.entity.IngestedFile;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import com.xm.crypto_recommendation.repository.IngestedFileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class IngestionManifestTest {
+
+    private static final String HEADER = "timestamp,symbol,price\n";
+    private static final String ROWS = """
+            1641009600000,BTC,46813.21
+            1641020400000,BTC,46979.61
+            """;
+    private static final Instant INGESTED_AT = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Autowired
+    private IngestedFileRepository ingestedFileRepository;
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+    private IngestionManifest underTest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.writeString(directory.resolve("BTC_values.csv"), HEADER + ROWS);
+        underTest = new IngestionManifest(ingestedFileRepository, Clock.fixed(INGESTED_AT, ZoneOffset.UTC));
+    }
+
+    @Test
+    void newFileIsReadInFull() throws IOException {
+        IngestionManifest.Delta delta = underTest.read(new FileSystemResource(file));
+
+        assertEquals(IngestionManifest.Change.NEW, delta.change());
+        assertEquals(HEADER + ROWS, csv(delta));
+        assertEquals(Files.size(file), delta.size());
+        assertNull(delta.highWaterMark());
+    }
+
+    @Test
+    void unchangedFileIsSkipped() throws IOException {
+        ingest();
+
+        IngestionManifest.Delta delta = underTest.read(new FileSystemResource(file));
+
+        assertEquals(IngestionManifest.Change.UNCHANGED, delta.change());
+        assertEquals("", csv(delta));
+    }
+
+    @Test
+    void appendedFileIsReadFromLastOffset() throws IOException {
+        ingest();
+        String appended = "1641031200000,BTC,47143.98\n";
+        Files.writeString(file, appended, StandardOpenOption.APPEND);
+
+        IngestionManifest.Delta delta = underTest.read(new FileSystemResource(file));
+
+        assertEquals(IngestionManifest.Change.APPENDED, delta.change());
+        assertEquals(HEADER + appended, csv(delta));
+        assertEquals(Files.size(file), delta.size());
+        assertNull(delta.highWaterMark());
+    }
+
+    @Test
+    void partiallyWrittenLineIsLeftForLaterRead() throws IOException {
+        ingest();
+        Files.writeString(file, "1641031200000,BTC,47143.98\n1641034800000,BTC,468", StandardOpenOption.APPEND);
+
+        IngestionManifest.Delta delta = underTest.read(new FileSystemResource(file), true);
+
+        assertEquals(IngestionManifest.Change.APPENDED, delta.change());
+        assertEquals(HEADER + "1641031200000,BTC,47143.98\n", csv(delta));
+        assertEquals(Files.size(file) - "1641034800000,BTC,468".length(), delta.size());
+    }
+
+    @Test
+    void longPartiallyWrittenLineIsLeftForLaterRead() throws IOException {
+        ingest();
+        String partial = "1641034800000,BTC," + "4".repeat(20_000);
+        Files.writeString(file, "1641031200000,BTC,47143.98\n" + partial, StandardOpenOption.APPEND);
+
+        IngestionManifest.Delta delta = underTest.read(new FileSystemResource(file), true);
+
+        assertEquals(HEADER + "1641031200000,BTC,47143.98\n", csv(delta));
+        assertEquals(Files.size(file) - partial.length(), delta.size());
+    }
+
+    @Test
+    void rewrittenFileIsFilteredByHighWaterMark() throws IOException {
+        ingest();
+        Files.writeString(file, HEADER + """
+                1641009600000,BTC,1.00
+                1641020400000,BTC,46979.61
+                1641031200000,BTC,47143.98
+                """);
+
+        IngestionManifest.Delta delta = underTest.read(new FileSystemResource(file));
+
+        assertEquals(IngestionManifest.Change.REWRITTEN, delta.change());
+        assertEquals(Instant.ofEpochMilli(1641020400000L), delta.highWaterMark());
+        assertFalse(delta.includes(Instant.ofEpochMilli(1641020400000L)));
+        assertTrue(delta.includes(Instant.ofEpochMilli(1641031200000L)));
+    }
+
+    @Test
+    void recordAdvancesManifestEntry() throws IOException {
+        ingest();
+
+        IngestedFile entry = ingestedFileRepository.findByFileName("BTC_values.csv").orElseThrow();
+        assertEquals("BTC", entry.getSymbol());
+        assertEquals(Files.size(file), entry.getByteOffset());
+        assertEquals(2, entry.getRowCount());
+        assertEquals(Instant.ofEpochMilli(1641020400000L), entry.getMaxTimestamp());
+        assertEquals(INGESTED_AT, entry.getIngestedAt());
+    }
+
+    @Test
+    void fileShrinkingAfterReadFailsTheStream() throws IOException {
+        IngestionManifest.Delta delta = underTest.read(new FileSystemResource(file));
+        Files.writeString(file, HEADER);
+
+        assertThrows(IOException.class, () -> csv(delta));
+    }
+
+    private static String csv(IngestionManifest.Delta delta) throws IOException {
+        try (InputStream csv = delta.openCsv()) {
+            return new String(csv.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void ingest() throws IOException {
+        IngestionManifest.Delta delta = underTest.read(new FileSystemResource(file));
+        PriceSeries ticks = new PriceSeries();
+        ticks.add(1641020400000L, 4697961000000L);
+        ticks.add(1641009600000L, 4681321000000L);
+        underTest.record("BTC", delta, ticks);
+    }
+}
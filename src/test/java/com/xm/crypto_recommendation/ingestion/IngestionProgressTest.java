@@ -0,0 +1,88 @@
+package com.xm.crypto_recommendation.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class IngestionProgressTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final Clock clock = mock(Clock.class);
+    private final IngestionProgress underTest = new IngestionProgress(clock);
+
+    @Test
+    void tracksSymbolsAndExtrapolatesEta() {
+        given(clock.instant()).willReturn(START);
+        Map<String, Long> files = new LinkedHashMap<>();
+        files.put("BTC", 300L);
+        files.put("ETH", 100L);
+        underTest.start(files);
+
+        assertTrue(underTest.isRunning());
+        assertTrue(underTest.isPending("btc"));
+        assertNull(underTest.snapshot().eta());
+
+        given(clock.instant()).willReturn(START.plusSeconds(30));
+        underTest.loaded("BTC", 1_000, 300);
+
+        IngestionProgress.Snapshot snapshot = underTest.snapshot();
+        assertFalse(underTest.isPending("BTC"));
+        assertTrue(underTest.isPending("ETH"));
+        assertEquals(List.of("BTC"), snapshot.loadedSymbols());
+        assertEquals(List.of("ETH"), snapshot.pendingSymbols());
+        assertEquals(1, snapshot.filesLoaded());
+        assertEquals(2, snapshot.filesTotal());
+        assertEquals(1_000, snapshot.rowsLoaded());
+        assertEquals(Duration.ofSeconds(10), snapshot.eta());
+        assertEquals(Duration.ofSeconds(10), underTest.retryAfter());
+
+        given(clock.instant()).willReturn(START.plusSeconds(40));
+        underTest.loaded("ETH", 300, 100);
+        underTest.completed();
+
+        snapshot = underTest.snapshot();
+        assertEquals(IngestionProgress.State.COMPLETED, snapshot.state());
+        assertEquals(Duration.ofSeconds(40), snapshot.elapsed());
+        assertNull(snapshot.eta());
+        assertFalse(underTest.isRunning());
+    }
+
+    @Test
+    void failureClearsPendingSymbols() {
+        given(clock.instant()).willReturn(START);
+        underTest.start(Map.of("BTC", 100L));
+        underTest.failed(new IllegalStateException("Failed to read CSV: BTC_values.csv"));
+
+        assertFalse(underTest.isPending("BTC"));
+        assertFalse(underTest.isRunning());
+        assertEquals("Failed to read CSV: BTC_values.csv", underTest.snapshot().failure());
+    }
+
+    @Test
+    void completionListenersSeeTheCompletedState() {
+        given(clock.instant()).willReturn(START);
+        List<IngestionProgress.State> states = new ArrayList<>();
+        underTest.addCompletionListener(() -> states.add(underTest.state()));
+        underTest.start(Map.of("BTC", 100L));
+
+        underTest.loaded("BTC", 10, 100);
+        assertTrue(states.isEmpty());
+        underTest.completed();
+
+        assertEquals(List.of(IngestionProgress.State.COMPLETED), states);
+    }
+}
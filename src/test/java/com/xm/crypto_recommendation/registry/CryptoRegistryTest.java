@@ -0,0 +1,63 @@
+package com.xm.crypto_recommendation.registry;
+
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CryptoRegistryTest {
+
+    private final CryptoRegistry underTest = new CryptoRegistry();
+
+    @Test
+    void findBySymbolIgnoresCase() {
+        Crypto btc = new Crypto("BTC");
+        underTest.register(List.of(btc, new Crypto("ETH")));
+
+        assertSame(btc, underTest.findBySymbol("BTC").orElseThrow());
+        assertSame(btc, underTest.findBySymbol("btc").orElseThrow());
+        assertSame(btc, underTest.findBySymbol("bTc").orElseThrow());
+        assertEquals(Optional.empty(), underTest.findBySymbol("BT"));
+        assertEquals(Optional.empty(), underTest.findBySymbol("DOGE"));
+    }
+
+    @Test
+    void findBySymbolOnEmptyRegistry() {
+        assertEquals(Optional.empty(), underTest.findBySymbol("BTC"));
+        assertTrue(underTest.findAll().isEmpty());
+    }
+
+    @Test
+    void registerKeepsExistingSymbolsAndReplacesDuplicates() {
+        Crypto btc = new Crypto("BTC");
+        Crypto eth = new Crypto("ETH");
+        Crypto reloadedBtc = new Crypto("BTC");
+        underTest.register(List.of(btc, eth));
+        List<Crypto> snapshot = underTest.findAll();
+
+        underTest.register(List.of(reloadedBtc, new Crypto("XRP")));
+
+        assertEquals(List.of(btc, eth), snapshot);
+        assertEquals(3, underTest.findAll().size());
+        assertSame(reloadedBtc, underTest.findBySymbol("btc").orElseThrow());
+        assertSame(eth, underTest.findBySymbol("eth").orElseThrow());
+    }
+
+    @Test
+    void registerManySymbols() {
+        List<Crypto> cryptos = IntStream.range(0, 1_000)
+                .mapToObj(i -> new Crypto("SYM" + i))
+                .toList();
+        underTest.register(cryptos);
+
+        cryptos.forEach(crypto ->
+                assertSame(crypto, underTest.findBySymbol(crypto.getSymbol().toLowerCase()).orElseThrow()));
+        assertEquals(cryptos, underTest.findAll());
+    }
+}
@@ -0,0 +1,48 @@
+package com.xm.crypto_recommendation.registry;
+
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class DataVersionTrackerTest {
+
+    private static final Instant NOW = Instant.parse("2023-01-01T00:00:00Z");
+
+    private final CryptoRegistry cryptoRegistry = new CryptoRegistry();
+    private final DataVersionTracker underTest = new DataVersionTracker(cryptoRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void bumpIncrementsSymbolAndGlobalVersions() {
+        cryptoRegistry.register(List.of(new Crypto("BTC"), new Crypto("ETH")));
+
+        underTest.bump(List.of("BTC", "ETH"));
+        underTest.bump(List.of("BTC"));
+
+        assertEquals(new DataVersion("BTC", 2, NOW), underTest.symbolVersion("btc").orElseThrow());
+        assertEquals(new DataVersion("ETH", 1, NOW), underTest.symbolVersion("ETH").orElseThrow());
+        assertEquals(new DataVersion(DataVersionTracker.GLOBAL_SCOPE, 2, NOW), underTest.globalVersion());
+    }
+
+    @Test
+    void symbolVersionIsEmptyForUnsupportedSymbol() {
+        assertEquals(Optional.empty(), underTest.symbolVersion("BTC"));
+    }
+
+    @Test
+    void etagChangesWithVersion() {
+        DataVersion version = new DataVersion("BTC", 1, NOW);
+
+        assertEquals("\"BTC-1-" + NOW.toEpochMilli() + "\"", version.etag());
+        assertNotEquals(version.etag(), new DataVersion("BTC", 2, NOW).etag());
+        assertNotEquals(version.etag(), new DataVersion("BTC", 1, NOW.plusSeconds(1)).etag());
+        assertEquals("\"BTC-1-" + NOW.toEpochMilli() + "-cbor\"", version.etag("cbor"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.xm.crypto_recommendation.repository;
+
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.domain.entity.CryptoPrice;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks, through {@code EXPLAIN}, that the schema created by the Flyway
+ * migrations answers the raw price scans of {@link CryptoPriceRepository}
+ * and {@link PartitionedCryptoPriceRepositoryImpl} from the covering index.
+ */
+@DataJpaTest
+class CryptoPriceIndexPlanTest {
+
+    private static final String INDEX = "IDX_CRYPTO_PRICE_COVERING";
+    private static final Instant START = Instant.parse("2022-01-01T00:00:00Z");
+    private static final String RANGE = """
+            SELECT price, timestamp
+            FROM crypto_price
+            WHERE crypto_id = ?
+              AND timestamp >= ?
+              AND timestamp <= ?
+            """;
+
+    @Autowired
+    private CryptoRepository cryptoRepository;
+    @Autowired
+    private CryptoPriceRepository cryptoPriceRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private Crypto crypto;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        crypto = cryptoRepository.save(new Crypto("BTC"));
+        List<CryptoPrice> prices = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            prices.add(new CryptoPrice(crypto, START.plus(Duration.ofHours(i)), BigDecimal.valueOf(1_000 + i % 37)));
+        }
+        cryptoPriceRepository.saveAllPartitioned(crypto, prices);
+        entityManager.flush();
+    }
+
+    @Test
+    void indexCoversEveryScannedColumn() {
+        List<String> columns = jdbcTemplate.queryForList("""
+                SELECT column_name
+                FROM information_schema.index_columns
+                WHERE index_name = ?
+                ORDER BY ordinal_position
+                """, String.class, INDEX);
+
+        assertEquals(List.of("CRYPTO_ID", "TIMESTAMP", "PRICE"), columns);
+    }
+
+    @Test
+    void oldestAndNewestAreReadInIndexOrder() {
+        for (String order : List.of("ASC", "DESC")) {
+            String plan = explain(RANGE + "ORDER BY crypto_id " + order + ", timestamp " + order + " FETCH FIRST ROW ONLY");
+
+            assertIndexRange(plan);
+            assertTrue(plan.contains("/* index sorted */"), plan);
+        }
+    }
+
+    @Test
+    void orderingByTimestampAloneSortsTheRange() {
+        String plan = explain(RANGE + "ORDER BY timestamp ASC FETCH FIRST ROW ONLY");
+
+        assertIndexRange(plan);
+        assertFalse(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void minAndMaxPricesScanOnlyTheRange() {
+        for (String order : List.of("price ASC, timestamp ASC", "price DESC, timestamp DESC")) {
+            assertIndexRange(explain(RANGE + "ORDER BY " + order + " FETCH FIRST ROW ONLY"));
+        }
+    }
+
+    @Test
+    void uncoveredPartitionsJoinThroughTheIndex() {
+        String plan = explain("""
+                SELECT p.crypto_id, cp.price, cp.timestamp
+                FROM crypto_price_partition p
+                JOIN crypto_price cp
+                  ON cp.crypto_id = p.crypto_id
+                 AND cp.timestamp >= p.partition_start
+                 AND cp.timestamp < p.partition_end
+                WHERE p.crypto_id IN (?)
+                  AND cp.timestamp >= ?
+                  AND cp.timestamp <= ?
+                """);
+
+        String scan = indexCondition(plan, "CRYPTO_PRICE\" \"CP");
+        assertTrue(scan.startsWith("PUBLIC." + INDEX + ":"), plan);
+        assertTrue(scan.contains("CRYPTO_ID = P.CRYPTO_ID"), plan);
+        assertTrue(scan.contains("TIMESTAMP >= ?2"), plan);
+    }
+
+    private String explain(String sql) {
+        Timestamp from = Timestamp.from(START.plus(Duration.ofDays(3)));
+        Timestamp to = Timestamp.from(START.plus(Duration.ofDays(10)));
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, crypto.getId(), from, to);
+    }
+
+    /**
+     * Returns the index and index conditions H2 chose for a table, i.e. the
+     * comment following the table in the plan.
+     */
+    private static String indexCondition(String plan, String table) {
+        int from = plan.indexOf("/*", plan.indexOf("\"PUBLIC\".\"" + table + "\"")) + 2;
+        return plan.substring(from, plan.indexOf("*/", from)).strip();
+    }
+
+    private static void assertIndexRange(String plan) {
+        String scan = indexCondition(plan, "CRYPTO_PRICE");
+        assertTrue(scan.startsWith("PUBLIC." + INDEX + ":"), plan);
+        assertTrue(scan.contains("CRYPTO_ID = ?1"), plan);
+        assertTrue(scan.contains("TIMESTAMP >= ?2"), plan);
+        assertTrue(scan.contains("TIMESTAMP <= ?3"), plan);
+    }
+}
@@ -0,0 +1,173 @@
+package com.xm.crypto_recommendation.repository;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.PriceRangeStats;
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.domain.entity.CryptoPrice;
+import com.xm.crypto_recommendation.domain.entity.CryptoPricePartition;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class PartitionedCryptoPriceRepositoryTest {
+
+    private static final Instant START = Instant.parse("2022-01-01T00:00:00Z");
+    private static final Duration TICK = Duration.ofHours(7);
+    private static final int TICKS = 1_000;
+
+    @Autowired
+    private CryptoRepository cryptoRepository;
+    @Autowired
+    private CryptoPriceRepository cryptoPriceRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Crypto crypto;
+    private List<CryptoPrice> prices;
+
+    @BeforeEach
+    void setUp() {
+        crypto = cryptoRepository.save(new Crypto("BTC"));
+        prices = new ArrayList<>();
+        for (int i = 0; i < TICKS; i++) {
+            // Repeating prices exercise the tie-breaking rules of min and max.
+            BigDecimal price = BigDecimal.valueOf(1_000 + (i * 37L) % 101, 2);
+            prices.add(new CryptoPrice(crypto, START.plus(TICK.multipliedBy(i)), price));
+        }
+        cryptoPriceRepository.saveAllPartitioned(crypto, prices);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void allPartitionsButTheLatestAreSealed() {
+        List<CryptoPricePartition> partitions = entityManager.createQuery(
+                        "SELECT p FROM CryptoPricePartition p ORDER BY p.partitionStart", CryptoPricePartition.class)
+                .getResultList();
+
+        assertEquals(10, partitions.size());
+        assertEquals(TICKS, partitions.stream().mapToLong(CryptoPricePartition::getRowCount).sum());
+        assertTrue(partitions.subList(0, partitions.size() - 1).stream().allMatch(CryptoPricePartition::isSealed));
+        assertFalse(partitions.getLast().isSealed());
+    }
+
+    @Test
+    void rangeStatsMatchFullScan() {
+        Instant last = prices.getLast().getTimestamp();
+        List<Instant[]> ranges = List.of(
+                new Instant[]{START, last},
+                new Instant[]{START.minus(Duration.ofDays(3)), last.plus(Duration.ofDays(3))},
+                new Instant[]{Instant.parse("2022-01-15T00:00:00Z"), Instant.parse("2022-05-20T00:00:00Z")},
+                new Instant[]{Instant.parse("2022-02-01T00:00:00Z"), Instant.parse("2022-04-01T00:00:00Z").minusNanos(1)},
+                new Instant[]{Instant.parse("2022-03-03T00:00:00Z"), Instant.parse("2022-03-04T00:00:00Z")},
+                new Instant[]{Instant.parse("2022-06-30T12:00:00Z"), last}
+        );
+
+        for (Instant[] range : ranges) {
+            assertEquals(bruteForce(range[0], range[1]), cryptoPriceRepository.findRangeStats(crypto, range[0], range[1]));
+        }
+    }
+
+    @Test
+    void rangeStatsAreEmptyWhenNoPricesInRange() {
+        Instant from = Instant.parse("2030-01-01T00:00:00Z");
+        assertEquals(Optional.empty(), cryptoPriceRepository.findRangeStats(crypto, from, from.plus(Duration.ofDays(1))));
+    }
+
+    @Test
+    void batchRangeStatsMatchFullScan() {
+        // ETH stops in March, so its open partition lies inside most ranges.
+        Crypto eth = cryptoRepository.save(new Crypto("ETH"));
+        List<CryptoPrice> ethPrices = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            BigDecimal price = BigDecimal.valueOf(2_000 + (i * 53L) % 97, 1);
+            ethPrices.add(new CryptoPrice(eth, START.plus(TICK.multipliedBy(i)).plusSeconds(1), price));
+        }
+        cryptoPriceRepository.saveAllPartitioned(eth, ethPrices);
+        entityManager.flush();
+        entityManager.clear();
+
+        Instant last = prices.getLast().getTimestamp();
+        List<Instant[]> ranges = List.of(
+                new Instant[]{START, last},
+                new Instant[]{Instant.parse("2022-01-15T00:00:00Z"), Instant.parse("2022-05-20T00:00:00Z")},
+                new Instant[]{Instant.parse("2022-02-01T00:00:00Z"), Instant.parse("2022-04-01T00:00:00Z").minusNanos(1)},
+                new Instant[]{Instant.parse("2022-03-03T00:00:00Z"), Instant.parse("2022-03-04T00:00:00Z")},
+                new Instant[]{Instant.parse("2022-06-30T12:00:00Z"), last}
+        );
+
+        for (Instant[] range : ranges) {
+            Map<Long, PriceRangeStats> stats = cryptoPriceRepository.findAllRangeStats(List.of(crypto, eth), range[0], range[1]);
+
+            assertEquals(bruteForce(prices, range[0], range[1]), Optional.ofNullable(stats.get(crypto.getId())));
+            assertEquals(bruteForce(ethPrices, range[0], range[1]), Optional.ofNullable(stats.get(eth.getId())));
+        }
+    }
+
+    @Test
+    void priceSeriesMatchesFullScan() {
+        // Late ticks are merged into the existing blocks.
+        List<CryptoPrice> late = List.of(
+                new CryptoPrice(crypto, START.plus(Duration.ofMinutes(90)), new BigDecimal("9.5")),
+                new CryptoPrice(crypto, prices.getLast().getTimestamp().plus(TICK), new BigDecimal("12.25"))
+        );
+        cryptoPriceRepository.saveAllPartitioned(crypto, late);
+        entityManager.flush();
+        entityManager.clear();
+        List<CryptoPrice> all = new ArrayList<>(prices);
+        all.addAll(late);
+        all.sort(Comparator.comparing(CryptoPrice::getTimestamp));
+
+        Instant from = Instant.parse("2022-01-01T01:00:00Z");
+        Instant to = Instant.parse("2022-05-20T00:00:00Z");
+        PriceSeries series = cryptoPriceRepository.findPriceSeries(crypto, from, to);
+
+        List<CryptoPrice> expected = all.stream()
+                .filter(price -> !price.getTimestamp().isBefore(from) && !price.getTimestamp().isAfter(to))
+                .toList();
+        assertEquals(expected.size(), series.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTimestamp().toEpochMilli(), series.timestamp(i));
+            assertEquals(FixedPoint8.of(expected.get(i).getPrice()), series.price(i));
+        }
+    }
+
+    private Optional<PriceRangeStats> bruteForce(Instant from, Instant to) {
+        return bruteForce(prices, from, to);
+    }
+
+    private static Optional<PriceRangeStats> bruteForce(List<CryptoPrice> prices, Instant from, Instant to) {
+        List<CryptoPricePoint> points = prices.stream()
+                .filter(price -> !price.getTimestamp().isBefore(from) && !price.getTimestamp().isAfter(to))
+                .map(price -> new CryptoPricePoint(price.getPrice().setScale(8), price.getTimestamp()))
+                .toList();
+        if (points.isEmpty()) {
+            return Optional.empty();
+        }
+        Comparator<CryptoPricePoint> byPrice = Comparator.comparing(CryptoPricePoint::price);
+        return Optional.of(new PriceRangeStats(
+                points.getFirst(),
+                points.getLast(),
+                points.stream().min(byPrice.thenComparing(CryptoPricePoint::timestamp)).orElseThrow(),
+                points.stream().max(byPrice.thenComparing(CryptoPricePoint::timestamp)).orElseThrow()
+        ));
+    }
+}
@@ -0,0 +1,113 @@
+package com.xm.crypto_recommendation.service;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
+import com.xm.crypto_recommendation.registry.DataVersion;
+import com.xm.crypto_recommendation.shard.ShardCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CoalescingCryptoPriceServiceTest {
+
+    private static final String BTC = "BTC";
+    private static final LocalDate FROM = LocalDate.of(2022, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2022, 1, 31);
+    private static final DataVersion V1 = new DataVersion(BTC, 1, Instant.parse("2023-01-01T00:00:00Z"));
+    private static final DataVersion V2 = new DataVersion(BTC, 2, Instant.parse("2023-01-01T00:05:00Z"));
+
+    private final CryptoPriceService cryptoPriceService = mock(CryptoPriceService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CoalescingCryptoPriceService underTest = new CoalescingCryptoPriceService(
+            cryptoPriceService, mock(CryptoRegistry.class), mock(ShardCoordinator.class), meterRegistry
+    );
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void versionBumpDuringFlightStartsNewComputation() throws Exception {
+        //Given
+        CryptoStats stale = stats(1);
+        CryptoStats fresh = stats(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(cryptoPriceService.getCryptoStats(any(), any(), any(), any()))
+                .willAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return stale;
+                })
+                .willReturn(fresh);
+        Future<CryptoStats> inFlight = executor.submit(() -> underTest.getCryptoStats(BTC, FROM, TO, ZoneOffset.UTC, V1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        //When
+        CryptoStats result = underTest.getCryptoStats(BTC, FROM, TO, ZoneOffset.UTC, V2);
+        //Then
+        assertSame(fresh, result);
+        assertFalse(inFlight.isDone());
+        release.countDown();
+        assertSame(stale, inFlight.get(5, TimeUnit.SECONDS));
+        verify(cryptoPriceService, times(2)).getCryptoStats(BTC, FROM, TO, ZoneOffset.UTC);
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    void sameVersionJoinsFlightInProgress() throws Exception {
+        //Given
+        CryptoStats expected = stats(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(cryptoPriceService.getCryptoStats(any(), any(), any(), any()))
+                .willAnswer(invocation -> {
+                    release.await();
+                    return expected;
+                });
+        Future<CryptoStats> first = executor.submit(() -> underTest.getCryptoStats(BTC, FROM, TO, ZoneOffset.UTC, V1));
+        Future<CryptoStats> second = executor.submit(() -> underTest.getCryptoStats(BTC, FROM, TO, ZoneOffset.UTC, V1));
+        //When
+        awaitCoalesced();
+        release.countDown();
+        //Then
+        assertSame(expected, first.get(5, TimeUnit.SECONDS));
+        assertSame(expected, second.get(5, TimeUnit.SECONDS));
+        verify(cryptoPriceService).getCryptoStats(BTC, FROM, TO, ZoneOffset.UTC);
+    }
+
+    private void awaitCoalesced() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("coalesced") < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter(SingleFlight.METER_NAME, "query", "stats", "result", result).count();
+    }
+
+    private static CryptoStats stats(int marker) {
+        return new CryptoStats(BTC + marker, null, null, null, null);
+    }
+}
@@ -0,0 +1,65 @@
+package com.xm.crypto_recommendation.service;
+
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.entity.CryptoPrice;
+import com.xm.crypto_recommendation.domain.entity.CryptoPricePartition;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies via Hibernate statistics that the service read path projects
+ * into DTOs and resolves symbols in memory instead of loading entities.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class CryptoPriceServiceStatisticsTest {
+
+    @Autowired
+    private CryptoPriceService cryptoPriceService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getCryptoStatsLoadsNoEntities() {
+        cryptoPriceService.getCryptoStats("btc", null, null, ZoneOffset.UTC);
+
+        assertNoPriceEntitiesLoaded();
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void rankingLoadsNoEntities() {
+        cryptoPriceService.getCryptoRanking(List.of(RankingMetric.NORMALIZED_RANGE), null, null, ZoneOffset.UTC);
+        cryptoPriceService.getCryptoRanking(List.of(RankingMetric.VOLATILITY, RankingMetric.MAX_DRAWDOWN), null, null, ZoneOffset.UTC);
+        cryptoPriceService.getTopCryptoForDay(List.of(RankingMetric.NORMALIZED_RANGE), LocalDate.of(2022, 1, 1), ZoneOffset.UTC);
+
+        assertNoPriceEntitiesLoaded();
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private void assertNoPriceEntitiesLoaded() {
+        assertEquals(0, statistics.getEntityStatistics(CryptoPrice.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(CryptoPricePartition.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+}
@@ -1,57 +1,85 @@
 package com.xm.crypto_recommendation.service;
 
-import com.xm.crypto_recommendation.domain.dto.CryptoNormalizedRange;
 import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
 import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.CryptoStatsBatchItem;
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+import com.xm.crypto_recommendation.domain.dto.DailyLeaderboard;
+import com.xm.crypto_recommendation.domain.dto.PriceRangeStats;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.dto.RollingNormalizedRangePoint;
 import com.xm.crypto_recommendation.domain.entity.Crypto;
-import com.xm.crypto_recommendation.domain.entity.CryptoPrice;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import com.xm.crypto_recommendation.exception.ApiError;
+import com.xm.crypto_recommendation.exception.DataLoadingException;
 import com.xm.crypto_recommendation.exception.NoDataException;
 import com.xm.crypto_recommendation.exception.UnsupportedCryptoException;
+import com.xm.crypto_recommendation.ingestion.IngestionProgress;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
 import com.xm.crypto_recommendation.repository.CryptoPriceRepository;
-import com.xm.crypto_recommendation.repository.CryptoRepository;
+import com.xm.crypto_recommendation.store.DailyLeaderboardIndex;
+import com.xm.crypto_recommendation.store.OffHeapPriceStore;
+import com.xm.crypto_recommendation.store.PriceSummaryIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class CryptoPriceServiceTest {
 
     private static final String BTC = "BTC";
-    private static final Pageable LIMIT_ONE = PageRequest.of(0, 1);
     private static final LocalDate DEFAULT_FROM_DATE = LocalDate.of(2023, 1, 1);
     private static final LocalDate DEFAULT_TO_DATE = DEFAULT_FROM_DATE.plusDays(31);
     private static final Instant DEFAULT_FROM = DEFAULT_FROM_DATE.atStartOfDay().toInstant(java.time.ZoneOffset.UTC);
     private static final Instant DEFAULT_TO = DEFAULT_TO_DATE.plusDays(1).atStartOfDay().toInstant(java.time.ZoneOffset.UTC).minusNanos(1);
     private static final Crypto DEFAULT_CRYPTO = new Crypto(BTC);
+    private static final List<RankingMetric> NORMALIZED_RANGE = List.of(RankingMetric.NORMALIZED_RANGE);
     private static final BigDecimal DEFAULT_PRICE = BigDecimal.valueOf(123.456);
-    private static final CryptoPrice DEFAULT_CRYPTO_PRICE = new CryptoPrice(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_PRICE);
+    private static final CryptoPricePoint DEFAULT_PRICE_POINT = new CryptoPricePoint(DEFAULT_PRICE, DEFAULT_FROM);
+    private static final PriceRangeStats DEFAULT_RANGE_STATS =
+            new PriceRangeStats(DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT);
 
-    @Mock
-    private CryptoRepository cryptoRepository;
+    @Spy
+    private CryptoRegistry cryptoRegistry = new CryptoRegistry();
     @Mock
     private CryptoPriceRepository cryptoPriceRepository;
+    @Spy
+    private IngestionProgress ingestionProgress = new IngestionProgress();
+    @Mock
+    private OffHeapPriceStore offHeapPriceStore;
+    @Mock
+    private PriceSummaryIndex priceSummaryIndex;
+    @Spy
+    private DailyLeaderboardIndex dailyLeaderboardIndex = new DailyLeaderboardIndex(5);
 
     @InjectMocks
     private CryptoPriceService underTest;
@@ -60,57 +88,75 @@ class CryptoPriceServiceTest {
     @MethodSource("symbolNormalizationProvider")
     void testSymbolNormalization(String symbol) {
         // Given
-        given(cryptoRepository.findBySymbol(BTC)).willReturn(Optional.of(DEFAULT_CRYPTO));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
         mockPriceRepositoryWithDefaults();
         // When
-        underTest.getCryptoStats(symbol, DEFAULT_FROM_DATE, DEFAULT_TO_DATE);
+        underTest.getCryptoStats(symbol, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
         // Then
-        verify(cryptoRepository).findBySymbol(BTC);
+        verify(cryptoPriceRepository).findRangeStats(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO);
     }
 
     @Test
     void testGetCryptoStats() {
         // Given
-        given(cryptoRepository.findBySymbol(BTC)).willReturn(Optional.of(DEFAULT_CRYPTO));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
         mockPriceRepositoryWithDefaults();
-        CryptoPricePoint expectedPricePoint = new CryptoPricePoint(DEFAULT_PRICE, DEFAULT_FROM);
-        CryptoStats expectedStats = new CryptoStats(BTC, expectedPricePoint, expectedPricePoint, expectedPricePoint, expectedPricePoint);
+        CryptoStats expectedStats = new CryptoStats(BTC, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT);
         // When
-        CryptoStats cryptoStats = underTest.getCryptoStats(BTC, DEFAULT_FROM_DATE, DEFAULT_TO_DATE);
+        CryptoStats cryptoStats = underTest.getCryptoStats(BTC, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
         // Then
-        verify(cryptoPriceRepository).findPricesInRangeOrderedByPriceDesc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE);
-        verify(cryptoPriceRepository).findPricesInRangeOrderedByPriceAsc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE);
-        verify(cryptoPriceRepository).findPricesInRangeOrderedByTimestampDesc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE);
-        verify(cryptoPriceRepository).findPricesInRangeOrderedByTimestampAsc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE);
+        verify(cryptoPriceRepository).findRangeStats(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO);
         assertEquals(expectedStats, cryptoStats);
     }
 
+    @Test
+    void testGetCryptoStatsInZone() {
+        // Given
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
+        given(cryptoPriceRepository.findRangeStats(eq(DEFAULT_CRYPTO), any(), any())).willReturn(Optional.of(DEFAULT_RANGE_STATS));
+        // When
+        underTest.getCryptoStats(BTC, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneId.of("Asia/Singapore"));
+        // Then
+        verify(cryptoPriceRepository).findRangeStats(DEFAULT_CRYPTO, DEFAULT_FROM.minus(Duration.ofHours(8)), DEFAULT_TO.minus(Duration.ofHours(8)));
+    }
+
     @Test
     void testGetCryptoStatsWhenFromAndToIsNull() {
         // Given
-        given(cryptoRepository.findBySymbol(BTC)).willReturn(Optional.of(DEFAULT_CRYPTO));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
         mockPriceRepositoryWithDefaults();
         given(cryptoPriceRepository.findMaxTimestamp(DEFAULT_CRYPTO)).willReturn(DEFAULT_TO);
         given(cryptoPriceRepository.findMinTimestamp(DEFAULT_CRYPTO)).willReturn(DEFAULT_FROM);
-        CryptoPricePoint expectedPricePoint = new CryptoPricePoint(DEFAULT_PRICE, DEFAULT_FROM);
-        CryptoStats expectedStats = new CryptoStats(BTC, expectedPricePoint, expectedPricePoint, expectedPricePoint, expectedPricePoint);
+        CryptoStats expectedStats = new CryptoStats(BTC, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT);
+        // When
+        CryptoStats cryptoStats = underTest.getCryptoStats(BTC, null, null, ZoneOffset.UTC);
+        // Then
+        verify(cryptoPriceRepository).findRangeStats(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO);
+        assertEquals(expectedStats, cryptoStats);
+    }
+
+    @Test
+    void testGetCryptoStatsFromOffHeapStore() {
+        // Given
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
+        given(offHeapPriceStore.contains(BTC)).willReturn(true);
+        given(offHeapPriceStore.findMinTimestamp(BTC)).willReturn(Optional.of(DEFAULT_FROM));
+        given(offHeapPriceStore.findRangeStats(BTC, DEFAULT_FROM, DEFAULT_TO)).willReturn(Optional.of(DEFAULT_RANGE_STATS));
+        CryptoStats expectedStats = new CryptoStats(BTC, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT);
         // When
-        CryptoStats cryptoStats = underTest.getCryptoStats(BTC, null, null);
+        CryptoStats cryptoStats = underTest.getCryptoStats(BTC, null, DEFAULT_TO_DATE, ZoneOffset.UTC);
         // Then
-        verify(cryptoPriceRepository).findPricesInRangeOrderedByPriceDesc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE);
-        verify(cryptoPriceRepository).findPricesInRangeOrderedByPriceAsc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE);
-        verify(cryptoPriceRepository).findPricesInRangeOrderedByTimestampDesc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE);
-        verify(cryptoPriceRepository).findPricesInRangeOrderedByTimestampAsc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE);
         assertEquals(expectedStats, cryptoStats);
+        verifyNoInteractions(cryptoPriceRepository);
     }
 
     @Test
     void testGetCryptoStatsWhenCryptoNotFound() {
         // Given
-        given(cryptoRepository.findBySymbol(BTC)).willReturn(Optional.empty());
+        cryptoRegistry.register(List.of(new Crypto("ETH")));
         // When / Then
         assertThrows(UnsupportedCryptoException.class, () ->
-                underTest.getCryptoStats(BTC, DEFAULT_FROM_DATE, DEFAULT_TO_DATE));
+                underTest.getCryptoStats(BTC, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC));
     }
 
     @Test
@@ -118,164 +164,410 @@ class CryptoPriceServiceTest {
         // Given
         LocalDate fromDate = LocalDate.of(2023, 2, 1);
         LocalDate toDate = LocalDate.of(2023, 1, 1);
-        given(cryptoRepository.findBySymbol(BTC)).willReturn(Optional.of(DEFAULT_CRYPTO));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
         // When / Then
         assertThrows(IllegalArgumentException.class, () ->
-                underTest.getCryptoStats(BTC, fromDate, toDate));
+                underTest.getCryptoStats(BTC, fromDate, toDate, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testGetCryptoSummary() {
+        // Given
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
+        CryptoSummary summary = new CryptoSummary(BTC, DEFAULT_FROM, DEFAULT_FROM, 1, 1, 0, 0, 1);
+        given(priceSummaryIndex.findSummary(BTC, DEFAULT_FROM, DEFAULT_TO)).willReturn(Optional.of(summary));
+        // When
+        CryptoSummary result = underTest.getCryptoSummary("btc", DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
+        // Then
+        assertEquals(summary, result);
+        verifyNoInteractions(cryptoPriceRepository);
+    }
+
+    @Test
+    void testGetCryptoSummaryWhenUnbounded() {
+        // Given
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
+        // When / Then
+        assertThrows(NoDataException.class, () -> underTest.getCryptoSummary(BTC, null, null, ZoneOffset.UTC));
+        verify(priceSummaryIndex).findSummary(BTC, Instant.ofEpochMilli(Long.MIN_VALUE), Instant.ofEpochMilli(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> underTest.getCryptoSummary(BTC, DEFAULT_TO_DATE, DEFAULT_FROM_DATE, ZoneOffset.UTC));
     }
 
     @Test
     void testGetCryptoStatsWhenNoPricesInRange() {
         // Given
-        given(cryptoRepository.findBySymbol(BTC)).willReturn(Optional.of(DEFAULT_CRYPTO));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
         // When / Then
-        assertThrows(NoDataException.class, () -> underTest.getCryptoStats(BTC, DEFAULT_FROM_DATE, DEFAULT_TO_DATE));
+        assertThrows(NoDataException.class, () -> underTest.getCryptoStats(BTC, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC));
     }
 
     @Test
     void testGetCryptosByNormalizedRange() {
         // Given
         Crypto crypto = new Crypto("ETH");
-        given(cryptoRepository.findAll()).willReturn(List.of(DEFAULT_CRYPTO, crypto));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO, crypto));
         BigDecimal btcMax = BigDecimal.valueOf(200.0);
         BigDecimal btcMin = BigDecimal.valueOf(100.0);
         BigDecimal ethMax = BigDecimal.valueOf(654.321);
         BigDecimal ethMin = BigDecimal.valueOf(123.456);
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(DEFAULT_CRYPTO, DEFAULT_FROM, btcMax)));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(DEFAULT_CRYPTO, DEFAULT_FROM, btcMin)));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(crypto, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(crypto, DEFAULT_FROM, ethMax)));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(crypto, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(crypto, DEFAULT_FROM, ethMin)));
+        given(cryptoPriceRepository.findRangeStats(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(Optional.of(rangeStats(btcMin, btcMax)));
+        given(cryptoPriceRepository.findRangeStats(crypto, DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(Optional.of(rangeStats(ethMin, ethMax)));
         // When
-        List<CryptoNormalizedRange> cryptosByNormalizedRange = underTest.getCryptosByNormalizedRange(DEFAULT_FROM_DATE, DEFAULT_TO_DATE);
+        List<CryptoRanking> cryptosByNormalizedRange = underTest.getCryptoRanking(NORMALIZED_RANGE, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
         // Then
-        verify(cryptoRepository).findAll();
+        verify(cryptoRegistry).findAll();
         assertEquals(2, cryptosByNormalizedRange.size());
         assertEquals("ETH", cryptosByNormalizedRange.get(0).symbol());
         assertEquals("BTC", cryptosByNormalizedRange.get(1).symbol());
-        assertEquals(ethMax.subtract(ethMin).divide(ethMin, 8, RoundingMode.HALF_UP), cryptosByNormalizedRange.get(0).normalizedRange());
-        assertEquals(btcMax.subtract(btcMin).divide(btcMin, 8, RoundingMode.HALF_UP), cryptosByNormalizedRange.get(1).normalizedRange());
+        assertEquals(ethMax.subtract(ethMin).divide(ethMin, 8, RoundingMode.HALF_UP), FixedPoint8.toBigDecimal(cryptosByNormalizedRange.get(0).values().normalizedRange()));
+        assertEquals(btcMax.subtract(btcMin).divide(btcMin, 8, RoundingMode.HALF_UP), FixedPoint8.toBigDecimal(cryptosByNormalizedRange.get(1).values().normalizedRange()));
     }
 
     @Test
     void testGetCryptosByNormalizedRangeWhenToAndFromIsNull() {
         // Given
         Crypto crypto = new Crypto("ETH");
-        given(cryptoRepository.findAll()).willReturn(List.of(DEFAULT_CRYPTO, crypto));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO, crypto));
         given(cryptoPriceRepository.findMaxTimestamp(any())).willReturn(DEFAULT_TO);
         given(cryptoPriceRepository.findMinTimestamp(any())).willReturn(DEFAULT_FROM);
         // When
-        List<CryptoNormalizedRange> cryptosByNormalizedRange = underTest.getCryptosByNormalizedRange(null, null);
+        List<CryptoRanking> cryptosByNormalizedRange = underTest.getCryptoRanking(NORMALIZED_RANGE, null, null, ZoneOffset.UTC);
         // Then
-        verify(cryptoRepository).findAll();
+        verify(cryptoRegistry).findAll();
         verify(cryptoPriceRepository, times(2)).findMinTimestamp(any());
         verify(cryptoPriceRepository, times(2)).findMaxTimestamp(any());
-        verify(cryptoPriceRepository, times(2)).findPricesInRangeOrderedByPriceAsc(any(), eq(DEFAULT_FROM), eq(DEFAULT_TO), eq(LIMIT_ONE));
-        verify(cryptoPriceRepository, times(2)).findPricesInRangeOrderedByPriceDesc(any(), eq(DEFAULT_FROM), eq(DEFAULT_TO), eq(LIMIT_ONE));
+        verify(cryptoPriceRepository, times(2)).findRangeStats(any(), eq(DEFAULT_FROM), eq(DEFAULT_TO));
     }
 
     @Test
     void testGetCryptosByNormalizedRangeWhenOneMinIsZero() {
         // Given
         Crypto crypto = new Crypto("ETH");
-        given(cryptoRepository.findAll()).willReturn(List.of(DEFAULT_CRYPTO, crypto));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO, crypto));
         BigDecimal btcMax = BigDecimal.valueOf(200.0);
         BigDecimal btcMin = BigDecimal.valueOf(100.0);
         BigDecimal ethMax = BigDecimal.valueOf(654.321);
         BigDecimal ethMin = BigDecimal.valueOf(0);
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(DEFAULT_CRYPTO, DEFAULT_FROM, btcMax)));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(DEFAULT_CRYPTO, DEFAULT_FROM, btcMin)));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(crypto, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(crypto, DEFAULT_FROM, ethMax)));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(crypto, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(crypto, DEFAULT_FROM, ethMin)));
+        given(cryptoPriceRepository.findRangeStats(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(Optional.of(rangeStats(btcMin, btcMax)));
+        given(cryptoPriceRepository.findRangeStats(crypto, DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(Optional.of(rangeStats(ethMin, ethMax)));
         // When
-        List<CryptoNormalizedRange> cryptosByNormalizedRange = underTest.getCryptosByNormalizedRange(DEFAULT_FROM_DATE, DEFAULT_TO_DATE);
+        List<CryptoRanking> cryptosByNormalizedRange = underTest.getCryptoRanking(NORMALIZED_RANGE, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
         // Then
-        verify(cryptoRepository).findAll();
+        verify(cryptoRegistry).findAll();
         assertEquals(1, cryptosByNormalizedRange.size());
         assertEquals("BTC", cryptosByNormalizedRange.get(0).symbol());
-        assertEquals(btcMax.subtract(btcMin).divide(btcMin, 8, RoundingMode.HALF_UP), cryptosByNormalizedRange.get(0).normalizedRange());
+        assertEquals(btcMax.subtract(btcMin).divide(btcMin, 8, RoundingMode.HALF_UP), FixedPoint8.toBigDecimal(cryptosByNormalizedRange.get(0).values().normalizedRange()));
     }
 
     @Test
     void testGetCryptosByNormalizedRangeWhenOneMinAndMaxIsNull() {
         // Given
         Crypto crypto = new Crypto("ETH");
-        given(cryptoRepository.findAll()).willReturn(List.of(DEFAULT_CRYPTO, crypto));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO, crypto));
         BigDecimal ethMax = BigDecimal.valueOf(654.321);
         BigDecimal ethMin = BigDecimal.valueOf(123.456);
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(Collections.emptyList());
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(Collections.emptyList());
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(crypto, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(crypto, DEFAULT_FROM, ethMax)));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(crypto, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE))
-                .willReturn(List.of(new CryptoPrice(crypto, DEFAULT_FROM, ethMin)));
+        given(cryptoPriceRepository.findRangeStats(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(Optional.empty());
+        given(cryptoPriceRepository.findRangeStats(crypto, DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(Optional.of(rangeStats(ethMin, ethMax)));
         // When
-        List<CryptoNormalizedRange> cryptosByNormalizedRange = underTest.getCryptosByNormalizedRange(DEFAULT_FROM_DATE, DEFAULT_TO_DATE);
+        List<CryptoRanking> cryptosByNormalizedRange = underTest.getCryptoRanking(NORMALIZED_RANGE, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
         // Then
-        verify(cryptoRepository).findAll();
+        verify(cryptoRegistry).findAll();
         assertEquals(1, cryptosByNormalizedRange.size());
         assertEquals("ETH", cryptosByNormalizedRange.get(0).symbol());
-        assertEquals(ethMax.subtract(ethMin).divide(ethMin, 8, RoundingMode.HALF_UP), cryptosByNormalizedRange.get(0).normalizedRange());
+        assertEquals(ethMax.subtract(ethMin).divide(ethMin, 8, RoundingMode.HALF_UP), FixedPoint8.toBigDecimal(cryptosByNormalizedRange.get(0).values().normalizedRange()));
     }
 
     @Test
     void testGetHighestNormalizedRangeForDay() {
         // Given
         Crypto crypto = new Crypto("ETH");
-        given(cryptoRepository.findAll()).willReturn(List.of(DEFAULT_CRYPTO, crypto));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(eq(DEFAULT_CRYPTO), any(), any(), any())).willReturn(List.of(
-                new CryptoPrice(DEFAULT_CRYPTO, DEFAULT_FROM, BigDecimal.valueOf(400))
-        ));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(eq(DEFAULT_CRYPTO), any(), any(), any())).willReturn(List.of(
-                new CryptoPrice(DEFAULT_CRYPTO, DEFAULT_FROM, BigDecimal.valueOf(200))
-        ));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(eq(crypto), any(), any(), any())).willReturn(List.of(
-                new CryptoPrice(crypto, DEFAULT_FROM, BigDecimal.valueOf(300))
-        ));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(eq(crypto), any(), any(), any())).willReturn(List.of(
-                new CryptoPrice(crypto, DEFAULT_FROM, BigDecimal.valueOf(100))
-        ));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO, crypto));
+        dailyLeaderboardIndex.append(BTC, series(200, 400), () -> series(200, 400));
+        dailyLeaderboardIndex.append("ETH", series(100, 300), () -> series(100, 300));
         // When
-        CryptoNormalizedRange highestNormalizedRange = underTest.getHighestNormalizedRangeForDay(DEFAULT_FROM_DATE);
+        CryptoRanking highestNormalizedRange = underTest.getTopCryptoForDay(NORMALIZED_RANGE, DEFAULT_FROM_DATE, ZoneOffset.UTC);
         // Then
+        verify(cryptoPriceRepository, times(0)).findRangeStats(any(), any(), any());
         assertEquals("ETH", highestNormalizedRange.symbol());
         BigDecimal expectedNormalizedRange = BigDecimal.valueOf(300 - 100)
                 .divide(BigDecimal.valueOf(100), 8, RoundingMode.HALF_UP);
-        assertEquals(expectedNormalizedRange, highestNormalizedRange.normalizedRange());
+        assertEquals(expectedNormalizedRange, FixedPoint8.toBigDecimal(highestNormalizedRange.values().normalizedRange()));
+
+    }
+
+    @Test
+    void testGetDailyLeaderboards() {
+        // Given
+        dailyLeaderboardIndex.append(BTC, series(200, 400), () -> series(200, 400));
+        dailyLeaderboardIndex.append("ETH", series(100, 300), () -> series(100, 300));
+        // When
+        List<DailyLeaderboard> leaderboards = underTest.getDailyLeaderboards(DEFAULT_FROM_DATE, DEFAULT_TO_DATE, 2, ZoneOffset.UTC);
+        // Then
+        assertEquals(1, leaderboards.size());
+        assertEquals(DEFAULT_FROM_DATE, leaderboards.get(0).date());
+        assertEquals(List.of("ETH", BTC), leaderboards.get(0).leaders().stream().map(CryptoRanking::symbol).toList());
+        assertEquals(List.of("ETH"), underTest.getDailyLeaderboards(DEFAULT_FROM_DATE, DEFAULT_FROM_DATE, 1, ZoneOffset.UTC).get(0)
+                .leaders().stream().map(CryptoRanking::symbol).toList());
+        assertTrue(underTest.getDailyLeaderboards(DEFAULT_TO_DATE, DEFAULT_TO_DATE, 1, ZoneOffset.UTC).isEmpty());
+    }
+
+    @Test
+    void testGetHighestNormalizedRangeForDayInZoneWithoutLeaderboards() {
+        // Given
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
+        given(cryptoPriceRepository.findRangeStats(eq(DEFAULT_CRYPTO), any(), any()))
+                .willReturn(Optional.of(rangeStats(BigDecimal.valueOf(200), BigDecimal.valueOf(400))));
+        ZoneId singapore = ZoneId.of("Asia/Singapore");
+        // When
+        CryptoRanking top = underTest.getTopCryptoForDay(NORMALIZED_RANGE, DEFAULT_FROM_DATE, singapore);
+        // Then
+        verify(cryptoPriceRepository).findRangeStats(DEFAULT_CRYPTO, DEFAULT_FROM.minus(Duration.ofHours(8)),
+                DEFAULT_FROM.plus(Duration.ofHours(16)).minusNanos(1));
+        assertEquals(BTC, top.symbol());
+        assertThrows(IllegalArgumentException.class, () ->
+                underTest.getDailyLeaderboards(DEFAULT_FROM_DATE, DEFAULT_FROM_DATE, 1, singapore));
+    }
+
+    @Test
+    void testGetHighestNormalizedRangeForDayBreaksTiesBySymbol() {
+        // Given
+        Crypto crypto = new Crypto("ETH");
+        cryptoRegistry.register(List.of(crypto, DEFAULT_CRYPTO));
+        dailyLeaderboardIndex.append("ETH", series(200, 400), () -> series(200, 400));
+        dailyLeaderboardIndex.append(BTC, series(100, 200), () -> series(100, 200));
+        given(cryptoPriceRepository.findRangeStats(any(), any(), any()))
+                .willReturn(Optional.of(rangeStats(BigDecimal.valueOf(200), BigDecimal.valueOf(400))));
+        // When
+        CryptoRanking indexed = underTest.getTopCryptoForDay(NORMALIZED_RANGE, DEFAULT_FROM_DATE, ZoneOffset.UTC);
+        CryptoRanking computed = underTest.getTopCryptoForDay(NORMALIZED_RANGE, DEFAULT_FROM_DATE, ZoneId.of("Asia/Singapore"));
+        // Then
+        assertEquals(BTC, indexed.symbol());
+        assertEquals(BTC, computed.symbol());
+    }
+
+    @Test
+    void testGetDailyLeaderboardsWithInvalidArguments() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> underTest.getDailyLeaderboards(DEFAULT_TO_DATE, DEFAULT_FROM_DATE, 1, ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class, () -> underTest.getDailyLeaderboards(DEFAULT_FROM_DATE, DEFAULT_TO_DATE, 0, ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class, () -> underTest.getDailyLeaderboards(DEFAULT_FROM_DATE, DEFAULT_TO_DATE, 6, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testGetCryptoRankingByVolatility() {
+        // Given
+        Crypto crypto = new Crypto("ETH");
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO, crypto));
+        given(cryptoPriceRepository.findPriceSeries(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(series(100, 110, 105, 120));
+        given(cryptoPriceRepository.findPriceSeries(crypto, DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(series(100, 150, 75, 90));
+        List<RankingMetric> metrics = List.of(RankingMetric.VOLATILITY, RankingMetric.TOTAL_RETURN, RankingMetric.MAX_DRAWDOWN);
+        // When
+        List<CryptoRanking> ranking = underTest.getCryptoRanking(metrics, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
+        // Then
+        verify(cryptoPriceRepository, times(0)).findRangeStats(any(), any(), any());
+        assertEquals(List.of("ETH", "BTC"), ranking.stream().map(CryptoRanking::symbol).toList());
+        assertEquals(metrics, ranking.get(0).metrics());
+        assertEquals(FixedPoint8.of(new BigDecimal("-0.1")), ranking.get(0).values().totalReturn());
+        assertEquals(FixedPoint8.of(new BigDecimal("0.5")), ranking.get(0).values().maxDrawdown());
+        assertEquals(FixedPoint8.of(new BigDecimal("0.2")), ranking.get(1).values().totalReturn());
+    }
 
+    @Test
+    void testGetTopCryptoForDayByMaxDrawdownSkipsZeroPrices() {
+        // Given
+        Crypto crypto = new Crypto("ETH");
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO, crypto));
+        given(cryptoPriceRepository.findPriceSeries(eq(DEFAULT_CRYPTO), any(), any()))
+                .willReturn(series(100, 0, 100));
+        given(cryptoPriceRepository.findPriceSeries(eq(crypto), any(), any()))
+                .willReturn(series(100, 80, 100));
+        // When
+        CryptoRanking top = underTest.getTopCryptoForDay(List.of(RankingMetric.MAX_DRAWDOWN), DEFAULT_FROM_DATE, ZoneOffset.UTC);
+        // Then
+        assertEquals("ETH", top.symbol());
+        assertEquals(FixedPoint8.of(new BigDecimal("0.2")), top.rankingValue());
     }
 
     @Test
     void testGetHighestNormalizedRangeForDayWhenNoDataIsAvailable() {
         // Given
         Crypto crypto = new Crypto("ETH");
-        given(cryptoRepository.findAll()).willReturn(List.of(DEFAULT_CRYPTO, crypto));
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO, crypto));
 
         // When / Then
-        assertThrows(NoDataException.class, () -> underTest.getHighestNormalizedRangeForDay(DEFAULT_FROM_DATE));
+        assertThrows(NoDataException.class, () -> underTest.getTopCryptoForDay(NORMALIZED_RANGE, DEFAULT_FROM_DATE, ZoneOffset.UTC));
     }
 
     private static String[] symbolNormalizationProvider() {
         return new String[]{"btc", "BtC", "BTC"};
     }
 
+    @Test
+    void testGetCryptoStatsBatch() {
+        // Given
+        Crypto btc = crypto(1L, BTC);
+        Crypto eth = crypto(2L, "ETH");
+        cryptoRegistry.register(List.of(btc, eth));
+        given(cryptoPriceRepository.findAllRangeStats(List.of(btc, eth), DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(Map.of(1L, DEFAULT_RANGE_STATS));
+        CryptoStats btcStats = new CryptoStats(BTC, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT, DEFAULT_PRICE_POINT);
+        // When
+        List<CryptoStatsBatchItem> items = underTest.getCryptoStatsBatch(
+                List.of("btc", "XRP", "ETH", "BTC"), DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
+        // Then
+        verify(cryptoPriceRepository).findAllRangeStats(List.of(btc, eth), DEFAULT_FROM, DEFAULT_TO);
+        assertEquals(List.of(
+                CryptoStatsBatchItem.of("btc", btcStats),
+                CryptoStatsBatchItem.failed("XRP", new ApiError("UNSUPPORTED_CRYPTO", "XRP")),
+                CryptoStatsBatchItem.failed("ETH", new ApiError("NO_DATA", "ETH")),
+                CryptoStatsBatchItem.of("BTC", btcStats)
+        ), items);
+    }
+
+    @Test
+    void testGetCryptoStatsBatchWhenFromAndToIsNull() {
+        // Given
+        Crypto btc = crypto(1L, BTC);
+        cryptoRegistry.register(List.of(btc));
+        given(cryptoPriceRepository.findMinTimestampAcross(List.of(btc))).willReturn(DEFAULT_FROM);
+        given(cryptoPriceRepository.findMaxTimestampAcross(List.of(btc))).willReturn(DEFAULT_TO);
+        // When
+        underTest.getCryptoStatsBatch(List.of(BTC), null, null, ZoneOffset.UTC);
+        // Then
+        verify(cryptoPriceRepository).findAllRangeStats(List.of(btc), DEFAULT_FROM, DEFAULT_TO);
+    }
+
+    @Test
+    void testGetCryptoStatsBatchWhenAllSymbolsAreUnsupported() {
+        // When
+        List<CryptoStatsBatchItem> items = underTest.getCryptoStatsBatch(List.of("xrp"), null, null, ZoneOffset.UTC);
+        // Then
+        verifyNoInteractions(cryptoPriceRepository);
+        assertEquals(List.of(CryptoStatsBatchItem.failed("xrp", new ApiError("UNSUPPORTED_CRYPTO", "XRP"))), items);
+    }
+
+    @Test
+    void testGetCryptoStatsBatchWhenBatchSizeIsInvalid() {
+        List<String> tooMany = Collections.nCopies(CryptoPriceService.MAX_BATCH_SIZE + 1, BTC);
+        assertThrows(IllegalArgumentException.class, () -> underTest.getCryptoStatsBatch(List.of(), null, null, ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class, () -> underTest.getCryptoStatsBatch(null, null, null, ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class, () -> underTest.getCryptoStatsBatch(tooMany, null, null, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testGetCryptoStatsBatchWhenInvalidTimeRange() {
+        // Given
+        cryptoRegistry.register(List.of(crypto(1L, BTC)));
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () ->
+                underTest.getCryptoStatsBatch(List.of(BTC), DEFAULT_TO_DATE, DEFAULT_FROM_DATE, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testGetRollingNormalizedRange() {
+        // Given
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
+        Instant start = DEFAULT_FROM;
+        PriceSeries prices = new PriceSeries();
+        prices.add(start.plus(Duration.ofHours(1)).toEpochMilli(), 100 * FixedPoint8.ONE);
+        prices.add(start.plus(Duration.ofHours(30)).toEpochMilli(), 150 * FixedPoint8.ONE);
+        // Day 3 has no prices.
+        prices.add(start.plus(Duration.ofHours(80)).toEpochMilli(), 120 * FixedPoint8.ONE);
+        given(cryptoPriceRepository.findPriceSeries(DEFAULT_CRYPTO, start, start.plus(Duration.ofDays(4)).minusNanos(1)))
+                .willReturn(prices);
+        // When
+        List<RollingNormalizedRangePoint> series = underTest.getRollingNormalizedRange(
+                "btc", Duration.ofDays(2), Duration.ofDays(1), DEFAULT_FROM_DATE, DEFAULT_FROM_DATE.plusDays(3), ZoneOffset.UTC);
+        // Then
+        assertEquals(List.of(
+                new RollingNormalizedRangePoint(start, start.plus(Duration.ofDays(2)), FixedPoint8.of(new BigDecimal("0.5"))),
+                new RollingNormalizedRangePoint(start.plus(Duration.ofDays(1)), start.plus(Duration.ofDays(3)), 0),
+                new RollingNormalizedRangePoint(start.plus(Duration.ofDays(2)), start.plus(Duration.ofDays(4)), 0)
+        ), series);
+    }
+
+    @Test
+    void testGetRollingNormalizedRangeWhenWindowExceedsRange() {
+        // Given
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
+        // When
+        List<RollingNormalizedRangePoint> series = underTest.getRollingNormalizedRange(
+                BTC, Duration.ofDays(40), Duration.ofDays(1), DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
+        // Then
+        assertEquals(List.of(), series);
+        verifyNoInteractions(cryptoPriceRepository);
+    }
+
+    @Test
+    void testGetRollingNormalizedRangeWhenInvalidArguments() {
+        // Given
+        cryptoRegistry.register(List.of(DEFAULT_CRYPTO));
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> underTest.getRollingNormalizedRange(
+                BTC, Duration.ZERO, Duration.ofDays(1), DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class, () -> underTest.getRollingNormalizedRange(
+                BTC, Duration.ofDays(1), Duration.ofSeconds(1), DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class, () -> underTest.getRollingNormalizedRange(
+                BTC, Duration.ofDays(1), Duration.ofDays(1), DEFAULT_TO_DATE, DEFAULT_FROM_DATE, ZoneOffset.UTC));
+        assertThrows(UnsupportedCryptoException.class, () -> underTest.getRollingNormalizedRange(
+                "XRP", Duration.ofDays(1), Duration.ofDays(1), DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testQueriesWhileIngestionIsRunning() {
+        // Given
+        Crypto btc = crypto(1L, BTC);
+        cryptoRegistry.register(List.of(btc));
+        ingestionProgress.start(Map.of(BTC, 100L, "ETH", 100L));
+        ingestionProgress.loaded(BTC, 10, 100);
+        given(cryptoPriceRepository.findRangeStats(btc, DEFAULT_FROM, DEFAULT_TO)).willReturn(Optional.of(DEFAULT_RANGE_STATS));
+        // When / Then
+        underTest.getCryptoStats(BTC, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC);
+        DataLoadingException loading = assertThrows(DataLoadingException.class, () ->
+                underTest.getCryptoStats("eth", DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC));
+        assertEquals("ETH is still being loaded", loading.getMessage());
+        assertThrows(UnsupportedCryptoException.class, () ->
+                underTest.getCryptoStats("XRP", DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC));
+        assertThrows(DataLoadingException.class, () ->
+                underTest.getCryptoRanking(NORMALIZED_RANGE, DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC));
+        assertThrows(DataLoadingException.class, () ->
+                underTest.getTopCryptoForDay(NORMALIZED_RANGE, DEFAULT_FROM_DATE, ZoneOffset.UTC));
+        assertEquals(
+                List.of(CryptoStatsBatchItem.failed("eth", new ApiError("DATA_LOADING", "ETH"))),
+                underTest.getCryptoStatsBatch(List.of("eth"), DEFAULT_FROM_DATE, DEFAULT_TO_DATE, ZoneOffset.UTC)
+        );
+    }
+
+    private static Crypto crypto(Long id, String symbol) {
+        Crypto crypto = new Crypto(symbol);
+        crypto.setId(id);
+        return crypto;
+    }
+
     private void mockPriceRepositoryWithDefaults() {
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceDesc(
-                DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE)).willReturn(List.of(DEFAULT_CRYPTO_PRICE));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByPriceAsc(
-                DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE)).willReturn(List.of(DEFAULT_CRYPTO_PRICE));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByTimestampDesc(
-                DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE)).willReturn(List.of(DEFAULT_CRYPTO_PRICE));
-        given(cryptoPriceRepository.findPricesInRangeOrderedByTimestampAsc(
-                DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO, LIMIT_ONE)).willReturn(List.of(DEFAULT_CRYPTO_PRICE));
+        given(cryptoPriceRepository.findRangeStats(DEFAULT_CRYPTO, DEFAULT_FROM, DEFAULT_TO))
+                .willReturn(Optional.of(DEFAULT_RANGE_STATS));
+    }
+
+    private static PriceSeries series(long... prices) {
+        PriceSeries series = new PriceSeries();
+        for (int i = 0; i < prices.length; i++) {
+            series.add(DEFAULT_FROM.plus(Duration.ofHours(i)).toEpochMilli(), prices[i] * FixedPoint8.ONE);
+        }
+        return series;
+    }
+
+    private static PriceRangeStats rangeStats(BigDecimal min, BigDecimal max) {
+        CryptoPricePoint minPoint = new CryptoPricePoint(min, DEFAULT_FROM);
+        CryptoPricePoint maxPoint = new CryptoPricePoint(max, DEFAULT_FROM);
+        return new PriceRangeStats(minPoint, maxPoint, minPoint, maxPoint);
     }
 }
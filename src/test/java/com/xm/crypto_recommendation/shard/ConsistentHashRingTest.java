@@ -0,0 +1,57 @@
+package com.xm.crypto_recommendation.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> SYMBOLS = IntStream.range(0, 10_000).mapToObj(i -> "SYM" + i).toList();
+
+    @Test
+    void symbolsAreSpreadEvenly() {
+        ConsistentHashRing underTest = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        SYMBOLS.forEach(symbol -> counts.merge(underTest.ownerOf(symbol), 1, Integer::sum));
+
+        assertEquals(3, counts.size());
+        counts.forEach((node, count) -> assertTrue(count > 2_500 && count < 4_200, node + ": " + count));
+    }
+
+    @Test
+    void addingANodeOnlyMovesSymbolsToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+
+        long moved = SYMBOLS.stream()
+                .filter(symbol -> !before.ownerOf(symbol).equals(after.ownerOf(symbol)))
+                .peek(symbol -> assertEquals("d", after.ownerOf(symbol), symbol))
+                .count();
+        assertTrue(moved > 1_800 && moved < 3_200, "moved: " + moved);
+    }
+
+    @Test
+    void assignmentIsStableAndCaseInsensitive() {
+        ConsistentHashRing underTest = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        // Node order does not matter either.
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("c", "a", "b"), 128);
+
+        SYMBOLS.forEach(symbol -> assertEquals(underTest.ownerOf(symbol), reordered.ownerOf(symbol.toLowerCase())));
+        assertEquals("a", new ConsistentHashRing(List.of("a"), 1).ownerOf("BTC"));
+    }
+
+    @Test
+    void invalidNodesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 128));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a", "a"), 128));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a"), 0));
+    }
+}
@@ -0,0 +1,151 @@
+package com.xm.crypto_recommendation.shard;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.PriceMetrics;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.exception.ShardUnavailableException;
+import com.xm.crypto_recommendation.service.CryptoPriceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ShardCoordinatorTest {
+
+    private static final List<String> NODES = List.of("a", "b", "c");
+    private static final List<RankingMetric> METRICS = List.of(RankingMetric.NORMALIZED_RANGE);
+
+    @Mock
+    private CryptoPriceService cryptoPriceService;
+    @Mock
+    private ShardTransport shardTransport;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ShardCoordinator underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = coordinator(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void mergesTheTopOfEveryNode() {
+        //Given
+        given(cryptoPriceService.getCryptoRanking(eq(METRICS), any(), any(), any(), any()))
+                .willReturn(List.of(ranking("BTC", 5), ranking("ETH", 1)));
+        given(shardTransport.rank("b", query(3))).willReturn(List.of(ranking("XRP", 7), ranking("DOGE", 5), ranking("LTC", 4)));
+        given(shardTransport.rank("c", query(3))).willReturn(List.of(ranking("SOL", 6)));
+        //When
+        MergedRanking ranking = underTest.rank(METRICS, null, null, ZoneOffset.UTC, 3);
+        //Then
+        assertEquals(List.of("XRP", "SOL", "BTC"), symbols(ranking));
+        assertTrue(ranking.isComplete());
+        assertEquals(1, meterRegistry.get(ShardCoordinator.METER_NAME).tag("node", "b").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void tiesAreBrokenBySymbol() {
+        given(cryptoPriceService.getCryptoRanking(eq(METRICS), any(), any(), any(), any())).willReturn(List.of(ranking("ETH", 5)));
+        given(shardTransport.rank("b", query(2))).willReturn(List.of(ranking("DOGE", 5)));
+        given(shardTransport.rank("c", query(2))).willReturn(List.of(ranking("BTC", 5)));
+        //When
+        MergedRanking ranking = underTest.rank(METRICS, null, null, ZoneOffset.UTC, 2);
+        //Then
+        assertEquals(List.of("BTC", "DOGE"), symbols(ranking));
+    }
+
+    @Test
+    void unavailableNodeDegradesTheRanking() {
+        //Given
+        given(cryptoPriceService.getCryptoRanking(eq(METRICS), any(), any(), any(), any())).willReturn(List.of(ranking("BTC", 5)));
+        given(shardTransport.rank("b", query(10))).willThrow(new ShardUnavailableException("b", "not running"));
+        given(shardTransport.rank("c", query(10))).willReturn(List.of(ranking("SOL", 6)));
+        //When
+        MergedRanking ranking = underTest.rank(METRICS, null, null, ZoneOffset.UTC, 10);
+        //Then
+        assertEquals(List.of("SOL", "BTC"), symbols(ranking));
+        assertEquals(List.of("b"), ranking.unavailableNodes());
+        assertEquals(1, meterRegistry.get(ShardCoordinator.METER_NAME).tag("node", "b").tag("outcome", "unavailable").counter().count());
+    }
+
+    @Test
+    void slowNodeTimesOut() {
+        //Given
+        underTest = coordinator(Duration.ofMillis(100));
+        given(cryptoPriceService.getCryptoRanking(eq(METRICS), any(), any(), any(), any())).willReturn(List.of(ranking("BTC", 5)));
+        given(shardTransport.rank("b", query(10))).willReturn(List.of(ranking("XRP", 7)));
+        given(shardTransport.rank("c", query(10))).willAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return List.of(ranking("SOL", 6));
+        });
+        //When
+        MergedRanking ranking = underTest.rank(METRICS, null, null, ZoneOffset.UTC, 10);
+        //Then
+        assertEquals(List.of("XRP", "BTC"), symbols(ranking));
+        assertEquals(List.of("c"), ranking.unavailableNodes());
+    }
+
+    @Test
+    void ranksOnlyOwnSymbols() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        given(cryptoPriceService.getCryptoRanking(eq(METRICS), any(), any(), any(), any())).willAnswer(invocation -> {
+            Predicate<String> symbols = invocation.getArgument(4);
+            return List.of("BTC", "ETH", "XRP", "DOGE", "LTC", "SOL").stream()
+                    .filter(symbols)
+                    .map(symbol -> ranking(symbol, 1))
+                    .toList();
+        });
+        //When
+        List<CryptoRanking> ranking = underTest.rankOwnSymbols(query(10));
+        //Then
+        ranking.forEach(crypto -> assertEquals("a", ring.ownerOf(crypto.symbol()), crypto.symbol()));
+    }
+
+    @Test
+    void exposesTheNodeWhileRunning() {
+        underTest.start();
+        verify(shardTransport).expose("a", underTest);
+
+        underTest.stop();
+        verify(shardTransport).withdraw("a");
+    }
+
+    @Test
+    void nodeMustBeInTheCluster() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardCoordinator(
+                true, "d", NODES, 128, Duration.ofSeconds(2), cryptoPriceService, shardTransport, meterRegistry));
+    }
+
+    private ShardCoordinator coordinator(Duration timeout) {
+        return new ShardCoordinator(true, "a", NODES, 128, timeout, cryptoPriceService, shardTransport, meterRegistry);
+    }
+
+    private static PartialRankingQuery query(int limit) {
+        return new PartialRankingQuery(METRICS, null, null, ZoneOffset.UTC, limit);
+    }
+
+    private static CryptoRanking ranking(String symbol, long normalizedRange) {
+        return new CryptoRanking(symbol, METRICS, PriceMetrics.ofNormalizedRange(normalizedRange));
+    }
+
+    private static List<String> symbols(MergedRanking ranking) {
+        return ranking.rankings().stream().map(CryptoRanking::symbol).toList();
+    }
+}
@@ -0,0 +1,135 @@
+package com.xm.crypto_recommendation.shard;
+
+import com.xm.crypto_recommendation.CryptoRecommendationApplication;
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.service.CryptoPriceService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a cluster of three nodes, each its own application context, in one
+ * JVM over the {@link LocalShardTransport}.
+ *
+ * <p>
+ * Verifies:
+ * <ul>
+ *     <li>The merged ranking of the cluster equals the ranking of all symbols on one node</li>
+ *     <li>The top K are merged from the partial top K of each node</li>
+ *     <li>A stopped node leaves its symbols out instead of failing the ranking</li>
+ * </ul>
+ * </p>
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ShardedRankingIntegrationTest {
+
+    private static final List<String> NODES = List.of("a", "b", "c");
+    private static final List<String> SYMBOLS = List.of("ADA", "AVAX", "BTC", "DOGE", "DOT", "ETH", "LTC", "SOL", "XRP");
+    private static final List<RankingMetric> METRICS = List.of(RankingMetric.NORMALIZED_RANGE, RankingMetric.VOLATILITY);
+
+    @TempDir
+    static Path directory;
+
+    private static final Map<String, ConfigurableApplicationContext> contexts = new LinkedHashMap<>();
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        for (int i = 0; i < SYMBOLS.size(); i++) {
+            String symbol = SYMBOLS.get(i);
+            // Distinct normalized ranges, the last symbol first.
+            Files.writeString(directory.resolve(symbol + "_values.csv"), """
+                    timestamp,symbol,price
+                    1641009600000,%1$s,100
+                    1641013200000,%1$s,%2$d
+                    1641016800000,%1$s,101
+                    """.formatted(symbol, 110 + i));
+        }
+        for (String node : NODES) {
+            contexts.put(node, new SpringApplicationBuilder(CryptoRecommendationApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(
+                            "--shard.enabled=true",
+                            "--shard.cluster=sharded-ranking-test",
+                            "--shard.nodes=a,b,c",
+                            "--shard.node=" + node,
+                            "--datasource.write.jdbc-url=jdbc:h2:mem:shard-" + node,
+                            "--datasource.read.jdbc-url=jdbc:h2:mem:shard-" + node,
+                            "--ingestion.async=false",
+                            "--ingestion.directory=" + directory));
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        contexts.values().forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @Order(1)
+    void mergedRankingMatchesSingleNodeRanking() {
+        List<String> expected = singleNodeRanking();
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        NODES.forEach(node -> assertTrue(SYMBOLS.stream().anyMatch(symbol -> ring.ownerOf(symbol).equals(node)), node));
+
+        for (String node : NODES) {
+            MergedRanking complete = coordinator(node).rank(METRICS, null, null, ZoneOffset.UTC, Integer.MAX_VALUE);
+            MergedRanking top = coordinator(node).rank(METRICS, null, null, ZoneOffset.UTC, 4);
+
+            assertTrue(complete.isComplete());
+            assertEquals(expected, symbols(complete));
+            assertEquals(expected.subList(0, 4), symbols(top));
+        }
+    }
+
+    @Test
+    @Order(2)
+    void stoppedNodeDegradesTheRanking() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        List<String> expected = singleNodeRanking().stream()
+                .filter(symbol -> !ring.ownerOf(symbol).equals("c"))
+                .toList();
+
+        contexts.remove("c").close();
+        MergedRanking ranking = coordinator("a").rank(METRICS, null, null, ZoneOffset.UTC, Integer.MAX_VALUE);
+
+        assertFalse(ranking.isComplete());
+        assertEquals(List.of("c"), ranking.unavailableNodes());
+        assertEquals(expected, symbols(ranking));
+    }
+
+    private static List<String> singleNodeRanking() {
+        return contexts.get("a").getBean(CryptoPriceService.class).getCryptoRanking(METRICS, null, null, ZoneOffset.UTC)
+                .stream()
+                .sorted(CryptoRanking.RANKING_ORDER)
+                .map(CryptoRanking::symbol)
+                .toList();
+    }
+
+    private static ShardCoordinator coordinator(String node) {
+        return contexts.get(node).getBean(ShardCoordinator.class);
+    }
+
+    private static List<String> symbols(MergedRanking ranking) {
+        return ranking.rankings().stream().map(CryptoRanking::symbol).toList();
+    }
+}
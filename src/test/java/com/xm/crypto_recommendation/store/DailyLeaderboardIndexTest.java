@@ -0,0 +1,165 @@
+package com.xm.crypto_recommendation.store;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoRanking;
+import com.xm.crypto_recommendation.domain.dto.DailyLeaderboard;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DailyLeaderboardIndexTest {
+
+    private static final long START = 1641009600000L;
+    private static final long HOUR = 3_600_000L;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 1, 1);
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final ZoneId SINGAPORE = ZoneId.of("Asia/Singapore");
+
+    @Test
+    void leaderboardsMatchBruteForceRanking() {
+        DailyLeaderboardIndex underTest = new DailyLeaderboardIndex(3);
+        List<String> symbols = List.of("BTC", "DOGE", "ETH", "LTC", "XRP");
+        SplittableRandom random = new SplittableRandom(42);
+        Map<String, PriceSeries> histories = new TreeMap<>();
+        for (String symbol : symbols) {
+            PriceSeries history = new PriceSeries();
+            for (int i = 0; i < 24 * 10; i++) {
+                history.add(START + i * HOUR, random.nextLong(1, 1_000) * FixedPoint8.ONE);
+            }
+            histories.put(symbol, history);
+            // Appended in two batches: the first one is taken from the history.
+            underTest.append(symbol, slice(history, 0, 100), () -> slice(history, 0, 100));
+            underTest.append(symbol, slice(history, 100, history.size()), () -> history);
+        }
+
+        for (int day = 0; day < 11; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            List<String> expected = bruteForce(histories, date).stream().limit(3).toList();
+            List<String> actual = underTest.findLeaderboard(UTC, date)
+                    .map(leaderboard -> leaderboard.leaders().stream().map(CryptoRanking::symbol).toList())
+                    .orElse(List.of());
+            assertEquals(expected, actual, date.toString());
+        }
+        assertEquals(11, underTest.findLeaderboards(UTC, FIRST_DAY.minusDays(1), FIRST_DAY.plusDays(20)).size());
+        assertEquals(List.of(FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(3)),
+                List.copyOf(underTest.findLeaderboards(UTC, FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(3)).keySet()));
+    }
+
+    @Test
+    void appendReRanksOnlyTouchedDays() {
+        DailyLeaderboardIndex underTest = new DailyLeaderboardIndex(5);
+        PriceSeries btc = concat(series(0, 100, 110), series(24, 100, 200));
+        underTest.append("BTC", btc, () -> btc);
+        PriceSeries eth = series(0, 100, 150);
+        underTest.append("ETH", eth, () -> eth);
+        DailyLeaderboard secondDay = underTest.findLeaderboard(UTC, FIRST_DAY.plusDays(1)).orElseThrow();
+        assertEquals("ETH", underTest.findLeaderboard(UTC, FIRST_DAY).orElseThrow().winner().symbol());
+
+        // BTC widens its range of the first day only.
+        underTest.append("BTC", series(2, 300), () -> btc);
+
+        assertEquals("BTC", underTest.findLeaderboard(UTC, FIRST_DAY).orElseThrow().winner().symbol());
+        assertEquals(FixedPoint8.ONE * 2, underTest.findLeaderboard(UTC, FIRST_DAY).orElseThrow().winner().rankingValue());
+        assertSame(secondDay, underTest.findLeaderboard(UTC, FIRST_DAY.plusDays(1)).orElseThrow());
+    }
+
+    @Test
+    void tiesAreBrokenBySymbolAndZeroMinimumsAreExcluded() {
+        DailyLeaderboardIndex underTest = new DailyLeaderboardIndex(2);
+        for (String symbol : List.of("XRP", "ETH", "BTC")) {
+            PriceSeries ticks = series(0, 100, 150);
+            underTest.append(symbol, ticks, () -> ticks);
+        }
+        PriceSeries doge = series(0, 0, 150);
+        underTest.append("DOGE", doge, () -> doge);
+        PriceSeries ltc = series(48, 0, 1);
+        underTest.append("LTC", ltc, () -> ltc);
+
+        DailyLeaderboard leaderboard = underTest.findLeaderboard(UTC, FIRST_DAY).orElseThrow();
+        assertEquals(List.of("BTC", "ETH"), leaderboard.leaders().stream().map(CryptoRanking::symbol).toList());
+        assertEquals(List.of("BTC"), leaderboard.top(1).leaders().stream().map(CryptoRanking::symbol).toList());
+        assertTrue(underTest.findLeaderboard(UTC, FIRST_DAY.plusDays(2)).isEmpty());
+    }
+
+    @Test
+    void leaderboardsAreMaintainedPerZone() {
+        DailyLeaderboardIndex underTest = new DailyLeaderboardIndex(5, List.of(UTC, SINGAPORE));
+        // 04:00 and 18:00 UTC: the same UTC day, but 12:00 and 02:00 of consecutive days in Singapore.
+        PriceSeries btc = concat(series(0, 100), series(14, 200));
+        underTest.append("BTC", btc, () -> btc);
+
+        assertEquals(FixedPoint8.ONE, underTest.findLeaderboard(UTC, FIRST_DAY).orElseThrow().winner().rankingValue());
+        assertEquals(0, underTest.findLeaderboard(SINGAPORE, FIRST_DAY).orElseThrow().winner().rankingValue());
+        assertEquals(2, underTest.findLeaderboards(SINGAPORE, FIRST_DAY, FIRST_DAY.plusDays(1)).size());
+        assertTrue(underTest.maintains(ZoneId.of("Z")));
+        assertThrows(IllegalArgumentException.class, () -> underTest.findLeaderboard(ZoneId.of("Europe/Athens"), FIRST_DAY));
+    }
+
+    @Test
+    void topNMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new DailyLeaderboardIndex(0));
+    }
+
+    /**
+     * Ranks the symbols of a day by recomputing every normalized range from scratch.
+     */
+    private static List<String> bruteForce(Map<String, PriceSeries> histories, LocalDate date) {
+        Map<String, Long> ranges = new TreeMap<>();
+        histories.forEach((symbol, history) -> {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < history.size(); i++) {
+                if (LocalDate.ofEpochDay(Math.floorDiv(history.timestamp(i), 86_400_000L)).equals(date)) {
+                    min = Math.min(min, history.price(i));
+                    max = Math.max(max, history.price(i));
+                }
+            }
+            if (min != Long.MAX_VALUE && min != 0) {
+                ranges.put(symbol, FixedPoint8.normalizedRange(min, max));
+            }
+        });
+        return ranges.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Returns a series of prices one hour apart, starting the given number of hours after the first day's first tick.
+     */
+    private static PriceSeries series(int startHour, long... prices) {
+        PriceSeries series = new PriceSeries();
+        for (int i = 0; i < prices.length; i++) {
+            series.add(START + (startHour + i) * HOUR, prices[i] * FixedPoint8.ONE);
+        }
+        return series;
+    }
+
+    private static PriceSeries concat(PriceSeries first, PriceSeries second) {
+        PriceSeries series = slice(first, 0, first.size());
+        for (int i = 0; i < second.size(); i++) {
+            series.add(second.timestamp(i), second.price(i));
+        }
+        return series;
+    }
+
+    private static PriceSeries slice(PriceSeries ticks, int from, int to) {
+        PriceSeries slice = new PriceSeries();
+        for (int i = from; i < to; i++) {
+            slice.add(ticks.timestamp(i), ticks.price(i));
+        }
+        return slice;
+    }
+}
@@ -0,0 +1,73 @@
+package com.xm.crypto_recommendation.store;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures heap usage and full GC pause time while the price history grows,
+ * with ticks held in the {@link OffHeapPriceStore} versus on-heap
+ * {@link CryptoPricePoint} objects.
+ *
+ * <p>
+ * Not part of the test suite; run the {@code main} method manually with a
+ * fixed heap and room for native memory (e.g.
+ * {@code -Xmx1g -XX:MaxDirectMemorySize=2g}), optionally passing the largest tick count
+ * (default 100M; the on-heap baseline stops at 10M).
+ * </p>
+ */
+public final class OffHeapPriceStoreBenchmark {
+
+    private static final long START = 1641009600000L;
+    private static final long TICK = 3_600_000L;
+    private static final int BATCH = 1 << 20;
+    private static final int MAX_ON_HEAP_TICKS = 10_000_000;
+
+    private OffHeapPriceStoreBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        long maxTicks = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+
+        OffHeapPriceStore store = new OffHeapPriceStore(true, "", OffHeapPriceStore.DEFAULT_CHUNK_TICKS);
+        long loaded = 0;
+        for (long target = 1_000_000; target <= maxTicks; target *= 10) {
+            while (loaded < target) {
+                int count = (int) Math.min(BATCH, target - loaded);
+                PriceSeries batch = new PriceSeries(count);
+                for (int i = 0; i < count; i++, loaded++) {
+                    batch.add(START + loaded * TICK, price(loaded));
+                }
+                store.append("BTC", batch, PriceSeries::new);
+            }
+            report("off-heap", target);
+        }
+
+        List<CryptoPricePoint> onHeap = new ArrayList<>();
+        for (long target = 1_000_000; target <= Math.min(maxTicks, MAX_ON_HEAP_TICKS); target *= 10) {
+            while (onHeap.size() < target) {
+                long index = onHeap.size();
+                onHeap.add(new CryptoPricePoint(price(index), Instant.ofEpochMilli(START + index * TICK)));
+            }
+            report("on-heap objects", target);
+        }
+    }
+
+    private static long price(long index) {
+        return 4_000_000_000_000L + (index * 7_919) % 1_000_000_000L;
+    }
+
+    private static void report(String name, long ticks) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long start = System.nanoTime();
+        System.gc();
+        double pauseMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("%-16s %,12d ticks  heap used %,7d MiB  full GC %7.1f ms%n",
+                name, ticks, memory.getHeapMemoryUsage().getUsed() >> 20, pauseMillis);
+    }
+}
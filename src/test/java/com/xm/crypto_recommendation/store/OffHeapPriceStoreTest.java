@@ -0,0 +1,151 @@
+package com.xm.crypto_recommendation.store;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.PriceRangeStats;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapPriceStoreTest {
+
+    private static final String BTC = "BTC";
+    private static final long START = 1641009600000L;
+    private static final long HOUR = 3_600_000L;
+    private static final int CHUNK_TICKS = 16;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void rangeStatsMatchFullScanAcrossChunks() {
+        OffHeapPriceStore underTest = new OffHeapPriceStore(true, "", CHUNK_TICKS);
+        PriceSeries ticks = ticks(0, 500);
+        // Appended in several batches, so batches start in the middle of chunks.
+        for (int from = 0; from < ticks.size(); from += 37) {
+            underTest.append(BTC, slice(ticks, from, Math.min(from + 37, ticks.size())), () -> slice(ticks, 0, 37));
+        }
+
+        List<long[]> ranges = List.of(
+                new long[]{START, START + 499 * HOUR},
+                new long[]{START - HOUR, START + 1_000 * HOUR},
+                new long[]{START + 15 * HOUR, START + 16 * HOUR},
+                new long[]{START + 100 * HOUR + 1, START + 333 * HOUR - 1},
+                new long[]{START + 600 * HOUR, START + 700 * HOUR}
+        );
+        for (long[] range : ranges) {
+            assertEquals(bruteForce(ticks, range[0], range[1]),
+                    underTest.findRangeStats(BTC, Instant.ofEpochMilli(range[0]), Instant.ofEpochMilli(range[1])));
+        }
+        assertEquals(Optional.of(Instant.ofEpochMilli(START)), underTest.findMinTimestamp(BTC));
+        assertEquals(Optional.of(Instant.ofEpochMilli(START + 499 * HOUR)), underTest.findMaxTimestamp(BTC));
+    }
+
+    @Test
+    void outOfOrderTicksRebuildTheSeriesFromHistory() {
+        OffHeapPriceStore underTest = new OffHeapPriceStore(true, "", CHUNK_TICKS);
+        PriceSeries ticks = ticks(0, 100);
+        underTest.append(BTC, slice(ticks, 50, 100), () -> slice(ticks, 50, 100));
+
+        underTest.append(BTC, slice(ticks, 0, 50), () -> ticks);
+
+        long from = START;
+        long to = START + 99 * HOUR;
+        assertEquals(bruteForce(ticks, from, to), underTest.findRangeStats(BTC, Instant.ofEpochMilli(from), Instant.ofEpochMilli(to)));
+    }
+
+    @Test
+    void fileBackedSeriesSurviveRestarts() throws IOException {
+        PriceSeries ticks = ticks(0, 100);
+        OffHeapPriceStore first = new OffHeapPriceStore(true, directory, CHUNK_TICKS);
+        first.append(BTC, slice(ticks, 0, 40), () -> slice(ticks, 0, 40));
+        // Rebuild into a new generation, replacing the files of the first one.
+        first.append(BTC, slice(ticks, 0, 60), () -> slice(ticks, 0, 60));
+
+        OffHeapPriceStore second = new OffHeapPriceStore(true, directory, CHUNK_TICKS);
+        assertTrue(second.contains(BTC));
+        second.append(BTC, slice(ticks, 60, 100), () -> ticks);
+
+        long from = START;
+        long to = START + 99 * HOUR;
+        assertEquals(bruteForce(ticks, from, to), second.findRangeStats(BTC, Instant.ofEpochMilli(from), Instant.ofEpochMilli(to)));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.allMatch(file -> file.getFileName().toString().startsWith("BTC-1-")));
+        }
+    }
+
+    @Test
+    void reopenedSeriesKeepTheirChunkSize() {
+        PriceSeries ticks = ticks(0, 100);
+        OffHeapPriceStore first = new OffHeapPriceStore(true, directory, CHUNK_TICKS);
+        first.append(BTC, slice(ticks, 0, 60), () -> slice(ticks, 0, 60));
+
+        OffHeapPriceStore second = new OffHeapPriceStore(true, directory, 2 * CHUNK_TICKS);
+        second.append(BTC, slice(ticks, 60, 100), () -> ticks);
+
+        long from = START;
+        long to = START + 99 * HOUR;
+        assertEquals(bruteForce(ticks, from, to), second.findRangeStats(BTC, Instant.ofEpochMilli(from), Instant.ofEpochMilli(to)));
+    }
+
+    @Test
+    void disabledStoreHoldsNothing() {
+        OffHeapPriceStore underTest = new OffHeapPriceStore(false, "", 16);
+
+        underTest.append(BTC, ticks(0, 10), () -> ticks(0, 10));
+
+        assertFalse(underTest.contains(BTC));
+        assertEquals(Optional.empty(), underTest.findMinTimestamp(BTC));
+    }
+
+    private static PriceSeries ticks(int from, int to) {
+        SplittableRandom random = new SplittableRandom(11);
+        PriceSeries series = new PriceSeries();
+        for (int i = 0; i < to; i++) {
+            // Few distinct prices exercise the tie-breaking rules.
+            long price = random.nextLong(1, 8) * 100_000_000L;
+            if (i >= from) {
+                series.add(START + i * HOUR, price);
+            }
+        }
+        return series;
+    }
+
+    private static PriceSeries slice(PriceSeries series, int from, int to) {
+        PriceSeries slice = new PriceSeries();
+        for (int i = from; i < to; i++) {
+            slice.add(series.timestamp(i), series.price(i));
+        }
+        return slice;
+    }
+
+    private static Optional<PriceRangeStats> bruteForce(PriceSeries series, long from, long to) {
+        CryptoPricePoint oldest = null;
+        CryptoPricePoint newest = null;
+        CryptoPricePoint min = null;
+        CryptoPricePoint max = null;
+        for (int i = 0; i < series.size(); i++) {
+            if (series.timestamp(i) < from || series.timestamp(i) > to) {
+                continue;
+            }
+            CryptoPricePoint point = new CryptoPricePoint(series.price(i), Instant.ofEpochMilli(series.timestamp(i)));
+            oldest = oldest == null ? point : oldest;
+            newest = point;
+            min = min == null || point.price() < min.price() ? point : min;
+            max = max == null || point.price() >= max.price() ? point : max;
+        }
+        return oldest == null ? Optional.empty() : Optional.of(new PriceRangeStats(oldest, newest, min, max));
+    }
+}
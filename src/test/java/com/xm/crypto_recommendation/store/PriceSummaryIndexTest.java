@@ -0,0 +1,198 @@
+package com.xm.crypto_recommendation.store;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoSummary;
+import com.xm.crypto_recommendation.domain.price.FixedPoint8;
+import com.xm.crypto_recommendation.domain.price.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceSummaryIndexTest {
+
+    private static final String BTC = "BTC";
+    private static final long START = 1641009600000L;
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void summariesMatchExactComputation() {
+        PriceSummaryIndex underTest = new PriceSummaryIndex();
+        PriceSeries ticks = ticks(3_000);
+        // Appended in batches, so the arrays grow and batches continue the time weights.
+        for (int from = 0; from < ticks.size(); from += 700) {
+            underTest.append(BTC, slice(ticks, from, Math.min(from + 700, ticks.size())), () -> slice(ticks, 0, 700));
+        }
+
+        List<long[]> ranges = List.of(
+                new long[]{START, START + 2_999 * HOUR},
+                new long[]{START - HOUR, START + 10_000 * HOUR},
+                new long[]{START + 15 * HOUR, START + 15 * HOUR},
+                new long[]{START + 100 * HOUR + 1, START + 2_333 * HOUR - 1},
+                new long[]{START + 699 * HOUR, START + 701 * HOUR}
+        );
+        for (long[] range : ranges) {
+            CryptoSummary summary = underTest.findSummary(BTC, Instant.ofEpochMilli(range[0]), Instant.ofEpochMilli(range[1]))
+                    .orElseThrow();
+            CryptoSummary expected = exact(ticks, range[0], range[1]);
+
+            assertEquals(expected.oldest(), summary.oldest());
+            assertEquals(expected.newest(), summary.newest());
+            assertEquals(expected.count(), summary.count());
+            // Within a few fixed-point units of the exact decimal results.
+            assertEquals(expected.mean(), summary.mean(), 10);
+            assertEquals(expected.timeWeightedAverage(), summary.timeWeightedAverage(), 10);
+            assertEquals(expected.variance(), summary.variance(), Math.max(1e-7, expected.variance() * 1e-9));
+        }
+        assertEquals(Optional.empty(),
+                underTest.findSummary(BTC, Instant.ofEpochMilli(START + 5_000 * HOUR), Instant.ofEpochMilli(START + 6_000 * HOUR)));
+    }
+
+    @Test
+    void varianceStaysAccurateFarFromTheFirstPrice() {
+        PriceSummaryIndex underTest = new PriceSummaryIndex();
+        int count = 1_000_000;
+        SplittableRandom random = new SplittableRandom(42);
+        PriceSeries ticks = new PriceSeries(count);
+        // One tick at 1, then a million ticks within 0.5 of 100,000.
+        ticks.add(START, FixedPoint8.ONE);
+        for (int i = 1; i < count; i++) {
+            ticks.add(START + i * 1_000L, 100_000_00000000L + random.nextLong(-50_000_000L, 50_000_001L));
+        }
+        underTest.append(BTC, ticks, () -> ticks);
+
+        for (int first : new int[]{1, count / 2, count - 1_000}) {
+            long from = ticks.timestamp(first);
+            long to = ticks.timestamp(count - 1);
+            CryptoSummary summary = underTest.findSummary(BTC, Instant.ofEpochMilli(from), Instant.ofEpochMilli(to))
+                    .orElseThrow();
+
+            // Two-pass reference: the mean first, then the squared deviations from it.
+            MathContext context = MathContext.DECIMAL128;
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int i = first; i < count; i++) {
+                sum = sum.add(FixedPoint8.toBigDecimal(ticks.price(i)));
+            }
+            BigDecimal n = BigDecimal.valueOf(count - first);
+            BigDecimal mean = sum.divide(n, context);
+            BigDecimal squaredDeviations = BigDecimal.ZERO;
+            for (int i = first; i < count; i++) {
+                BigDecimal deviation = FixedPoint8.toBigDecimal(ticks.price(i)).subtract(mean);
+                squaredDeviations = squaredDeviations.add(deviation.multiply(deviation));
+            }
+            BigDecimal variance = squaredDeviations.divide(n.subtract(BigDecimal.ONE), context);
+
+            assertEquals(count - first, summary.count());
+            assertEquals(fixedPoint(mean), summary.mean(), 1);
+            assertEquals(variance.doubleValue(), summary.variance(), 1e-8);
+            assertEquals(fixedPoint(variance.sqrt(context)), summary.standardDeviation(), 1);
+        }
+    }
+
+    @Test
+    void outOfOrderTicksRebuildTheSeriesFromHistory() {
+        PriceSummaryIndex underTest = new PriceSummaryIndex();
+        PriceSeries ticks = ticks(100);
+        underTest.append(BTC, slice(ticks, 50, 100), () -> slice(ticks, 50, 100));
+
+        underTest.append(BTC, slice(ticks, 0, 50), () -> ticks);
+
+        CryptoSummary summary = underTest.findSummary(BTC, Instant.EPOCH, Instant.ofEpochMilli(Long.MAX_VALUE)).orElseThrow();
+        assertEquals(100, summary.count());
+        assertEquals(Instant.ofEpochMilli(START), summary.oldest());
+    }
+
+    @Test
+    void varianceOfHighPricesExceedsTheFixedPointRange() {
+        PriceSummaryIndex underTest = new PriceSummaryIndex();
+        PriceSeries ticks = new PriceSeries();
+        // Alternating between 10 and 90 billion: a variance of about 1.6e21.
+        for (int i = 0; i < 100; i++) {
+            ticks.add(START + i * HOUR, (i % 2 == 0 ? 10_000_000_000L : 90_000_000_000L) * FixedPoint8.ONE);
+        }
+        underTest.append(BTC, ticks, () -> ticks);
+
+        CryptoSummary summary = underTest.findSummary(BTC, Instant.EPOCH, Instant.ofEpochMilli(Long.MAX_VALUE)).orElseThrow();
+        CryptoSummary expected = exact(ticks, START, START + 99 * HOUR);
+
+        assertEquals(50_000_000_000L * FixedPoint8.ONE, summary.mean());
+        assertEquals(expected.variance(), summary.variance(), expected.variance() * 1e-12);
+        assertEquals(FixedPoint8.round(Math.sqrt(expected.variance())), summary.standardDeviation(), 1_000);
+    }
+
+    @Test
+    void singleTickHasNoVariance() {
+        PriceSummaryIndex underTest = new PriceSummaryIndex();
+        PriceSeries ticks = new PriceSeries();
+        ticks.add(START, 46813_21000000L);
+        underTest.append(BTC, ticks, () -> ticks);
+
+        CryptoSummary summary = underTest.findSummary(BTC, Instant.EPOCH, Instant.ofEpochMilli(Long.MAX_VALUE)).orElseThrow();
+
+        assertEquals(new CryptoSummary(BTC, Instant.ofEpochMilli(START), Instant.ofEpochMilli(START), 1,
+                46813_21000000L, 0, 0, 46813_21000000L), summary);
+        assertTrue(underTest.findSummary("ETH", Instant.EPOCH, Instant.ofEpochMilli(Long.MAX_VALUE)).isEmpty());
+    }
+
+    private static CryptoSummary exact(PriceSeries ticks, long from, long to) {
+        MathContext context = MathContext.DECIMAL128;
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal squareSum = BigDecimal.ZERO;
+        BigDecimal weighted = BigDecimal.ZERO;
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < ticks.size(); i++) {
+            if (ticks.timestamp(i) < from || ticks.timestamp(i) > to) {
+                continue;
+            }
+            BigDecimal price = FixedPoint8.toBigDecimal(ticks.price(i));
+            sum = sum.add(price);
+            squareSum = squareSum.add(price.multiply(price));
+            if (last >= 0) {
+                BigDecimal previous = FixedPoint8.toBigDecimal(ticks.price(last));
+                weighted = weighted.add(previous.multiply(BigDecimal.valueOf(ticks.timestamp(i) - ticks.timestamp(last))));
+            }
+            first = first < 0 ? i : first;
+            last = i;
+        }
+        long count = last - first + 1;
+        BigDecimal n = BigDecimal.valueOf(count);
+        BigDecimal mean = sum.divide(n, context);
+        BigDecimal variance = count < 2 ? BigDecimal.ZERO
+                : squareSum.subtract(sum.multiply(mean)).divide(BigDecimal.valueOf(count - 1), context);
+        long span = ticks.timestamp(last) - ticks.timestamp(first);
+        BigDecimal timeWeighted = span == 0 ? mean : weighted.divide(BigDecimal.valueOf(span), context);
+        return new CryptoSummary(BTC, Instant.ofEpochMilli(ticks.timestamp(first)), Instant.ofEpochMilli(ticks.timestamp(last)),
+                count, fixedPoint(mean), variance.doubleValue(), 0, fixedPoint(timeWeighted));
+    }
+
+    private static long fixedPoint(BigDecimal value) {
+        return FixedPoint8.of(value.setScale(FixedPoint8.SCALE, RoundingMode.HALF_UP));
+    }
+
+    private static PriceSeries ticks(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        PriceSeries ticks = new PriceSeries();
+        long price = 46_813_21000000L;
+        for (int i = 0; i < count; i++) {
+            price = Math.max(1, price + random.nextLong(-50_00000000L, 50_00000001L));
+            ticks.add(START + i * HOUR, price);
+        }
+        return ticks;
+    }
+
+    private static PriceSeries slice(PriceSeries ticks, int from, int to) {
+        PriceSeries slice = new PriceSeries();
+        for (int i = from; i < to; i++) {
+            slice.add(ticks.timestamp(i), ticks.price(i));
+        }
+        return slice;
+    }
+}
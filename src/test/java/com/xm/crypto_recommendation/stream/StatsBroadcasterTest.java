@@ -0,0 +1,221 @@
+package com.xm.crypto_recommendation.stream;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.exception.UnsupportedCryptoException;
+import com.xm.crypto_recommendation.ingestion.IngestionProgress;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
+import com.xm.crypto_recommendation.registry.DataVersionTracker;
+import com.xm.crypto_recommendation.service.CryptoPriceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class StatsBroadcasterTest {
+
+    private static final Instant START = Instant.parse("2022-01-01T00:00:00Z");
+
+    private final CryptoPriceService cryptoPriceService = mock(CryptoPriceService.class);
+    private final CryptoRegistry cryptoRegistry = new CryptoRegistry();
+    private final IngestionProgress ingestionProgress = new IngestionProgress();
+    private final DataVersionTracker dataVersionTracker = new DataVersionTracker(cryptoRegistry);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        cryptoRegistry.register(List.of(new Crypto("BTC")));
+    }
+
+    private StatsBroadcaster broadcaster(int queueCapacity) {
+        return new StatsBroadcaster(cryptoPriceService, cryptoRegistry, ingestionProgress, dataVersionTracker,
+                meterRegistry, queueCapacity, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Stats of prices 100 (oldest, min), {@code max} and {@code newest}, one hour apart.
+     */
+    private static CryptoStats stats(long max, long newest, int hours) {
+        return new CryptoStats("BTC",
+                point(100, 0),
+                point(newest, hours),
+                point(100, 0),
+                point(max, 1));
+    }
+
+    private static CryptoPricePoint point(long price, int hours) {
+        return new CryptoPricePoint(BigDecimal.valueOf(price), START.plus(Duration.ofHours(hours)));
+    }
+
+    private void ingest(CryptoStats stats) {
+        given(cryptoPriceService.getCryptoStats("BTC", null, null, ZoneOffset.UTC)).willReturn(stats);
+        dataVersionTracker.bump(List.of("BTC"));
+    }
+
+    @Test
+    void subscribersReceiveCurrentStatsThenChanges() throws InterruptedException {
+        //Given
+        BlockingQueue<CryptoStats> received = new LinkedBlockingQueue<>();
+        given(cryptoPriceService.getCryptoStats("BTC", null, null, ZoneOffset.UTC)).willReturn(stats(110, 105, 2));
+        StatsBroadcaster underTest = broadcaster(16);
+
+        //When
+        underTest.subscribe("btc", received::add);
+        ingest(stats(120, 115, 3));
+        // Only the oldest price changed.
+        ingest(new CryptoStats("BTC", point(90, -1), point(115, 3), point(100, 0), point(120, 1)));
+        ingest(stats(120, 116, 4));
+
+        //Then
+        assertEquals(stats(110, 105, 2), received.poll(5, TimeUnit.SECONDS));
+        assertEquals(stats(120, 115, 3), received.poll(5, TimeUnit.SECONDS));
+        assertEquals(stats(120, 116, 4), received.poll(5, TimeUnit.SECONDS));
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, underTest.subscribers());
+    }
+
+    @Test
+    void slowSubscribersDropTheOldestUpdates() throws InterruptedException {
+        //Given
+        given(cryptoPriceService.getCryptoStats("BTC", null, null, ZoneOffset.UTC)).willReturn(stats(110, 105, 2));
+        StatsBroadcaster underTest = broadcaster(2);
+        BlockingQueue<CryptoStats> received = new LinkedBlockingQueue<>();
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StatsBroadcaster.Subscription subscription = underTest.subscribe("BTC", stats -> {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            received.add(stats);
+        });
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        //When
+        for (int i = 1; i <= 5; i++) {
+            ingest(stats(110 + i, 105, 2));
+        }
+
+        //Then
+        assertEquals(2, subscription.queued());
+        assertEquals(3.0, meterRegistry.get("crypto.stats.stream.dropped").counter().count());
+        release.countDown();
+        assertEquals(stats(110, 105, 2), received.poll(5, TimeUnit.SECONDS));
+        assertEquals(stats(114, 105, 2), received.poll(5, TimeUnit.SECONDS));
+        assertEquals(stats(115, 105, 2), received.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failingSinksAreUnsubscribed() throws InterruptedException {
+        //Given
+        given(cryptoPriceService.getCryptoStats("BTC", null, null, ZoneOffset.UTC)).willReturn(stats(110, 105, 2));
+        StatsBroadcaster underTest = broadcaster(16);
+
+        //When
+        underTest.subscribe("BTC", stats -> {
+            throw new IOException("Broken pipe");
+        });
+
+        //Then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (underTest.subscribers() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, underTest.subscribers());
+        assertEquals(0.0, meterRegistry.get("crypto.stats.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void cancelledSubscriptionsReceiveNothing() throws InterruptedException {
+        //Given
+        given(cryptoPriceService.getCryptoStats("BTC", null, null, ZoneOffset.UTC)).willReturn(stats(110, 105, 2));
+        StatsBroadcaster underTest = broadcaster(16);
+        BlockingQueue<CryptoStats> received = new LinkedBlockingQueue<>();
+        StatsBroadcaster.Subscription subscription = underTest.subscribe("BTC", received::add);
+        assertEquals(stats(110, 105, 2), received.poll(5, TimeUnit.SECONDS));
+
+        //When
+        subscription.cancel();
+        ingest(stats(120, 115, 3));
+
+        //Then
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(0, underTest.subscribers());
+    }
+
+    @Test
+    void slowStatsQueriesDoNotBlockTheChannel() throws Exception {
+        //Given
+        given(cryptoPriceService.getCryptoStats("BTC", null, null, ZoneOffset.UTC)).willReturn(stats(110, 105, 2));
+        StatsBroadcaster underTest = broadcaster(16);
+        BlockingQueue<CryptoStats> received = new LinkedBlockingQueue<>();
+        StatsBroadcaster.Subscription subscription = underTest.subscribe("BTC", received::add);
+        assertEquals(stats(110, 105, 2), received.poll(5, TimeUnit.SECONDS));
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(cryptoPriceService.getCryptoStats("BTC", null, null, ZoneOffset.UTC)).willAnswer(invocation -> {
+            querying.countDown();
+            release.await();
+            return stats(120, 115, 3);
+        });
+        Thread publisher = Thread.ofVirtual().start(() -> dataVersionTracker.bump(List.of("BTC")));
+        assertTrue(querying.await(5, TimeUnit.SECONDS));
+
+        //When
+        Thread canceller = Thread.ofVirtual().start(subscription::cancel);
+
+        //Then
+        assertTrue(canceller.join(Duration.ofSeconds(5)));
+        assertEquals(0, underTest.subscribers());
+        release.countDown();
+        assertTrue(publisher.join(Duration.ofSeconds(5)));
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void symbolsBeingLoadedCanBeSubscribed() throws InterruptedException {
+        //Given
+        ingestionProgress.start(Map.of("ETH", 100L));
+        StatsBroadcaster underTest = broadcaster(16);
+        BlockingQueue<CryptoStats> received = new LinkedBlockingQueue<>();
+        CryptoStats loaded = new CryptoStats("ETH", point(1, 0), point(2, 1), point(1, 0), point(2, 1));
+
+        //When
+        underTest.subscribe("eth", received::add);
+        cryptoRegistry.register(List.of(new Crypto("ETH")));
+        given(cryptoPriceService.getCryptoStats("ETH", null, null, ZoneOffset.UTC)).willReturn(loaded);
+        dataVersionTracker.bump(List.of("ETH"));
+
+        //Then
+        assertEquals(loaded, received.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsUnsupportedSymbols() {
+        StatsBroadcaster underTest = broadcaster(16);
+
+        assertThrows(UnsupportedCryptoException.class, () -> underTest.subscribe("DOGE", stats -> { }));
+        assertEquals(0, underTest.subscribers());
+    }
+}
@@ -0,0 +1,104 @@
+package com.xm.crypto_recommendation.stream;
+
+import com.xm.crypto_recommendation.CryptoRecommendationApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Subscribes to a stats stream over HTTP while a CSV file is appended to.
+ *
+ * <p>
+ * Verifies:
+ * <ul>
+ *     <li>The current stats are sent on connect as a {@code stats} event</li>
+ *     <li>A new maximum ingested from the watched directory is pushed to the open stream</li>
+ *     <li>Unsupported symbols are rejected with 404</li>
+ * </ul>
+ * </p>
+ */
+class StatsStreamIntegrationTest {
+
+    @TempDir
+    static Path directory;
+
+    private static ConfigurableApplicationContext context;
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void start() throws IOException {
+        Files.writeString(directory.resolve("BTC_values.csv"), """
+                timestamp,symbol,price
+                1641009600000,BTC,46813.21
+                1641020400000,BTC,46979.61
+                """);
+        context = new SpringApplicationBuilder(CryptoRecommendationApplication.class).run(
+                "--server.port=0",
+                "--datasource.write.jdbc-url=jdbc:h2:mem:stats-stream",
+                "--datasource.read.jdbc-url=jdbc:h2:mem:stats-stream",
+                "--ingestion.async=false",
+                "--ingestion.directory=" + directory,
+                "--ingestion.watch.poll-interval=100ms");
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+        client.close();
+    }
+
+    private static URI uri(String path) {
+        return URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + path);
+    }
+
+    @Test
+    void newHighsArePushed() throws Exception {
+        BlockingQueue<String> data = new LinkedBlockingQueue<>();
+        HttpResponse<Stream<String>> response = client.send(
+                HttpRequest.newBuilder(uri("/api/cryptos/BTC/stats/stream")).header("Accept", "text/event-stream").build(),
+                HttpResponse.BodyHandlers.ofLines());
+        Thread.ofVirtual().start(() -> response.body()
+                .filter(line -> line.startsWith("data:"))
+                .forEach(line -> data.add(line.substring("data:".length()))));
+        assertEquals(200, response.statusCode());
+
+        String initial = data.poll(10, TimeUnit.SECONDS);
+        assertNotNull(initial);
+        assertTrue(initial.contains("46979.61"), initial);
+
+        Files.writeString(directory.resolve("BTC_values.csv"), "1641031200000,BTC,48000.5\n", StandardOpenOption.APPEND);
+
+        String update = data.poll(10, TimeUnit.SECONDS);
+        assertNotNull(update);
+        assertTrue(update.contains("48000.5"), update);
+    }
+
+    @Test
+    void unsupportedSymbolsAreRejected() throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri("/api/cryptos/DOGE/stats/stream")).header("Accept", "text/event-stream").build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(404, response.statusCode());
+    }
+}
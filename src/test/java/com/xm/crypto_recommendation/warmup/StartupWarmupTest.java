@@ -0,0 +1,114 @@
+package com.xm.crypto_recommendation.warmup;
+
+import com.xm.crypto_recommendation.domain.dto.CryptoPricePoint;
+import com.xm.crypto_recommendation.domain.dto.CryptoStats;
+import com.xm.crypto_recommendation.domain.dto.RankingMetric;
+import com.xm.crypto_recommendation.domain.entity.Crypto;
+import com.xm.crypto_recommendation.exception.NoDataException;
+import com.xm.crypto_recommendation.registry.CryptoRegistry;
+import com.xm.crypto_recommendation.service.CryptoPriceService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StartupWarmupTest {
+
+    private final CryptoPriceService cryptoPriceService = mock(CryptoPriceService.class);
+    private final CryptoRegistry cryptoRegistry = new CryptoRegistry();
+    private final AtomicLong uptime = new AtomicLong();
+
+    private StartupWarmup warmup(boolean enabled, int maxPasses) {
+        return new StartupWarmup(cryptoPriceService, cryptoRegistry, enabled, maxPasses, Duration.ofMinutes(1),
+                () -> uptime.addAndGet(1_000_000));
+    }
+
+    private static CryptoStats stats(String symbol) {
+        CryptoPricePoint oldest = new CryptoPricePoint(BigDecimal.ONE, Instant.parse("2022-01-01T00:00:00Z"));
+        CryptoPricePoint newest = new CryptoPricePoint(BigDecimal.TWO, Instant.parse("2022-01-31T20:00:00Z"));
+        return new CryptoStats(symbol, oldest, newest, oldest, newest);
+    }
+
+    @Test
+    void runsStatsAndRankingQueriesForEverySymbol() {
+        //Given
+        cryptoRegistry.register(List.of(new Crypto("BTC"), new Crypto("ETH")));
+        given(cryptoPriceService.getCryptoStats(eq("BTC"), any(), any(), any())).willReturn(stats("BTC"));
+        given(cryptoPriceService.getCryptoStats(eq("ETH"), any(), any(), any())).willReturn(stats("ETH"));
+        given(cryptoPriceService.getCryptoSummary(eq("ETH"), any(), any(), any())).willThrow(new NoDataException("ETH"));
+        StartupWarmup underTest = warmup(true, 3);
+
+        //When
+        underTest.run();
+
+        //Then
+        LocalDate first = LocalDate.of(2022, 1, 1);
+        LocalDate last = LocalDate.of(2022, 1, 31);
+        verify(cryptoPriceService, times(3)).getCryptoStats("BTC", null, null, ZoneOffset.UTC);
+        verify(cryptoPriceService, times(3)).getCryptoStats("ETH", last.minusDays(6), last, ZoneOffset.UTC);
+        verify(cryptoPriceService, times(3)).getCryptoSummary("ETH", null, null, ZoneOffset.UTC);
+        verify(cryptoPriceService, times(3)).getRollingNormalizedRange(
+                "BTC", Duration.ofDays(1), Duration.ofHours(12), last.minusDays(29), last, ZoneOffset.UTC);
+        verify(cryptoPriceService, times(3)).getCryptoRanking(List.of(RankingMetric.values()), null, null, ZoneOffset.UTC);
+        verify(cryptoPriceService, times(3)).getTopCryptoForDay(List.of(RankingMetric.NORMALIZED_RANGE), last, ZoneOffset.UTC);
+        verify(cryptoPriceService, times(3)).getDailyLeaderboards(first, last, 1, ZoneOffset.UTC);
+        assertEquals(StartupWarmup.State.COMPLETED, underTest.state());
+        assertEquals(3, underTest.report().passes());
+    }
+
+    @Test
+    void symbolsWithoutDataAreSkipped() {
+        //Given
+        cryptoRegistry.register(List.of(new Crypto("BTC")));
+        given(cryptoPriceService.getCryptoStats(eq("BTC"), any(), any(), any())).willThrow(new NoDataException("BTC"));
+        StartupWarmup underTest = warmup(true, 1);
+
+        //When
+        underTest.run();
+
+        //Then
+        verify(cryptoPriceService, never()).getCryptoSummary(any(), any(), any(), any());
+        verify(cryptoPriceService, never()).getCryptoRanking(any(), any(), any(), any());
+        assertEquals(StartupWarmup.State.COMPLETED, underTest.state());
+    }
+
+    @Test
+    void disabledWarmupIsNeverRun() {
+        StartupWarmup underTest = warmup(false, 1);
+
+        assertEquals(StartupWarmup.State.DISABLED, underTest.state());
+        assertNull(underTest.report());
+    }
+
+    @Test
+    void timeToFastEndsAtTheFirstPassCloseToTheFastest() {
+        //Given
+        List<Long> passes = List.of(900L, 300L, 150L, 110L, 100L, 120L);
+        List<Long> passEnds = List.of(1_000L, 1_300L, 1_450L, 1_560L, 1_660L, 1_780L);
+
+        //When
+        StartupWarmup.Report report = StartupWarmup.report(passes, passEnds, 1_680);
+
+        //Then
+        assertEquals(6, report.passes());
+        assertEquals(Duration.ofNanos(900), report.firstPass());
+        assertEquals(Duration.ofNanos(100), report.fastestPass());
+        assertEquals(Duration.ofNanos(1_450), report.timeToFast());
+        assertEquals(Duration.ofNanos(1_680), report.duration());
+    }
+}